@@ -0,0 +1,142 @@
+-- ============================================================================
+-- MIGRATION: Scheduler, worker and probe columns
+-- ============================================================================
+-- Brings a database created from an older database/schema.sql up to date with
+-- the current JPA mappings. Each section adds what one change introduced; run
+-- the sections your database is missing, in order.
+--
+-- MySQL has no ADD COLUMN IF NOT EXISTS: a section that was already applied
+-- (for example by Hibernate's ddl-auto: update) fails with "Duplicate column
+-- name" or "Duplicate key name" and can be skipped.
+-- ============================================================================
+
+USE `uptime_user_management`;
+
+-- ----------------------------------------------------------------------------
+-- Claiming due pings (SKIP LOCKED, database-side limit)
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD KEY `IX_ping_claim` (`in_progress`, `next_check_at`);
+
+-- ----------------------------------------------------------------------------
+-- Claim leases
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `claim_token` VARCHAR(36) DEFAULT NULL,
+  ADD COLUMN `lease_expires_at` DATETIME DEFAULT NULL,
+  ADD KEY `IX_ping_lease` (`in_progress`, `lease_expires_at`);
+
+-- ----------------------------------------------------------------------------
+-- Schedule partitioning across backend nodes
+-- ----------------------------------------------------------------------------
+CREATE TABLE IF NOT EXISTS `scheduler_node` (
+  `node_id` VARCHAR(64) NOT NULL,
+  `heartbeat_at` DATETIME NOT NULL,
+  `started_at` DATETIME NOT NULL,
+  PRIMARY KEY (`node_id`),
+  KEY `IX_scheduler_node_heartbeat_at` (`heartbeat_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- ----------------------------------------------------------------------------
+-- Probe coalescing
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `probe_key` VARCHAR(64) DEFAULT NULL,
+  ADD COLUMN `coalesced_into` INT UNSIGNED DEFAULT NULL,
+  ADD KEY `IX_ping_probe_key` (`probe_key`, `in_progress`, `next_check_at`),
+  ADD KEY `IX_ping_coalesced_into` (`coalesced_into`);
+
+-- ----------------------------------------------------------------------------
+-- Sub-minute frequencies
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `frequency_seconds` INT UNSIGNED DEFAULT NULL;
+
+UPDATE `ping`
+SET `frequency_seconds` = `frequency_minutes` * 60
+WHERE `frequency_seconds` IS NULL;
+
+ALTER TABLE `tier`
+  ADD COLUMN `min_frequency_seconds` INT UNSIGNED DEFAULT NULL;
+
+UPDATE `tier`
+SET `min_frequency_seconds` = CASE LOWER(`name`) WHEN 'free' THEN 60 ELSE 10 END
+WHERE LOWER(`name`) IN ('free', 'premium', 'enterprise')
+  AND `min_frequency_seconds` IS NULL;
+
+-- ----------------------------------------------------------------------------
+-- Overload priority tiers
+-- ----------------------------------------------------------------------------
+ALTER TABLE `tier`
+  ADD COLUMN `priority` TINYINT(1) NOT NULL DEFAULT 0;
+
+UPDATE `tier`
+SET `priority` = 1
+WHERE LOWER(`name`) IN ('premium', 'enterprise');
+
+-- ----------------------------------------------------------------------------
+-- Worker affinity
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `last_worker_id` VARCHAR(128) DEFAULT NULL;
+
+-- ----------------------------------------------------------------------------
+-- Shard leases
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `shard_worker_id` VARCHAR(128) DEFAULT NULL,
+  ADD KEY `IX_ping_shard` (`claim_token`, `shard_worker_id`);
+
+-- ----------------------------------------------------------------------------
+-- Probe phase timings
+-- ----------------------------------------------------------------------------
+ALTER TABLE `check_result`
+  ADD COLUMN `dns_ms` DECIMAL(10,2) DEFAULT NULL,
+  ADD COLUMN `connect_ms` DECIMAL(10,2) DEFAULT NULL,
+  ADD COLUMN `tls_ms` DECIMAL(10,2) DEFAULT NULL,
+  ADD COLUMN `ttfb_ms` DECIMAL(10,2) DEFAULT NULL,
+  ADD COLUMN `transfer_ms` DECIMAL(10,2) DEFAULT NULL;
+
+-- ----------------------------------------------------------------------------
+-- Probe DNS cache
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `measure_dns` TINYINT(1) NOT NULL DEFAULT 0;
+
+-- ----------------------------------------------------------------------------
+-- Connection mode
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `connection_mode` VARCHAR(16) NOT NULL DEFAULT 'FRESH';
+
+-- ----------------------------------------------------------------------------
+-- Probe modes and body cap
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `probe_mode` VARCHAR(16) NOT NULL DEFAULT 'GET',
+  ADD COLUMN `max_body_bytes` BIGINT UNSIGNED DEFAULT NULL,
+  ADD COLUMN `last_etag` VARCHAR(512) DEFAULT NULL;
+
+ALTER TABLE `check_result`
+  ADD COLUMN `bytes_transferred` BIGINT UNSIGNED DEFAULT NULL;
+
+-- ----------------------------------------------------------------------------
+-- Body assertions
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `assertion_mode` VARCHAR(16) DEFAULT NULL,
+  ADD COLUMN `assertion_pattern` VARCHAR(1024) DEFAULT NULL;
+
+ALTER TABLE `check_result`
+  ADD COLUMN `assertion_passed` TINYINT(1) DEFAULT NULL;
+
+-- ----------------------------------------------------------------------------
+-- Content tracking
+-- ----------------------------------------------------------------------------
+ALTER TABLE `ping`
+  ADD COLUMN `track_content` TINYINT(1) NOT NULL DEFAULT 0,
+  ADD COLUMN `last_body_digest` VARCHAR(64) DEFAULT NULL;
+
+ALTER TABLE `check_result`
+  ADD COLUMN `body_digest` VARCHAR(64) DEFAULT NULL,
+  ADD COLUMN `content_changed` TINYINT(1) DEFAULT NULL;
@@ -78,23 +78,93 @@ FROM users u
 JOIN roles r ON r.name = 'admin'
 WHERE u.email = 'zookeeper@invoken.com';
 
+-- Tiers set per-user limits; min_frequency_seconds NULL means
+-- app.scheduler.default-min-frequency-seconds. Pings of users on a priority
+-- tier are never stretched or shed under overload
+CREATE TABLE IF NOT EXISTS `tier` (
+  `id` INT UNSIGNED NOT NULL AUTO_INCREMENT,
+  `name` VARCHAR(100) NOT NULL,
+  `min_frequency_seconds` INT UNSIGNED DEFAULT NULL,
+  `priority` TINYINT(1) NOT NULL DEFAULT 0,
+  `created_at` DATETIME DEFAULT NULL,
+  `deleted_at` DATETIME DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `UQ_tier_name` (`name`),
+  KEY `IX_tier_deleted_at` (`deleted_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS `user_tier` (
+  `user_id` INT UNSIGNED NOT NULL,
+  `tier_id` INT UNSIGNED NOT NULL,
+  PRIMARY KEY (`user_id`, `tier_id`),
+  KEY `IX_user_tier_tier_id` (`tier_id`),
+  CONSTRAINT `FK_user_tier_user_id`
+    FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
+    ON DELETE CASCADE,
+  CONSTRAINT `FK_user_tier_tier_id`
+    FOREIGN KEY (`tier_id`) REFERENCES `tier` (`id`)
+    ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 CREATE TABLE IF NOT EXISTS `ping` (
   `id` INT UNSIGNED NOT NULL AUTO_INCREMENT,
   `user_id` INT UNSIGNED NOT NULL,
   `label` VARCHAR(190) DEFAULT NULL,
   `url` VARCHAR(255) NOT NULL,
+  -- frequency_seconds is the period; frequency_minutes follows it, rounded up, for older clients
   `frequency_minutes` INT UNSIGNED NOT NULL DEFAULT 5,
+  `frequency_seconds` INT UNSIGNED DEFAULT NULL,
   `next_check_at` DATETIME DEFAULT NULL,
   `in_progress` TINYINT(1) NOT NULL DEFAULT 0,
+  -- Claim of the worker holding the ping and when it lapses
+  `claim_token` VARCHAR(36) DEFAULT NULL,
+  `lease_expires_at` DATETIME DEFAULT NULL,
+  -- Pings with the same probe key share one probe; followers point at their leader
+  `probe_key` VARCHAR(64) DEFAULT NULL,
+  `coalesced_into` INT UNSIGNED DEFAULT NULL,
+  -- Worker that checked the ping last, preferred for its next claim
+  `last_worker_id` VARCHAR(128) DEFAULT NULL,
+  -- Worker whose shard lease holds the ping (claim_token is then the lease ID)
+  `shard_worker_id` VARCHAR(128) DEFAULT NULL,
+  -- Skip the probe DNS cache so dns_ms is a real lookup
+  `measure_dns` TINYINT(1) NOT NULL DEFAULT 0,
+  -- FRESH or POOLED (keep-alive) connections
+  `connection_mode` VARCHAR(16) NOT NULL DEFAULT 'FRESH',
+  -- GET, HEAD, RANGE or CONDITIONAL; body cap in bytes (NULL: app.probe.max-body-bytes)
+  `probe_mode` VARCHAR(16) NOT NULL DEFAULT 'GET',
+  `max_body_bytes` BIGINT UNSIGNED DEFAULT NULL,
+  -- ETag of the last response, sent as If-None-Match by CONDITIONAL probes
+  `last_etag` VARCHAR(512) DEFAULT NULL,
+  -- Body assertion: CONTAINS, NOT_CONTAINS, MATCHES or NOT_MATCHES the pattern
+  `assertion_mode` VARCHAR(16) DEFAULT NULL,
+  `assertion_pattern` VARCHAR(1024) DEFAULT NULL,
+  -- SHA-256 of the last body, the baseline for content_changed
+  `track_content` TINYINT(1) NOT NULL DEFAULT 0,
+  `last_body_digest` VARCHAR(64) DEFAULT NULL,
   `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
   `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
   PRIMARY KEY (`id`),
   UNIQUE KEY `uniq_user_url` (`user_id`, `url`),
+  -- Claims scan idle pings in next_check_at order
+  KEY `IX_ping_claim` (`in_progress`, `next_check_at`),
+  KEY `IX_ping_lease` (`in_progress`, `lease_expires_at`),
+  KEY `IX_ping_probe_key` (`probe_key`, `in_progress`, `next_check_at`),
+  KEY `IX_ping_coalesced_into` (`coalesced_into`),
+  KEY `IX_ping_shard` (`claim_token`, `shard_worker_id`),
   CONSTRAINT `FK_ping_user_id`
     FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
     ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Backend nodes sharing the schedule; a node whose heartbeat lapses drops out of the ring
+CREATE TABLE IF NOT EXISTS `scheduler_node` (
+  `node_id` VARCHAR(64) NOT NULL,
+  `heartbeat_at` DATETIME NOT NULL,
+  `started_at` DATETIME NOT NULL,
+  PRIMARY KEY (`node_id`),
+  KEY `IX_scheduler_node_heartbeat_at` (`heartbeat_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 CREATE TABLE IF NOT EXISTS `check_result` (
   `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
   `ping_id` INT UNSIGNED NOT NULL,
@@ -102,6 +172,16 @@ CREATE TABLE IF NOT EXISTS `check_result` (
   `error_message` TEXT DEFAULT NULL,
   `response_time_ms` DECIMAL(10,2) DEFAULT NULL,
   `checked_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  -- Probe phases in ms; NULL where the prober did not report them
+  `dns_ms` DECIMAL(10,2) DEFAULT NULL,
+  `connect_ms` DECIMAL(10,2) DEFAULT NULL,
+  `tls_ms` DECIMAL(10,2) DEFAULT NULL,
+  `ttfb_ms` DECIMAL(10,2) DEFAULT NULL,
+  `transfer_ms` DECIMAL(10,2) DEFAULT NULL,
+  `bytes_transferred` BIGINT UNSIGNED DEFAULT NULL,
+  `assertion_passed` TINYINT(1) DEFAULT NULL,
+  `body_digest` VARCHAR(64) DEFAULT NULL,
+  `content_changed` TINYINT(1) DEFAULT NULL,
   PRIMARY KEY (`id`),
   KEY `idx_check_results_url` (`ping_id`, `checked_at`),
   CONSTRAINT `FK_check_result_ping_id`
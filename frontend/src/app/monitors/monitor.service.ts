@@ -1,6 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, last, map } from 'rxjs/operators';
 
 export interface CheckResult {
   id: number;
@@ -8,6 +9,27 @@ export interface CheckResult {
   errorMessage?: string;
   responseTimeMs?: number;
   checkedAt: string;
+  /** Phase timings in ms, where the prober reported them. */
+  dnsMs?: number;
+  connectMs?: number;
+  tlsMs?: number;
+  ttfbMs?: number;
+  transferMs?: number;
+  bytesTransferred?: number;
+  assertionPassed?: boolean;
+  bodyDigest?: string;
+  contentChanged?: boolean;
+}
+
+/**
+ * A submitted manual check; polled by handle until DONE or FAILED.
+ */
+export interface ManualCheck {
+  handle: string;
+  pingId: number;
+  status: 'QUEUED' | 'RUNNING' | 'DONE' | 'FAILED';
+  result?: CheckResult;
+  error?: string;
 }
 
 export interface Ping {
@@ -15,7 +37,9 @@ export interface Ping {
   ownerId?: number;
   label?: string;
   url: string;
+  /** Rounded up to whole minutes for older clients; frequencySeconds is the actual period. */
   frequencyMinutes: number;
+  frequencySeconds?: number;
   nextCheckAt?: string;
   inProgress: boolean;
   createdAt: string;
@@ -26,7 +50,8 @@ export interface Ping {
 export interface PingPayload {
   url: string;
   label?: string;
-  frequencyMinutes: number;
+  frequencyMinutes?: number;
+  frequencySeconds?: number;
 }
 
 @Injectable({ providedIn: 'root' })
@@ -52,7 +77,22 @@ export class PingService {
   }
 
   execute(id: number): Observable<CheckResult> {
-    return this.http.post<CheckResult>('/api/checks/execute', { pingId: id });
+    return this.http.post<ManualCheck>('/api/checks/execute', { pingId: id }).pipe(
+      expand(check => this.isFinished(check)
+        ? EMPTY
+        : this.http.get<ManualCheck>(`/api/checks/execute/${check.handle}?wait=25`)),
+      last(),
+      map(check => {
+        if (check.status === 'FAILED' || !check.result) {
+          throw { error: { error: check.error ?? 'Check failed.' } };
+        }
+        return check.result;
+      })
+    );
+  }
+
+  private isFinished(check: ManualCheck): boolean {
+    return check.status === 'DONE' || check.status === 'FAILED';
   }
 }
 
@@ -20,7 +20,7 @@ export class MonitorsComponent implements OnInit {
   readonly form = this.fb.group({
     url: ['', [Validators.required]],
     label: [''],
-    frequencyMinutes: [5, [Validators.required, Validators.min(1), Validators.max(1440)]]
+    frequencySeconds: [300, [Validators.required, Validators.min(1), Validators.max(86400)]]
   });
 
   constructor(
@@ -63,7 +63,7 @@ export class MonitorsComponent implements OnInit {
     this.form.patchValue({
       url: monitor.url ?? '',
       label: monitor.label ?? '',
-      frequencyMinutes: monitor.frequencyMinutes ?? 5
+      frequencySeconds: this.periodSeconds(monitor)
     });
     this.openModal();
   }
@@ -80,7 +80,7 @@ export class MonitorsComponent implements OnInit {
     this.form.reset({
       url: '',
       label: '',
-      frequencyMinutes: 5
+      frequencySeconds: 300
     });
   }
 
@@ -93,7 +93,7 @@ export class MonitorsComponent implements OnInit {
     const payload = {
       url: formValue.url ?? '',
       label: formValue.label ?? undefined,
-      frequencyMinutes: formValue.frequencyMinutes ?? 5
+      frequencySeconds: formValue.frequencySeconds ?? 300
     };
     const request = this.selectedMonitor
       ? this.pingService.update(this.selectedMonitor.id, payload)
@@ -155,10 +155,9 @@ export class MonitorsComponent implements OnInit {
       }
       const updatedResults = [result, ...ping.recentResults].slice(0, 10);
       
-      // Calculate next check time: checkedAt + frequencyMinutes
+      // Calculate next check time: checkedAt + period
       const checkedAt = new Date(result.checkedAt);
-      const frequencyMinutes = ping.frequencyMinutes || 5;
-      const nextCheckAt = new Date(checkedAt.getTime() + frequencyMinutes * 60 * 1000);
+      const nextCheckAt = new Date(checkedAt.getTime() + this.periodSeconds(ping) * 1000);
       
       return {
         ...ping,
@@ -169,6 +168,16 @@ export class MonitorsComponent implements OnInit {
     });
   }
 
+  formatFrequency(ping: Ping): string {
+    const seconds = this.periodSeconds(ping);
+    return seconds % 60 === 0 ? `${seconds / 60} min` : `${seconds} s`;
+  }
+
+  /** The check period; frequencySeconds when the server sent it, else the whole minutes. */
+  private periodSeconds(ping: Ping): number {
+    return ping.frequencySeconds ?? (ping.frequencyMinutes || 5) * 60;
+  }
+
   private upsertPing(ping: Ping): void {
     const index = this.monitors.findIndex(m => m.id === ping.id);
     if (index > -1) {
@@ -131,16 +131,21 @@ public class DataSeeder implements CommandLineRunner {
         if (tierRepository.count() == 0) {
             Tier freeTier = new Tier();
             freeTier.setName("free");
+            freeTier.setMinFrequencySeconds(60);
             freeTier.setCreatedAt(Instant.now());
             tierRepository.save(freeTier);
 
             Tier premiumTier = new Tier();
             premiumTier.setName("premium");
+            premiumTier.setMinFrequencySeconds(10);
+            premiumTier.setPriority(true);
             premiumTier.setCreatedAt(Instant.now());
             tierRepository.save(premiumTier);
 
             Tier enterpriseTier = new Tier();
             enterpriseTier.setName("enterprise");
+            enterpriseTier.setMinFrequencySeconds(10);
+            enterpriseTier.setPriority(true);
             enterpriseTier.setCreatedAt(Instant.now());
             tierRepository.save(enterpriseTier);
         }
@@ -0,0 +1,49 @@
+package com.isofuture.uptime.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * EmbeddedWorkerProperties - Settings for the worker built into the backend (app.embedded-worker.*, see EmbeddedWorker).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.embedded-worker")
+public class EmbeddedWorkerProperties {
+
+    /**
+     * Check due pings inside the backend instead of (or alongside) separate worker processes.
+     */
+    private boolean enabled = false;
+    /**
+     * Checks the embedded worker has in flight at most; each runs on the probe engine.
+     */
+    private int capacity = 500;
+    /**
+     * Worker ID used for affinity; defaults to "embedded@" plus the scheduler node ID.
+     */
+    private String workerId;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public String getWorkerId() {
+        return workerId;
+    }
+
+    public void setWorkerId(String workerId) {
+        this.workerId = workerId;
+    }
+}
@@ -0,0 +1,88 @@
+package com.isofuture.uptime.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * ManualCheckProperties - Settings for user-initiated "check now" requests (app.manual-checks.*).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.manual-checks")
+public class ManualCheckProperties {
+
+    /**
+     * Threads running manual checks (a connection is only held while claiming and committing,
+     * not during the probe). 0 runs checks on the submitting thread.
+     */
+    private int threads = 4;
+    /**
+     * Manual checks waiting for a thread before new ones are turned away with 429.
+     */
+    private int queueCapacity = 100;
+    /**
+     * Manual checks one user may have queued or running at a time.
+     */
+    private int maxPerUser = 3;
+    /**
+     * Longest a poll for a manual check's result may be held open.
+     */
+    private Duration maxWait = Duration.ofSeconds(30);
+    /**
+     * How long a finished manual check can still be polled.
+     */
+    private Duration retention = Duration.ofMinutes(5);
+    /**
+     * Retry-After sent with 429 answers.
+     */
+    private Duration retryAfter = Duration.ofSeconds(2);
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxPerUser() {
+        return maxPerUser;
+    }
+
+    public void setMaxPerUser(int maxPerUser) {
+        this.maxPerUser = maxPerUser;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
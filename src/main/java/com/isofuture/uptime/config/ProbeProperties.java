@@ -0,0 +1,183 @@
+package com.isofuture.uptime.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * ProbeProperties - Settings for checks the backend probes itself (app.probe.*, see ProbeEngine).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.probe")
+public class ProbeProperties {
+
+    /**
+     * Probes in flight at once across the node; further probes wait for a slot.
+     */
+    private int maxConcurrent = 10000;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    /**
+     * Default time allowed for a target to answer, when the caller does not give its own.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(15);
+    /**
+     * Longest a probe waits for a slot before it fails without being sent.
+     */
+    private Duration queueTimeout = Duration.ofSeconds(30);
+    /**
+     * Body bytes a probe reads before it drops the connection, unless the ping sets its own.
+     */
+    private long maxBodyBytes = 10L * 1024 * 1024;
+    private final Dns dns = new Dns();
+    private final Pool pool = new Pool();
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    public void setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    public Duration getQueueTimeout() {
+        return queueTimeout;
+    }
+
+    public void setQueueTimeout(Duration queueTimeout) {
+        this.queueTimeout = queueTimeout;
+    }
+
+    public long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public Dns getDns() {
+        return dns;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public static class Dns {
+
+        /**
+         * Cache host lookups of probes (see DnsCache); when false every probe resolves.
+         */
+        private boolean enabled = true;
+        /**
+         * How long a successful lookup is reused.
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+        /**
+         * How long a failed lookup (unknown host) is reused.
+         */
+        private Duration negativeTtl = Duration.ofSeconds(10);
+        /**
+         * Fraction of the TTL after which a used entry is refreshed in the background.
+         */
+        private double refreshAhead = 0.8;
+        private int maxEntries = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getNegativeTtl() {
+            return negativeTtl;
+        }
+
+        public void setNegativeTtl(Duration negativeTtl) {
+            this.negativeTtl = negativeTtl;
+        }
+
+        public double getRefreshAhead() {
+            return refreshAhead;
+        }
+
+        public void setRefreshAhead(double refreshAhead) {
+            this.refreshAhead = refreshAhead;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class Pool {
+
+        /**
+         * Idle keep-alive connections kept per host (scheme, host and port) for pooled pings.
+         */
+        private int maxIdlePerHost = 2;
+        /**
+         * Idle connections kept across all hosts; bounds the pool's file descriptors.
+         */
+        private int maxIdle = 10000;
+        /**
+         * How long an idle connection is kept; below common server keep-alive timeouts.
+         */
+        private Duration idleTimeout = Duration.ofSeconds(15);
+
+        public int getMaxIdlePerHost() {
+            return maxIdlePerHost;
+        }
+
+        public void setMaxIdlePerHost(int maxIdlePerHost) {
+            this.maxIdlePerHost = maxIdlePerHost;
+        }
+
+        public int getMaxIdle() {
+            return maxIdle;
+        }
+
+        public void setMaxIdle(int maxIdle) {
+            this.maxIdle = maxIdle;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+    }
+}
@@ -0,0 +1,809 @@
+package com.isofuture.uptime.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * SchedulerProperties - Settings for how due pings are found and handed out (app.scheduler.*).
+ */
+@Component
+@ConfigurationProperties(prefix = "app.scheduler")
+public class SchedulerProperties {
+
+    /**
+     * DATABASE: every claim queries the ping table for due rows.
+     * TIMING_WHEEL: due ping IDs are served from an in-memory timing wheel loaded at startup;
+     * the database stays the source of truth and is only hit by primary-key claims.
+     */
+    public enum Mode {
+        DATABASE,
+        TIMING_WHEEL
+    }
+
+    private Mode mode = Mode.DATABASE;
+    /**
+     * Moves every idle ping onto its hashed slot once at startup (see ScheduleRebalancer).
+     */
+    private boolean rebalanceOnStartup = false;
+    private int rebalanceBatchSize = 1000;
+    /**
+     * Shortest ping frequency for owners without a tier that sets min_frequency_seconds.
+     */
+    private int defaultMinFrequencySeconds = 60;
+    private final Wheel wheel = new Wheel();
+    private final Lease lease = new Lease();
+    private final Partition partition = new Partition();
+    private final LongPoll longPoll = new LongPoll();
+    private final Batch batch = new Batch();
+    private final Politeness politeness = new Politeness();
+    private final Coalescing coalescing = new Coalescing();
+    private final Overload overload = new Overload();
+    private final CatchUp catchUp = new CatchUp();
+    private final Affinity affinity = new Affinity();
+    private final Shard shard = new Shard();
+    private final WebSocket websocket = new WebSocket();
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public boolean isRebalanceOnStartup() {
+        return rebalanceOnStartup;
+    }
+
+    public void setRebalanceOnStartup(boolean rebalanceOnStartup) {
+        this.rebalanceOnStartup = rebalanceOnStartup;
+    }
+
+    public int getRebalanceBatchSize() {
+        return rebalanceBatchSize;
+    }
+
+    public void setRebalanceBatchSize(int rebalanceBatchSize) {
+        this.rebalanceBatchSize = rebalanceBatchSize;
+    }
+
+    public int getDefaultMinFrequencySeconds() {
+        return defaultMinFrequencySeconds;
+    }
+
+    public void setDefaultMinFrequencySeconds(int defaultMinFrequencySeconds) {
+        this.defaultMinFrequencySeconds = defaultMinFrequencySeconds;
+    }
+
+    public Wheel getWheel() {
+        return wheel;
+    }
+
+    public Lease getLease() {
+        return lease;
+    }
+
+    public Partition getPartition() {
+        return partition;
+    }
+
+    public LongPoll getLongPoll() {
+        return longPoll;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Politeness getPoliteness() {
+        return politeness;
+    }
+
+    public Coalescing getCoalescing() {
+        return coalescing;
+    }
+
+    public Overload getOverload() {
+        return overload;
+    }
+
+    public CatchUp getCatchUp() {
+        return catchUp;
+    }
+
+    public Affinity getAffinity() {
+        return affinity;
+    }
+
+    public Shard getShard() {
+        return shard;
+    }
+
+    public WebSocket getWebsocket() {
+        return websocket;
+    }
+
+    public static class Wheel {
+
+        private long tickMillis = 1000;
+        private int size = 60;
+        private int loadBatchSize = 10000;
+        /**
+         * How often schedules changed by other nodes (or other code paths) are re-read into the wheel.
+         */
+        private long syncIntervalMillis = 5000;
+
+        public long getTickMillis() {
+            return tickMillis;
+        }
+
+        public void setTickMillis(long tickMillis) {
+            this.tickMillis = tickMillis;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getLoadBatchSize() {
+            return loadBatchSize;
+        }
+
+        public void setLoadBatchSize(int loadBatchSize) {
+            this.loadBatchSize = loadBatchSize;
+        }
+
+        public long getSyncIntervalMillis() {
+            return syncIntervalMillis;
+        }
+
+        public void setSyncIntervalMillis(long syncIntervalMillis) {
+            this.syncIntervalMillis = syncIntervalMillis;
+        }
+    }
+
+    public static class Lease {
+
+        /**
+         * How long a worker owns a claimed ping before the reaper puts it back in the schedule.
+         */
+        private Duration duration = Duration.ofMinutes(5);
+        private long reaperIntervalMillis = 30000;
+        private int reaperBatchSize = 500;
+        private int reaperMaxBatches = 20;
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public void setDuration(Duration duration) {
+            this.duration = duration;
+        }
+
+        public long getReaperIntervalMillis() {
+            return reaperIntervalMillis;
+        }
+
+        public void setReaperIntervalMillis(long reaperIntervalMillis) {
+            this.reaperIntervalMillis = reaperIntervalMillis;
+        }
+
+        public int getReaperBatchSize() {
+            return reaperBatchSize;
+        }
+
+        public void setReaperBatchSize(int reaperBatchSize) {
+            this.reaperBatchSize = reaperBatchSize;
+        }
+
+        public int getReaperMaxBatches() {
+            return reaperMaxBatches;
+        }
+
+        public void setReaperMaxBatches(int reaperMaxBatches) {
+            this.reaperMaxBatches = reaperMaxBatches;
+        }
+    }
+
+    public static class Partition {
+
+        /**
+         * Split the schedule across live backend nodes; when false every node claims from the whole table.
+         */
+        private boolean enabled = false;
+        /**
+         * Node name in the scheduler_node table; blank means host name plus a random suffix.
+         */
+        private String nodeId = "";
+        /**
+         * Ping IDs map to {@code id % slots}; slots are assigned to nodes by consistent hashing.
+         */
+        private int slots = 1024;
+        private int virtualNodes = 64;
+        private long heartbeatIntervalMillis = 5000;
+        /**
+         * A node whose last heartbeat is older than this is considered gone and its slots move.
+         */
+        private Duration nodeTtl = Duration.ofSeconds(20);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public void setSlots(int slots) {
+            this.slots = slots;
+        }
+
+        public int getVirtualNodes() {
+            return virtualNodes;
+        }
+
+        public void setVirtualNodes(int virtualNodes) {
+            this.virtualNodes = virtualNodes;
+        }
+
+        public long getHeartbeatIntervalMillis() {
+            return heartbeatIntervalMillis;
+        }
+
+        public void setHeartbeatIntervalMillis(long heartbeatIntervalMillis) {
+            this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        }
+
+        public Duration getNodeTtl() {
+            return nodeTtl;
+        }
+
+        public void setNodeTtl(Duration nodeTtl) {
+            this.nodeTtl = nodeTtl;
+        }
+    }
+
+    public static class LongPoll {
+
+        /**
+         * Upper bound for the {@code wait} parameter of POST /api/checks/next.
+         */
+        private Duration maxWait = Duration.ofSeconds(30);
+        /**
+         * Waiting requests beyond this are answered immediately with an empty list.
+         */
+        private int maxWaiters = 1000;
+        private long dispatchIntervalMillis = 200;
+        /**
+         * Re-read the earliest due time from the database at least this often while workers wait,
+         * to notice pings scheduled through other nodes.
+         */
+        private long idleRecheckMillis = 5000;
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public int getMaxWaiters() {
+            return maxWaiters;
+        }
+
+        public void setMaxWaiters(int maxWaiters) {
+            this.maxWaiters = maxWaiters;
+        }
+
+        public long getDispatchIntervalMillis() {
+            return dispatchIntervalMillis;
+        }
+
+        public void setDispatchIntervalMillis(long dispatchIntervalMillis) {
+            this.dispatchIntervalMillis = dispatchIntervalMillis;
+        }
+
+        public long getIdleRecheckMillis() {
+            return idleRecheckMillis;
+        }
+
+        public void setIdleRecheckMillis(long idleRecheckMillis) {
+            this.idleRecheckMillis = idleRecheckMillis;
+        }
+    }
+
+    /**
+     * Per-worker claim sizing (see WorkerLoadTracker).
+     */
+    public static class Batch {
+
+        /**
+         * Largest batch a single claim may return.
+         */
+        private int maxSize = 1000;
+        /**
+         * In-flight window granted to a worker that has not reported any result yet.
+         */
+        private int initialWindow = 20;
+        private int maxWindow = 5000;
+        /**
+         * Share of the lease duration a claim may take from claim to result before the
+         * worker's window shrinks.
+         */
+        private double targetTurnaroundFraction = 0.5;
+        /**
+         * Poll delay recommended when nothing was due.
+         */
+        private long idlePollDelayMillis = 1000;
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getInitialWindow() {
+            return initialWindow;
+        }
+
+        public void setInitialWindow(int initialWindow) {
+            this.initialWindow = initialWindow;
+        }
+
+        public int getMaxWindow() {
+            return maxWindow;
+        }
+
+        public void setMaxWindow(int maxWindow) {
+            this.maxWindow = maxWindow;
+        }
+
+        public double getTargetTurnaroundFraction() {
+            return targetTurnaroundFraction;
+        }
+
+        public void setTargetTurnaroundFraction(double targetTurnaroundFraction) {
+            this.targetTurnaroundFraction = targetTurnaroundFraction;
+        }
+
+        public long getIdlePollDelayMillis() {
+            return idlePollDelayMillis;
+        }
+
+        public void setIdlePollDelayMillis(long idlePollDelayMillis) {
+            this.idlePollDelayMillis = idlePollDelayMillis;
+        }
+    }
+
+    /**
+     * Per-host limits applied when claiming (see HostPoliteness).
+     */
+    public static class Politeness {
+
+        private boolean enabled = false;
+        /**
+         * Claimed checks per host without a result yet.
+         */
+        private int maxConcurrentPerHost = 8;
+        /**
+         * Claims per host and second, averaged; bursts of up to this many are allowed.
+         */
+        private double maxRequestsPerSecondPerHost = 5.0;
+        /**
+         * Shortest delay given to a deferred ping.
+         */
+        private long minDeferMillis = 1000;
+        private int hostCacheSize = 100_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxConcurrentPerHost() {
+            return maxConcurrentPerHost;
+        }
+
+        public void setMaxConcurrentPerHost(int maxConcurrentPerHost) {
+            this.maxConcurrentPerHost = maxConcurrentPerHost;
+        }
+
+        public double getMaxRequestsPerSecondPerHost() {
+            return maxRequestsPerSecondPerHost;
+        }
+
+        public void setMaxRequestsPerSecondPerHost(double maxRequestsPerSecondPerHost) {
+            this.maxRequestsPerSecondPerHost = maxRequestsPerSecondPerHost;
+        }
+
+        public long getMinDeferMillis() {
+            return minDeferMillis;
+        }
+
+        public void setMinDeferMillis(long minDeferMillis) {
+            this.minDeferMillis = minDeferMillis;
+        }
+
+        public int getHostCacheSize() {
+            return hostCacheSize;
+        }
+
+        public void setHostCacheSize(int hostCacheSize) {
+            this.hostCacheSize = hostCacheSize;
+        }
+    }
+
+    /**
+     * Sharing one probe between pings with the same probe key (see PingService).
+     */
+    public static class Coalescing {
+
+        private boolean enabled = false;
+        /**
+         * Pings due up to this long after the claim may join a probe early.
+         */
+        private Duration window = Duration.ofSeconds(30);
+        /**
+         * Most followers locked per claim.
+         */
+        private int maxFollowers = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxFollowers() {
+            return maxFollowers;
+        }
+
+        public void setMaxFollowers(int maxFollowers) {
+            this.maxFollowers = maxFollowers;
+        }
+    }
+
+    /**
+     * Controlled degradation when workers fall behind (see OverloadControl).
+     */
+    public static class Overload {
+
+        private boolean enabled = false;
+        /**
+         * How often scheduler lag (now minus the oldest due next_check_at) is measured.
+         */
+        private long sampleIntervalMillis = 5000;
+        /**
+         * Lag above which low-priority pings are rescheduled less often.
+         */
+        private Duration stretchLag = Duration.ofMinutes(1);
+        /**
+         * Lag above which every other slot of low-priority pings is skipped.
+         */
+        private Duration shedLag = Duration.ofMinutes(5);
+        /**
+         * Low-priority periods are multiplied by this while stretching.
+         */
+        private int stretchFactor = 2;
+        /**
+         * Results recorded concurrently before workers are answered with 429 (0 = unlimited).
+         */
+        private int maxConcurrentResults = 200;
+        private Duration retryAfter = Duration.ofSeconds(2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getSampleIntervalMillis() {
+            return sampleIntervalMillis;
+        }
+
+        public void setSampleIntervalMillis(long sampleIntervalMillis) {
+            this.sampleIntervalMillis = sampleIntervalMillis;
+        }
+
+        public Duration getStretchLag() {
+            return stretchLag;
+        }
+
+        public void setStretchLag(Duration stretchLag) {
+            this.stretchLag = stretchLag;
+        }
+
+        public Duration getShedLag() {
+            return shedLag;
+        }
+
+        public void setShedLag(Duration shedLag) {
+            this.shedLag = shedLag;
+        }
+
+        public int getStretchFactor() {
+            return stretchFactor;
+        }
+
+        public void setStretchFactor(int stretchFactor) {
+            this.stretchFactor = stretchFactor;
+        }
+
+        public int getMaxConcurrentResults() {
+            return maxConcurrentResults;
+        }
+
+        public void setMaxConcurrentResults(int maxConcurrentResults) {
+            this.maxConcurrentResults = maxConcurrentResults;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    /**
+     * Recovery after backend or worker downtime (see CatchUpPlanner).
+     */
+    public static class CatchUp {
+
+        private boolean enabled = false;
+        /**
+         * Pings overdue by more than this count as missed and are spread out again.
+         */
+        private Duration overdueGrace = Duration.ofMinutes(2);
+        /**
+         * Overdue pings are spread across one period, but never further out than this.
+         */
+        private Duration maxSpread = Duration.ofMinutes(10);
+        /**
+         * No claims for this long counts as worker downtime.
+         */
+        private Duration triggerIdle = Duration.ofMinutes(2);
+        /**
+         * Claims per second right after a catch-up; doubles every ramp-doubling.
+         */
+        private double initialRate = 50.0;
+        private Duration rampDoubling = Duration.ofSeconds(30);
+        private Duration rampDuration = Duration.ofMinutes(5);
+        private int batchSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getOverdueGrace() {
+            return overdueGrace;
+        }
+
+        public void setOverdueGrace(Duration overdueGrace) {
+            this.overdueGrace = overdueGrace;
+        }
+
+        public Duration getMaxSpread() {
+            return maxSpread;
+        }
+
+        public void setMaxSpread(Duration maxSpread) {
+            this.maxSpread = maxSpread;
+        }
+
+        public Duration getTriggerIdle() {
+            return triggerIdle;
+        }
+
+        public void setTriggerIdle(Duration triggerIdle) {
+            this.triggerIdle = triggerIdle;
+        }
+
+        public double getInitialRate() {
+            return initialRate;
+        }
+
+        public void setInitialRate(double initialRate) {
+            this.initialRate = initialRate;
+        }
+
+        public Duration getRampDoubling() {
+            return rampDoubling;
+        }
+
+        public void setRampDoubling(Duration rampDoubling) {
+            this.rampDoubling = rampDoubling;
+        }
+
+        public Duration getRampDuration() {
+            return rampDuration;
+        }
+
+        public void setRampDuration(Duration rampDuration) {
+            this.rampDuration = rampDuration;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Handing pings back to the worker that checked them last (see WorkerAffinity).
+     */
+    public static class Affinity {
+
+        private boolean enabled = false;
+        /**
+         * How long past due a ping is held for its worker before any worker may take it.
+         */
+        private Duration maxHold = Duration.ofSeconds(5);
+        /**
+         * Workers that have not claimed for this long no longer get pings held for them.
+         */
+        private Duration activeWithin = Duration.ofSeconds(15);
+        /**
+         * Claims lock this many times the requested rows to find the worker's own pings.
+         */
+        private int overfetchFactor = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getMaxHold() {
+            return maxHold;
+        }
+
+        public void setMaxHold(Duration maxHold) {
+            this.maxHold = maxHold;
+        }
+
+        public Duration getActiveWithin() {
+            return activeWithin;
+        }
+
+        public void setActiveWithin(Duration activeWithin) {
+            this.activeWithin = activeWithin;
+        }
+
+        public int getOverfetchFactor() {
+            return overfetchFactor;
+        }
+
+        public void setOverfetchFactor(int overfetchFactor) {
+            this.overfetchFactor = overfetchFactor;
+        }
+    }
+
+    /**
+     * Worker-side scheduling: a worker leases a shard of pings and checks them on its own
+     * clock (see ShardLeaseService).
+     */
+    public static class Shard {
+
+        private boolean enabled = false;
+        /**
+         * How long a shard lease lasts without a renewal; workers renew every third of it.
+         */
+        private Duration duration = Duration.ofMinutes(10);
+        /**
+         * Most pings one worker may hold.
+         */
+        private int maxPings = 5000;
+        /**
+         * How far above its fair share (all pings / leasing workers) a worker's shard may grow
+         * before a renewal gives the excess back.
+         */
+        private double rebalanceSlack = 0.2;
+        /**
+         * Most results accepted in one batch.
+         */
+        private int maxBatchResults = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public void setDuration(Duration duration) {
+            this.duration = duration;
+        }
+
+        public int getMaxPings() {
+            return maxPings;
+        }
+
+        public void setMaxPings(int maxPings) {
+            this.maxPings = maxPings;
+        }
+
+        public double getRebalanceSlack() {
+            return rebalanceSlack;
+        }
+
+        public void setRebalanceSlack(double rebalanceSlack) {
+            this.rebalanceSlack = rebalanceSlack;
+        }
+
+        public int getMaxBatchResults() {
+            return maxBatchResults;
+        }
+
+        public void setMaxBatchResults(int maxBatchResults) {
+            this.maxBatchResults = maxBatchResults;
+        }
+    }
+
+    public static class WebSocket {
+
+        /**
+         * Upper bound for the capacity a worker declares on /api/checks/ws.
+         */
+        private int maxCapacity = 500;
+
+        public int getMaxCapacity() {
+            return maxCapacity;
+        }
+
+        public void setMaxCapacity(int maxCapacity) {
+            this.maxCapacity = maxCapacity;
+        }
+    }
+}
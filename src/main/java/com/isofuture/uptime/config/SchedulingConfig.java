@@ -0,0 +1,12 @@
+package com.isofuture.uptime.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (lease reaper and other scheduler housekeeping).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
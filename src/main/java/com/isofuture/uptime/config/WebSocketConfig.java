@@ -0,0 +1,27 @@
+package com.isofuture.uptime.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import com.isofuture.uptime.controller.WorkerWebSocketHandler;
+
+/**
+ * WebSocketConfig - Registers the worker push channel (/api/checks/ws).
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final WorkerWebSocketHandler workerWebSocketHandler;
+
+    public WebSocketConfig(WorkerWebSocketHandler workerWebSocketHandler) {
+        this.workerWebSocketHandler = workerWebSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(workerWebSocketHandler, "/api/checks/ws");
+    }
+}
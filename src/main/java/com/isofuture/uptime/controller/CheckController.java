@@ -1,27 +1,45 @@
 package com.isofuture.uptime.controller;
 
+import java.net.URI;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.CheckResultBatchRequest;
+import com.isofuture.uptime.dto.CheckResultBatchResponse;
 import com.isofuture.uptime.dto.CheckResultDto;
 import com.isofuture.uptime.dto.CheckResultUpdateRequest;
 import com.isofuture.uptime.dto.ExecuteCheckRequest;
+import com.isofuture.uptime.dto.ManualCheckResponse;
 import com.isofuture.uptime.dto.PendingCheckResponse;
+import com.isofuture.uptime.dto.ShardLeaseResponse;
+import com.isofuture.uptime.exception.ServiceOverloadedException;
 import com.isofuture.uptime.service.CheckService;
+import com.isofuture.uptime.service.CheckDispatcher;
+import com.isofuture.uptime.service.ManualCheckService;
+import com.isofuture.uptime.service.OverloadControl;
 import com.isofuture.uptime.service.PingService;
+import com.isofuture.uptime.service.ShardLeaseService;
 import com.isofuture.uptime.service.WorkerApiKeyService;
+import com.isofuture.uptime.service.WorkerLoadTracker;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -29,14 +47,40 @@ import jakarta.validation.Valid;
 public class CheckController {
 
     private static final Logger log = LoggerFactory.getLogger(CheckController.class);
+    public static final String WORKER_ID_HEADER = "X-Worker-Id";
+    public static final String BATCH_GRANTED_HEADER = "X-Batch-Granted";
+    public static final String POLL_DELAY_HEADER = "X-Poll-Delay-Ms";
+
     private final CheckService checkService;
     private final PingService pingService;
     private final WorkerApiKeyService workerApiKeyService;
+    private final CheckDispatcher checkDispatcher;
+    private final WorkerLoadTracker workerLoadTracker;
+    private final SchedulerProperties schedulerProperties;
+    private final OverloadControl overloadControl;
+    private final ShardLeaseService shardLeaseService;
+    private final ManualCheckService manualCheckService;
 
-    public CheckController(CheckService checkService, PingService pingService, WorkerApiKeyService workerApiKeyService) {
+    public CheckController(
+        CheckService checkService,
+        PingService pingService,
+        WorkerApiKeyService workerApiKeyService,
+        CheckDispatcher checkDispatcher,
+        WorkerLoadTracker workerLoadTracker,
+        SchedulerProperties schedulerProperties,
+        OverloadControl overloadControl,
+        ShardLeaseService shardLeaseService,
+        ManualCheckService manualCheckService
+    ) {
         this.checkService = checkService;
         this.pingService = pingService;
         this.workerApiKeyService = workerApiKeyService;
+        this.checkDispatcher = checkDispatcher;
+        this.workerLoadTracker = workerLoadTracker;
+        this.schedulerProperties = schedulerProperties;
+        this.overloadControl = overloadControl;
+        this.shardLeaseService = shardLeaseService;
+        this.manualCheckService = manualCheckService;
     }
 
     @GetMapping("/pending")
@@ -48,35 +92,113 @@ public class CheckController {
         workerApiKeyService.assertValid(apiKey);
         Integer safeCount = null;
         if (count != null) {
-            safeCount = Math.min(Math.max(count, 1), 50);
+            safeCount = Math.min(Math.max(count, 1), schedulerProperties.getBatch().getMaxSize());
         }
         List<PendingCheckResponse> pending = pingService.getInProgressChecks(safeCount);
         log.info("GET /api/checks/pending - Found {} pending checks", pending.size());
         return ResponseEntity.ok(pending);
     }
 
+    /**
+     * Claims up to {@code count} due checks. The worker gets at most the free part of its
+     * adaptive in-flight window (see WorkerLoadTracker); X-Batch-Granted reports how many it
+     * was allowed and X-Poll-Delay-Ms how long it should wait before polling again.
+     * While result ingestion is saturated the answer is 429 with Retry-After.
+     */
     @PostMapping("/next")
     public ResponseEntity<List<PendingCheckResponse>> fetchNext(
         @RequestHeader(name = WorkerApiKeyService.HEADER_NAME) String apiKey,
-        @RequestParam(name = "count", defaultValue = "1") int count
+        @RequestHeader(name = WORKER_ID_HEADER, required = false) String workerId,
+        @RequestParam(name = "count", defaultValue = "1") int count,
+        HttpServletRequest request
     ) {
         log.debug("POST /api/checks/next - Fetching next checks (count: {})", count);
         workerApiKeyService.assertValid(apiKey);
-        int safeCount = Math.min(Math.max(count, 1), 50);
-        List<PendingCheckResponse> next = pingService.fetchNextChecks(safeCount);
-        log.info("POST /api/checks/next - Fetched {} next checks", next.size());
-        return ResponseEntity.ok(next);
+        assertIngestionAvailable();
+        String worker = workerKey(workerId, request);
+        WorkerLoadTracker.Grant grant = workerLoadTracker.grant(worker, Math.max(count, 1));
+        List<PendingCheckResponse> next = List.of();
+        long pollDelayMillis = grant.pollDelayMillis();
+        if (grant.size() > 0) {
+            try {
+                next = pingService.fetchNextChecks(grant.size(), worker);
+            } catch (RuntimeException e) {
+                workerLoadTracker.release(worker, grant.size());
+                throw e;
+            }
+            pollDelayMillis = workerLoadTracker.recordClaimed(worker, pingIds(next), grant.size());
+        }
+        log.info("POST /api/checks/next - Fetched {} next checks (granted {})", next.size(), grant.size());
+        return ResponseEntity.ok()
+            .header(BATCH_GRANTED_HEADER, String.valueOf(grant.size()))
+            .header(POLL_DELAY_HEADER, String.valueOf(pollDelayMillis))
+            .body(next);
+    }
+
+    /**
+     * Long-polling variant of /next: when nothing is due the request is held open (without a
+     * thread) until checks become due or {@code wait} seconds have passed, then answers with
+     * the claimed checks or an empty list.
+     */
+    @PostMapping(value = "/next", params = "wait")
+    public DeferredResult<List<PendingCheckResponse>> fetchNextWaiting(
+        @RequestHeader(name = WorkerApiKeyService.HEADER_NAME) String apiKey,
+        @RequestHeader(name = WORKER_ID_HEADER, required = false) String workerId,
+        @RequestParam(name = "count", defaultValue = "1") int count,
+        @RequestParam(name = "wait") int waitSeconds,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) {
+        log.debug("POST /api/checks/next - Fetching next checks (count: {}, wait: {}s)", count, waitSeconds);
+        workerApiKeyService.assertValid(apiKey);
+        assertIngestionAvailable();
+        String worker = workerKey(workerId, request);
+        WorkerLoadTracker.Grant grant = workerLoadTracker.grant(worker, Math.max(count, 1));
+        response.setHeader(BATCH_GRANTED_HEADER, String.valueOf(grant.size()));
+        if (grant.size() == 0) {
+            // Window full: waiting would not let us hand out anything either
+            response.setHeader(POLL_DELAY_HEADER, String.valueOf(grant.pollDelayMillis()));
+            DeferredResult<List<PendingCheckResponse>> full = new DeferredResult<>();
+            full.setResult(List.of());
+            return full;
+        }
+        try {
+            return checkDispatcher.await(grant.size(), waitSeconds, worker,
+                claimed -> workerLoadTracker.recordClaimed(worker, pingIds(claimed), grant.size()));
+        } catch (RuntimeException e) {
+            workerLoadTracker.release(worker, grant.size());
+            throw e;
+        }
     }
 
+    /**
+     * Queues a manual check and answers 202 with a handle; the result is polled at the
+     * Location given (see ManualCheckService).
+     */
     @PostMapping("/execute")
-    public ResponseEntity<CheckResultDto> execute(
+    public ResponseEntity<ManualCheckResponse> execute(
         @Valid @RequestBody ExecuteCheckRequest request
     ) {
-        log.debug("POST /api/checks/execute - Executing check for ping ID: {}", request.getPingId());
-        CheckResultDto result = checkService.executeCheck(request, false);
-        log.info("POST /api/checks/execute - Check executed for ping ID: {} - HTTP {}", 
-            request.getPingId(), result.getHttpCode());
-        return ResponseEntity.ok(result);
+        log.debug("POST /api/checks/execute - Submitting check for ping ID: {}", request.getPingId());
+        ManualCheckResponse check = manualCheckService.submit(request);
+        log.info("POST /api/checks/execute - Check {} submitted for ping ID: {} ({})",
+            check.getHandle(), request.getPingId(), check.getStatus());
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/checks/execute/" + check.getHandle()))
+            .body(check);
+    }
+
+    /**
+     * State of a manual check; with {@code wait}, held open until the check is done or
+     * {@code wait} seconds have passed.
+     */
+    @GetMapping("/execute/{handle}")
+    public DeferredResult<ManualCheckResponse> executeStatus(
+        @PathVariable("handle") String handle,
+        @RequestParam(name = "wait", defaultValue = "0") int waitSeconds
+    ) {
+        log.debug("GET /api/checks/execute/{} - Polling manual check (wait: {}s)", handle, waitSeconds);
+        return manualCheckService.await(handle, waitSeconds);
     }
 
     @PatchMapping("/result")
@@ -86,10 +208,120 @@ public class CheckController {
     ) {
         log.debug("PATCH /api/checks/result - Recording result for ping ID: {}", request.getPingId());
         workerApiKeyService.assertValid(apiKey);
-        CheckResultDto result = checkService.recordResult(request, true);
+        CheckResultDto result;
+        try {
+            if (!overloadControl.tryBeginResult()) {
+                throw new ServiceOverloadedException("Result ingestion is saturated, retry later", overloadControl.getRetryAfter());
+            }
+            try {
+                result = checkService.recordResult(request, true);
+            } finally {
+                overloadControl.endResult();
+            }
+            workerLoadTracker.recordCompleted(request.getPingId());
+        } finally {
+            // A rejected result still ends the claim on the worker's side
+            workerLoadTracker.forget(request.getPingId());
+        }
         log.info("PATCH /api/checks/result - Result recorded for ping ID: {} - HTTP {}", 
             request.getPingId(), result.getHttpCode());
         return ResponseEntity.ok(result);
     }
-}
 
+    /**
+     * Records a batch of results in one transaction. Results rejected individually (unknown
+     * ping, superseded claim or lease) are listed in the response instead of failing the batch.
+     */
+    @PostMapping("/results")
+    public ResponseEntity<CheckResultBatchResponse> recordResults(
+        @RequestHeader(name = WorkerApiKeyService.HEADER_NAME) String apiKey,
+        @Valid @RequestBody CheckResultBatchRequest request
+    ) {
+        log.debug("POST /api/checks/results - Recording {} results", request.getResults().size());
+        workerApiKeyService.assertValid(apiKey);
+        int maxResults = schedulerProperties.getShard().getMaxBatchResults();
+        if (request.getResults().size() > maxResults) {
+            throw new IllegalArgumentException("At most " + maxResults + " results per batch");
+        }
+        CheckResultBatchResponse result;
+        try {
+            if (!overloadControl.tryBeginResult()) {
+                throw new ServiceOverloadedException("Result ingestion is saturated, retry later", overloadControl.getRetryAfter());
+            }
+            try {
+                result = checkService.recordResults(request.getResults());
+            } finally {
+                overloadControl.endResult();
+            }
+            request.getResults().stream()
+                .filter(item -> !result.getRejectedPingIds().contains(item.getPingId()))
+                .forEach(item -> workerLoadTracker.recordCompleted(item.getPingId()));
+        } finally {
+            request.getResults().forEach(item -> workerLoadTracker.forget(item.getPingId()));
+        }
+        log.info("POST /api/checks/results - Recorded {} results ({} rejected)",
+            result.getRecorded(), result.getRejectedPingIds().size());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Leases a shard of pings to the worker, which then schedules them itself and renews the
+     * lease at renewAt (see ShardLeaseService).
+     */
+    @PostMapping("/shards")
+    public ResponseEntity<ShardLeaseResponse> acquireShard(
+        @RequestHeader(name = WorkerApiKeyService.HEADER_NAME) String apiKey,
+        @RequestHeader(name = WORKER_ID_HEADER, required = false) String workerId,
+        HttpServletRequest request
+    ) {
+        log.debug("POST /api/checks/shards - Acquiring shard lease");
+        workerApiKeyService.assertValid(apiKey);
+        ShardLeaseResponse lease = shardLeaseService.acquire(workerKey(workerId, request));
+        log.info("POST /api/checks/shards - Leased {} pings under {}", lease.getPings().size(), lease.getLeaseId());
+        return ResponseEntity.ok(lease);
+    }
+
+    /**
+     * Renews a shard lease (the worker's heartbeat) and returns the shard as it is now.
+     */
+    @PutMapping("/shards/{leaseId}")
+    public ResponseEntity<ShardLeaseResponse> renewShard(
+        @RequestHeader(name = WorkerApiKeyService.HEADER_NAME) String apiKey,
+        @RequestHeader(name = WORKER_ID_HEADER, required = false) String workerId,
+        @PathVariable("leaseId") String leaseId,
+        HttpServletRequest request
+    ) {
+        log.debug("PUT /api/checks/shards/{} - Renewing shard lease", leaseId);
+        workerApiKeyService.assertValid(apiKey);
+        ShardLeaseResponse lease = shardLeaseService.renew(workerKey(workerId, request), leaseId);
+        log.debug("PUT /api/checks/shards/{} - Renewed with {} pings", leaseId, lease.getPings().size());
+        return ResponseEntity.ok(lease);
+    }
+
+    @DeleteMapping("/shards/{leaseId}")
+    public ResponseEntity<Void> releaseShard(
+        @RequestHeader(name = WorkerApiKeyService.HEADER_NAME) String apiKey,
+        @RequestHeader(name = WORKER_ID_HEADER, required = false) String workerId,
+        @PathVariable("leaseId") String leaseId,
+        HttpServletRequest request
+    ) {
+        log.debug("DELETE /api/checks/shards/{} - Releasing shard lease", leaseId);
+        workerApiKeyService.assertValid(apiKey);
+        shardLeaseService.release(workerKey(workerId, request), leaseId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private void assertIngestionAvailable() {
+        if (overloadControl.isIngestionSaturated()) {
+            throw new ServiceOverloadedException("Result ingestion is saturated, retry later", overloadControl.getRetryAfter());
+        }
+    }
+
+    private static String workerKey(String workerId, HttpServletRequest request) {
+        return workerId != null && !workerId.isBlank() ? workerId : request.getRemoteAddr();
+    }
+
+    private static List<Long> pingIds(List<PendingCheckResponse> checks) {
+        return checks.stream().map(PendingCheckResponse::getPingId).toList();
+    }
+}
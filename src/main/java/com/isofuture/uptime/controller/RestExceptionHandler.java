@@ -6,6 +6,7 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -16,7 +17,9 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.isofuture.uptime.exception.ClaimConflictException;
 import com.isofuture.uptime.exception.ResourceNotFoundException;
+import com.isofuture.uptime.exception.ServiceOverloadedException;
 
 @RestControllerAdvice
 public class RestExceptionHandler {
@@ -47,6 +50,25 @@ public class RestExceptionHandler {
         return error(HttpStatus.NOT_FOUND, ex);
     }
 
+    @ExceptionHandler(ClaimConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleClaimConflict(ClaimConflictException ex) {
+        log.warn("Claim conflict: {}", ex.getMessage());
+        return error(HttpStatus.CONFLICT, ex);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceOverloaded(ServiceOverloadedException ex) {
+        log.debug("Service overloaded: {}", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", Instant.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .body(body);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
         // Avoid calling getMessage() if MethodParameter is null (common in tests)
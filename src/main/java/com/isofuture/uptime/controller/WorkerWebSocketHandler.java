@@ -0,0 +1,241 @@
+package com.isofuture.uptime.controller;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.CheckResultUpdateRequest;
+import com.isofuture.uptime.dto.PendingCheckResponse;
+import com.isofuture.uptime.dto.WorkerMessage;
+import com.isofuture.uptime.service.CheckChannel;
+import com.isofuture.uptime.service.CheckDispatcher;
+import com.isofuture.uptime.service.CheckService;
+import com.isofuture.uptime.service.OverloadControl;
+
+/**
+ * WorkerWebSocketHandler - Persistent worker channel at /api/checks/ws.
+ *
+ * Authenticated like the REST endpoints; frames are described in WorkerMessage. A check counts
+ * as in flight until its result arrives or its lease ends, and results pass the same
+ * OverloadControl gate as PATCH /api/checks/result.
+ */
+@Component
+public class WorkerWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerWebSocketHandler.class);
+    private static final int SEND_TIME_LIMIT_MILLIS = 10_000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 512 * 1024;
+    private static final int MAX_FRAME_CHARS = 1024 * 1024;
+
+    private final CheckDispatcher checkDispatcher;
+    private final CheckService checkService;
+    private final OverloadControl overloadControl;
+    private final SchedulerProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<String, WorkerChannel> channels = new ConcurrentHashMap<>();
+
+    public WorkerWebSocketHandler(CheckDispatcher checkDispatcher, CheckService checkService,
+                                  OverloadControl overloadControl, SchedulerProperties properties,
+                                  ObjectMapper objectMapper) {
+        this.checkDispatcher = checkDispatcher;
+        this.checkService = checkService;
+        this.overloadControl = overloadControl;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        WorkerChannel channel = new WorkerChannel(
+            new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS, SEND_BUFFER_LIMIT_BYTES),
+            workerKey(session));
+        channels.put(session.getId(), channel);
+        checkDispatcher.open(channel);
+        log.info("Worker connected on WebSocket (session {}, {} connected)", session.getId(), channels.size());
+    }
+
+    /**
+     * Result batches easily exceed the container's 8 KB text buffer, so fragments are
+     * accepted and joined here (up to MAX_FRAME_CHARS per message).
+     */
+    @Override
+    public boolean supportsPartialMessages() {
+        return true;
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        WorkerChannel channel = channels.get(session.getId());
+        if (channel == null) {
+            return;
+        }
+        String payload;
+        synchronized (channel.fragments) {
+            if (channel.fragments.length() + message.getPayloadLength() > MAX_FRAME_CHARS) {
+                channel.fragments.setLength(0);
+                channel.discarding = !message.isLast();
+                channel.send(WorkerMessage.error(null, "Message exceeds " + MAX_FRAME_CHARS + " characters"));
+                return;
+            }
+            if (channel.discarding) {
+                channel.discarding = !message.isLast();
+                return;
+            }
+            channel.fragments.append(message.getPayload());
+            if (!message.isLast()) {
+                return;
+            }
+            payload = channel.fragments.toString();
+            channel.fragments.setLength(0);
+        }
+        WorkerMessage frame;
+        try {
+            frame = objectMapper.readValue(payload, WorkerMessage.class);
+        } catch (JsonProcessingException e) {
+            channel.send(WorkerMessage.error(null, "Malformed message: " + e.getOriginalMessage()));
+            return;
+        }
+        String type = frame.getType() != null ? frame.getType() : "";
+        switch (type) {
+            case WorkerMessage.CAPACITY -> {
+                int capacity = frame.getCapacity() != null ? frame.getCapacity() : 0;
+                channel.capacity = Math.min(Math.max(capacity, 0), properties.getWebsocket().getMaxCapacity());
+                log.debug("Worker session {} declared capacity {}", session.getId(), channel.capacity);
+            }
+            case WorkerMessage.RESULTS -> recordResults(channel, frame.getResults());
+            default -> channel.send(WorkerMessage.error(null, "Unknown message type: " + frame.getType()));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WorkerChannel channel = channels.remove(session.getId());
+        if (channel != null) {
+            checkDispatcher.close(channel);
+            log.info("Worker disconnected from WebSocket (session {}, {} checks in flight, status {})",
+                session.getId(), channel.inFlight.size(), status);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.warn("WebSocket transport error on session {}: {}", session.getId(), exception.getMessage());
+    }
+
+    public int connectedCount() {
+        return channels.size();
+    }
+
+    /**
+     * X-Worker-Id from the handshake, else the remote address (as for REST claims).
+     */
+    private static String workerKey(WebSocketSession session) {
+        String workerId = session.getHandshakeHeaders().getFirst(CheckController.WORKER_ID_HEADER);
+        if (workerId != null && !workerId.isBlank()) {
+            return workerId;
+        }
+        return session.getRemoteAddress() != null ? session.getRemoteAddress().getHostString() : null;
+    }
+
+    private void recordResults(WorkerChannel channel, List<CheckResultUpdateRequest> results) throws IOException {
+        if (results == null || results.isEmpty()) {
+            return;
+        }
+        if (!overloadControl.tryBeginResult()) {
+            List<Long> pingIds = results.stream().map(CheckResultUpdateRequest::getPingId).filter(Objects::nonNull).toList();
+            channel.send(WorkerMessage.overloaded(pingIds, overloadControl.getRetryAfter()));
+            return;
+        }
+        List<Long> recorded = new ArrayList<>(results.size());
+        try {
+            for (CheckResultUpdateRequest result : results) {
+                Long pingId = result.getPingId();
+                if (pingId == null) {
+                    channel.send(WorkerMessage.error(null, "Result without pingId"));
+                    continue;
+                }
+                channel.inFlight.remove(pingId);
+                try {
+                    checkService.recordResult(result, true);
+                    recorded.add(pingId);
+                } catch (RuntimeException e) {
+                    log.warn("Rejected WebSocket result for ping ID {}: {}", pingId, e.getMessage());
+                    channel.send(WorkerMessage.error(pingId, e.getMessage()));
+                }
+            }
+        } finally {
+            overloadControl.endResult();
+        }
+        if (!recorded.isEmpty()) {
+            channel.send(WorkerMessage.ack(recorded));
+        }
+    }
+
+    private final class WorkerChannel implements CheckChannel {
+
+        private final WebSocketSession session;
+        private final String workerId;
+        private final Map<Long, Instant> inFlight = new ConcurrentHashMap<>();
+        private final StringBuilder fragments = new StringBuilder();
+        private volatile int capacity;
+        private boolean discarding;
+
+        private WorkerChannel(WebSocketSession session, String workerId) {
+            this.session = session;
+            this.workerId = workerId;
+        }
+
+        @Override
+        public String workerId() {
+            return workerId;
+        }
+
+        @Override
+        public int freeCapacity() {
+            if (!session.isOpen()) {
+                return 0;
+            }
+            Instant now = Instant.now();
+            inFlight.values().removeIf(leaseExpiresAt -> leaseExpiresAt != null && leaseExpiresAt.isBefore(now));
+            return Math.max(capacity - inFlight.size(), 0);
+        }
+
+        @Override
+        public boolean deliver(List<PendingCheckResponse> checks) {
+            if (!session.isOpen()) {
+                return false;
+            }
+            for (PendingCheckResponse check : checks) {
+                inFlight.put(check.getPingId(), check.getLeaseExpiresAt() != null ? check.getLeaseExpiresAt() : Instant.MAX);
+            }
+            try {
+                send(WorkerMessage.checks(checks));
+                return true;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not push {} checks to worker session {}: {}", checks.size(), session.getId(), e.getMessage());
+                checks.forEach(check -> inFlight.remove(check.getPingId()));
+                return false;
+            }
+        }
+
+        private void send(WorkerMessage message) throws IOException {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        }
+    }
+}
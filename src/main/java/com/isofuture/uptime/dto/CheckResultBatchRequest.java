@@ -0,0 +1,21 @@
+package com.isofuture.uptime.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+public class CheckResultBatchRequest {
+
+    @NotEmpty
+    @Valid
+    private List<CheckResultUpdateRequest> results;
+
+    public List<CheckResultUpdateRequest> getResults() {
+        return results;
+    }
+
+    public void setResults(List<CheckResultUpdateRequest> results) {
+        this.results = results;
+    }
+}
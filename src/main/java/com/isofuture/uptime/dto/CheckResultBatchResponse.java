@@ -0,0 +1,37 @@
+package com.isofuture.uptime.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a result batch: how many results were stored, and the pings whose result was
+ * rejected (unknown ping, or a claim or lease that is no longer the sender's).
+ */
+public class CheckResultBatchResponse {
+
+    private int recorded;
+    private List<Long> rejectedPingIds;
+
+    public CheckResultBatchResponse() {
+    }
+
+    public CheckResultBatchResponse(int recorded, List<Long> rejectedPingIds) {
+        this.recorded = recorded;
+        this.rejectedPingIds = rejectedPingIds;
+    }
+
+    public int getRecorded() {
+        return recorded;
+    }
+
+    public void setRecorded(int recorded) {
+        this.recorded = recorded;
+    }
+
+    public List<Long> getRejectedPingIds() {
+        return rejectedPingIds;
+    }
+
+    public void setRejectedPingIds(List<Long> rejectedPingIds) {
+        this.rejectedPingIds = rejectedPingIds;
+    }
+}
@@ -9,6 +9,18 @@ public class CheckResultDto {
     private String errorMessage;
     private Double responseTimeMs;
     private Instant checkedAt;
+    /**
+     * Phase timings of the probe in milliseconds, where the prober reported them.
+     */
+    private Double dnsMs;
+    private Double connectMs;
+    private Double tlsMs;
+    private Double ttfbMs;
+    private Double transferMs;
+    private Long bytesTransferred;
+    private Boolean assertionPassed;
+    private String bodyDigest;
+    private Boolean contentChanged;
 
     public Long getId() {
         return id;
@@ -49,5 +61,76 @@ public class CheckResultDto {
     public void setCheckedAt(Instant checkedAt) {
         this.checkedAt = checkedAt;
     }
-}
 
+    public Double getDnsMs() {
+        return dnsMs;
+    }
+
+    public void setDnsMs(Double dnsMs) {
+        this.dnsMs = dnsMs;
+    }
+
+    public Double getConnectMs() {
+        return connectMs;
+    }
+
+    public void setConnectMs(Double connectMs) {
+        this.connectMs = connectMs;
+    }
+
+    public Double getTlsMs() {
+        return tlsMs;
+    }
+
+    public void setTlsMs(Double tlsMs) {
+        this.tlsMs = tlsMs;
+    }
+
+    public Double getTtfbMs() {
+        return ttfbMs;
+    }
+
+    public void setTtfbMs(Double ttfbMs) {
+        this.ttfbMs = ttfbMs;
+    }
+
+    public Double getTransferMs() {
+        return transferMs;
+    }
+
+    public void setTransferMs(Double transferMs) {
+        this.transferMs = transferMs;
+    }
+
+    public Long getBytesTransferred() {
+        return bytesTransferred;
+    }
+
+    public void setBytesTransferred(Long bytesTransferred) {
+        this.bytesTransferred = bytesTransferred;
+    }
+
+    public Boolean getAssertionPassed() {
+        return assertionPassed;
+    }
+
+    public void setAssertionPassed(Boolean assertionPassed) {
+        this.assertionPassed = assertionPassed;
+    }
+
+    public String getBodyDigest() {
+        return bodyDigest;
+    }
+
+    public void setBodyDigest(String bodyDigest) {
+        this.bodyDigest = bodyDigest;
+    }
+
+    public Boolean getContentChanged() {
+        return contentChanged;
+    }
+
+    public void setContentChanged(Boolean contentChanged) {
+        this.contentChanged = contentChanged;
+    }
+}
@@ -17,6 +17,42 @@ public class CheckResultUpdateRequest {
 
     private Instant checkedAt;
 
+    /**
+     * Optional phase timings in milliseconds: DNS, TCP connect, TLS handshake, time to first
+     * byte and transfer. Leave out phases that were not measured.
+     */
+    private Double dnsMs;
+    private Double connectMs;
+    private Double tlsMs;
+    private Double ttfbMs;
+    private Double transferMs;
+
+    /**
+     * Optional: bytes received from the target, headers included.
+     */
+    private Long bytesTransferred;
+
+    /**
+     * Optional: ETag of the response, kept for the ping's next conditional probe.
+     */
+    private String etag;
+
+    /**
+     * Optional: whether the body passed the ping's assertion.
+     */
+    private Boolean assertionPassed;
+
+    /**
+     * Optional: hex SHA-256 of the body, compared with the ping's previous one.
+     */
+    private String bodyDigest;
+
+    /**
+     * Claim token returned by /api/checks/next. Optional; when present, the result is
+     * rejected if the ping has since been re-claimed under a different token.
+     */
+    private String claimToken;
+
     public Long getPingId() {
         return pingId;
     }
@@ -56,5 +92,84 @@ public class CheckResultUpdateRequest {
     public void setCheckedAt(Instant checkedAt) {
         this.checkedAt = checkedAt;
     }
-}
 
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public Double getDnsMs() {
+        return dnsMs;
+    }
+
+    public void setDnsMs(Double dnsMs) {
+        this.dnsMs = dnsMs;
+    }
+
+    public Double getConnectMs() {
+        return connectMs;
+    }
+
+    public void setConnectMs(Double connectMs) {
+        this.connectMs = connectMs;
+    }
+
+    public Double getTlsMs() {
+        return tlsMs;
+    }
+
+    public void setTlsMs(Double tlsMs) {
+        this.tlsMs = tlsMs;
+    }
+
+    public Double getTtfbMs() {
+        return ttfbMs;
+    }
+
+    public void setTtfbMs(Double ttfbMs) {
+        this.ttfbMs = ttfbMs;
+    }
+
+    public Double getTransferMs() {
+        return transferMs;
+    }
+
+    public void setTransferMs(Double transferMs) {
+        this.transferMs = transferMs;
+    }
+
+    public Long getBytesTransferred() {
+        return bytesTransferred;
+    }
+
+    public void setBytesTransferred(Long bytesTransferred) {
+        this.bytesTransferred = bytesTransferred;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public Boolean getAssertionPassed() {
+        return assertionPassed;
+    }
+
+    public void setAssertionPassed(Boolean assertionPassed) {
+        this.assertionPassed = assertionPassed;
+    }
+
+    public String getBodyDigest() {
+        return bodyDigest;
+    }
+
+    public void setBodyDigest(String bodyDigest) {
+        this.bodyDigest = bodyDigest;
+    }
+}
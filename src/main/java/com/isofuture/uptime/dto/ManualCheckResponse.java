@@ -0,0 +1,79 @@
+package com.isofuture.uptime.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * State of a manual check submitted through POST /api/checks/execute; poll it by handle.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ManualCheckResponse {
+
+    private String handle;
+    private Long pingId;
+    /**
+     * QUEUED, RUNNING, DONE or FAILED.
+     */
+    private String status;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private CheckResultDto result;
+    private String error;
+
+    public String getHandle() {
+        return handle;
+    }
+
+    public void setHandle(String handle) {
+        this.handle = handle;
+    }
+
+    public Long getPingId() {
+        return pingId;
+    }
+
+    public void setPingId(Long pingId) {
+        this.pingId = pingId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public CheckResultDto getResult() {
+        return result;
+    }
+
+    public void setResult(CheckResultDto result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
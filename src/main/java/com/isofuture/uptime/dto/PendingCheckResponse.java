@@ -1,10 +1,59 @@
 package com.isofuture.uptime.dto;
 
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.isofuture.uptime.entity.Ping;
+
 public class PendingCheckResponse {
 
     private Long pingId;
     private String url;
     private String label;
+    private String claimToken;
+    private Instant leaseExpiresAt;
+    /**
+     * Pings that share this probe; the recorded result is copied to each of them.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> coalescedPingIds;
+    /**
+     * Present (true) when the probe should resolve the host afresh to measure DNS.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean measureDns;
+
+    /**
+     * Present (POOLED) when the probe should reuse keep-alive connections.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Ping.ConnectionMode connectionMode;
+
+    /**
+     * How the probe should bound the download; absent for a plain GET up to the default body cap.
+     * etag is the If-None-Match value for CONDITIONAL.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Ping.ProbeMode probeMode;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long maxBodyBytes;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String etag;
+
+    /**
+     * Body assertion the probe should evaluate, if the ping has one.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Ping.AssertionMode assertionMode;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String assertionPattern;
+
+    /**
+     * Present (true) when the probe should report the SHA-256 of the body.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean trackContent;
 
     public PendingCheckResponse() {
     }
@@ -15,6 +64,12 @@ public class PendingCheckResponse {
         this.label = label;
     }
 
+    public PendingCheckResponse(Long pingId, String url, String label, String claimToken, Instant leaseExpiresAt) {
+        this(pingId, url, label);
+        this.claimToken = claimToken;
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
     public Long getPingId() {
         return pingId;
     }
@@ -38,5 +93,92 @@ public class PendingCheckResponse {
     public void setLabel(String label) {
         this.label = label;
     }
-}
 
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public List<Long> getCoalescedPingIds() {
+        return coalescedPingIds;
+    }
+
+    public void setCoalescedPingIds(List<Long> coalescedPingIds) {
+        this.coalescedPingIds = coalescedPingIds;
+    }
+
+    public Boolean getMeasureDns() {
+        return measureDns;
+    }
+
+    public void setMeasureDns(Boolean measureDns) {
+        this.measureDns = measureDns;
+    }
+
+    public Ping.ConnectionMode getConnectionMode() {
+        return connectionMode;
+    }
+
+    public void setConnectionMode(Ping.ConnectionMode connectionMode) {
+        this.connectionMode = connectionMode;
+    }
+
+    public Ping.ProbeMode getProbeMode() {
+        return probeMode;
+    }
+
+    public void setProbeMode(Ping.ProbeMode probeMode) {
+        this.probeMode = probeMode;
+    }
+
+    public Long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(Long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public Ping.AssertionMode getAssertionMode() {
+        return assertionMode;
+    }
+
+    public void setAssertionMode(Ping.AssertionMode assertionMode) {
+        this.assertionMode = assertionMode;
+    }
+
+    public String getAssertionPattern() {
+        return assertionPattern;
+    }
+
+    public void setAssertionPattern(String assertionPattern) {
+        this.assertionPattern = assertionPattern;
+    }
+
+    public Boolean getTrackContent() {
+        return trackContent;
+    }
+
+    public void setTrackContent(Boolean trackContent) {
+        this.trackContent = trackContent;
+    }
+}
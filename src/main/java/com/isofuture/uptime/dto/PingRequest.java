@@ -1,9 +1,10 @@
 package com.isofuture.uptime.dto;
 
+import com.isofuture.uptime.entity.Ping;
+
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 public class PingRequest {
@@ -15,11 +16,53 @@ public class PingRequest {
     @Size(max = 190)
     private String label;
 
-    @NotNull
+    /**
+     * Whole-minute frequency, kept for older clients; ignored when frequencySeconds is set.
+     */
     @Min(1)
     @Max(1440)
     private Integer frequencyMinutes;
 
+    @Min(1)
+    @Max(86400)
+    private Integer frequencySeconds;
+
+    /**
+     * Resolve the host afresh on every probe (skipping the probe DNS cache) to measure DNS; default false.
+     */
+    private Boolean measureDns;
+
+    /**
+     * FRESH (default): a new connection per probe. POOLED: reuse keep-alive connections.
+     */
+    private Ping.ConnectionMode connectionMode;
+
+    /**
+     * GET (default), HEAD, RANGE or CONDITIONAL. HEAD cannot be combined with a body assertion;
+     * under CONDITIONAL a 304 response skips it.
+     */
+    private Ping.ProbeMode probeMode;
+
+    /**
+     * Body bytes a probe may read; default app.probe.max-body-bytes.
+     */
+    @Min(1)
+    private Long maxBodyBytes;
+
+    /**
+     * Optional body assertion: CONTAINS / NOT_CONTAINS a keyword, or MATCHES / NOT_MATCHES a
+     * regex; set both or neither. An empty pattern without a mode removes the assertion.
+     */
+    private Ping.AssertionMode assertionMode;
+
+    @Size(max = 1024)
+    private String assertionPattern;
+
+    /**
+     * Digest response bodies and flag content changes; default false.
+     */
+    private Boolean trackContent;
+
     public String getUrl() {
         return url;
     }
@@ -43,5 +86,68 @@ public class PingRequest {
     public void setFrequencyMinutes(Integer frequencyMinutes) {
         this.frequencyMinutes = frequencyMinutes;
     }
-}
 
+    public Integer getFrequencySeconds() {
+        return frequencySeconds;
+    }
+
+    public void setFrequencySeconds(Integer frequencySeconds) {
+        this.frequencySeconds = frequencySeconds;
+    }
+
+    public Boolean getMeasureDns() {
+        return measureDns;
+    }
+
+    public void setMeasureDns(Boolean measureDns) {
+        this.measureDns = measureDns;
+    }
+
+    public Ping.ConnectionMode getConnectionMode() {
+        return connectionMode;
+    }
+
+    public void setConnectionMode(Ping.ConnectionMode connectionMode) {
+        this.connectionMode = connectionMode;
+    }
+
+    public Ping.ProbeMode getProbeMode() {
+        return probeMode;
+    }
+
+    public void setProbeMode(Ping.ProbeMode probeMode) {
+        this.probeMode = probeMode;
+    }
+
+    public Long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(Long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public Ping.AssertionMode getAssertionMode() {
+        return assertionMode;
+    }
+
+    public void setAssertionMode(Ping.AssertionMode assertionMode) {
+        this.assertionMode = assertionMode;
+    }
+
+    public String getAssertionPattern() {
+        return assertionPattern;
+    }
+
+    public void setAssertionPattern(String assertionPattern) {
+        this.assertionPattern = assertionPattern;
+    }
+
+    public Boolean getTrackContent() {
+        return trackContent;
+    }
+
+    public void setTrackContent(Boolean trackContent) {
+        this.trackContent = trackContent;
+    }
+}
@@ -3,6 +3,8 @@ package com.isofuture.uptime.dto;
 import java.time.Instant;
 import java.util.List;
 
+import com.isofuture.uptime.entity.Ping;
+
 public class PingResponse {
 
     private Long id;
@@ -10,8 +12,16 @@ public class PingResponse {
     private String label;
     private String url;
     private Integer frequencyMinutes;
+    private Integer frequencySeconds;
     private Instant nextCheckAt;
     private boolean inProgress;
+    private boolean measureDns;
+    private Ping.ConnectionMode connectionMode;
+    private Ping.ProbeMode probeMode;
+    private Long maxBodyBytes;
+    private Ping.AssertionMode assertionMode;
+    private String assertionPattern;
+    private boolean trackContent;
     private Instant createdAt;
     private Instant updatedAt;
     private List<CheckResultDto> recentResults;
@@ -56,6 +66,14 @@ public class PingResponse {
         this.frequencyMinutes = frequencyMinutes;
     }
 
+    public Integer getFrequencySeconds() {
+        return frequencySeconds;
+    }
+
+    public void setFrequencySeconds(Integer frequencySeconds) {
+        this.frequencySeconds = frequencySeconds;
+    }
+
     public Instant getNextCheckAt() {
         return nextCheckAt;
     }
@@ -95,5 +113,60 @@ public class PingResponse {
     public void setRecentResults(List<CheckResultDto> recentResults) {
         this.recentResults = recentResults;
     }
-}
 
+    public boolean isMeasureDns() {
+        return measureDns;
+    }
+
+    public void setMeasureDns(boolean measureDns) {
+        this.measureDns = measureDns;
+    }
+
+    public Ping.ConnectionMode getConnectionMode() {
+        return connectionMode;
+    }
+
+    public void setConnectionMode(Ping.ConnectionMode connectionMode) {
+        this.connectionMode = connectionMode;
+    }
+
+    public Ping.ProbeMode getProbeMode() {
+        return probeMode;
+    }
+
+    public void setProbeMode(Ping.ProbeMode probeMode) {
+        this.probeMode = probeMode;
+    }
+
+    public Long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(Long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public Ping.AssertionMode getAssertionMode() {
+        return assertionMode;
+    }
+
+    public void setAssertionMode(Ping.AssertionMode assertionMode) {
+        this.assertionMode = assertionMode;
+    }
+
+    public String getAssertionPattern() {
+        return assertionPattern;
+    }
+
+    public void setAssertionPattern(String assertionPattern) {
+        this.assertionPattern = assertionPattern;
+    }
+
+    public boolean isTrackContent() {
+        return trackContent;
+    }
+
+    public void setTrackContent(boolean trackContent) {
+        this.trackContent = trackContent;
+    }
+}
@@ -0,0 +1,61 @@
+package com.isofuture.uptime.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A worker's shard lease. {@code pings} is always the complete shard: pings missing from it
+ * (revoked, edited or deleted) are no longer the worker's to check.
+ */
+public class ShardLeaseResponse {
+
+    private String leaseId;
+    private Instant leaseExpiresAt;
+    /**
+     * When the worker should renew, well before the lease expires.
+     */
+    private Instant renewAt;
+    private List<ShardPingResponse> pings;
+
+    public ShardLeaseResponse() {
+    }
+
+    public ShardLeaseResponse(String leaseId, Instant leaseExpiresAt, Instant renewAt, List<ShardPingResponse> pings) {
+        this.leaseId = leaseId;
+        this.leaseExpiresAt = leaseExpiresAt;
+        this.renewAt = renewAt;
+        this.pings = pings;
+    }
+
+    public String getLeaseId() {
+        return leaseId;
+    }
+
+    public void setLeaseId(String leaseId) {
+        this.leaseId = leaseId;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public Instant getRenewAt() {
+        return renewAt;
+    }
+
+    public void setRenewAt(Instant renewAt) {
+        this.renewAt = renewAt;
+    }
+
+    public List<ShardPingResponse> getPings() {
+        return pings;
+    }
+
+    public void setPings(List<ShardPingResponse> pings) {
+        this.pings = pings;
+    }
+}
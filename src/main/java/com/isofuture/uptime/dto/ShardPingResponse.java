@@ -0,0 +1,181 @@
+package com.isofuture.uptime.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.isofuture.uptime.entity.Ping;
+
+/**
+ * One ping of a shard lease, with what the worker needs to schedule it locally: it is due at
+ * {@code nextCheckAt} and then every {@code frequencySeconds}, on slots {@code offsetMillis}
+ * into each period (epoch milliseconds).
+ */
+public class ShardPingResponse {
+
+    private Long pingId;
+    private String url;
+    private String label;
+    private Integer frequencySeconds;
+    private Long offsetMillis;
+    private Instant nextCheckAt;
+    /**
+     * Present (true) when probes should resolve the host afresh to measure DNS.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean measureDns;
+
+    /**
+     * Present (POOLED) when probes should reuse keep-alive connections.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Ping.ConnectionMode connectionMode;
+
+    /**
+     * How probes should bound the download; absent for a plain GET up to the default body cap.
+     * etag is the If-None-Match value for CONDITIONAL.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Ping.ProbeMode probeMode;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long maxBodyBytes;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String etag;
+
+    /**
+     * Body assertion probes should evaluate, if the ping has one.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Ping.AssertionMode assertionMode;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String assertionPattern;
+
+    /**
+     * Present (true) when probes should report the SHA-256 of the body.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean trackContent;
+
+    public ShardPingResponse() {
+    }
+
+    public ShardPingResponse(Long pingId, String url, String label, Integer frequencySeconds, Long offsetMillis, Instant nextCheckAt) {
+        this.pingId = pingId;
+        this.url = url;
+        this.label = label;
+        this.frequencySeconds = frequencySeconds;
+        this.offsetMillis = offsetMillis;
+        this.nextCheckAt = nextCheckAt;
+    }
+
+    public Long getPingId() {
+        return pingId;
+    }
+
+    public void setPingId(Long pingId) {
+        this.pingId = pingId;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Integer getFrequencySeconds() {
+        return frequencySeconds;
+    }
+
+    public void setFrequencySeconds(Integer frequencySeconds) {
+        this.frequencySeconds = frequencySeconds;
+    }
+
+    public Long getOffsetMillis() {
+        return offsetMillis;
+    }
+
+    public void setOffsetMillis(Long offsetMillis) {
+        this.offsetMillis = offsetMillis;
+    }
+
+    public Instant getNextCheckAt() {
+        return nextCheckAt;
+    }
+
+    public void setNextCheckAt(Instant nextCheckAt) {
+        this.nextCheckAt = nextCheckAt;
+    }
+
+    public Boolean getMeasureDns() {
+        return measureDns;
+    }
+
+    public void setMeasureDns(Boolean measureDns) {
+        this.measureDns = measureDns;
+    }
+
+    public Ping.ConnectionMode getConnectionMode() {
+        return connectionMode;
+    }
+
+    public void setConnectionMode(Ping.ConnectionMode connectionMode) {
+        this.connectionMode = connectionMode;
+    }
+
+    public Ping.ProbeMode getProbeMode() {
+        return probeMode;
+    }
+
+    public void setProbeMode(Ping.ProbeMode probeMode) {
+        this.probeMode = probeMode;
+    }
+
+    public Long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(Long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public Ping.AssertionMode getAssertionMode() {
+        return assertionMode;
+    }
+
+    public void setAssertionMode(Ping.AssertionMode assertionMode) {
+        this.assertionMode = assertionMode;
+    }
+
+    public String getAssertionPattern() {
+        return assertionPattern;
+    }
+
+    public void setAssertionPattern(String assertionPattern) {
+        this.assertionPattern = assertionPattern;
+    }
+
+    public Boolean getTrackContent() {
+        return trackContent;
+    }
+
+    public void setTrackContent(Boolean trackContent) {
+        this.trackContent = trackContent;
+    }
+}
@@ -1,6 +1,8 @@
 package com.isofuture.uptime.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 
 public class TierRequest {
@@ -9,6 +11,12 @@ public class TierRequest {
     @Size(min = 1, max = 100)
     private String name;
 
+    @Min(1)
+    @Max(86400)
+    private Integer minFrequencySeconds;
+
+    private Boolean priority;
+
     public String getName() {
         return name;
     }
@@ -16,6 +24,20 @@ public class TierRequest {
     public void setName(String name) {
         this.name = name;
     }
-}
 
+    public Integer getMinFrequencySeconds() {
+        return minFrequencySeconds;
+    }
+
+    public void setMinFrequencySeconds(Integer minFrequencySeconds) {
+        this.minFrequencySeconds = minFrequencySeconds;
+    }
+
+    public Boolean getPriority() {
+        return priority;
+    }
 
+    public void setPriority(Boolean priority) {
+        this.priority = priority;
+    }
+}
@@ -8,6 +8,8 @@ public class TierResponse {
 
     private Long id;
     private String name;
+    private Integer minFrequencySeconds;
+    private boolean priority;
     private Instant createdAt;
     private Instant deletedAt;
 
@@ -17,6 +19,8 @@ public class TierResponse {
     public TierResponse(Tier entity) {
         this.id = entity.getId();
         this.name = entity.getName();
+        this.minFrequencySeconds = entity.getMinFrequencySeconds();
+        this.priority = entity.isPriority();
         this.createdAt = entity.getCreatedAt();
         this.deletedAt = entity.getDeletedAt();
     }
@@ -37,6 +41,22 @@ public class TierResponse {
         this.name = name;
     }
 
+    public Integer getMinFrequencySeconds() {
+        return minFrequencySeconds;
+    }
+
+    public void setMinFrequencySeconds(Integer minFrequencySeconds) {
+        this.minFrequencySeconds = minFrequencySeconds;
+    }
+
+    public boolean isPriority() {
+        return priority;
+    }
+
+    public void setPriority(boolean priority) {
+        this.priority = priority;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -1,5 +1,7 @@
 package com.isofuture.uptime.dto;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 
 public class TierUpdateRequest {
@@ -7,6 +9,12 @@ public class TierUpdateRequest {
     @Size(min = 1, max = 100)
     private String name;
 
+    @Min(1)
+    @Max(86400)
+    private Integer minFrequencySeconds;
+
+    private Boolean priority;
+
     public String getName() {
         return name;
     }
@@ -14,6 +22,20 @@ public class TierUpdateRequest {
     public void setName(String name) {
         this.name = name;
     }
-}
 
+    public Integer getMinFrequencySeconds() {
+        return minFrequencySeconds;
+    }
+
+    public void setMinFrequencySeconds(Integer minFrequencySeconds) {
+        this.minFrequencySeconds = minFrequencySeconds;
+    }
+
+    public Boolean getPriority() {
+        return priority;
+    }
 
+    public void setPriority(Boolean priority) {
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,136 @@
+package com.isofuture.uptime.dto;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * WorkerMessage - JSON frame exchanged on the worker WebSocket (/api/checks/ws).
+ *
+ * Worker to server:
+ * - {@code capacity}: {@code capacity} = how many checks the worker can have in flight
+ * - {@code results}: {@code results} = finished checks, same fields as PATCH /api/checks/result
+ *
+ * Server to worker:
+ * - {@code checks}: {@code checks} = claimed checks, same fields as POST /api/checks/next
+ * - {@code ack}: {@code pingIds} = results that were recorded
+ * - {@code error}: {@code message} (and {@code pingId} when a single result was rejected, or
+ *   {@code pingIds} and {@code retryAfterSeconds} when a results frame was turned away under load)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkerMessage {
+
+    public static final String CAPACITY = "capacity";
+    public static final String RESULTS = "results";
+    public static final String CHECKS = "checks";
+    public static final String ACK = "ack";
+    public static final String ERROR = "error";
+
+    private String type;
+    private Integer capacity;
+    private List<CheckResultUpdateRequest> results;
+    private List<PendingCheckResponse> checks;
+    private List<Long> pingIds;
+    private Long pingId;
+    private String message;
+    private Long retryAfterSeconds;
+
+    public WorkerMessage() {
+    }
+
+    public static WorkerMessage checks(List<PendingCheckResponse> checks) {
+        WorkerMessage message = new WorkerMessage();
+        message.setType(CHECKS);
+        message.setChecks(checks);
+        return message;
+    }
+
+    public static WorkerMessage ack(List<Long> pingIds) {
+        WorkerMessage message = new WorkerMessage();
+        message.setType(ACK);
+        message.setPingIds(pingIds);
+        return message;
+    }
+
+    public static WorkerMessage error(Long pingId, String text) {
+        WorkerMessage message = new WorkerMessage();
+        message.setType(ERROR);
+        message.setPingId(pingId);
+        message.setMessage(text);
+        return message;
+    }
+
+    public static WorkerMessage overloaded(List<Long> pingIds, Duration retryAfter) {
+        WorkerMessage message = new WorkerMessage();
+        message.setType(ERROR);
+        message.setPingIds(pingIds);
+        message.setMessage("Result ingestion is saturated, retry later");
+        message.setRetryAfterSeconds(Math.max(retryAfter.toSeconds(), 1));
+        return message;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public List<CheckResultUpdateRequest> getResults() {
+        return results;
+    }
+
+    public void setResults(List<CheckResultUpdateRequest> results) {
+        this.results = results;
+    }
+
+    public List<PendingCheckResponse> getChecks() {
+        return checks;
+    }
+
+    public void setChecks(List<PendingCheckResponse> checks) {
+        this.checks = checks;
+    }
+
+    public List<Long> getPingIds() {
+        return pingIds;
+    }
+
+    public void setPingIds(List<Long> pingIds) {
+        this.pingIds = pingIds;
+    }
+
+    public Long getPingId() {
+        return pingId;
+    }
+
+    public void setPingId(Long pingId) {
+        this.pingId = pingId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(Long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
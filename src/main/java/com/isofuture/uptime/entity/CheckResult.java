@@ -47,6 +47,45 @@ public class CheckResult {
     @Column(name = "checked_at", nullable = false)
     private Instant checkedAt;
 
+    @Column(name = "dns_ms")
+    private Double dnsMs;
+
+    @Column(name = "connect_ms")
+    private Double connectMs;
+
+    @Column(name = "tls_ms")
+    private Double tlsMs;
+
+    @Column(name = "ttfb_ms")
+    private Double ttfbMs;
+
+    @Column(name = "transfer_ms")
+    private Double transferMs;
+
+    /**
+     * Bytes received from the target, headers included.
+     */
+    @Column(name = "bytes_transferred")
+    private Long bytesTransferred;
+
+    /**
+     * Outcome of the ping's body assertion; null if it has none or no body was read.
+     */
+    @Column(name = "assertion_passed")
+    private Boolean assertionPassed;
+
+    /**
+     * Hex SHA-256 of the body, for pings that track content.
+     */
+    @Column(name = "body_digest", length = 64)
+    private String bodyDigest;
+
+    /**
+     * Whether the body digest differs from the previous check's; null without a digest to compare.
+     */
+    @Column(name = "content_changed")
+    private Boolean contentChanged;
+
     public Long getId() {
         return id;
     }
@@ -94,5 +133,76 @@ public class CheckResult {
     public void setCheckedAt(Instant checkedAt) {
         this.checkedAt = checkedAt;
     }
-}
 
+    public Double getDnsMs() {
+        return dnsMs;
+    }
+
+    public void setDnsMs(Double dnsMs) {
+        this.dnsMs = dnsMs;
+    }
+
+    public Double getConnectMs() {
+        return connectMs;
+    }
+
+    public void setConnectMs(Double connectMs) {
+        this.connectMs = connectMs;
+    }
+
+    public Double getTlsMs() {
+        return tlsMs;
+    }
+
+    public void setTlsMs(Double tlsMs) {
+        this.tlsMs = tlsMs;
+    }
+
+    public Double getTtfbMs() {
+        return ttfbMs;
+    }
+
+    public void setTtfbMs(Double ttfbMs) {
+        this.ttfbMs = ttfbMs;
+    }
+
+    public Double getTransferMs() {
+        return transferMs;
+    }
+
+    public void setTransferMs(Double transferMs) {
+        this.transferMs = transferMs;
+    }
+
+    public Long getBytesTransferred() {
+        return bytesTransferred;
+    }
+
+    public void setBytesTransferred(Long bytesTransferred) {
+        this.bytesTransferred = bytesTransferred;
+    }
+
+    public Boolean getAssertionPassed() {
+        return assertionPassed;
+    }
+
+    public void setAssertionPassed(Boolean assertionPassed) {
+        this.assertionPassed = assertionPassed;
+    }
+
+    public String getBodyDigest() {
+        return bodyDigest;
+    }
+
+    public void setBodyDigest(String bodyDigest) {
+        this.bodyDigest = bodyDigest;
+    }
+
+    public Boolean getContentChanged() {
+        return contentChanged;
+    }
+
+    public void setContentChanged(Boolean contentChanged) {
+        this.contentChanged = contentChanged;
+    }
+}
@@ -1,12 +1,17 @@
 package com.isofuture.uptime.entity;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.isofuture.uptime.util.ProbeKeys;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
@@ -26,11 +31,64 @@ import jakarta.persistence.Table;
     indexes = {
         @Index(name = "IX_ping_user_id", columnList = "user_id"),
         @Index(name = "IX_ping_next_check_at", columnList = "next_check_at"),
-        @Index(name = "IX_ping_in_progress", columnList = "in_progress")
+        @Index(name = "IX_ping_in_progress", columnList = "in_progress"),
+        @Index(name = "IX_ping_claim", columnList = "in_progress, next_check_at"),
+        @Index(name = "IX_ping_lease", columnList = "in_progress, lease_expires_at"),
+        @Index(name = "IX_ping_probe_key", columnList = "probe_key, in_progress, next_check_at"),
+        @Index(name = "IX_ping_coalesced_into", columnList = "coalesced_into"),
+        @Index(name = "IX_ping_shard", columnList = "claim_token, shard_worker_id")
     }
 )
 public class Ping {
 
+    /**
+     * How probes of a ping connect to its target.
+     */
+    public enum ConnectionMode {
+        /**
+         * A new connection per probe, closed afterwards: every probe pays DNS, connect and TLS,
+         * like a first-time visitor.
+         */
+        FRESH,
+        /**
+         * Keep-alive connections reused from a bounded per-host pool (see ProbeConnectionPool):
+         * cheap for frequent checks, but setup phases are only measured on new connections.
+         */
+        POOLED
+    }
+
+    /**
+     * What a probe asks the target for; the modes other than GET bound the bytes downloaded.
+     */
+    public enum ProbeMode {
+        /**
+         * GET of the whole body (up to the body cap).
+         */
+        GET,
+        /**
+         * HEAD, falling back to GET when the server does not allow HEAD (405 or 501).
+         */
+        HEAD,
+        /**
+         * GET with a Range header for the first max-body-bytes bytes; 206 and 200 both count.
+         */
+        RANGE,
+        /**
+         * GET with If-None-Match and the ETag of the previous response; 304 means unchanged.
+         */
+        CONDITIONAL
+    }
+
+    /**
+     * How the response body is checked against the ping's assertion pattern.
+     */
+    public enum AssertionMode {
+        CONTAINS,
+        NOT_CONTAINS,
+        MATCHES,
+        NOT_MATCHES
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -51,12 +109,100 @@ public class Ping {
     @Column(name = "frequency_minutes", nullable = false)
     private Integer frequencyMinutes;
 
+    /**
+     * Check period in seconds. Null on rows written before second resolution existed,
+     * in which case frequency_minutes applies (see getFrequency()).
+     */
+    @Column(name = "frequency_seconds")
+    private Integer frequencySeconds;
+
     @Column(name = "next_check_at")
     private Instant nextCheckAt;
 
     @Column(name = "in_progress", nullable = false)
     private boolean inProgress;
 
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    /**
+     * Pings with the same probe key send the same request and can share a probe (see ProbeKeys).
+     */
+    @Column(name = "probe_key", length = 64)
+    private String probeKey;
+
+    /**
+     * While claimed as a follower of a coalesced probe: the ping whose result is fanned out to this one.
+     */
+    @Column(name = "coalesced_into")
+    private Long coalescedInto;
+
+    /**
+     * Worker that was last handed this ping; it is preferred for the next probe (see WorkerAffinity).
+     */
+    @Column(name = "last_worker_id", length = 128)
+    private String lastWorkerId;
+
+    /**
+     * While the ping is part of a worker's shard lease: that worker, which schedules it locally
+     * (see ShardLeaseService). The lease itself is claim_token / lease_expires_at.
+     */
+    @Column(name = "shard_worker_id", length = 128)
+    private String shardWorkerId;
+
+    /**
+     * Resolve the host afresh on every probe instead of through the probe DNS cache, so the
+     * DNS phase measures the resolver.
+     */
+    @Column(name = "measure_dns", nullable = false)
+    private boolean measureDns;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "connection_mode", nullable = false, length = 16)
+    private ConnectionMode connectionMode = ConnectionMode.FRESH;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "probe_mode", nullable = false, length = 16)
+    private ProbeMode probeMode = ProbeMode.GET;
+
+    /**
+     * Body bytes a probe reads before it drops the connection; null for app.probe.max-body-bytes.
+     */
+    @Column(name = "max_body_bytes")
+    private Long maxBodyBytes;
+
+    /**
+     * ETag of the last response, sent as If-None-Match by CONDITIONAL probes.
+     */
+    @Column(name = "last_etag", length = 512)
+    private String lastEtag;
+
+    /**
+     * Content assertion on the response body: a keyword (CONTAINS, NOT_CONTAINS) or a regex
+     * (MATCHES, NOT_MATCHES); both null for none.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "assertion_mode", length = 16)
+    private AssertionMode assertionMode;
+
+    @Column(name = "assertion_pattern", length = 1024)
+    private String assertionPattern;
+
+    /**
+     * Digest each response body to flag content changes between checks.
+     */
+    @Column(name = "track_content", nullable = false)
+    private boolean trackContent;
+
+    /**
+     * Hex SHA-256 of the body at the last check that digested one; the baseline for the next.
+     */
+    @Column(name = "last_body_digest", length = 64)
+    private String lastBodyDigest;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -96,6 +242,7 @@ public class Ping {
 
     public void setUrl(String url) {
         this.url = url;
+        refreshProbeKey();
     }
 
     public Integer getFrequencyMinutes() {
@@ -104,6 +251,32 @@ public class Ping {
 
     public void setFrequencyMinutes(Integer frequencyMinutes) {
         this.frequencyMinutes = frequencyMinutes;
+        this.frequencySeconds = frequencyMinutes != null ? frequencyMinutes * 60 : null;
+    }
+
+    public Integer getFrequencySeconds() {
+        return frequencySeconds;
+    }
+
+    /**
+     * Sets the period in seconds; frequency_minutes follows, rounded up, for older clients.
+     */
+    public void setFrequencySeconds(Integer frequencySeconds) {
+        this.frequencySeconds = frequencySeconds;
+        this.frequencyMinutes = frequencySeconds != null ? Math.max(1, (frequencySeconds + 59) / 60) : null;
+    }
+
+    /**
+     * Check period, or null if neither frequency is set.
+     */
+    public Duration getFrequency() {
+        if (frequencySeconds != null && frequencySeconds > 0) {
+            return Duration.ofSeconds(frequencySeconds);
+        }
+        if (frequencyMinutes != null && frequencyMinutes > 0) {
+            return Duration.ofMinutes(frequencyMinutes);
+        }
+        return null;
     }
 
     public Instant getNextCheckAt() {
@@ -122,6 +295,54 @@ public class Ping {
         this.inProgress = inProgress;
     }
 
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public Instant getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(Instant leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public String getProbeKey() {
+        return probeKey;
+    }
+
+    public void setProbeKey(String probeKey) {
+        this.probeKey = probeKey;
+    }
+
+    public Long getCoalescedInto() {
+        return coalescedInto;
+    }
+
+    public void setCoalescedInto(Long coalescedInto) {
+        this.coalescedInto = coalescedInto;
+    }
+
+    public String getLastWorkerId() {
+        return lastWorkerId;
+    }
+
+    public void setLastWorkerId(String lastWorkerId) {
+        this.lastWorkerId = lastWorkerId;
+    }
+
+    public String getShardWorkerId() {
+        return shardWorkerId;
+    }
+
+    public void setShardWorkerId(String shardWorkerId) {
+        this.shardWorkerId = shardWorkerId;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -138,6 +359,85 @@ public class Ping {
         this.updatedAt = updatedAt;
     }
 
+    public boolean isMeasureDns() {
+        return measureDns;
+    }
+
+    public void setMeasureDns(boolean measureDns) {
+        this.measureDns = measureDns;
+        refreshProbeKey();
+    }
+
+    public ConnectionMode getConnectionMode() {
+        return connectionMode;
+    }
+
+    public void setConnectionMode(ConnectionMode connectionMode) {
+        this.connectionMode = connectionMode != null ? connectionMode : ConnectionMode.FRESH;
+        refreshProbeKey();
+    }
+
+    public ProbeMode getProbeMode() {
+        return probeMode;
+    }
+
+    public void setProbeMode(ProbeMode probeMode) {
+        this.probeMode = probeMode != null ? probeMode : ProbeMode.GET;
+        refreshProbeKey();
+    }
+
+    public Long getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    public void setMaxBodyBytes(Long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+        refreshProbeKey();
+    }
+
+    public AssertionMode getAssertionMode() {
+        return assertionMode;
+    }
+
+    public void setAssertionMode(AssertionMode assertionMode) {
+        this.assertionMode = assertionMode;
+        refreshProbeKey();
+    }
+
+    public String getAssertionPattern() {
+        return assertionPattern;
+    }
+
+    public void setAssertionPattern(String assertionPattern) {
+        this.assertionPattern = assertionPattern;
+        refreshProbeKey();
+    }
+
+    public boolean isTrackContent() {
+        return trackContent;
+    }
+
+    public void setTrackContent(boolean trackContent) {
+        this.trackContent = trackContent;
+        refreshProbeKey();
+    }
+
+    public String getLastBodyDigest() {
+        return lastBodyDigest;
+    }
+
+    public void setLastBodyDigest(String lastBodyDigest) {
+        this.lastBodyDigest = lastBodyDigest;
+    }
+
+    public String getLastEtag() {
+        return lastEtag;
+    }
+
+    public void setLastEtag(String lastEtag) {
+        this.lastEtag = lastEtag;
+    }
+
     public List<CheckResult> getResults() {
         return results;
     }
@@ -155,11 +455,28 @@ public class Ping {
         if (updatedAt == null) {
             updatedAt = now;
         }
+        if (probeKey == null) {
+            refreshProbeKey();
+        }
     }
 
     @PreUpdate
     public void onUpdate() {
         updatedAt = Instant.now();
     }
+
+    /**
+     * The probe key covers the URL and every setting that changes the probe, so only pings
+     * probed identically are coalesced.
+     */
+    private void refreshProbeKey() {
+        this.probeKey = ProbeKeys.of(url,
+            measureDns ? "measure-dns" : null,
+            connectionMode == ConnectionMode.POOLED ? "pooled" : null,
+            probeMode != ProbeMode.GET ? "mode=" + probeMode.name() : null,
+            maxBodyBytes != null ? "max-body=" + maxBodyBytes : null,
+            assertionMode != null ? "assert=" + assertionMode.name() + ":" + assertionPattern : null,
+            trackContent ? "digest" : null);
+    }
 }
 
@@ -0,0 +1,57 @@
+package com.isofuture.uptime.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * SchedulerNode - Heartbeat row of a backend node taking part in schedule partitioning.
+ * A node is live while its heartbeat is younger than app.scheduler.partition.node-ttl.
+ */
+@Entity
+@Table(
+    name = "scheduler_node",
+    indexes = {
+        @Index(name = "IX_scheduler_node_heartbeat_at", columnList = "heartbeat_at")
+    }
+)
+public class SchedulerNode {
+
+    @Id
+    @Column(name = "node_id", length = 64)
+    private String nodeId;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private Instant heartbeatAt;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Instant getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(Instant heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+}
@@ -39,6 +39,20 @@ public class Tier {
     @Column(nullable = false, length = 100)
     private String name;
 
+    /**
+     * Shortest ping frequency allowed for users on this tier; null means the
+     * application default (app.scheduler.default-min-frequency-seconds).
+     */
+    @Column(name = "min_frequency_seconds")
+    private Integer minFrequencySeconds;
+
+    /**
+     * Pings of users on a priority tier are never stretched or shed while the scheduler is
+     * overloaded.
+     */
+    @Column(nullable = false)
+    private boolean priority;
+
     @Column(name = "created_at")
     private Instant createdAt;
 
@@ -61,6 +75,22 @@ public class Tier {
         this.name = name;
     }
 
+    public Integer getMinFrequencySeconds() {
+        return minFrequencySeconds;
+    }
+
+    public void setMinFrequencySeconds(Integer minFrequencySeconds) {
+        this.minFrequencySeconds = minFrequencySeconds;
+    }
+
+    public boolean isPriority() {
+        return priority;
+    }
+
+    public void setPriority(boolean priority) {
+        this.priority = priority;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
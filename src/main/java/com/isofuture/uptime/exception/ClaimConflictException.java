@@ -0,0 +1,8 @@
+package com.isofuture.uptime.exception;
+
+public class ClaimConflictException extends RuntimeException {
+
+    public ClaimConflictException(String message) {
+        super(message);
+    }
+}
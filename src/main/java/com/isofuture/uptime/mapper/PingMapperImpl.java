@@ -28,8 +28,16 @@ public class PingMapperImpl implements PingMapper {
         response.setLabel(entity.getLabel());
         response.setUrl(entity.getUrl());
         response.setFrequencyMinutes(entity.getFrequencyMinutes());
+        response.setFrequencySeconds(entity.getFrequency() != null ? (int) entity.getFrequency().toSeconds() : null);
         response.setNextCheckAt(entity.getNextCheckAt());
         response.setInProgress(entity.isInProgress());
+        response.setMeasureDns(entity.isMeasureDns());
+        response.setConnectionMode(entity.getConnectionMode());
+        response.setProbeMode(entity.getProbeMode());
+        response.setMaxBodyBytes(entity.getMaxBodyBytes());
+        response.setAssertionMode(entity.getAssertionMode());
+        response.setAssertionPattern(entity.getAssertionPattern());
+        response.setTrackContent(entity.isTrackContent());
         response.setCreatedAt(entity.getCreatedAt());
         response.setUpdatedAt(entity.getUpdatedAt());
         response.setRecentResults(recentResults);
@@ -49,6 +57,15 @@ public class PingMapperImpl implements PingMapper {
         dto.setErrorMessage(entity.getErrorMessage());
         dto.setResponseTimeMs(entity.getResponseTimeMs());
         dto.setCheckedAt(entity.getCheckedAt());
+        dto.setDnsMs(entity.getDnsMs());
+        dto.setConnectMs(entity.getConnectMs());
+        dto.setTlsMs(entity.getTlsMs());
+        dto.setTtfbMs(entity.getTtfbMs());
+        dto.setTransferMs(entity.getTransferMs());
+        dto.setBytesTransferred(entity.getBytesTransferred());
+        dto.setAssertionPassed(entity.getAssertionPassed());
+        dto.setBodyDigest(entity.getBodyDigest());
+        dto.setContentChanged(entity.getContentChanged());
 
         return dto;
     }
@@ -1,23 +1,152 @@
 package com.isofuture.uptime.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.isofuture.uptime.entity.Ping;
 import com.isofuture.uptime.entity.User;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 public interface PingRepository extends JpaRepository<Ping, Long> {
 
+    // Lock timeout hint Hibernate reads as SKIP LOCKED
+    String SKIP_LOCKED = "-2";
+
     List<Ping> findByOwner(User owner);
 
     @Query("select p from Ping p where p.inProgress = false and (p.nextCheckAt is null or p.nextCheckAt <= :now) order by case when p.nextCheckAt is null then 0 else 1 end, p.nextCheckAt, p.id")
     List<Ping> findReadyForCheck(@Param("now") Instant now);
 
+    @Query("select min(p.nextCheckAt) from Ping p where p.inProgress = false")
+    Instant findEarliestNextCheckAt();
+
+    // Skips rows locked by concurrent claims; ordering on next_check_at alone keeps IX_ping_claim usable
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select p from Ping p where p.inProgress = false and (p.nextCheckAt is null or p.nextCheckAt <= :now) order by p.nextCheckAt, p.id")
+    List<Ping> lockReadyForCheck(@Param("now") Instant now, Limit limit);
+
+    // Only pings whose slot (id % slots) this node owns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select p from Ping p where p.inProgress = false and (p.nextCheckAt is null or p.nextCheckAt <= :now) and mod(p.id, :slots) in :owned order by p.nextCheckAt, p.id")
+    List<Ping> lockReadyForCheckInSlots(
+        @Param("now") Instant now,
+        @Param("slots") int slots,
+        @Param("owned") Collection<Integer> owned,
+        Limit limit
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ping p set p.inProgress = true, p.claimToken = :claimToken, p.leaseExpiresAt = :leaseExpiresAt, p.coalescedInto = null, p.updatedAt = :now where p.id in :ids")
+    int markInProgress(
+        @Param("ids") Collection<Long> ids,
+        @Param("now") Instant now,
+        @Param("claimToken") String claimToken,
+        @Param("leaseExpiresAt") Instant leaseExpiresAt
+    );
+
+    // Claims from before leases existed count as expired once untouched since staleBefore
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select p from Ping p where p.inProgress = true and (p.leaseExpiresAt <= :now or (p.leaseExpiresAt is null and p.updatedAt <= :staleBefore)) order by p.leaseExpiresAt, p.id")
+    List<Ping> lockExpiredLeases(@Param("now") Instant now, @Param("staleBefore") Instant staleBefore, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ping p set p.inProgress = false, p.claimToken = null, p.leaseExpiresAt = null, p.coalescedInto = null, p.shardWorkerId = null, p.nextCheckAt = :now, p.updatedAt = :now where p.id in :ids and p.inProgress = true")
+    int releaseClaims(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ping p set p.lastWorkerId = :workerId where p.id in :ids")
+    int assignWorker(@Param("ids") Collection<Long> ids, @Param("workerId") String workerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select p from Ping p where p.inProgress = false order by p.nextCheckAt, p.id")
+    List<Ping> lockIdleForShard(Limit limit);
+
+    // Leased pings stay in progress until the lease is released, revoked or expires
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ping p set p.inProgress = true, p.claimToken = :leaseId, p.leaseExpiresAt = :leaseExpiresAt, p.shardWorkerId = :workerId, p.lastWorkerId = :workerId, p.coalescedInto = null, p.updatedAt = :now where p.id in :ids")
+    int markShardLeased(
+        @Param("ids") Collection<Long> ids,
+        @Param("workerId") String workerId,
+        @Param("leaseId") String leaseId,
+        @Param("leaseExpiresAt") Instant leaseExpiresAt,
+        @Param("now") Instant now
+    );
+
+    List<Ping> findByClaimTokenAndShardWorkerIdAndInProgressTrueOrderById(String claimToken, String shardWorkerId);
+
+    List<Ping> findByShardWorkerIdOrderById(String shardWorkerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ping p set p.leaseExpiresAt = :leaseExpiresAt where p.claimToken = :leaseId and p.shardWorkerId = :workerId and p.inProgress = true")
+    int renewShardLease(@Param("leaseId") String leaseId, @Param("workerId") String workerId, @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    // Unlike releaseClaims, keeps next_check_at: the worker recorded results up to now
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ping p set p.inProgress = false, p.claimToken = null, p.leaseExpiresAt = null, p.shardWorkerId = null, p.updatedAt = :now where p.id in :ids and p.shardWorkerId is not null")
+    int releaseShard(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    @Query("select count(distinct p.shardWorkerId) from Ping p where p.shardWorkerId is not null and p.leaseExpiresAt > :now")
+    long countShardWorkers(@Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ping p set p.nextCheckAt = :nextCheckAt, p.updatedAt = :now where p.id = :id and p.inProgress = false")
+    int rescheduleIdle(@Param("id") Long id, @Param("nextCheckAt") Instant nextCheckAt, @Param("now") Instant now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select p from Ping p where p.id in :ids and p.inProgress = false and (p.nextCheckAt is null or p.nextCheckAt <= :now) order by p.nextCheckAt, p.id")
+    List<Ping> lockReadyForCheckByIds(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    // Idle pings due by dueBy that can share a claimed leader's probe
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select p from Ping p where p.probeKey in :probeKeys and p.inProgress = false and (p.nextCheckAt is null or p.nextCheckAt <= :dueBy) order by p.nextCheckAt, p.id")
+    List<Ping> lockCoalescable(@Param("probeKeys") Collection<String> probeKeys, @Param("dueBy") Instant dueBy, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Ping p set p.inProgress = true, p.claimToken = :claimToken, p.leaseExpiresAt = :leaseExpiresAt, p.coalescedInto = :leaderId, p.updatedAt = :now where p.id in :ids")
+    int markCoalesced(
+        @Param("ids") Collection<Long> ids,
+        @Param("leaderId") Long leaderId,
+        @Param("now") Instant now,
+        @Param("claimToken") String claimToken,
+        @Param("leaseExpiresAt") Instant leaseExpiresAt
+    );
+
+    List<Ping> findByCoalescedIntoAndClaimTokenAndInProgressTrue(Long coalescedInto, String claimToken);
+
+    @Query("select p.id from Ping p where p.coalescedInto in :leaderIds and p.inProgress = true")
+    List<Long> findCoalescedFollowerIds(@Param("leaderIds") Collection<Long> leaderIds);
+
+    @Query("select p.id as id, p.nextCheckAt as nextCheckAt, p.inProgress as inProgress, p.frequencyMinutes as frequencyMinutes, p.frequencySeconds as frequencySeconds, p.updatedAt as updatedAt from Ping p where p.id > :afterId order by p.id")
+    List<PingSchedule> findSchedulesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select p.id as id, p.nextCheckAt as nextCheckAt, p.inProgress as inProgress, p.frequencyMinutes as frequencyMinutes, p.frequencySeconds as frequencySeconds, p.updatedAt as updatedAt from Ping p where p.inProgress = false and (p.nextCheckAt is null or p.nextCheckAt < :overdueBefore) and p.id > :afterId order by p.id")
+    List<PingSchedule> findOverdueSchedulesAfter(@Param("overdueBefore") Instant overdueBefore, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("select p.id as id, p.nextCheckAt as nextCheckAt, p.inProgress as inProgress, p.frequencyMinutes as frequencyMinutes, p.frequencySeconds as frequencySeconds, p.updatedAt as updatedAt from Ping p where p.id in :ids")
+    List<PingSchedule> findSchedulesByIds(@Param("ids") Collection<Long> ids);
+
+    // Picks up schedule writes made through other backend nodes
+    @Query("select p.id as id, p.nextCheckAt as nextCheckAt, p.inProgress as inProgress, p.frequencyMinutes as frequencyMinutes, p.frequencySeconds as frequencySeconds, p.updatedAt as updatedAt from Ping p where p.updatedAt >= :since order by p.updatedAt, p.id")
+    List<PingSchedule> findSchedulesUpdatedSince(@Param("since") Instant since, Limit limit);
+
     Optional<Ping> findByIdAndOwnerId(Long id, Long ownerId);
 
     List<Ping> findByInProgressTrueOrderByUpdatedAtAsc();
@@ -0,0 +1,22 @@
+package com.isofuture.uptime.repository;
+
+import java.time.Instant;
+
+/**
+ * PingSchedule - Lightweight projection of a ping's scheduling state.
+ * Used to (re)build in-memory schedules without loading full Ping entities.
+ */
+public interface PingSchedule {
+
+    Long getId();
+
+    Instant getNextCheckAt();
+
+    boolean isInProgress();
+
+    Integer getFrequencyMinutes();
+
+    Integer getFrequencySeconds();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,39 @@
+package com.isofuture.uptime.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.isofuture.uptime.entity.SchedulerNode;
+
+/**
+ * SchedulerNodeRepository - Membership table for schedule partitioning.
+ */
+public interface SchedulerNodeRepository extends JpaRepository<SchedulerNode, String> {
+
+    /**
+     * Refreshes a node's heartbeat.
+     *
+     * @return 1 if the node row exists, 0 if it has to be (re)inserted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SchedulerNode n set n.heartbeatAt = :now where n.nodeId = :nodeId")
+    int touch(@Param("nodeId") String nodeId, @Param("now") Instant now);
+
+    /**
+     * IDs of nodes whose heartbeat is newer than {@code since}, in a stable order.
+     */
+    @Query("select n.nodeId from SchedulerNode n where n.heartbeatAt > :since order by n.nodeId")
+    List<String> findLiveNodeIds(@Param("since") Instant since);
+
+    /**
+     * Removes nodes that stopped heartbeating before {@code before}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from SchedulerNode n where n.heartbeatAt <= :before")
+    int deleteExpired(@Param("before") Instant before);
+}
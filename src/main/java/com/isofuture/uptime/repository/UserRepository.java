@@ -2,6 +2,7 @@ package com.isofuture.uptime.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -76,5 +77,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id = :id")
     Optional<User> findByIdIncludingDeleted(@Param("id") Long id);
+
+    /**
+     * IDs of active users on at least one active priority tier.
+     */
+    @Query("SELECT DISTINCT u.id FROM User u JOIN u.tiers t WHERE t.priority = true AND t.deletedAt IS NULL AND u.deletedAt IS NULL")
+    Set<Long> findActiveIdsOnPriorityTiers();
 }
 
@@ -31,7 +31,11 @@ public class WorkerApiKeyAuthenticationFilter extends OncePerRequestFilter {
     private static final Set<String> PROTECTED_ENDPOINTS = Set.of(
         "/api/checks/next",
         "/api/checks/result",
-        "/api/checks/pending"
+        "/api/checks/results",
+        "/api/checks/shards",
+        "/api/checks/shards/*",
+        "/api/checks/pending",
+        "/api/checks/ws"
     );
 
     private final WorkerApiKeyService workerApiKeyService;
@@ -70,6 +74,14 @@ public class WorkerApiKeyAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Long-polled /next requests complete on an async dispatch, which has to be authenticated again.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
     private boolean requiresWorkerApiKey(HttpServletRequest request) {
         String path = request.getRequestURI();
         String method = request.getMethod();
@@ -86,9 +98,24 @@ public class WorkerApiKeyAuthenticationFilter extends OncePerRequestFilter {
                 if (endpoint.endsWith("/result") && "PATCH".equalsIgnoreCase(method)) {
                     return true;
                 }
+                if (endpoint.endsWith("/results") && "POST".equalsIgnoreCase(method)) {
+                    return true;
+                }
+                // shard leases: acquire, renew and release
+                if (endpoint.endsWith("/shards") && "POST".equalsIgnoreCase(method)) {
+                    return true;
+                }
+                if (endpoint.endsWith("/shards/*")
+                    && ("PUT".equalsIgnoreCase(method) || "DELETE".equalsIgnoreCase(method))) {
+                    return true;
+                }
                 if (endpoint.endsWith("/pending") && "GET".equalsIgnoreCase(method)) {
                     return true;
                 }
+                // WebSocket handshake
+                if (endpoint.endsWith("/ws") && "GET".equalsIgnoreCase(method)) {
+                    return true;
+                }
             }
         }
 
@@ -0,0 +1,409 @@
+package com.isofuture.uptime.service;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.isofuture.uptime.entity.Ping;
+
+/**
+ * BodyAssertion - A ping's content assertion, compiled once and matched as the body streams in.
+ *
+ * Keywords are searched with KMP over their UTF-8 bytes; a regex runs over a window of the last
+ * MAX_MATCH_LENGTH characters, with anchors matching only at the real start and end of the body.
+ * Regexes that may backtrack without bound are rejected, and matching is capped at MAX_MATCH_TIME.
+ */
+final class BodyAssertion {
+
+    static final int MAX_MATCH_LENGTH = 4096;
+    // Characters kept before the regex window once the body start is dropped, for \b and lookbehind
+    static final int LOOKBEHIND = 64;
+    static final Duration MAX_MATCH_TIME = Duration.ofMillis(250);
+
+    private final Ping.AssertionMode mode;
+    private final String expression;
+    private final byte[] keyword;
+    private final int[] failure;
+    private final Pattern pattern;
+    // Matcher.requireEnd() does not report \z, so a match of such a pattern at the end is held back
+    private final boolean endOfInputAnchor;
+
+    private BodyAssertion(Ping.AssertionMode mode, String expression) {
+        this.mode = mode;
+        this.expression = expression;
+        if (isRegex()) {
+            assertBoundedBacktracking(expression);
+            this.pattern = Pattern.compile(expression);
+            this.endOfInputAnchor = expression.contains("\\z");
+            this.keyword = null;
+            this.failure = null;
+        } else {
+            this.pattern = null;
+            this.endOfInputAnchor = false;
+            this.keyword = expression.getBytes(StandardCharsets.UTF_8);
+            this.failure = failureTable(keyword);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is empty, not a valid regex or a regex
+     *         that may backtrack without bound
+     */
+    static BodyAssertion compile(Ping.AssertionMode mode, String expression) {
+        if (mode == null || expression == null || expression.isEmpty()) {
+            throw new IllegalArgumentException("A body assertion needs a mode and a non-empty pattern");
+        }
+        return new BodyAssertion(mode, expression);
+    }
+
+    Scan newScan() {
+        return isRegex() ? new RegexScan() : new KeywordScan();
+    }
+
+    /**
+     * Why a body failed this assertion, for the check result.
+     */
+    String failureMessage() {
+        return switch (mode) {
+            case CONTAINS -> "Body assertion failed: \"" + expression + "\" not found";
+            case NOT_CONTAINS -> "Body assertion failed: \"" + expression + "\" found";
+            case MATCHES -> "Body assertion failed: no match for /" + expression + "/";
+            case NOT_MATCHES -> "Body assertion failed: match for /" + expression + "/";
+        };
+    }
+
+    private boolean isRegex() {
+        return mode == Ping.AssertionMode.MATCHES || mode == Ping.AssertionMode.NOT_MATCHES;
+    }
+
+    private boolean passes(boolean found) {
+        return mode == Ping.AssertionMode.CONTAINS || mode == Ping.AssertionMode.MATCHES ? found : !found;
+    }
+
+    /**
+     * Rejects backreferences, and unbounded or counted repetition of a group that contains a
+     * repetition itself. Character classes and quoted text are skipped.
+     */
+    private static void assertBoundedBacktracking(String regex) {
+        // Per open group: whether it contains a quantifier so far
+        Deque<Boolean> groups = new ArrayDeque<>();
+        boolean quantified = false;
+        boolean afterQuantifiedGroup = false;
+        int classDepth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            boolean closedQuantifiedGroup = false;
+            if (c == '\\' && i + 1 < regex.length()) {
+                char next = regex.charAt(++i);
+                if (next == 'Q') {
+                    int end = regex.indexOf("\\E", i);
+                    i = end < 0 ? regex.length() : end + 1;
+                } else if ((next == 'p' || next == 'P') && i + 1 < regex.length() && regex.charAt(i + 1) == '{') {
+                    int end = regex.indexOf('}', i);
+                    i = end < 0 ? regex.length() : end;
+                } else if (classDepth == 0 && (next == 'k' || next >= '1' && next <= '9')) {
+                    throw new IllegalArgumentException("Backreferences are not allowed");
+                }
+            } else if (classDepth > 0) {
+                if (c == '[') {
+                    classDepth++;
+                } else if (c == ']') {
+                    classDepth--;
+                }
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == '(') {
+                groups.push(quantified);
+                quantified = false;
+                i = skipGroupConstruct(regex, i);
+            } else if (c == ')') {
+                closedQuantifiedGroup = quantified;
+                quantified = (!groups.isEmpty() && groups.pop()) || quantified;
+            } else if (c == '*' || c == '+' || c == '{') {
+                if (afterQuantifiedGroup) {
+                    throw new IllegalArgumentException("Nested quantifiers are not allowed");
+                }
+                quantified = true;
+            } else if (c == '?') {
+                quantified = true;
+            }
+            afterQuantifiedGroup = closedQuantifiedGroup;
+        }
+    }
+
+    /**
+     * Skips the "?:", "?<name>", "?=", "?i" and similar after a group's opening parenthesis.
+     *
+     * @return the index of the construct's last character
+     */
+    private static int skipGroupConstruct(String regex, int open) {
+        if (open + 1 >= regex.length() || regex.charAt(open + 1) != '?') {
+            return open;
+        }
+        int i = open + 1;
+        while (i + 1 < regex.length()) {
+            char c = regex.charAt(i + 1);
+            if (c == ')') {
+                break;
+            }
+            i++;
+            if (c == ':' || c == '=' || c == '!' || c == '>') {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static int[] failureTable(byte[] keyword) {
+        int[] table = new int[keyword.length];
+        int k = 0;
+        for (int i = 1; i < keyword.length; i++) {
+            while (k > 0 && keyword[i] != keyword[k]) {
+                k = table[k - 1];
+            }
+            if (keyword[i] == keyword[k]) {
+                k++;
+            }
+            table[i] = k;
+        }
+        return table;
+    }
+
+    /**
+     * Matching state of one response body.
+     */
+    interface Scan {
+
+        /**
+         * Matches the next body bytes.
+         *
+         * @return true once the assertion is decided, so the rest of the body can be skipped
+         */
+        boolean feed(byte[] bytes, int offset, int length);
+
+        /**
+         * Marks the end of the body. Not called for a body cut off at the cap.
+         */
+        void finish();
+
+        /**
+         * Whether the body read so far passes.
+         */
+        boolean passed();
+
+        /**
+         * Why the body failed, for the check result.
+         */
+        String failureMessage();
+    }
+
+    private final class KeywordScan implements Scan {
+
+        private int matched;
+        private boolean found;
+
+        @Override
+        public boolean feed(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length && !found; i++) {
+                while (matched > 0 && bytes[i] != keyword[matched]) {
+                    matched = failure[matched - 1];
+                }
+                if (bytes[i] == keyword[matched]) {
+                    matched++;
+                }
+                if (matched == keyword.length) {
+                    found = true;
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public void finish() {
+            // A keyword does not depend on where the body ends
+        }
+
+        @Override
+        public boolean passed() {
+            return passes(found);
+        }
+
+        @Override
+        public String failureMessage() {
+            return BodyAssertion.this.failureMessage();
+        }
+    }
+
+    private final class RegexScan implements Scan {
+
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final StringBuilder window = new StringBuilder();
+        // Bytes of a character split across reads (at most 3)
+        private ByteBuffer pending = ByteBuffer.allocate(0);
+        // Where matches may start: 0 while the window holds the body start, LOOKBEHIND after
+        private int regionStart;
+        private long matchTimeLeft = MAX_MATCH_TIME.toNanos();
+        private boolean found;
+        private boolean timedOut;
+
+        @Override
+        public boolean feed(byte[] bytes, int offset, int length) {
+            if (found || timedOut) {
+                return true;
+            }
+            ByteBuffer in = ByteBuffer.allocate(pending.remaining() + length);
+            in.put(pending).put(bytes, offset, length).flip();
+            CharBuffer out = CharBuffer.allocate(in.remaining());
+            decoder.decode(in, out, false);
+            pending = in.slice();
+            window.append(out.flip());
+            found = match(false);
+            if (!found && window.length() > MAX_MATCH_LENGTH + LOOKBEHIND) {
+                window.delete(0, window.length() - MAX_MATCH_LENGTH - LOOKBEHIND);
+                regionStart = LOOKBEHIND;
+            }
+            return found || timedOut;
+        }
+
+        @Override
+        public void finish() {
+            if (found || timedOut) {
+                return;
+            }
+            if (pending.hasRemaining()) {
+                CharBuffer out = CharBuffer.allocate(pending.remaining());
+                decoder.decode(pending, out, true);
+                window.append(out.flip());
+            }
+            found = match(true);
+        }
+
+        @Override
+        public boolean passed() {
+            return !timedOut && passes(found);
+        }
+
+        /**
+         * Runs the pattern over the window. Before the end of the body, a match that needs the
+         * window's end to be the input's end (a {@code $}, {@code \z} or {@code \b} there) does
+         * not count: the next read may undo it.
+         */
+        private boolean match(boolean atEnd) {
+            long start = System.nanoTime();
+            try {
+                Matcher matcher = pattern.matcher(new DeadlineCharSequence(window, start + matchTimeLeft))
+                    .region(regionStart, window.length())
+                    .useAnchoringBounds(false)
+                    .useTransparentBounds(true);
+                return matcher.find()
+                    && (atEnd || !matcher.requireEnd() && !(endOfInputAnchor && matcher.hitEnd()));
+            } catch (MatchTimeoutException e) {
+                timedOut = true;
+                return false;
+            } finally {
+                matchTimeLeft -= System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public String failureMessage() {
+            if (timedOut) {
+                return "Body assertion failed: matching /" + expression + "/ took longer than "
+                    + MAX_MATCH_TIME.toMillis() + " ms";
+            }
+            return BodyAssertion.this.failureMessage();
+        }
+    }
+
+    /**
+     * The regex window as the matcher sees it: every 1024th character read checks the deadline,
+     * so a backtracking match is abandoned once the time is up.
+     */
+    private static final class DeadlineCharSequence implements CharSequence {
+
+        private final CharSequence text;
+        private final long deadline;
+        private int reads;
+
+        private DeadlineCharSequence(CharSequence text, long deadline) {
+            this.text = text;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if ((++reads & 0x3FF) == 0 && System.nanoTime() - deadline > 0) {
+                throw new MatchTimeoutException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new DeadlineCharSequence(text.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+
+    private static final class MatchTimeoutException extends RuntimeException {
+
+        private MatchTimeoutException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Compiled assertions by mode and expression, so a ping's pattern is compiled once rather
+     * than on every check. Least recently used entries are dropped beyond maxEntries.
+     */
+    static final class Cache {
+
+        private final Map<String, BodyAssertion> compiled;
+
+        Cache(int maxEntries) {
+            this.compiled = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, BodyAssertion> eldest) {
+                    return size() > maxEntries;
+                }
+            });
+        }
+
+        /**
+         * The compiled assertion, or null if there is none.
+         *
+         * @throws IllegalArgumentException if the expression does not compile
+         */
+        BodyAssertion get(Ping.AssertionMode mode, String expression) {
+            if (mode == null || expression == null) {
+                return null;
+            }
+            return compiled.computeIfAbsent(mode.name() + ":" + expression, key -> compile(mode, expression));
+        }
+
+        int size() {
+            return compiled.size();
+        }
+    }
+}
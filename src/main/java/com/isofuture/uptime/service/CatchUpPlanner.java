@@ -0,0 +1,204 @@
+package com.isofuture.uptime.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.repository.PingRepository;
+import com.isofuture.uptime.repository.PingSchedule;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * CatchUpPlanner - Recovers from downtime without a stampede (app.scheduler.catch-up.*).
+ *
+ * A pass at startup, or before a claim that follows more than trigger-idle without claims,
+ * collapses each overdue ping's missed runs into one check spread over at most max-spread, and
+ * claims are ramped up from initial-rate. Each page commits in its own transaction.
+ */
+@Service
+public class CatchUpPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(CatchUpPlanner.class);
+
+    private final PingRepository pingRepository;
+    private final PingScheduler pingScheduler;
+    private final SchedulePolicy schedulePolicy;
+    private final SchedulerProperties properties;
+    private final TransactionTemplate pageTransaction;
+    private final Counter rescheduledCounter;
+    private final AtomicLong lastClaimMillis = new AtomicLong();
+    private final AtomicBoolean catchingUp = new AtomicBoolean();
+    private volatile long rampStartedMillis = -1;
+    private double tokens;
+    private long refilledAtMillis;
+
+    public CatchUpPlanner(
+        PingRepository pingRepository,
+        PingScheduler pingScheduler,
+        SchedulePolicy schedulePolicy,
+        SchedulerProperties properties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.pingRepository = pingRepository;
+        this.pingScheduler = pingScheduler;
+        this.schedulePolicy = schedulePolicy;
+        this.properties = properties;
+        this.pageTransaction = new TransactionTemplate(transactionManager);
+        this.pageTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rescheduledCounter = Counter.builder("uptime.scheduler.catchup.rescheduled")
+            .description("Overdue pings spread out again by a catch-up pass")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        if (properties.getCatchUp().isEnabled()) {
+            catchUp();
+        }
+    }
+
+    /**
+     * Notes a claim attempt, before the claim consults isRamping(). A long gap since the previous
+     * one means no worker was claiming: the first claim to see the gap runs a catch-up pass
+     * before it claims, and the claim ramp starts before the pass so that claims racing it are
+     * throttled as well.
+     */
+    public void onClaim(Instant now) {
+        if (!properties.getCatchUp().isEnabled()) {
+            return;
+        }
+        long nowMillis = now.toEpochMilli();
+        long previous = lastClaimMillis.getAndSet(nowMillis);
+        long idleMillis = nowMillis - previous;
+        if (previous > 0 && idleMillis > properties.getCatchUp().getTriggerIdle().toMillis()
+            && catchingUp.compareAndSet(false, true)) {
+            log.info("No claims for {}s, running a catch-up pass before claiming", idleMillis / 1000);
+            try {
+                startRamp(nowMillis);
+                if (spreadOverdue(now) == 0) {
+                    stopRamp();
+                }
+            } finally {
+                catchingUp.set(false);
+            }
+        }
+    }
+
+    /**
+     * Spreads every idle overdue ping out again, one short transaction per page, and starts
+     * the claim ramp if anything was overdue.
+     *
+     * @return Number of pings rescheduled
+     */
+    public int catchUp() {
+        Instant now = Instant.now();
+        int total = spreadOverdue(now);
+        if (total > 0) {
+            startRamp(now.toEpochMilli());
+        }
+        return total;
+    }
+
+    private int spreadOverdue(Instant now) {
+        SchedulerProperties.CatchUp config = properties.getCatchUp();
+        Instant overdueBefore = now.minus(config.getOverdueGrace());
+        long lastId = 0L;
+        int total = 0;
+        List<PingSchedule> page;
+        do {
+            page = pingRepository.findOverdueSchedulesAfter(overdueBefore, lastId, Limit.of(config.getBatchSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<PingSchedule> current = page;
+            Integer moved = pageTransaction.execute(status -> spreadPage(current, now));
+            total += moved != null ? moved : 0;
+            lastId = page.get(page.size() - 1).getId();
+        } while (page.size() == config.getBatchSize());
+        if (total > 0) {
+            rescheduledCounter.increment(total);
+            log.info("Catch-up spread {} overdue pings over the next {}s, ramping claims from {}/s",
+                total, config.getMaxSpread().toSeconds(), config.getInitialRate());
+        } else {
+            log.debug("Catch-up found no overdue pings");
+        }
+        return total;
+    }
+
+    public boolean isRamping() {
+        long started = rampStartedMillis;
+        return started >= 0 && System.currentTimeMillis() - started < properties.getCatchUp().getRampDuration().toMillis();
+    }
+
+    /**
+     * How many of the requested claims the ramp allows now (all of them once the ramp is over).
+     */
+    public synchronized int admit(int requested) {
+        if (!isRamping()) {
+            return requested;
+        }
+        long nowMillis = System.currentTimeMillis();
+        double rate = currentRate(nowMillis);
+        // Bursts of up to one second's worth of claims
+        tokens = Math.min(rate, tokens + (nowMillis - refilledAtMillis) * rate / 1000);
+        refilledAtMillis = nowMillis;
+        int granted = (int) Math.min(requested, Math.floor(tokens));
+        tokens -= granted;
+        return granted;
+    }
+
+    private int spreadPage(List<PingSchedule> page, Instant now) {
+        int moved = 0;
+        for (PingSchedule schedule : page) {
+            Duration period = schedulePolicy.periodOf(schedule.getFrequencySeconds(), schedule.getFrequencyMinutes());
+            Instant nextCheckAt = catchUpSlot(schedule.getId(), period, now);
+            if (pingRepository.rescheduleIdle(schedule.getId(), nextCheckAt, now) > 0) {
+                pingScheduler.schedule(schedule.getId(), nextCheckAt);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    private Instant catchUpSlot(Long pingId, Duration period, Instant now) {
+        Instant slot = schedulePolicy.nextCheckAfter(pingId, period, now);
+        Duration maxSpread = properties.getCatchUp().getMaxSpread();
+        if (period.compareTo(maxSpread) <= 0) {
+            return slot;
+        }
+        Instant spread = now.plusMillis(schedulePolicy.offsetMillis(pingId, maxSpread));
+        return spread.isBefore(slot) ? spread : slot;
+    }
+
+    private synchronized void startRamp(long nowMillis) {
+        rampStartedMillis = nowMillis;
+        tokens = properties.getCatchUp().getInitialRate();
+        refilledAtMillis = nowMillis;
+    }
+
+    private synchronized void stopRamp() {
+        rampStartedMillis = -1;
+    }
+
+    private double currentRate(long nowMillis) {
+        SchedulerProperties.CatchUp config = properties.getCatchUp();
+        double doublings = (nowMillis - rampStartedMillis) / (double) Math.max(1, config.getRampDoubling().toMillis());
+        return config.getInitialRate() * Math.pow(2, doublings);
+    }
+}
@@ -0,0 +1,30 @@
+package com.isofuture.uptime.service;
+
+import java.util.List;
+
+import com.isofuture.uptime.dto.PendingCheckResponse;
+
+/**
+ * CheckChannel - A connected worker that CheckDispatcher pushes claimed checks to.
+ */
+public interface CheckChannel {
+
+    /**
+     * How many more checks the worker can take right now.
+     */
+    int freeCapacity();
+
+    /**
+     * Hands claimed checks to the worker.
+     *
+     * @return false if the worker is gone; the checks are then released
+     */
+    boolean deliver(List<PendingCheckResponse> checks);
+
+    /**
+     * Identity of the worker behind the channel, used for affinity; null if unknown.
+     */
+    default String workerId() {
+        return null;
+    }
+}
@@ -0,0 +1,272 @@
+package com.isofuture.uptime.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.PendingCheckResponse;
+import com.isofuture.uptime.repository.PingRepository;
+
+/**
+ * CheckDispatcher - Hands due checks to workers that wait for them instead of polling.
+ *
+ * One tick per node claims for parked long-poll requests in arrival order, then for CheckChannels
+ * with free capacity, and only when something can be due.
+ */
+@Service
+public class CheckDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckDispatcher.class);
+
+    private final PingService pingService;
+    private final PingScheduler pingScheduler;
+    private final PingRepository pingRepository;
+    private final DueSignal dueSignal;
+    private final SchedulerProperties properties;
+    private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final List<CheckChannel> channels = new CopyOnWriteArrayList<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private volatile long lastRecheckMillis;
+
+    public CheckDispatcher(
+        PingService pingService,
+        PingScheduler pingScheduler,
+        PingRepository pingRepository,
+        DueSignal dueSignal,
+        SchedulerProperties properties
+    ) {
+        this.pingService = pingService;
+        this.pingScheduler = pingScheduler;
+        this.pingRepository = pingRepository;
+        this.dueSignal = dueSignal;
+        this.properties = properties;
+    }
+
+    /**
+     * Claims up to {@code count} checks now, or parks the request until checks become due
+     * or {@code waitSeconds} (capped at app.scheduler.long-poll.max-wait) have passed.
+     */
+    public DeferredResult<List<PendingCheckResponse>> await(int count, int waitSeconds) {
+        return await(count, waitSeconds, null, claimed -> { });
+    }
+
+    /**
+     * Like {@link #await(int, int)}, claiming on behalf of {@code workerId} (see WorkerAffinity)
+     * and handing the batch given to this request to {@code onClaimed} exactly once when the
+     * request is answered - an empty list if it timed out or failed (used to track the worker's
+     * in-flight checks and free its grant).
+     */
+    public DeferredResult<List<PendingCheckResponse>> await(
+        int count,
+        int waitSeconds,
+        String workerId,
+        Consumer<List<PendingCheckResponse>> onClaimed
+    ) {
+        long waitMillis = Math.min(Math.max(waitSeconds, 0) * 1000L, properties.getLongPoll().getMaxWait().toMillis());
+        DeferredResult<List<PendingCheckResponse>> result = new DeferredResult<>(waitMillis, List.of());
+
+        List<PendingCheckResponse> next = claim(count, workerId);
+        if (!next.isEmpty() || waitMillis == 0) {
+            result.setResult(next);
+            onClaimed.accept(next);
+            return result;
+        }
+        if (waiting.incrementAndGet() > properties.getLongPoll().getMaxWaiters()) {
+            waiting.decrementAndGet();
+            log.warn("Long-poll waiter limit ({}) reached, answering immediately", properties.getLongPoll().getMaxWaiters());
+            result.setResult(next);
+            onClaimed.accept(next);
+            return result;
+        }
+
+        Waiter waiter = new Waiter(count, workerId, result, onClaimed);
+        result.onCompletion(() -> {
+            if (waiters.remove(waiter)) {
+                waiting.decrementAndGet();
+            }
+            waiter.settle(List.of());
+        });
+        waiters.add(waiter);
+        log.debug("Parked long-poll request for {} checks ({} ms, {} waiting)", count, waitMillis, waiting.get());
+        return result;
+    }
+
+    public int waitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * Starts pushing checks to a connected worker.
+     */
+    public void open(CheckChannel channel) {
+        channels.add(channel);
+    }
+
+    public void close(CheckChannel channel) {
+        channels.remove(channel);
+    }
+
+    public int channelCount() {
+        return channels.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.long-poll.dispatch-interval-millis:200}")
+    public void dispatch() {
+        if (!hasDemand()) {
+            return;
+        }
+        Instant now = Instant.now();
+        if (!mightBeDue(now)) {
+            return;
+        }
+
+        int served = 0;
+        // exhausted: an anonymous claim came back empty, so nothing is claimable for anyone;
+        // a worker's empty claim only means the due pings are held for other workers
+        boolean exhausted = false;
+        boolean emptyClaim = false;
+        try {
+            for (Waiter waiter : waiters) {
+                if (waiter.result.isSetOrExpired()) {
+                    continue;
+                }
+                List<PendingCheckResponse> next = claim(waiter.count, waiter.workerId);
+                if (next.isEmpty()) {
+                    emptyClaim = true;
+                    if (waiter.workerId == null) {
+                        exhausted = true;
+                        break;
+                    }
+                    continue;
+                }
+                if (waiter.deliver(next)) {
+                    served++;
+                } else {
+                    // Timed out or disconnected while we were claiming - hand the checks back
+                    release(next);
+                }
+            }
+            for (CheckChannel channel : channels) {
+                if (exhausted) {
+                    break;
+                }
+                int free;
+                while ((free = channel.freeCapacity()) > 0) {
+                    List<PendingCheckResponse> next = claim(Math.min(free, properties.getBatch().getMaxSize()), channel.workerId());
+                    if (next.isEmpty()) {
+                        emptyClaim = true;
+                        exhausted = channel.workerId() == null;
+                        break;
+                    } else if (channel.deliver(next)) {
+                        served++;
+                    } else {
+                        release(next);
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Check dispatch failed: {}", e.getMessage());
+        }
+        if (served > 0) {
+            log.debug("Check dispatch served {} batches to waiting workers", served);
+        }
+        if (!pingScheduler.isEnabled()) {
+            refreshDueHint(now, emptyClaim);
+        }
+    }
+
+    private boolean hasDemand() {
+        for (Waiter waiter : waiters) {
+            if (!waiter.result.isSetOrExpired()) {
+                return true;
+            }
+        }
+        for (CheckChannel channel : channels) {
+            if (channel.freeCapacity() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<PendingCheckResponse> claim(int count, String workerId) {
+        return workerId != null ? pingService.fetchNextChecks(count, workerId) : pingService.fetchNextChecks(count);
+    }
+
+    private void release(List<PendingCheckResponse> checks) {
+        pingService.releaseChecks(checks.stream().map(PendingCheckResponse::getPingId).toList());
+    }
+
+    private boolean mightBeDue(Instant now) {
+        if (pingScheduler.isEnabled()) {
+            return pingScheduler.hasDue(now);
+        }
+        return dueSignal.isDue(now)
+            || now.toEpochMilli() - lastRecheckMillis >= properties.getLongPoll().getIdleRecheckMillis();
+    }
+
+    private void refreshDueHint(Instant now, boolean exhausted) {
+        dueSignal.clear();
+        lastRecheckMillis = now.toEpochMilli();
+        Instant earliest = pingRepository.findEarliestNextCheckAt();
+        if (earliest == null) {
+            return;
+        }
+        if (exhausted && !earliest.isAfter(now)) {
+            // Due but not claimable here (locked elsewhere or owned by another node): wait for a
+            // signal or the idle recheck instead of retrying on every tick
+            return;
+        }
+        dueSignal.signal(earliest);
+    }
+
+    private static final class Waiter {
+        private final int count;
+        private final String workerId;
+        private final DeferredResult<List<PendingCheckResponse>> result;
+        private final Consumer<List<PendingCheckResponse>> onClaimed;
+        private boolean settled;
+
+        private Waiter(
+            int count,
+            String workerId,
+            DeferredResult<List<PendingCheckResponse>> result,
+            Consumer<List<PendingCheckResponse>> onClaimed
+        ) {
+            this.count = count;
+            this.workerId = workerId;
+            this.result = result;
+            this.onClaimed = onClaimed;
+        }
+
+        /**
+         * Answers the request with {@code next}; false if it already timed out or disconnected.
+         * Holds the lock until onClaimed ran, so the completion callback cannot settle first.
+         */
+        private synchronized boolean deliver(List<PendingCheckResponse> next) {
+            if (!result.setResult(next)) {
+                return false;
+            }
+            settle(next);
+            return true;
+        }
+
+        private synchronized void settle(List<PendingCheckResponse> claimed) {
+            if (!settled) {
+                settled = true;
+                onClaimed.accept(claimed);
+            }
+        }
+    }
+}
@@ -1,25 +1,26 @@
 package com.isofuture.uptime.service;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.CheckResultBatchResponse;
 import com.isofuture.uptime.dto.CheckResultDto;
 import com.isofuture.uptime.dto.CheckResultUpdateRequest;
 import com.isofuture.uptime.dto.ExecuteCheckRequest;
 import com.isofuture.uptime.entity.CheckResult;
 import com.isofuture.uptime.entity.Ping;
+import com.isofuture.uptime.exception.ClaimConflictException;
 import com.isofuture.uptime.repository.CheckResultRepository;
 import com.isofuture.uptime.repository.PingRepository;
 
@@ -30,105 +31,219 @@ public class CheckService {
     private final PingRepository pingRepository;
     private final CheckResultRepository checkResultRepository;
     private final UserContext userContext;
-    private final HttpClient httpClient;
+    private final PingScheduler pingScheduler;
+    private final SchedulePolicy schedulePolicy;
+    private final HostPoliteness hostPoliteness;
+    private final OverloadControl overloadControl;
+    private final SchedulerProperties schedulerProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ProbeEngine probeEngine;
 
     public CheckService(
         PingRepository pingRepository,
         CheckResultRepository checkResultRepository,
-        UserContext userContext
+        UserContext userContext,
+        PingScheduler pingScheduler,
+        SchedulePolicy schedulePolicy,
+        HostPoliteness hostPoliteness,
+        OverloadControl overloadControl,
+        SchedulerProperties schedulerProperties,
+        TransactionTemplate transactionTemplate,
+        ProbeEngine probeEngine
     ) {
         this.pingRepository = pingRepository;
         this.checkResultRepository = checkResultRepository;
         this.userContext = userContext;
-        this.httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
+        this.pingScheduler = pingScheduler;
+        this.schedulePolicy = schedulePolicy;
+        this.hostPoliteness = hostPoliteness;
+        this.overloadControl = overloadControl;
+        this.schedulerProperties = schedulerProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.probeEngine = probeEngine;
     }
 
-    @Transactional
+    /**
+     * Fails unless the current user may run a check of the ping (own ping, or admin) and no
+     * worker holds it right now.
+     */
+    @Transactional(readOnly = true)
+    public void assertExecutable(Long pingId) {
+        assertNotClaimed(loadAccessiblePing(pingId, false));
+    }
+
+    /**
+     * Runs a check in three phases so that no transaction or connection is held while the
+     * target is probed: a short claim transaction, the HTTP probe, then a short commit
+     * transaction that writes the Ping and its CheckResult.
+     */
     public CheckResultDto executeCheck(ExecuteCheckRequest request, boolean invokedByWorker) {
         log.debug("Executing check for ping ID: {} (invokedByWorker: {})", request.getPingId(), invokedByWorker);
-        Ping ping = loadAccessiblePing(request.getPingId(), invokedByWorker);
+        ProbeTarget target = transactionTemplate.execute(status -> claimForProbe(request.getPingId(), invokedByWorker));
+        ProbeEngine.Result outcome = probe(target.url(), target.options());
+        return transactionTemplate.execute(status -> commitProbe(target, outcome, invokedByWorker));
+    }
 
+    /**
+     * Claim phase: checks access and claims the ping under a lease so no worker picks it up
+     * during the probe (and the reaper frees it if the commit never happens). A ping a worker
+     * already holds is not checked: its result is on the way.
+     */
+    private ProbeTarget claimForProbe(Long pingId, boolean invokedByWorker) {
+        Ping ping = loadAccessiblePing(pingId, invokedByWorker);
+        assertNotClaimed(ping);
+        Instant now = Instant.now();
+        String claimToken = UUID.randomUUID().toString();
         ping.setInProgress(true);
-        ping.setUpdatedAt(Instant.now());
-        // Don't save here - we'll save everything together in recordResult to avoid double saves
-
-        Instant start = Instant.now();
-        Integer httpCode = null;
-        String error = null;
-
-        log.debug("Checking URL: {}", ping.getUrl());
-        try {
-            HttpRequest httpRequest = HttpRequest.newBuilder()
-                .uri(URI.create(ping.getUrl()))
-                .GET()
-                .timeout(Duration.ofSeconds(15))
-                .build();
-            HttpResponse<Void> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
-            httpCode = response.statusCode();
-            log.debug("URL check completed: {} - HTTP {}", ping.getUrl(), httpCode);
-        } catch (IOException | InterruptedException e) {
-            error = e.getMessage();
-            log.warn("URL check failed: {} - {}", ping.getUrl(), e.getMessage());
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-            }
-        }
+        ping.setClaimToken(claimToken);
+        ping.setLeaseExpiresAt(now.plus(schedulerProperties.getLease().getDuration()));
+        ping.setUpdatedAt(now);
+        pingRepository.save(ping);
+        pingScheduler.cancel(ping.getId());
+        return new ProbeTarget(ping.getId(), ping.getUrl(), ProbeEngine.Options.of(ping), claimToken);
+    }
 
-        double responseTime = Duration.between(start, Instant.now()).toMillis();
-        Instant checkedAt = Instant.now();
-        log.debug("URL check response time: {}ms for {}", responseTime, ping.getUrl());
+    /**
+     * Probe phase: runs outside any transaction, on the probe engine.
+     */
+    private ProbeEngine.Result probe(String url, ProbeEngine.Options options) {
+        ProbeEngine.Result outcome = probeEngine.probe(url, options);
+        log.debug("URL check response time: {}ms for {}", outcome.responseTimeMs(), url);
+        return outcome;
+    }
 
-        // Record result using the same ping entity instance
-        return recordResult(ping, httpCode, error, responseTime, checkedAt, invokedByWorker);
+    /**
+     * Commit phase: re-reads the ping and records the outcome, unless the claim taken for the
+     * probe lapsed and the ping was handed to a worker meanwhile.
+     */
+    private CheckResultDto commitProbe(ProbeTarget target, ProbeEngine.Result outcome, boolean invokedByWorker) {
+        Ping ping = loadAccessiblePing(target.pingId(), invokedByWorker);
+        assertClaimCurrent(ping, target.claimToken());
+        return recordResult(ping, outcome.toUpdateRequest(ping.getId(), target.claimToken()), invokedByWorker);
     }
 
     @Transactional
     public CheckResultDto recordResult(CheckResultUpdateRequest request, boolean invokedByWorker) {
         log.debug("Recording check result for ping ID: {} (invokedByWorker: {})", request.getPingId(), invokedByWorker);
         Ping ping = loadAccessiblePing(request.getPingId(), invokedByWorker);
-        return recordResult(ping, request.getHttpCode(), request.getErrorMessage(), 
-            request.getResponseTimeMs(), request.getCheckedAt(), invokedByWorker);
+        assertClaimCurrent(ping, request.getClaimToken());
+        String claimToken = ping.getClaimToken();
+        CheckResultDto result = recordResult(ping, request, invokedByWorker);
+        if (claimToken != null) {
+            fanOut(ping.getId(), claimToken, request, invokedByWorker);
+        }
+        return result;
     }
 
-    private CheckResultDto recordResult(Ping ping, Integer httpCode, String errorMessage, 
-            Double responseTimeMs, Instant checkedAt, boolean invokedByWorker) {
+    /**
+     * Records a batch of worker results in one transaction. A result that is rejected (unknown
+     * ping, superseded claim or lease) is skipped and reported instead of failing the batch.
+     */
+    @Transactional
+    public CheckResultBatchResponse recordResults(List<CheckResultUpdateRequest> requests) {
+        log.debug("Recording batch of {} check results", requests.size());
+        int recorded = 0;
+        List<Long> rejected = new ArrayList<>();
+        for (CheckResultUpdateRequest request : requests) {
+            try {
+                recordResult(request, true);
+                recorded++;
+            } catch (IllegalArgumentException | ClaimConflictException e) {
+                log.warn("Skipping result for ping ID {} in batch: {}", request.getPingId(), e.getMessage());
+                rejected.add(request.getPingId());
+            }
+        }
+        log.info("Recorded batch of check results: {} recorded, {} rejected", recorded, rejected.size());
+        return new CheckResultBatchResponse(recorded, rejected);
+    }
+
+    /**
+     * Copies a coalesced probe's result to the followers claimed with it. Each follower gets
+     * its own CheckResult row and its own next slot.
+     */
+    private void fanOut(Long leaderId, String claimToken, CheckResultUpdateRequest request, boolean invokedByWorker) {
+        List<Ping> followers = pingRepository.findByCoalescedIntoAndClaimTokenAndInProgressTrue(leaderId, claimToken);
+        for (Ping follower : followers) {
+            recordResult(follower, request, invokedByWorker);
+        }
+        if (!followers.isEmpty()) {
+            log.info("Copied result of ping ID {} to {} coalesced pings", leaderId, followers.size());
+        }
+    }
+
+    /**
+     * Records {@code request}'s outcome for {@code ping}, which may be a coalesced follower of
+     * the ping the request was reported for.
+     */
+    private CheckResultDto recordResult(Ping ping, CheckResultUpdateRequest request, boolean invokedByWorker) {
         log.debug("Recording check result for ping ID: {}", ping.getId());
         
         // Use the actual check time, or current time if not provided
-        Instant checkTime = checkedAt != null ? checkedAt : Instant.now();
+        Instant checkTime = request.getCheckedAt() != null ? request.getCheckedAt() : Instant.now();
         Instant now = Instant.now();
         
         // Get frequency from the ping entity
-        Integer frequencyMinutes = ping.getFrequencyMinutes();
-        if (frequencyMinutes == null || frequencyMinutes <= 0) {
-            log.warn("Invalid frequency minutes for ping ID {}: {}, using default of 5", ping.getId(), frequencyMinutes);
-            frequencyMinutes = 5;
+        Duration period = ping.getFrequency();
+        if (period == null) {
+            log.warn("Invalid frequency for ping ID {}: {}s / {}min, using default of {}", ping.getId(),
+                ping.getFrequencySeconds(), ping.getFrequencyMinutes(), SchedulePolicy.DEFAULT_PERIOD);
+            period = SchedulePolicy.DEFAULT_PERIOD;
         }
         
-        // Calculate next check time: check time + frequency minutes
-        Instant nextCheckTime = checkTime.plus(frequencyMinutes, ChronoUnit.MINUTES);
+        // Next check is the ping's next fixed slot after the check time (stable per-ping offset, no drift);
+        // while the schedule is behind, low-priority pings skip ahead by the stretch
+        Long ownerId = ping.getOwner() != null ? ping.getOwner().getId() : null;
+        Instant nextCheckTime = schedulePolicy.nextCheckAfter(ping.getId(), period, checkTime.plus(overloadControl.stretch(ownerId, period)));
         
-        log.debug("Setting next check time for ping ID {}: check time={}, frequency={} minutes, next check={}, current time={}", 
-            ping.getId(), checkTime, frequencyMinutes, nextCheckTime, now);
+        log.debug("Setting next check time for ping ID {}: check time={}, frequency={}s, next check={}, current time={}", 
+            ping.getId(), checkTime, period.toSeconds(), nextCheckTime, now);
         
-        // Update ping entity
-        ping.setInProgress(false);
+        // Update ping entity; a ping in a shard lease stays with its worker, which schedules it itself
+        boolean shardLeased = ping.getShardWorkerId() != null;
+        if (!shardLeased) {
+            ping.setInProgress(false);
+            ping.setClaimToken(null);
+            ping.setLeaseExpiresAt(null);
+            ping.setCoalescedInto(null);
+        }
         ping.setNextCheckAt(nextCheckTime);
         ping.setUpdatedAt(now);
         
         // Create check result
         CheckResult result = new CheckResult();
         result.setPing(ping);
-        result.setHttpCode(httpCode);
-        result.setErrorMessage(errorMessage);
-        result.setResponseTimeMs(responseTimeMs);
+        result.setHttpCode(request.getHttpCode());
+        result.setErrorMessage(request.getErrorMessage());
+        result.setResponseTimeMs(request.getResponseTimeMs());
         result.setCheckedAt(checkTime);
+        result.setDnsMs(request.getDnsMs());
+        result.setConnectMs(request.getConnectMs());
+        result.setTlsMs(request.getTlsMs());
+        result.setTtfbMs(request.getTtfbMs());
+        result.setTransferMs(request.getTransferMs());
+        result.setBytesTransferred(request.getBytesTransferred());
+        result.setAssertionPassed(request.getAssertionPassed());
+        if (request.getBodyDigest() != null) {
+            // Compared with the digest kept on the ping, not with check_result history
+            String previous = ping.getLastBodyDigest();
+            result.setBodyDigest(request.getBodyDigest());
+            result.setContentChanged(previous != null ? !previous.equals(request.getBodyDigest()) : null);
+            ping.setLastBodyDigest(request.getBodyDigest());
+            if (Boolean.TRUE.equals(result.getContentChanged())) {
+                log.info("Content of ping ID {} changed: body digest {} -> {}", ping.getId(), previous, request.getBodyDigest());
+            }
+        }
+        if (request.getEtag() != null) {
+            ping.setLastEtag(request.getEtag());
+        }
         
         // Save ping entity first (this persists nextCheckAt)
         Ping savedPing = pingRepository.save(ping);
         log.debug("Saved ping ID {} with nextCheckAt: {}", savedPing.getId(), savedPing.getNextCheckAt());
+        if (!shardLeased) {
+            pingScheduler.schedule(ping.getId(), nextCheckTime);
+        }
+        hostPoliteness.release(ping.getId());
         
         // Verify the saved value matches what we set
         if (savedPing.getNextCheckAt() == null || !savedPing.getNextCheckAt().equals(nextCheckTime)) {
@@ -139,10 +254,10 @@ public class CheckService {
         // Save check result
         CheckResult saved = checkResultRepository.save(result);
         
-        log.info("Check result recorded: Ping ID {} - HTTP {} - Response time {}ms - Next check: {} (in {} minutes)", 
+        log.info("Check result recorded: Ping ID {} - HTTP {} - Response time {}ms - Next check: {} (every {}s)", 
             ping.getId(), saved.getHttpCode() != null ? saved.getHttpCode() : "N/A", 
             saved.getResponseTimeMs() != null ? saved.getResponseTimeMs() : 0.0, 
-            nextCheckTime, frequencyMinutes);
+            nextCheckTime, period.toSeconds());
 
         CheckResultDto dto = new CheckResultDto();
         dto.setId(saved.getId());
@@ -150,9 +265,36 @@ public class CheckService {
         dto.setErrorMessage(saved.getErrorMessage());
         dto.setResponseTimeMs(saved.getResponseTimeMs());
         dto.setCheckedAt(saved.getCheckedAt());
+        dto.setDnsMs(saved.getDnsMs());
+        dto.setConnectMs(saved.getConnectMs());
+        dto.setTlsMs(saved.getTlsMs());
+        dto.setTtfbMs(saved.getTtfbMs());
+        dto.setTransferMs(saved.getTransferMs());
+        dto.setBytesTransferred(saved.getBytesTransferred());
+        dto.setAssertionPassed(saved.getAssertionPassed());
+        dto.setBodyDigest(saved.getBodyDigest());
+        dto.setContentChanged(saved.getContentChanged());
         return dto;
     }
 
+    /**
+     * Rejects a result whose claim is no longer the ping's: lapsed and released, or handed to
+     * another worker. Results without a token are not checked.
+     */
+    private void assertClaimCurrent(Ping ping, String claimToken) {
+        if (claimToken == null || claimToken.equals(ping.getClaimToken())) {
+            return;
+        }
+        log.warn("Rejecting result for ping ID {}: claim {} was superseded by {}", ping.getId(), claimToken, ping.getClaimToken());
+        throw new ClaimConflictException("Claim is no longer valid for ping " + ping.getId());
+    }
+
+    private void assertNotClaimed(Ping ping) {
+        if (ping.isInProgress() || ping.getShardWorkerId() != null) {
+            throw new ClaimConflictException("Ping " + ping.getId() + " is being checked by a worker, retry later");
+        }
+    }
+
     private Ping loadAccessiblePing(Long id, boolean invokedByWorker) {
         log.trace("Loading ping ID: {} (invokedByWorker: {}, isAdmin: {})", id, invokedByWorker, userContext.isAdmin());
         if (userContext.isAdmin() || invokedByWorker) {
@@ -169,5 +311,7 @@ public class CheckService {
                 return new AccessDeniedException("Forbidden");
             });
     }
-}
 
+    private record ProbeTarget(Long pingId, String url, ProbeEngine.Options options, String claimToken) {
+    }
+}
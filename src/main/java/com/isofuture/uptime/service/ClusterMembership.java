@@ -0,0 +1,207 @@
+package com.isofuture.uptime.service;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.entity.SchedulerNode;
+import com.isofuture.uptime.repository.SchedulerNodeRepository;
+import com.isofuture.uptime.util.ConsistentHashRing;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ClusterMembership - Splits the schedule across live backend nodes (app.scheduler.partition.*).
+ *
+ * Slots ({@code id % slots}) are assigned to heartbeating nodes by consistent hashing. Ownership
+ * is advisory; claims stay safe through SKIP LOCKED.
+ */
+@Service
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    /**
+     * Published after this node's slot assignment changed.
+     */
+    public record PartitionChanged(List<String> members, int ownedSlots) {
+    }
+
+    private final SchedulerNodeRepository nodeRepository;
+    private final SchedulerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final Instant startedAt = Instant.now();
+
+    private volatile Assignment assignment = Assignment.EMPTY;
+    private volatile Instant lastHeartbeatAt;
+
+    public ClusterMembership(
+        SchedulerNodeRepository nodeRepository,
+        SchedulerProperties properties,
+        TransactionTemplate transactionTemplate,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.nodeRepository = nodeRepository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        String configured = properties.getPartition().getNodeId();
+        this.nodeId = configured != null && !configured.isBlank() ? configured : defaultNodeId();
+    }
+
+    public boolean isEnabled() {
+        return properties.getPartition().isEnabled();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int slotCount() {
+        return properties.getPartition().getSlots();
+    }
+
+    /**
+     * Slots currently owned by this node, ascending.
+     */
+    public List<Integer> ownedSlots() {
+        return assignment.slots;
+    }
+
+    /**
+     * Live nodes as of the last heartbeat, including this one.
+     */
+    public List<String> members() {
+        return assignment.members;
+    }
+
+    /**
+     * Whether this node schedules the given ping. Always true when partitioning is disabled.
+     */
+    public boolean owns(Long pingId) {
+        if (!isEnabled()) {
+            return true;
+        }
+        return pingId != null && assignment.owned[(int) Math.floorMod(pingId, (long) assignment.owned.length)];
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void join() {
+        if (isEnabled()) {
+            log.info("Joining schedule partitioning as node {}", nodeId);
+            heartbeat();
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.scheduler.partition.heartbeat-interval-millis:5000}",
+        fixedDelayString = "${app.scheduler.partition.heartbeat-interval-millis:5000}"
+    )
+    public void heartbeat() {
+        if (!isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant liveSince = now.minus(properties.getPartition().getNodeTtl());
+        List<String> live;
+        try {
+            live = transactionTemplate.execute(status -> {
+                if (nodeRepository.touch(nodeId, now) == 0) {
+                    SchedulerNode node = new SchedulerNode();
+                    node.setNodeId(nodeId);
+                    node.setHeartbeatAt(now);
+                    node.setStartedAt(startedAt);
+                    nodeRepository.save(node);
+                }
+                nodeRepository.deleteExpired(liveSince);
+                return nodeRepository.findLiveNodeIds(liveSince);
+            });
+            lastHeartbeatAt = now;
+        } catch (RuntimeException e) {
+            log.warn("Scheduler heartbeat for node {} failed: {}", nodeId, e.getMessage());
+            if (lastHeartbeatAt != null && lastHeartbeatAt.isBefore(liveSince) && !assignment.slots.isEmpty()) {
+                // Other nodes have already dropped us - stop claiming until we are back
+                apply(List.of());
+            }
+            return;
+        }
+        List<String> members = new ArrayList<>(live != null ? live : List.of());
+        if (!members.contains(nodeId)) {
+            members.add(nodeId);
+            members.sort(null);
+        }
+        if (!members.equals(assignment.members)) {
+            apply(members);
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> nodeRepository.deleteById(nodeId));
+            log.info("Node {} left schedule partitioning", nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not remove node {} from scheduler_node: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void apply(List<String> members) {
+        int slots = slotCount();
+        boolean[] owned = new boolean[slots];
+        List<Integer> ownedSlots = new ArrayList<>();
+        ConsistentHashRing ring = new ConsistentHashRing(members, properties.getPartition().getVirtualNodes());
+        for (int slot = 0; slot < slots; slot++) {
+            if (nodeId.equals(ring.nodeFor("slot-" + slot))) {
+                owned[slot] = true;
+                ownedSlots.add(slot);
+            }
+        }
+        assignment = new Assignment(List.copyOf(members), List.copyOf(ownedSlots), owned);
+        log.info("Schedule partition changed: {} live nodes, node {} owns {} of {} slots",
+            members.size(), nodeId, ownedSlots.size(), slots);
+        eventPublisher.publishEvent(new PartitionChanged(assignment.members, ownedSlots.size()));
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        String id = host + "-" + suffix;
+        return id.length() > 64 ? id.substring(id.length() - 64) : id;
+    }
+
+    private static final class Assignment {
+        private static final Assignment EMPTY = new Assignment(List.of(), List.of(), new boolean[1]);
+
+        private final List<String> members;
+        private final List<Integer> slots;
+        private final boolean[] owned;
+
+        private Assignment(List<String> members, List<Integer> slots, boolean[] owned) {
+            this.members = members;
+            this.slots = slots;
+            this.owned = owned;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.isofuture.uptime.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.isofuture.uptime.config.ProbeProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * DnsCache - Host lookups for probes (app.probe.dns.*).
+ *
+ * Answers are kept for ttl and unknown hosts for negative-ttl; entries used after refresh-ahead
+ * are refreshed in the background, and concurrent misses for one host share a lookup.
+ */
+@Service
+public class DnsCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DnsCache.class);
+
+    /**
+     * Looks up the addresses of a host.
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+
+    private final ProbeProperties.Dns properties;
+    private final Resolver resolver;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Entry>> lookups = new ConcurrentHashMap<>();
+    private final ExecutorService refresher = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("dns-refresh-", 0).factory());
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter negativeHitCounter;
+    private final Counter refreshCounter;
+
+    @Autowired
+    public DnsCache(ProbeProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, InetAddress::getAllByName);
+    }
+
+    DnsCache(ProbeProperties properties, MeterRegistry meterRegistry, Resolver resolver) {
+        this.properties = properties.getDns();
+        this.resolver = resolver;
+        this.hitCounter = Counter.builder("uptime.probe.dns.hits")
+            .description("Probe host lookups answered from the cache")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("uptime.probe.dns.misses")
+            .description("Probe host lookups that had to ask the resolver")
+            .register(meterRegistry);
+        this.negativeHitCounter = Counter.builder("uptime.probe.dns.negative-hits")
+            .description("Probe host lookups answered with a cached unknown host")
+            .register(meterRegistry);
+        this.refreshCounter = Counter.builder("uptime.probe.dns.refreshes")
+            .description("Cached lookups refreshed in the background before they expired")
+            .register(meterRegistry);
+        Gauge.builder("uptime.probe.dns.hit-rate", this, DnsCache::hitRate)
+            .description("Share of probe host lookups answered from the cache")
+            .register(meterRegistry);
+        Gauge.builder("uptime.probe.dns.size", entries, Map::size)
+            .description("Hosts in the probe DNS cache")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Addresses of {@code host}, from the cache where possible.
+     *
+     * @throws UnknownHostException if the host is unknown (possibly cached)
+     */
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        if (!properties.isEnabled()) {
+            return resolver.resolve(host);
+        }
+        String key = host.toLowerCase(Locale.ROOT);
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.expiresAtNanos < 0) {
+            if (entry.addresses == null) {
+                negativeHitCounter.increment();
+                throw new UnknownHostException(entry.failure);
+            }
+            hitCounter.increment();
+            if (now - entry.refreshAtNanos >= 0 && entry.refreshing.compareAndSet(false, true)) {
+                refresher.execute(() -> refresh(key));
+            }
+            return entry.addresses.clone();
+        }
+        missCounter.increment();
+        Entry fresh = lookup(key);
+        if (fresh.addresses == null) {
+            throw new UnknownHostException(fresh.failure);
+        }
+        return fresh.addresses.clone();
+    }
+
+    /**
+     * Addresses of {@code host} straight from the resolver, for probes that measure DNS.
+     */
+    public InetAddress[] resolveUncached(String host) throws UnknownHostException {
+        return resolver.resolve(host);
+    }
+
+    public double hitRate() {
+        double hits = hitCounter.count() + negativeHitCounter.count();
+        double total = hits + missCounter.count();
+        return total > 0 ? hits / total : 0.0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops expired entries.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.expiresAtNanos >= 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void refresh(String host) {
+        refreshCounter.increment();
+        try {
+            lookup(host);
+        } catch (RuntimeException e) {
+            log.debug("Background DNS refresh of {} failed: {}", host, e.getMessage());
+        }
+    }
+
+    /**
+     * Asks the resolver, sharing the lookup with concurrent callers for the same host.
+     */
+    private Entry lookup(String host) {
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = lookups.putIfAbsent(host, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+        try {
+            Entry entry = query(host);
+            store(host, entry);
+            mine.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            lookups.remove(host, mine);
+        }
+    }
+
+    private Entry query(String host) {
+        long now = System.nanoTime();
+        try {
+            InetAddress[] addresses = resolver.resolve(host);
+            long ttl = properties.getTtl().toNanos();
+            return new Entry(addresses, null, now + ttl, now + (long) (ttl * properties.getRefreshAhead()));
+        } catch (UnknownHostException e) {
+            long negativeTtl = properties.getNegativeTtl().toNanos();
+            String failure = e.getMessage() != null ? e.getMessage() : host;
+            return new Entry(null, failure, now + negativeTtl, now + negativeTtl);
+        }
+    }
+
+    private void store(String host, Entry entry) {
+        Entry previous = entries.get(host);
+        if (entry.addresses == null && previous != null && previous.addresses != null
+            && System.nanoTime() - previous.expiresAtNanos < 0) {
+            // A failed refresh does not replace an answer that is still valid
+            return;
+        }
+        if (previous == null && entries.size() >= properties.getMaxEntries()) {
+            evictExpired();
+            if (entries.size() >= properties.getMaxEntries()) {
+                return;
+            }
+        }
+        entries.put(host, entry);
+    }
+
+    private static final class Entry {
+
+        private final InetAddress[] addresses;
+        private final String failure;
+        private final long expiresAtNanos;
+        private final long refreshAtNanos;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(InetAddress[] addresses, String failure, long expiresAtNanos, long refreshAtNanos) {
+            this.addresses = addresses;
+            this.failure = failure;
+            this.expiresAtNanos = expiresAtNanos;
+            this.refreshAtNanos = refreshAtNanos;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.isofuture.uptime.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * DueSignal - Earliest known time at which a ping becomes due on this node.
+ *
+ * Lowered whenever a ping is (re)scheduled here and reset by the long-poll dispatcher after it
+ * has looked at the database, so waiting workers are served as soon as something becomes due
+ * without the dispatcher polling the ping table on every tick.
+ */
+@Component
+public class DueSignal {
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final AtomicLong nextDueMillis = new AtomicLong(UNKNOWN);
+
+    /**
+     * Records that a ping becomes due at the given time (null means now).
+     */
+    public void signal(Instant dueAt) {
+        long millis = dueAt != null ? dueAt.toEpochMilli() : UNKNOWN;
+        nextDueMillis.accumulateAndGet(millis, Math::min);
+    }
+
+    /**
+     * Whether something may be due at {@code now}.
+     */
+    public boolean isDue(Instant now) {
+        return nextDueMillis.get() <= now.toEpochMilli();
+    }
+
+    /**
+     * Forgets every signal received so far. Called right before the earliest due time is re-read
+     * from the database: signals committed before the read are covered by it, later ones lower the
+     * hint again.
+     */
+    public void clear() {
+        nextDueMillis.set(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,142 @@
+package com.isofuture.uptime.service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.isofuture.uptime.config.EmbeddedWorkerProperties;
+import com.isofuture.uptime.dto.PendingCheckResponse;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * EmbeddedWorker - A worker inside the backend process (app.embedded-worker.*).
+ *
+ * Registers with the CheckDispatcher like a WebSocket worker, probes on the ProbeEngine and
+ * records results through CheckService directly. It offers no more capacity than the engine has
+ * free probe slots.
+ */
+@Service
+public class EmbeddedWorker implements CheckChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedWorker.class);
+
+    private final EmbeddedWorkerProperties properties;
+    private final CheckDispatcher checkDispatcher;
+    private final CheckService checkService;
+    private final PingService pingService;
+    private final ProbeEngine probeEngine;
+    private final String workerId;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("embedded-worker-", 0).factory());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean running;
+
+    public EmbeddedWorker(
+        EmbeddedWorkerProperties properties,
+        CheckDispatcher checkDispatcher,
+        CheckService checkService,
+        PingService pingService,
+        ProbeEngine probeEngine,
+        ClusterMembership clusterMembership,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.checkDispatcher = checkDispatcher;
+        this.checkService = checkService;
+        this.pingService = pingService;
+        this.probeEngine = probeEngine;
+        String configured = properties.getWorkerId();
+        this.workerId = configured != null && !configured.isBlank() ? configured : "embedded@" + clusterMembership.getNodeId();
+        Gauge.builder("uptime.worker.embedded.in-flight", inFlight, AtomicInteger::get)
+            .description("Checks the embedded worker is probing or recording")
+            .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        checkDispatcher.open(this);
+        log.info("Embedded worker {} started (capacity {})", workerId, properties.getCapacity());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (running) {
+            running = false;
+            checkDispatcher.close(this);
+            log.info("Embedded worker {} stopped ({} checks in flight)", workerId, inFlight.get());
+        }
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String workerId() {
+        return workerId;
+    }
+
+    @Override
+    public int freeCapacity() {
+        if (!running) {
+            return 0;
+        }
+        return Math.max(Math.min(properties.getCapacity() - inFlight.get(), probeEngine.getFreeSlots()), 0);
+    }
+
+    @Override
+    public boolean deliver(List<PendingCheckResponse> checks) {
+        if (!running) {
+            return false;
+        }
+        inFlight.addAndGet(checks.size());
+        int started = 0;
+        try {
+            for (PendingCheckResponse check : checks) {
+                executor.execute(() -> run(check));
+                started++;
+            }
+        } catch (RejectedExecutionException e) {
+            // Shutting down: checks not yet started are handed back
+            inFlight.addAndGet(started - checks.size());
+            pingService.releaseChecks(checks.subList(started, checks.size()).stream()
+                .map(PendingCheckResponse::getPingId)
+                .toList());
+        }
+        return true;
+    }
+
+    public int inFlightCount() {
+        return inFlight.get();
+    }
+
+    private void run(PendingCheckResponse check) {
+        try {
+            ProbeEngine.Result outcome = probeEngine.probe(check.getUrl(), ProbeEngine.Options.of(check));
+            if (!outcome.sent()) {
+                log.debug("Probe of ping ID {} was not sent ({}), releasing it", check.getPingId(), outcome.error());
+                pingService.releaseChecks(List.of(check.getPingId()));
+                return;
+            }
+            checkService.recordResult(outcome.toUpdateRequest(check.getPingId(), check.getClaimToken()), true);
+        } catch (RuntimeException e) {
+            // Unknown ping, superseded claim or database trouble: the claim lease takes care of it
+            log.warn("Embedded worker could not record ping ID {}: {}", check.getPingId(), e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.isofuture.uptime.service;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+
+/**
+ * HostPoliteness - Keeps claims from hammering a single target host (app.scheduler.politeness.*).
+ *
+ * Pings over a host's concurrency or rate limit are deferred to a later next_check_at rather
+ * than dropped. Limits are in memory and per node.
+ */
+@Service
+public class HostPoliteness {
+
+    private static final Logger log = LoggerFactory.getLogger(HostPoliteness.class);
+
+    /**
+     * Outcome of a claim attempt: admitted now, or deferred until {@code retryAt}.
+     */
+    public record Admission(boolean admitted, Instant retryAt) {
+
+        static Admission admit() {
+            return new Admission(true, null);
+        }
+
+        static Admission deferUntil(Instant retryAt) {
+            return new Admission(false, retryAt);
+        }
+    }
+
+    private final SchedulerProperties properties;
+    private final Map<String, String> hostsByUrl = new ConcurrentHashMap<>();
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+    private final Map<Long, HostState> claims = new ConcurrentHashMap<>();
+
+    public HostPoliteness(SchedulerProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.getPoliteness().isEnabled();
+    }
+
+    /**
+     * Takes a concurrency slot and a rate token for the ping's host, or tells when to retry.
+     * Inside a transaction both are returned if it does not commit.
+     */
+    public Admission tryAcquire(Long pingId, String url, Instant now) {
+        SchedulerProperties.Politeness limits = properties.getPoliteness();
+        HostState state = hosts.computeIfAbsent(hostOf(url), host -> new HostState(limits.getMaxRequestsPerSecondPerHost()));
+        long nowMillis = now.toEpochMilli();
+        synchronized (state) {
+            state.expireClaims(nowMillis - properties.getLease().getDuration().toMillis());
+            state.refill(nowMillis, limits.getMaxRequestsPerSecondPerHost());
+            boolean concurrencyOk = limits.getMaxConcurrentPerHost() <= 0
+                || state.inFlight.size() < limits.getMaxConcurrentPerHost();
+            boolean rateOk = limits.getMaxRequestsPerSecondPerHost() <= 0 || state.tokens >= 1;
+            if (concurrencyOk && rateOk) {
+                state.tokens -= 1;
+                state.inFlight.put(pingId, nowMillis);
+                claims.put(pingId, state);
+                refundOnRollback(pingId, state);
+                return Admission.admit();
+            }
+            // Queue behind the pings already deferred for this host, one per rate interval
+            long retryAt = Math.max(nowMillis + limits.getMinDeferMillis(), state.deferredUntilMillis);
+            state.deferredUntilMillis = retryAt + intervalMillis(limits.getMaxRequestsPerSecondPerHost());
+            return Admission.deferUntil(Instant.ofEpochMilli(retryAt));
+        }
+    }
+
+    /**
+     * Frees the host slot taken by a ping (result recorded or claim released).
+     */
+    public void release(Long pingId) {
+        HostState state = pingId != null ? claims.remove(pingId) : null;
+        if (state != null) {
+            synchronized (state) {
+                state.inFlight.remove(pingId);
+            }
+        }
+    }
+
+    /**
+     * Lower-cased host of a ping URL, cached per URL. Unparseable URLs are their own "host".
+     */
+    public String hostOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        String host = hostsByUrl.get(url);
+        if (host != null) {
+            return host;
+        }
+        host = parseHost(url);
+        if (hostsByUrl.size() >= properties.getPoliteness().getHostCacheSize()) {
+            hostsByUrl.clear();
+        }
+        hostsByUrl.put(url, host);
+        return host;
+    }
+
+    public int inFlightFor(String host) {
+        HostState state = hosts.get(host);
+        if (state == null) {
+            return 0;
+        }
+        synchronized (state) {
+            return state.inFlight.size();
+        }
+    }
+
+    /**
+     * Drops state of hosts with nothing in flight or queued.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void evictIdleHosts() {
+        long nowMillis = System.currentTimeMillis();
+        long claimCutoff = nowMillis - properties.getLease().getDuration().toMillis();
+        int before = hosts.size();
+        hosts.values().removeIf(state -> {
+            synchronized (state) {
+                state.expireClaims(claimCutoff);
+                return state.inFlight.isEmpty() && state.deferredUntilMillis < nowMillis;
+            }
+        });
+        int evicted = before - hosts.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle hosts from politeness tracking", evicted);
+        }
+    }
+
+    private void refundOnRollback(Long pingId, HostState state) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    refund(pingId, state);
+                }
+            }
+        });
+    }
+
+    private void refund(Long pingId, HostState state) {
+        double requestsPerSecond = properties.getPoliteness().getMaxRequestsPerSecondPerHost();
+        claims.remove(pingId, state);
+        synchronized (state) {
+            if (state.inFlight.remove(pingId) != null) {
+                state.tokens = Math.min(HostState.burst(requestsPerSecond), state.tokens + 1);
+            }
+        }
+    }
+
+    private void forget(Long pingId, HostState state) {
+        claims.remove(pingId, state);
+    }
+
+    private static long intervalMillis(double requestsPerSecond) {
+        return requestsPerSecond > 0 ? (long) Math.ceil(1000 / requestsPerSecond) : 0;
+    }
+
+    private static String parseHost(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            if (host != null) {
+                return host.toLowerCase(Locale.ROOT);
+            }
+        } catch (IllegalArgumentException e) {
+            log.trace("Cannot parse host of {}: {}", url, e.getMessage());
+        }
+        return url.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private final class HostState {
+        private final Map<Long, Long> inFlight = new HashMap<>();
+        private double tokens;
+        private long refilledAtMillis;
+        private long deferredUntilMillis;
+
+        private HostState(double requestsPerSecond) {
+            this.tokens = burst(requestsPerSecond);
+        }
+
+        private void refill(long nowMillis, double requestsPerSecond) {
+            if (refilledAtMillis > 0 && nowMillis > refilledAtMillis) {
+                tokens = Math.min(burst(requestsPerSecond), tokens + (nowMillis - refilledAtMillis) * requestsPerSecond / 1000);
+            }
+            refilledAtMillis = Math.max(refilledAtMillis, nowMillis);
+        }
+
+        private void expireClaims(long claimedBeforeMillis) {
+            inFlight.entrySet().removeIf(claim -> {
+                if (claim.getValue() < claimedBeforeMillis) {
+                    forget(claim.getKey(), this);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        private static double burst(double requestsPerSecond) {
+            return Math.max(1, requestsPerSecond);
+        }
+    }
+}
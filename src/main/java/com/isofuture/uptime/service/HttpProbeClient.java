@@ -0,0 +1,569 @@
+package com.isofuture.uptime.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import com.isofuture.uptime.entity.Ping;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * HttpProbeClient - Minimal HTTP/1.1 client that times every phase of a probe.
+ *
+ * java.net.http.HttpClient only reports the total, so this client does each step itself (dns,
+ * connect, tls, ttfb, transfer) and times it with System.nanoTime(). It reads no more body than
+ * the probe mode and cap require, and stops early once a body assertion is decided.
+ */
+final class HttpProbeClient {
+
+    private static final int MAX_LINE_LENGTH = 8192;
+    private static final String USER_AGENT = "uptime-checker";
+    private static final int MAX_ETAG_LENGTH = 512;
+    private static final int ASSERTION_CACHE_SIZE = 10_000;
+
+    private final Duration connectTimeout;
+    private final long maxBodyBytes;
+    private final DnsCache dnsCache;
+    private final ProbeConnectionPool connectionPool;
+    private final SSLSocketFactory sslSocketFactory;
+    private final BodyAssertion.Cache assertions = new BodyAssertion.Cache(ASSERTION_CACHE_SIZE);
+
+    HttpProbeClient(Duration connectTimeout, long maxBodyBytes, DnsCache dnsCache, ProbeConnectionPool connectionPool) {
+        this.connectTimeout = connectTimeout;
+        this.maxBodyBytes = maxBodyBytes;
+        this.dnsCache = dnsCache;
+        this.connectionPool = connectionPool;
+        this.sslSocketFactory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+    }
+
+    /**
+     * Status of a response, its ETag (if short enough to keep), whether its connection may
+     * carry another request, the outcome of the body assertion (null if there is none or no
+     * body was read, with a message if it failed) and the hex SHA-256 of the body read (null
+     * unless the ping tracks content and a body was read).
+     */
+    record Response(
+        int status,
+        String etag,
+        boolean reusable,
+        Boolean assertionPassed,
+        String assertionFailure,
+        String bodyDigest
+    ) {
+    }
+
+    /**
+     * Phase timer and byte count of one probe; phases not reached stay null, so a failed probe
+     * still shows how far it got.
+     */
+    static final class Timing {
+
+        private long startNanos = System.nanoTime();
+        private long markNanos = startNanos;
+        private Double dnsMs;
+        private Double connectMs;
+        private Double tlsMs;
+        private Double ttfbMs;
+        private Double transferMs;
+        private long bytes;
+
+        private double lap() {
+            long now = System.nanoTime();
+            double millis = (now - markNanos) / 1_000_000.0;
+            markNanos = now;
+            return millis;
+        }
+
+        /**
+         * Setup phases of a reused connection: nothing to resolve, connect or negotiate.
+         */
+        private void reused(boolean secure) {
+            dnsMs = 0.0;
+            connectMs = 0.0;
+            tlsMs = secure ? 0.0 : null;
+            markNanos = System.nanoTime();
+        }
+
+        /**
+         * Starts over, for a retry on a new connection; bytes already received still count.
+         */
+        private void restart() {
+            startNanos = System.nanoTime();
+            markNanos = startNanos;
+            dnsMs = null;
+            connectMs = null;
+            tlsMs = null;
+            ttfbMs = null;
+            transferMs = null;
+        }
+
+        long bytes() {
+            return bytes;
+        }
+
+        double totalMs() {
+            return (System.nanoTime() - startNanos) / 1_000_000.0;
+        }
+
+        ProbeEngine.Phases phases() {
+            return new ProbeEngine.Phases(dnsMs, connectMs, tlsMs, ttfbMs, transferMs);
+        }
+    }
+
+    /**
+     * Sends the request {@code options} call for to {@code uri} and reads the response, body
+     * up to the cap.
+     *
+     * @param timeout Time allowed for the whole exchange, connect included
+     * @throws HttpTimeoutException if the connect timeout or {@code timeout} runs out
+     * @throws IllegalArgumentException if the URI is not an absolute http(s) URI
+     */
+    Response get(URI uri, ProbeEngine.Options options, Duration timeout, Timing timing) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        BodyAssertion assertion = assertions.get(options.assertionMode(), options.assertionPattern());
+        if (options.probeMode() != Ping.ProbeMode.HEAD) {
+            return send(uri, options, assertion, false, deadline, timing);
+        }
+        Response response = send(uri, options, assertion, true, deadline, timing);
+        if (response.status() == 405 || response.status() == 501) {
+            // HEAD not allowed here: the result times the GET
+            timing.restart();
+            response = send(uri, options, assertion, false, deadline, timing);
+        }
+        return response;
+    }
+
+    private Response send(URI uri, ProbeEngine.Options options, BodyAssertion assertion, boolean head,
+                          long deadline, Timing timing) throws IOException {
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        boolean secure = scheme.equals("https");
+        if (!secure && !scheme.equals("http")) {
+            throw new IllegalArgumentException("Unsupported URI scheme: " + uri.getScheme());
+        }
+        String host = uri.getHost();
+        if (host == null || host.isEmpty()) {
+            throw new IllegalArgumentException("Missing host in URI: " + uri);
+        }
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+
+        boolean pooled = options.connectionMode() == Ping.ConnectionMode.POOLED;
+        String route = scheme + "://" + host.toLowerCase(Locale.ROOT) + ":" + port;
+        byte[] request = request(uri, host, port, secure, pooled, head, options, bodyCap(options));
+
+        if (pooled) {
+            Socket idle = connectionPool.acquire(route);
+            if (idle != null) {
+                timing.reused(secure);
+                try {
+                    return exchange(idle, route, true, request, head, options, assertion, deadline, timing);
+                } catch (HttpTimeoutException e) {
+                    throw e;
+                } catch (IOException e) {
+                    if (timing.ttfbMs != null || Thread.currentThread().isInterrupted()) {
+                        throw e;
+                    }
+                    // The server closed the idle connection: try once more on a new one
+                    timing.restart();
+                }
+            }
+        }
+
+        InetAddress[] addresses = options.measureDns()
+            ? dnsCache.resolveUncached(unbracket(host))
+            : dnsCache.resolve(unbracket(host));
+        timing.dnsMs = timing.lap();
+        Socket socket = connect(addresses, port, deadline);
+        timing.connectMs = timing.lap();
+        if (secure) {
+            try {
+                socket = handshake(socket, unbracket(host), port, deadline);
+            } catch (SocketTimeoutException e) {
+                connectionPool.close(socket);
+                throw new HttpTimeoutException("request timed out");
+            } catch (IOException | RuntimeException e) {
+                connectionPool.close(socket);
+                throw e;
+            }
+            timing.tlsMs = timing.lap();
+        }
+        return exchange(socket, route, pooled, request, head, options, assertion, deadline, timing);
+    }
+
+    private long bodyCap(ProbeEngine.Options options) {
+        return options.maxBodyBytes() != null ? options.maxBodyBytes() : maxBodyBytes;
+    }
+
+    /**
+     * Sends the request on a connected socket and reads the response. The socket is handed
+     * back to the pool if {@code keepAlive} and the server allows it, and closed otherwise.
+     */
+    private Response exchange(Socket socket, String route, boolean keepAlive, byte[] request, boolean head,
+                              ProbeEngine.Options options, BodyAssertion assertion, long deadline, Timing timing)
+        throws IOException {
+        boolean kept = false;
+        try {
+            OutputStream out = socket.getOutputStream();
+            out.write(request);
+            out.flush();
+
+            BodyAssertion.Scan scan = assertion != null ? assertion.newScan() : null;
+            MessageDigest digest = options.trackContent() ? sha256() : null;
+            ResponseReader reader = new ResponseReader(socket, deadline, bodyCap(options), scan, digest, timing);
+            reader.awaitFirstByte();
+            timing.ttfbMs = timing.lap();
+            Response response = readResponse(reader, head, scan, digest);
+            timing.transferMs = timing.lap();
+            if (keepAlive && response.reusable() && !reader.hasBuffered()) {
+                connectionPool.release(route, socket);
+                kept = true;
+            }
+            return response;
+        } catch (SocketTimeoutException e) {
+            throw new HttpTimeoutException("request timed out");
+        } finally {
+            if (!kept) {
+                connectionPool.close(socket);
+            }
+        }
+    }
+
+    private Socket connect(InetAddress[] addresses, int port, long deadline) throws IOException {
+        IOException failure = null;
+        for (InetAddress address : addresses) {
+            long remainingMillis = remainingMillis(deadline);
+            int connectMillis = (int) Math.min(connectTimeout.toMillis(), remainingMillis);
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(address, port), Math.max(connectMillis, 1));
+                socket.setTcpNoDelay(true);
+                connectionPool.opened();
+                return socket;
+            } catch (SocketTimeoutException e) {
+                socket.close();
+                failure = new HttpConnectTimeoutException("HTTP connect timed out");
+            } catch (IOException e) {
+                socket.close();
+                failure = e;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        throw failure != null ? failure : new IOException("No address for host");
+    }
+
+    private Socket handshake(Socket plain, String host, int port, long deadline) throws IOException {
+        SSLSocket socket = (SSLSocket) sslSocketFactory.createSocket(plain, host, port, true);
+        SSLParameters parameters = socket.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        socket.setSSLParameters(parameters);
+        socket.setSoTimeout(remainingMillis(deadline));
+        socket.startHandshake();
+        return socket;
+    }
+
+    private static byte[] request(URI uri, String host, int port, boolean secure, boolean keepAlive, boolean head,
+                                  ProbeEngine.Options options, long bodyCap) {
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (uri.getRawQuery() != null) {
+            path += "?" + uri.getRawQuery();
+        }
+        boolean defaultPort = port == (secure ? 443 : 80);
+        StringBuilder request = new StringBuilder()
+            .append(head ? "HEAD " : "GET ").append(path).append(" HTTP/1.1\r\n")
+            .append("Host: ").append(host).append(defaultPort ? "" : ":" + port).append("\r\n")
+            .append("User-Agent: ").append(USER_AGENT).append("\r\n")
+            .append("Accept: */*\r\n");
+        if (options.probeMode() == Ping.ProbeMode.RANGE) {
+            request.append("Range: bytes=0-").append(Math.max(bodyCap, 1) - 1).append("\r\n");
+        }
+        if (options.probeMode() == Ping.ProbeMode.CONDITIONAL && options.etag() != null) {
+            request.append("If-None-Match: ").append(options.etag()).append("\r\n");
+        }
+        if (!keepAlive) {
+            request.append("Connection: close\r\n");
+        }
+        return request.append("\r\n").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads the final response's status line and headers, then consumes its body up to the cap
+     * or until the body assertion is decided.
+     */
+    private static Response readResponse(ResponseReader reader, boolean head, BodyAssertion.Scan scan,
+                                         MessageDigest digest) throws IOException {
+        while (true) {
+            String statusLine = reader.readLine();
+            int status = parseStatus(statusLine);
+            long contentLength = -1;
+            boolean chunked = false;
+            String connection = "";
+            String etag = null;
+            String line;
+            while (!(line = reader.readLine()).isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon <= 0) {
+                    continue;
+                }
+                String name = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+                String value = line.substring(colon + 1).trim();
+                if (name.equals("content-length")) {
+                    contentLength = parseLength(value);
+                } else if (name.equals("transfer-encoding")) {
+                    chunked = value.toLowerCase(Locale.ROOT).endsWith("chunked");
+                } else if (name.equals("connection")) {
+                    connection = value.toLowerCase(Locale.ROOT);
+                } else if (name.equals("etag") && !value.isEmpty() && value.length() <= MAX_ETAG_LENGTH) {
+                    etag = value;
+                }
+            }
+            if (status >= 100 && status < 200 && status != 101) {
+                // Interim response (100 Continue, 103 Early Hints): the real one follows
+                continue;
+            }
+            // HTTP/1.1 keeps the connection unless told otherwise, HTTP/1.0 only if told to
+            boolean persistent = statusLine.startsWith("HTTP/1.1")
+                ? !connection.contains("close")
+                : connection.contains("keep-alive");
+            if (status == 101) {
+                return new Response(status, etag, false, null, null, null);
+            }
+            if (head || status == 204 || status == 304) {
+                return new Response(status, etag, persistent, null, null, null);
+            }
+            boolean complete;
+            boolean bodyEnded;
+            if (chunked) {
+                complete = reader.skipChunkedBody();
+                bodyEnded = complete;
+            } else if (contentLength >= 0) {
+                complete = reader.skip(contentLength);
+                bodyEnded = complete;
+            } else {
+                // The body ends when the server closes the connection
+                bodyEnded = reader.skipToEnd();
+                complete = false;
+            }
+            if (scan != null && bodyEnded) {
+                scan.finish();
+            }
+            Boolean passed = scan != null ? scan.passed() : null;
+            String failure = Boolean.FALSE.equals(passed) ? scan.failureMessage() : null;
+            String bodyDigest = digest != null ? HexFormat.of().formatHex(digest.digest()) : null;
+            // A body cut off at the cap or after the assertion leaves the connection unusable
+            return new Response(status, etag, persistent && complete, passed, failure, bodyDigest);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static int parseStatus(String statusLine) throws IOException {
+        // HTTP/1.1 200 OK
+        int space = statusLine.indexOf(' ');
+        if (!statusLine.startsWith("HTTP/") || space < 0 || statusLine.length() < space + 4) {
+            throw new IOException("Malformed HTTP status line: " + statusLine);
+        }
+        try {
+            return Integer.parseInt(statusLine.substring(space + 1, space + 4));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed HTTP status line: " + statusLine);
+        }
+    }
+
+    private static long parseLength(String value) throws IOException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed Content-Length: " + value);
+        }
+    }
+
+    private static String unbracket(String host) {
+        return host.startsWith("[") && host.endsWith("]") ? host.substring(1, host.length() - 1) : host;
+    }
+
+    private static int remainingMillis(long deadline) throws HttpTimeoutException {
+        long remaining = (deadline - System.nanoTime()) / 1_000_000;
+        if (remaining <= 0) {
+            throw new HttpTimeoutException("request timed out");
+        }
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Buffered reader over the socket that never waits past the probe's deadline.
+     */
+    private static final class ResponseReader {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final long deadline;
+        private final BodyAssertion.Scan scan;
+        private final MessageDigest digest;
+        private final Timing timing;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+        private int limit;
+        private long bodyBudget;
+        private boolean decided;
+
+        private ResponseReader(Socket socket, long deadline, long bodyCap, BodyAssertion.Scan scan,
+                               MessageDigest digest, Timing timing) throws IOException {
+            this.socket = socket;
+            this.in = socket.getInputStream();
+            this.deadline = deadline;
+            this.bodyBudget = Math.max(bodyCap, 0);
+            this.scan = scan;
+            this.digest = digest;
+            this.timing = timing;
+        }
+
+        /**
+         * Consumes {@code count} buffered body bytes, feeding them to the assertion and digest.
+         * A decided assertion ends the body early only if nothing else needs the rest of it.
+         */
+        private void consumeBody(int count) {
+            if (scan != null && scan.feed(buffer, position, count) && digest == null) {
+                decided = true;
+            }
+            if (digest != null) {
+                digest.update(buffer, position, count);
+            }
+            position += count;
+            bodyBudget -= count;
+        }
+
+        private boolean hasBuffered() {
+            return position < limit;
+        }
+
+        private void awaitFirstByte() throws IOException {
+            if (!fill()) {
+                throw new IOException("Connection closed before any response");
+            }
+        }
+
+        /**
+         * @return false at end of stream
+         */
+        private boolean fill() throws IOException {
+            if (position < limit) {
+                return true;
+            }
+            socket.setSoTimeout(remainingMillis(deadline));
+            int read = in.read(buffer, 0, buffer.length);
+            if (read < 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            timing.bytes += read;
+            return true;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            while (true) {
+                if (!fill()) {
+                    throw new IOException("Connection closed in the middle of the response headers");
+                }
+                byte b = buffer[position++];
+                if (b == '\n') {
+                    int length = line.length();
+                    if (length > 0 && line.charAt(length - 1) == '\r') {
+                        line.setLength(length - 1);
+                    }
+                    return line.toString();
+                }
+                if (line.length() >= MAX_LINE_LENGTH) {
+                    throw new IOException("HTTP header line longer than " + MAX_LINE_LENGTH + " bytes");
+                }
+                line.append((char) (b & 0xff));
+            }
+        }
+
+        /**
+         * Consumes {@code count} body bytes.
+         *
+         * @return false if the body cap was reached or the assertion decided first
+         */
+        private boolean skip(long count) throws IOException {
+            long remaining = count;
+            while (remaining > 0) {
+                if (bodyBudget == 0 || decided) {
+                    return false;
+                }
+                if (!fill()) {
+                    throw new IOException("Connection closed " + remaining + " bytes before the end of the body");
+                }
+                int step = (int) Math.min(Math.min(remaining, limit - position), bodyBudget);
+                consumeBody(step);
+                remaining -= step;
+            }
+            return true;
+        }
+
+        /**
+         * @return false if the body cap was reached or the assertion decided before end of stream
+         */
+        private boolean skipToEnd() throws IOException {
+            while (bodyBudget > 0 && !decided) {
+                if (!fill()) {
+                    return true;
+                }
+                consumeBody((int) Math.min(limit - position, bodyBudget));
+            }
+            return false;
+        }
+
+        /**
+         * @return false if the body cap was reached or the assertion decided before the last chunk
+         */
+        private boolean skipChunkedBody() throws IOException {
+            while (true) {
+                String sizeLine = readLine();
+                int extension = sizeLine.indexOf(';');
+                String size = (extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim();
+                long chunkSize;
+                try {
+                    chunkSize = Long.parseLong(size, 16);
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed chunk size: " + sizeLine);
+                }
+                if (chunkSize == 0) {
+                    // Trailers up to the empty line
+                    while (!readLine().isEmpty()) {
+                        // ignored
+                    }
+                    return true;
+                }
+                if (!skip(chunkSize)) {
+                    return false;
+                }
+                readLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.isofuture.uptime.service;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.entity.Ping;
+import com.isofuture.uptime.repository.PingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * LeaseReaper - Returns pings whose claim lease expired to the schedule.
+ *
+ * Sweeps in bounded chunks, one short SKIP LOCKED transaction each, and makes released pings due
+ * immediately.
+ */
+@Service
+public class LeaseReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaseReaper.class);
+
+    private final PingRepository pingRepository;
+    private final PingScheduler pingScheduler;
+    private final SchedulerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter expiredCounter;
+    private final Counter reclaimedCounter;
+
+    public LeaseReaper(
+        PingRepository pingRepository,
+        PingScheduler pingScheduler,
+        SchedulerProperties properties,
+        TransactionTemplate transactionTemplate,
+        MeterRegistry meterRegistry
+    ) {
+        this.pingRepository = pingRepository;
+        this.pingScheduler = pingScheduler;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.expiredCounter = Counter.builder("uptime.scheduler.leases.expired")
+            .description("Claim leases found expired by the reaper")
+            .register(meterRegistry);
+        this.reclaimedCounter = Counter.builder("uptime.scheduler.leases.reclaimed")
+            .description("Pings returned to the schedule after their lease expired")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.scheduler.lease.reaper-interval-millis:30000}",
+        fixedDelayString = "${app.scheduler.lease.reaper-interval-millis:30000}"
+    )
+    public void sweep() {
+        int batchSize = properties.getLease().getReaperBatchSize();
+        int maxBatches = properties.getLease().getReaperMaxBatches();
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer reclaimed = transactionTemplate.execute(status -> reapBatch(batchSize));
+            int count = reclaimed != null ? reclaimed : 0;
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Lease reaper returned {} pings to the schedule", total);
+        } else {
+            log.debug("Lease reaper found no expired leases");
+        }
+    }
+
+    private int reapBatch(int batchSize) {
+        Instant now = Instant.now();
+        Instant staleBefore = now.minus(properties.getLease().getDuration());
+        List<Long> ids = pingRepository.lockExpiredLeases(now, staleBefore, Limit.of(batchSize)).stream()
+            .map(Ping::getId)
+            .toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        expiredCounter.increment(ids.size());
+
+        int released = pingRepository.releaseClaims(ids, now);
+        reclaimedCounter.increment(released);
+        for (Long id : ids) {
+            pingScheduler.schedule(id, now);
+        }
+        log.debug("Released {} expired leases", released);
+        return ids.size();
+    }
+}
@@ -0,0 +1,223 @@
+package com.isofuture.uptime.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.isofuture.uptime.config.ManualCheckProperties;
+import com.isofuture.uptime.dto.CheckResultDto;
+import com.isofuture.uptime.dto.ExecuteCheckRequest;
+import com.isofuture.uptime.dto.ManualCheckResponse;
+import com.isofuture.uptime.exception.ResourceNotFoundException;
+import com.isofuture.uptime.exception.ServiceOverloadedException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ManualCheckService - Runs user-initiated "check now" requests off the request thread (app.manual-checks.*).
+ *
+ * Checks run on a small dedicated pool and are fetched by polling their handle. State is in
+ * memory, so a handle is only known to the node that accepted it.
+ */
+@Service
+public class ManualCheckService {
+
+    private static final Logger log = LoggerFactory.getLogger(ManualCheckService.class);
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        DONE,
+        FAILED
+    }
+
+    private final CheckService checkService;
+    private final UserContext userContext;
+    private final ManualCheckProperties properties;
+    private final Executor executor;
+    private final Map<String, ManualCheck> checks = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> inFlightByUser = new ConcurrentHashMap<>();
+
+    public ManualCheckService(CheckService checkService, UserContext userContext, ManualCheckProperties properties) {
+        this.checkService = checkService;
+        this.userContext = userContext;
+        this.properties = properties;
+        int threads = properties.getThreads();
+        this.executor = threads > 0
+            ? new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                Thread.ofPlatform().name("manual-check-", 0).daemon().factory())
+            : Runnable::run;
+    }
+
+    /**
+     * Queues a manual check of a ping the current user may access.
+     *
+     * @return The check's state, including the handle to poll
+     */
+    public ManualCheckResponse submit(ExecuteCheckRequest request) {
+        Long pingId = request.getPingId();
+        // Access is checked here, on the request thread; the check itself runs without a user
+        checkService.assertExecutable(pingId);
+        Long userId = userContext.getCurrentUser().getId();
+        // Counted inside compute so evictFinished cannot drop the counter between lookup and increment
+        int[] count = new int[1];
+        AtomicInteger inFlight = inFlightByUser.compute(userId, (id, current) -> {
+            AtomicInteger counter = current != null ? current : new AtomicInteger();
+            count[0] = counter.incrementAndGet();
+            return counter;
+        });
+        if (count[0] > properties.getMaxPerUser()) {
+            inFlight.decrementAndGet();
+            log.warn("Rejected manual check of ping ID {}: user {} has {} checks in flight", pingId, userId,
+                properties.getMaxPerUser());
+            throw new ServiceOverloadedException("Too many checks in progress, retry later", properties.getRetryAfter());
+        }
+        ManualCheck check = new ManualCheck(UUID.randomUUID().toString(), pingId, userId, Instant.now());
+        checks.put(check.handle, check);
+        try {
+            executor.execute(() -> run(check, inFlight));
+        } catch (RejectedExecutionException e) {
+            checks.remove(check.handle);
+            inFlight.decrementAndGet();
+            log.warn("Rejected manual check of ping ID {}: queue of {} is full", pingId, properties.getQueueCapacity());
+            throw new ServiceOverloadedException("Manual check queue is full, retry later", properties.getRetryAfter());
+        }
+        log.info("Manual check {} of ping ID {} submitted by user {}", check.handle, pingId, userId);
+        return check.toResponse();
+    }
+
+    /**
+     * Current state of a manual check, answered once it is done or {@code waitSeconds}
+     * (capped at max-wait) have passed. Only the submitting user or an admin can see it.
+     */
+    public DeferredResult<ManualCheckResponse> await(String handle, int waitSeconds) {
+        ManualCheck check = checks.get(handle);
+        if (check == null || (!userContext.isAdmin() && !check.userId.equals(userContext.getCurrentUser().getId()))) {
+            throw new ResourceNotFoundException("Manual check not found: " + handle);
+        }
+        long waitMillis = Math.min(Math.max(waitSeconds, 0) * 1000L, properties.getMaxWait().toMillis());
+        DeferredResult<ManualCheckResponse> result = new DeferredResult<>(waitMillis);
+        result.onTimeout(() -> result.setResult(check.toResponse()));
+        if (waitMillis == 0 || !check.onDone(() -> result.setResult(check.toResponse()))) {
+            result.setResult(check.toResponse());
+        }
+        return result;
+    }
+
+    /**
+     * Forgets finished checks older than the retention.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void evictFinished() {
+        Instant cutoff = Instant.now().minus(properties.getRetention());
+        checks.values().removeIf(check -> check.isFinishedBefore(cutoff));
+        for (Long userId : inFlightByUser.keySet()) {
+            inFlightByUser.computeIfPresent(userId, (id, inFlight) -> inFlight.get() == 0 ? null : inFlight);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private void run(ManualCheck check, AtomicInteger inFlight) {
+        check.start();
+        try {
+            ExecuteCheckRequest request = new ExecuteCheckRequest();
+            request.setPingId(check.pingId);
+            // Access was checked on submission; there is no user on this thread
+            check.finish(checkService.executeCheck(request, true), null);
+        } catch (RuntimeException e) {
+            log.warn("Manual check {} of ping ID {} failed: {}", check.handle, check.pingId, e.getMessage());
+            check.finish(null, e.getMessage());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static final class ManualCheck {
+
+        private final String handle;
+        private final Long pingId;
+        private final Long userId;
+        private final Instant submittedAt;
+        private final List<Runnable> listeners = new ArrayList<>();
+        private Status status = Status.QUEUED;
+        private Instant completedAt;
+        private CheckResultDto result;
+        private String error;
+
+        private ManualCheck(String handle, Long pingId, Long userId, Instant submittedAt) {
+            this.handle = handle;
+            this.pingId = pingId;
+            this.userId = userId;
+            this.submittedAt = submittedAt;
+        }
+
+        private synchronized void start() {
+            status = Status.RUNNING;
+        }
+
+        private void finish(CheckResultDto result, String error) {
+            List<Runnable> notify;
+            synchronized (this) {
+                this.status = error == null ? Status.DONE : Status.FAILED;
+                this.result = result;
+                this.error = error;
+                this.completedAt = Instant.now();
+                notify = new ArrayList<>(listeners);
+                listeners.clear();
+            }
+            notify.forEach(Runnable::run);
+        }
+
+        /**
+         * Runs {@code listener} when the check finishes.
+         *
+         * @return false if it has already finished (the listener is not run)
+         */
+        private synchronized boolean onDone(Runnable listener) {
+            if (completedAt != null) {
+                return false;
+            }
+            listeners.add(listener);
+            return true;
+        }
+
+        private synchronized boolean isFinishedBefore(Instant cutoff) {
+            return completedAt != null && completedAt.isBefore(cutoff);
+        }
+
+        private synchronized ManualCheckResponse toResponse() {
+            ManualCheckResponse response = new ManualCheckResponse();
+            response.setHandle(handle);
+            response.setPingId(pingId);
+            response.setStatus(status.name());
+            response.setSubmittedAt(submittedAt);
+            response.setCompletedAt(completedAt);
+            response.setResult(result);
+            response.setError(error);
+            return response;
+        }
+    }
+}
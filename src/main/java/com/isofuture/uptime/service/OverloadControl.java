@@ -0,0 +1,224 @@
+package com.isofuture.uptime.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.repository.PingRepository;
+import com.isofuture.uptime.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * OverloadControl - Measures how far the schedule is behind and degrades in steps when it is.
+ *
+ * From the sampled scheduler lag the node moves between NORMAL, STRETCH (low-priority pings are
+ * rescheduled stretch-factor slots ahead) and SHED (they also skip every other slot); pings of
+ * owners on a priority tier are never degraded. Result ingestion is bounded separately by
+ * max-concurrent-results.
+ */
+@Service
+public class OverloadControl {
+
+    private static final Logger log = LoggerFactory.getLogger(OverloadControl.class);
+
+    public enum Level {
+        NORMAL,
+        STRETCH,
+        SHED
+    }
+
+    private final PingRepository pingRepository;
+    private final UserRepository userRepository;
+    private final SchedulePolicy schedulePolicy;
+    private final SchedulerProperties properties;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final AtomicInteger resultsInFlight = new AtomicInteger();
+    private final Timer claimLateness;
+    private final Counter stretchedCounter;
+    private final Counter shedCounter;
+    private final Counter rejectedCounter;
+    private final Counter pollsRejectedCounter;
+    private volatile Level level = Level.NORMAL;
+    private volatile Set<Long> priorityOwnerIds = Set.of();
+
+    public OverloadControl(
+        PingRepository pingRepository,
+        UserRepository userRepository,
+        SchedulePolicy schedulePolicy,
+        SchedulerProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.pingRepository = pingRepository;
+        this.userRepository = userRepository;
+        this.schedulePolicy = schedulePolicy;
+        this.properties = properties;
+        Gauge.builder("uptime.scheduler.lag", lagMillis, lag -> lag.get() / 1000.0)
+            .description("Seconds since the oldest unclaimed ping fell due")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("uptime.scheduler.overload.level", this, control -> control.level.ordinal())
+            .description("Degradation level: 0 normal, 1 stretching, 2 shedding")
+            .register(meterRegistry);
+        this.claimLateness = Timer.builder("uptime.scheduler.claim.lateness")
+            .description("Time between a ping falling due and being claimed")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        this.stretchedCounter = Counter.builder("uptime.scheduler.overload.stretched")
+            .description("Low-priority pings rescheduled with a stretched period")
+            .register(meterRegistry);
+        this.shedCounter = Counter.builder("uptime.scheduler.overload.shed")
+            .description("Due low-priority checks skipped under backlog")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("uptime.scheduler.results.rejected")
+            .description("Results answered with 429 while result ingestion was saturated")
+            .register(meterRegistry);
+        this.pollsRejectedCounter = Counter.builder("uptime.scheduler.polls.rejected")
+            .description("Polls for checks answered with 429 while result ingestion was saturated")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(
+        initialDelayString = "${app.scheduler.overload.sample-interval-millis:5000}",
+        fixedDelayString = "${app.scheduler.overload.sample-interval-millis:5000}"
+    )
+    public void sample() {
+        if (!properties.getOverload().isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant oldestDue = pingRepository.findEarliestNextCheckAt();
+        long lag = oldestDue != null && oldestDue.isBefore(now) ? Duration.between(oldestDue, now).toMillis() : 0L;
+        lagMillis.set(lag);
+        Level next = levelFor(lag);
+        if (next != level) {
+            if (next.ordinal() > level.ordinal()) {
+                log.warn("Scheduler lag of {}s: degrading from {} to {}", lag / 1000, level, next);
+            } else {
+                log.info("Scheduler lag of {}s: recovering from {} to {}", lag / 1000, level, next);
+            }
+            level = next;
+        }
+        if (level != Level.NORMAL) {
+            priorityOwnerIds = userRepository.findActiveIdsOnPriorityTiers();
+        }
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public Duration getLag() {
+        return Duration.ofMillis(lagMillis.get());
+    }
+
+    /**
+     * Records how late a claimed ping is (never-checked pings have no due time and are skipped).
+     */
+    public void recordClaimed(Instant nextCheckAt, Instant now) {
+        if (nextCheckAt == null) {
+            return;
+        }
+        claimLateness.record(nextCheckAt.isBefore(now) ? Duration.between(nextCheckAt, now) : Duration.ZERO);
+    }
+
+    /**
+     * Extra delay to add before picking a ping's next slot after a result; zero unless stretching.
+     */
+    public Duration stretch(Long ownerId, Duration period) {
+        int factor = properties.getOverload().getStretchFactor();
+        if (level == Level.NORMAL || factor <= 1 || !isLowPriority(ownerId)) {
+            return Duration.ZERO;
+        }
+        stretchedCounter.increment();
+        return period.multipliedBy(factor - 1L);
+    }
+
+    /**
+     * Slot a due ping should skip to instead of being checked now, or null to check it.
+     * While shedding, low-priority pings skip their odd-numbered slots and are moved to the
+     * next even-numbered one, which is never skipped.
+     */
+    public Instant shedUntil(Long pingId, Long ownerId, Duration period, Instant nextCheckAt, Instant now) {
+        long periodMillis = period.toMillis();
+        if (level != Level.SHED || nextCheckAt == null || periodMillis <= 0 || !isLowPriority(ownerId)) {
+            return null;
+        }
+        if (isEvenSlot(nextCheckAt, periodMillis)) {
+            return null;
+        }
+        Instant skipTo = schedulePolicy.nextCheckAfter(pingId, period, now);
+        if (!isEvenSlot(skipTo, periodMillis)) {
+            skipTo = skipTo.plus(period);
+        }
+        shedCounter.increment();
+        return skipTo;
+    }
+
+    /**
+     * Takes an ingestion slot for one result; false when ingestion is saturated.
+     * Every successful call must be paired with endResult().
+     */
+    public boolean tryBeginResult() {
+        int max = properties.getOverload().getMaxConcurrentResults();
+        int current = resultsInFlight.incrementAndGet();
+        if (properties.getOverload().isEnabled() && max > 0 && current > max) {
+            resultsInFlight.decrementAndGet();
+            rejectedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void endResult() {
+        resultsInFlight.decrementAndGet();
+    }
+
+    /**
+     * True while results are arriving faster than they can be recorded; handing out more
+     * checks would only produce more results to reject.
+     */
+    public boolean isIngestionSaturated() {
+        int max = properties.getOverload().getMaxConcurrentResults();
+        boolean saturated = properties.getOverload().isEnabled() && max > 0 && resultsInFlight.get() >= max;
+        if (saturated) {
+            pollsRejectedCounter.increment();
+        }
+        return saturated;
+    }
+
+    public Duration getRetryAfter() {
+        return properties.getOverload().getRetryAfter();
+    }
+
+    private Level levelFor(long lag) {
+        long stretchLag = properties.getOverload().getStretchLag().toMillis();
+        long shedLag = properties.getOverload().getShedLag().toMillis();
+        Level target = lag >= shedLag ? Level.SHED : lag >= stretchLag ? Level.STRETCH : Level.NORMAL;
+        if (target.ordinal() >= level.ordinal()) {
+            return target;
+        }
+        // Step down only once the lag is well below the threshold that raised the level
+        long releaseBelow = (level == Level.SHED ? shedLag : stretchLag) / 2;
+        return lag >= releaseBelow ? level : target;
+    }
+
+    private boolean isLowPriority(Long ownerId) {
+        return ownerId == null || !priorityOwnerIds.contains(ownerId);
+    }
+
+    private static boolean isEvenSlot(Instant slot, long periodMillis) {
+        return Math.floorMod(Math.floorDiv(slot.toEpochMilli(), periodMillis), 2L) == 0;
+    }
+}
@@ -0,0 +1,276 @@
+package com.isofuture.uptime.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.repository.PingRepository;
+import com.isofuture.uptime.repository.PingSchedule;
+import com.isofuture.uptime.util.HierarchicalTimingWheel;
+
+/**
+ * PingScheduler - In-memory schedule of due pings (app.scheduler.mode = timing-wheel).
+ *
+ * The ping table stays the source of truth: every ID handed out is still claimed through the
+ * database, and changes are applied to the wheel only after commit.
+ */
+@Service
+public class PingScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(PingScheduler.class);
+
+    private final PingRepository pingRepository;
+    private final SchedulerProperties properties;
+    private final ClusterMembership clusterMembership;
+    private final DueSignal dueSignal;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private volatile Instant syncedUntil;
+
+    public PingScheduler(
+        PingRepository pingRepository,
+        SchedulerProperties properties,
+        ClusterMembership clusterMembership,
+        DueSignal dueSignal
+    ) {
+        this.pingRepository = pingRepository;
+        this.properties = properties;
+        this.clusterMembership = clusterMembership;
+        this.dueSignal = dueSignal;
+        this.wheel = new HierarchicalTimingWheel<>(
+            properties.getWheel().getTickMillis(),
+            properties.getWheel().getSize(),
+            System.currentTimeMillis()
+        );
+    }
+
+    public boolean isEnabled() {
+        return properties.getMode() == SchedulerProperties.Mode.TIMING_WHEEL;
+    }
+
+    /**
+     * Loads every ping owned by this node that is not in progress into the wheel.
+     * In-progress pings re-enter the wheel when their result is recorded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!isEnabled()) {
+            return;
+        }
+        log.info("Loading ping schedules into timing wheel");
+        int batchSize = properties.getWheel().getLoadBatchSize();
+        long lastId = 0L;
+        int loaded = 0;
+        List<PingSchedule> page;
+        syncedUntil = Instant.now();
+        synchronized (wheel) {
+            wheel.clear();
+        }
+        do {
+            page = pingRepository.findSchedulesAfter(lastId, Limit.of(batchSize));
+            synchronized (wheel) {
+                for (PingSchedule schedule : page) {
+                    if (!schedule.isInProgress() && clusterMembership.owns(schedule.getId())) {
+                        wheel.schedule(schedule.getId(), toMillis(schedule.getNextCheckAt()));
+                        loaded++;
+                    }
+                }
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == batchSize);
+        log.info("Timing wheel loaded with {} ping schedules", loaded);
+    }
+
+    @EventListener(ClusterMembership.PartitionChanged.class)
+    public void onPartitionChanged() {
+        load();
+    }
+
+    /**
+     * Re-reads pings updated since the last sync and applies them to the wheel: idle pings are
+     * (re)scheduled, claimed ones removed. Catches results and edits handled by other nodes,
+     * which this node's wheel would otherwise never see.
+     */
+    @Scheduled(
+        initialDelayString = "${app.scheduler.wheel.sync-interval-millis:5000}",
+        fixedDelayString = "${app.scheduler.wheel.sync-interval-millis:5000}"
+    )
+    public void syncChanges() {
+        if (!isEnabled() || syncedUntil == null) {
+            return;
+        }
+        int batchSize = properties.getWheel().getLoadBatchSize();
+        // Overlap by one interval so rows committed late with an earlier updated_at are not missed
+        Instant since = syncedUntil.minusMillis(properties.getWheel().getSyncIntervalMillis());
+        Instant startedAt = Instant.now();
+        int applied = 0;
+        List<PingSchedule> page;
+        do {
+            page = pingRepository.findSchedulesUpdatedSince(since, Limit.of(batchSize));
+            synchronized (wheel) {
+                for (PingSchedule schedule : page) {
+                    if (schedule.isInProgress()) {
+                        wheel.cancel(schedule.getId());
+                    } else if (clusterMembership.owns(schedule.getId())) {
+                        wheel.schedule(schedule.getId(), toMillis(schedule.getNextCheckAt()));
+                        applied++;
+                    }
+                }
+            }
+            if (page.size() < batchSize) {
+                break;
+            }
+            Instant last = page.get(page.size() - 1).getUpdatedAt();
+            if (!last.isAfter(since)) {
+                log.warn("More than {} pings share updated_at {}; rest is left to the next sync", batchSize, since);
+                break;
+            }
+            since = last;
+        } while (true);
+        syncedUntil = startedAt;
+        log.debug("Synced {} changed ping schedules onto the timing wheel", applied);
+    }
+
+    /**
+     * Schedules (or reschedules) a ping once the current transaction commits.
+     *
+     * @param pingId Ping ID
+     * @param nextCheckAt Next due time; null means due now
+     */
+    public void schedule(Long pingId, Instant nextCheckAt) {
+        if (pingId == null || !clusterMembership.owns(pingId)) {
+            return;
+        }
+        afterCommit(() -> {
+            if (isEnabled()) {
+                synchronized (wheel) {
+                    wheel.schedule(pingId, toMillis(nextCheckAt));
+                }
+            }
+            dueSignal.signal(nextCheckAt);
+        });
+    }
+
+    /**
+     * Removes a ping from the schedule once the current transaction commits.
+     */
+    public void cancel(Long pingId) {
+        if (!isEnabled() || pingId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (wheel) {
+                wheel.cancel(pingId);
+            }
+        });
+    }
+
+    /**
+     * Removes and returns up to {@code max} due ping IDs.
+     * If called inside a transaction that later rolls back, the IDs are re-queued as due.
+     */
+    public List<Long> pollDue(Instant now, int max) {
+        if (!isEnabled()) {
+            return List.of();
+        }
+        List<Long> due;
+        synchronized (wheel) {
+            due = wheel.pollDue(now.toEpochMilli(), max);
+        }
+        if (!due.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        requeue(due, now);
+                    }
+                }
+            });
+        }
+        return due;
+    }
+
+    /**
+     * Re-reads scheduling state for IDs that were polled but could not be claimed
+     * (locked by another claim, rescheduled meanwhile, or already in progress) and puts
+     * the ones that are still idle back on the wheel. Deleted pings simply drop out.
+     */
+    public void resync(Collection<Long> pingIds) {
+        if (!isEnabled() || pingIds.isEmpty()) {
+            return;
+        }
+        List<PingSchedule> schedules = pingRepository.findSchedulesByIds(pingIds);
+        List<PingSchedule> idle = new ArrayList<>(schedules.size());
+        for (PingSchedule schedule : schedules) {
+            if (!schedule.isInProgress() && clusterMembership.owns(schedule.getId())) {
+                idle.add(schedule);
+            }
+        }
+        afterCommit(() -> {
+            synchronized (wheel) {
+                for (PingSchedule schedule : idle) {
+                    wheel.schedule(schedule.getId(), toMillis(schedule.getNextCheckAt()));
+                }
+            }
+        });
+        log.debug("Resynced {} of {} unclaimed pings back onto the timing wheel", idle.size(), pingIds.size());
+    }
+
+    /**
+     * Whether the wheel holds a ping that is due at {@code now}. In-memory only.
+     */
+    public boolean hasDue(Instant now) {
+        if (!isEnabled()) {
+            return false;
+        }
+        synchronized (wheel) {
+            return wheel.hasDue(now.toEpochMilli());
+        }
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void requeue(Collection<Long> pingIds, Instant dueAt) {
+        synchronized (wheel) {
+            for (Long pingId : pingIds) {
+                if (!wheel.contains(pingId)) {
+                    wheel.schedule(pingId, dueAt.toEpochMilli());
+                }
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long toMillis(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : 0L;
+    }
+}
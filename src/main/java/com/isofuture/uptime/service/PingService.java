@@ -1,21 +1,32 @@
 package com.isofuture.uptime.service;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.isofuture.uptime.config.SchedulerProperties;
 import com.isofuture.uptime.dto.CheckResultDto;
 import com.isofuture.uptime.dto.PingRequest;
 import com.isofuture.uptime.dto.PingResponse;
 import com.isofuture.uptime.dto.PendingCheckResponse;
 import com.isofuture.uptime.entity.Ping;
+import com.isofuture.uptime.entity.Tier;
 import com.isofuture.uptime.entity.User;
 import com.isofuture.uptime.mapper.PingMapper;
 import com.isofuture.uptime.repository.CheckResultRepository;
@@ -34,19 +45,43 @@ public class PingService {
     private final UserRepository userRepository;
     private final PingMapper mapper;
     private final UserContext userContext;
+    private final PingScheduler pingScheduler;
+    private final SchedulerProperties schedulerProperties;
+    private final SchedulePolicy schedulePolicy;
+    private final ClusterMembership clusterMembership;
+    private final HostPoliteness hostPoliteness;
+    private final OverloadControl overloadControl;
+    private final CatchUpPlanner catchUpPlanner;
+    private final WorkerAffinity workerAffinity;
 
     public PingService(
         PingRepository pingRepository,
         CheckResultRepository checkResultRepository,
         UserRepository userRepository,
         PingMapper mapper,
-        UserContext userContext
+        UserContext userContext,
+        PingScheduler pingScheduler,
+        SchedulerProperties schedulerProperties,
+        SchedulePolicy schedulePolicy,
+        ClusterMembership clusterMembership,
+        HostPoliteness hostPoliteness,
+        OverloadControl overloadControl,
+        CatchUpPlanner catchUpPlanner,
+        WorkerAffinity workerAffinity
     ) {
         this.pingRepository = pingRepository;
         this.checkResultRepository = checkResultRepository;
         this.userRepository = userRepository;
         this.mapper = mapper;
         this.userContext = userContext;
+        this.pingScheduler = pingScheduler;
+        this.schedulerProperties = schedulerProperties;
+        this.schedulePolicy = schedulePolicy;
+        this.clusterMembership = clusterMembership;
+        this.hostPoliteness = hostPoliteness;
+        this.overloadControl = overloadControl;
+        this.catchUpPlanner = catchUpPlanner;
+        this.workerAffinity = workerAffinity;
     }
 
     @Transactional(readOnly = true)
@@ -84,12 +119,18 @@ public class PingService {
                 return new IllegalStateException("User not found");
             });
 
+        int frequencySeconds = resolveFrequencySeconds(request, null);
+        assertFrequencyAllowed(owner, frequencySeconds);
+        assertBodyAssertionValid(request);
+
         Ping entity = new Ping();
         entity.setOwner(owner);
         entity.setLabel(request.getLabel());
         entity.setUrl(request.getUrl());
-        entity.setFrequencyMinutes(request.getFrequencyMinutes());
-        entity.setNextCheckAt(calculateNextCheck(request.getFrequencyMinutes()));
+        applyProbeSettings(entity, request);
+        assertProbeModeAllowsAssertion(entity);
+        entity.setFrequencySeconds(frequencySeconds);
+        entity.setNextCheckAt(calculateNextCheck(null, frequencySeconds));
         entity.setInProgress(false);
         Instant now = Instant.now();
         entity.setCreatedAt(now);
@@ -97,6 +138,9 @@ public class PingService {
 
         try {
             Ping saved = pingRepository.save(entity);
+            // The slot offset is derived from the ID, which only exists once the row is inserted
+            saved.setNextCheckAt(calculateNextCheck(saved.getId(), frequencySeconds));
+            pingScheduler.schedule(saved.getId(), saved.getNextCheckAt());
             log.info("Ping created successfully: {} (ID: {}) for user: {}", saved.getUrl(), saved.getId(), owner.getEmail());
             return toResponse(saved, DEFAULT_RECENT_RESULTS);
         } catch (Exception e) {
@@ -109,19 +153,35 @@ public class PingService {
     public PingResponse updatePing(Long id, PingRequest request) {
         log.debug("Updating ping: {}", id);
         Ping entity = loadOwnedPing(id);
+        int frequencySeconds = resolveFrequencySeconds(request, entity);
+        assertFrequencyAllowed(entity.getOwner(), frequencySeconds);
+        assertBodyAssertionValid(request);
 
         entity.setLabel(request.getLabel());
         entity.setUrl(request.getUrl());
-        entity.setFrequencyMinutes(request.getFrequencyMinutes());
+        applyProbeSettings(entity, request);
+        assertProbeModeAllowsAssertion(entity);
+        entity.setFrequencySeconds(frequencySeconds);
         // Only update nextCheckAt if it's null (don't overwrite existing scheduled checks)
         if (entity.getNextCheckAt() == null) {
-            entity.setNextCheckAt(calculateNextCheck(request.getFrequencyMinutes()));
+            entity.setNextCheckAt(calculateNextCheck(entity.getId(), frequencySeconds));
+        }
+        if (entity.getShardWorkerId() != null) {
+            // The leasing worker schedules from its copy of the settings; taking the ping out of
+            // its shard makes the next renewal hand it out again as edited
+            entity.setShardWorkerId(null);
+            entity.setInProgress(false);
+            entity.setClaimToken(null);
+            entity.setLeaseExpiresAt(null);
         }
         entity.setUpdatedAt(Instant.now());
 
         try {
             // Save the entity to persist changes
             Ping saved = pingRepository.save(entity);
+            if (!saved.isInProgress()) {
+                pingScheduler.schedule(saved.getId(), saved.getNextCheckAt());
+            }
             PingResponse response = toResponse(saved, DEFAULT_RECENT_RESULTS);
             log.info("Ping updated successfully: {} (ID: {})", saved.getUrl(), id);
             return response;
@@ -136,18 +196,21 @@ public class PingService {
         log.debug("Deleting ping: {}", id);
         Ping entity = loadOwnedPing(id);
         pingRepository.delete(entity);
+        pingScheduler.cancel(id);
         log.info("Ping deleted successfully: {} (ID: {})", entity.getUrl(), id);
     }
 
     @Transactional(readOnly = true)
     public List<PendingCheckResponse> getInProgressChecks(Integer limit) {
         log.debug("Getting in-progress checks (limit: {})", limit);
-        Stream<Ping> stream = pingRepository.findByInProgressTrueOrderByUpdatedAtAsc().stream();
+        // Pings in a shard lease are scheduled by their worker, not waiting for one
+        Stream<Ping> stream = pingRepository.findByInProgressTrueOrderByUpdatedAtAsc().stream()
+            .filter(entity -> entity.getShardWorkerId() == null);
         if (limit != null) {
             stream = stream.limit(limit);
         }
         List<PendingCheckResponse> pending = stream
-            .map(entity -> new PendingCheckResponse(entity.getId(), entity.getUrl(), entity.getLabel()))
+            .map(entity -> toPendingCheck(entity, entity.getClaimToken(), entity.getLeaseExpiresAt()))
             .collect(Collectors.toList());
         log.debug("Found {} in-progress checks", pending.size());
         return pending;
@@ -155,23 +218,266 @@ public class PingService {
 
     @Transactional
     public List<PendingCheckResponse> fetchNextChecks(int limit) {
-        log.debug("Fetching next checks (limit: {})", limit);
+        return fetchNextChecks(limit, null);
+    }
+
+    /**
+     * Claims up to {@code limit} due checks for a worker. With a worker ID, pings that worker
+     * checked last are preferred and pings held for other active workers are left to them
+     * (see WorkerAffinity).
+     *
+     * @param workerId Claiming worker, or null for an anonymous claim
+     */
+    @Transactional
+    public List<PendingCheckResponse> fetchNextChecks(int limit, String workerId) {
+        log.debug("Fetching next checks (limit: {}, worker: {})", limit, workerId);
         Instant now = Instant.now();
-        List<Ping> candidates = pingRepository.findReadyForCheck(now);
-        log.debug("Found {} candidates for next check", candidates.size());
-        List<PendingCheckResponse> next = candidates.stream()
-            .limit(limit)
+        catchUpPlanner.onClaim(now);
+        if (catchUpPlanner.isRamping()) {
+            // Recovering from downtime: claims ramp up instead of draining the backlog at once
+            limit = catchUpPlanner.admit(limit);
+            if (limit <= 0) {
+                log.debug("Claims held back by the catch-up ramp");
+                return new ArrayList<>();
+            }
+        }
+        boolean affine = workerId != null && workerAffinity.isEnabled();
+        int candidates = affine ? workerAffinity.candidateCount(limit) : limit;
+        List<Ping> locked;
+        if (pingScheduler.isEnabled()) {
+            // Due IDs come from the timing wheel; the database only sees primary-key claims
+            List<Long> dueIds = pingScheduler.pollDue(now, candidates);
+            if (dueIds.isEmpty()) {
+                log.debug("No pings due on the timing wheel");
+                return new ArrayList<>();
+            }
+            locked = pingRepository.lockReadyForCheckByIds(dueIds, now);
+            if (locked.size() < dueIds.size()) {
+                Set<Long> lockedIds = locked.stream().map(Ping::getId).collect(Collectors.toSet());
+                pingScheduler.resync(dueIds.stream().filter(id -> !lockedIds.contains(id)).toList());
+            }
+        } else if (clusterMembership.isEnabled()) {
+            // Only this node's slice of the table, so nodes do not contend for the same rows
+            List<Integer> ownedSlots = clusterMembership.ownedSlots();
+            if (ownedSlots.isEmpty()) {
+                log.debug("Node {} owns no schedule slots", clusterMembership.getNodeId());
+                return new ArrayList<>();
+            }
+            locked = pingRepository.lockReadyForCheckInSlots(now, clusterMembership.slotCount(), ownedSlots, Limit.of(candidates));
+        } else {
+            // Lock and limit in the database (FOR UPDATE SKIP LOCKED) so concurrent workers
+            // claim disjoint rows and the claim cost does not grow with the due backlog
+            locked = pingRepository.lockReadyForCheck(now, Limit.of(candidates));
+        }
+        if (overloadControl.getLevel() == OverloadControl.Level.SHED) {
+            locked = shedLowPriority(locked, now);
+        }
+        if (affine) {
+            locked = selectForWorker(workerId, locked, limit, now);
+        }
+        // Followers share their leader's probe and are not handed out themselves
+        Map<Long, List<Long>> followers = new HashMap<>();
+        boolean coalescing = schedulerProperties.getCoalescing().isEnabled();
+        if (coalescing) {
+            locked = groupByProbe(locked, followers);
+        }
+        if (hostPoliteness.isEnabled()) {
+            locked = admitPolitely(locked, followers, now);
+        }
+        if (coalescing && !locked.isEmpty()) {
+            addCoalescable(locked, followers, now);
+        }
+        locked.forEach(entity -> overloadControl.recordClaimed(entity.getNextCheckAt(), now));
+        String claimToken = UUID.randomUUID().toString();
+        Instant leaseExpiresAt = now.plus(schedulerProperties.getLease().getDuration());
+        List<PendingCheckResponse> next = locked.stream()
             .map(entity -> {
-                entity.setInProgress(true);
-                entity.setUpdatedAt(now);
-                PendingCheckResponse response = new PendingCheckResponse(entity.getId(), entity.getUrl(), entity.getLabel());
-                return response;
+                PendingCheckResponse check = toPendingCheck(entity, claimToken, leaseExpiresAt);
+                check.setCoalescedPingIds(followers.get(entity.getId()));
+                return check;
             })
             .collect(Collectors.toList());
-        log.info("Fetched {} next checks", next.size());
+        if (next.isEmpty()) {
+            log.debug("No pings ready for check");
+            return next;
+        }
+
+        List<Long> ids = next.stream()
+            .map(PendingCheckResponse::getPingId)
+            .toList();
+        int updated = pingRepository.markInProgress(ids, now, claimToken, leaseExpiresAt);
+        if (affine) {
+            workerAffinity.recordClaimed(workerId, locked);
+            pingRepository.assignWorker(ids, workerId);
+        }
+        int coalesced = 0;
+        for (Map.Entry<Long, List<Long>> group : followers.entrySet()) {
+            coalesced += pingRepository.markCoalesced(group.getValue(), group.getKey(), now, claimToken, leaseExpiresAt);
+            group.getValue().forEach(pingScheduler::cancel);
+        }
+        if (coalesced > 0) {
+            log.info("Fetched {} next checks ({} marked in progress, {} coalesced into them, lease until {})",
+                next.size(), updated, coalesced, leaseExpiresAt);
+        } else {
+            log.info("Fetched {} next checks ({} marked in progress, lease until {})", next.size(), updated, leaseExpiresAt);
+        }
         return next;
     }
 
+    /**
+     * Gives back claims that could not be delivered to a worker and makes the pings due again.
+     *
+     * @param pingIds Pings claimed by fetchNextChecks()
+     */
+    @Transactional
+    public void releaseChecks(Collection<Long> pingIds) {
+        if (pingIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        // Followers of a coalesced probe go back with their leader
+        List<Long> released = new ArrayList<>(pingIds);
+        released.addAll(pingRepository.findCoalescedFollowerIds(pingIds));
+        int count = pingRepository.releaseClaims(released, now);
+        for (Long id : released) {
+            hostPoliteness.release(id);
+            pingScheduler.schedule(id, now);
+        }
+        log.info("Released {} undelivered checks", count);
+    }
+
+    /**
+     * Keeps one ping per probe key; the others become its followers.
+     */
+    private List<Ping> groupByProbe(List<Ping> locked, Map<Long, List<Long>> followers) {
+        Map<String, Ping> leaders = new HashMap<>();
+        List<Ping> distinct = new ArrayList<>(locked.size());
+        for (Ping entity : locked) {
+            Ping leader = entity.getProbeKey() != null ? leaders.putIfAbsent(entity.getProbeKey(), entity) : null;
+            if (leader == null) {
+                distinct.add(entity);
+            } else {
+                followers.computeIfAbsent(leader.getId(), id -> new ArrayList<>()).add(entity.getId());
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Locks idle pings with a leader's probe key that fall due within the coalescing window,
+     * so one probe serves them all instead of each being probed moments later.
+     */
+    private void addCoalescable(List<Ping> leaders, Map<Long, List<Long>> followers, Instant now) {
+        Map<String, Ping> leadersByKey = new HashMap<>();
+        Set<Long> taken = new HashSet<>();
+        for (Ping leader : leaders) {
+            taken.add(leader.getId());
+            if (leader.getProbeKey() != null) {
+                leadersByKey.putIfAbsent(leader.getProbeKey(), leader);
+            }
+        }
+        if (leadersByKey.isEmpty()) {
+            return;
+        }
+        followers.values().forEach(taken::addAll);
+        SchedulerProperties.Coalescing coalescing = schedulerProperties.getCoalescing();
+        List<Ping> candidates = pingRepository.lockCoalescable(
+            leadersByKey.keySet(), now.plus(coalescing.getWindow()), Limit.of(coalescing.getMaxFollowers()));
+        for (Ping candidate : candidates) {
+            Ping leader = leadersByKey.get(candidate.getProbeKey());
+            if (leader != null && taken.add(candidate.getId())) {
+                followers.computeIfAbsent(leader.getId(), id -> new ArrayList<>()).add(candidate.getId());
+            }
+        }
+    }
+
+    /**
+     * Keeps the pings whose host is within its politeness limits and pushes the others
+     * (with their followers) back.
+     */
+    private List<Ping> admitPolitely(List<Ping> locked, Map<Long, List<Long>> followers, Instant now) {
+        List<Ping> admitted = new ArrayList<>(locked.size());
+        int deferred = 0;
+        for (Ping entity : locked) {
+            HostPoliteness.Admission admission = hostPoliteness.tryAcquire(entity.getId(), entity.getUrl(), now);
+            if (admission.admitted()) {
+                admitted.add(entity);
+                continue;
+            }
+            List<Long> group = new ArrayList<>(followers.getOrDefault(entity.getId(), List.of()));
+            followers.remove(entity.getId());
+            group.add(entity.getId());
+            for (Long id : group) {
+                if (pingRepository.rescheduleIdle(id, admission.retryAt(), now) > 0) {
+                    pingScheduler.schedule(id, admission.retryAt());
+                    deferred++;
+                }
+            }
+        }
+        if (deferred > 0) {
+            log.info("Deferred {} due checks over their host limits", deferred);
+        }
+        return admitted;
+    }
+
+    /**
+     * Keeps the worker's share of the locked candidates; the others go back on the timing
+     * wheel (a no-op in database mode, where they simply stay due).
+     */
+    private List<Ping> selectForWorker(String workerId, List<Ping> locked, int limit, Instant now) {
+        List<Ping> selected = workerAffinity.select(workerId, locked, limit, now);
+        if (selected.size() < locked.size() && pingScheduler.isEnabled()) {
+            Set<Long> selectedIds = selected.stream().map(Ping::getId).collect(Collectors.toSet());
+            for (Ping entity : locked) {
+                if (!selectedIds.contains(entity.getId())) {
+                    pingScheduler.schedule(entity.getId(), entity.getNextCheckAt() != null ? entity.getNextCheckAt() : now);
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Under heavy backlog, moves due low-priority pings that are on a skippable slot to a
+     * later slot instead of handing them out (see OverloadControl).
+     */
+    private List<Ping> shedLowPriority(List<Ping> locked, Instant now) {
+        List<Ping> kept = new ArrayList<>(locked.size());
+        int shed = 0;
+        for (Ping entity : locked) {
+            Duration period = entity.getFrequency() != null ? entity.getFrequency() : SchedulePolicy.DEFAULT_PERIOD;
+            Instant skipTo = overloadControl.shedUntil(entity.getId(),
+                entity.getOwner() != null ? entity.getOwner().getId() : null, period, entity.getNextCheckAt(), now);
+            if (skipTo == null) {
+                kept.add(entity);
+            } else if (pingRepository.rescheduleIdle(entity.getId(), skipTo, now) > 0) {
+                pingScheduler.schedule(entity.getId(), skipTo);
+                shed++;
+            }
+        }
+        if (shed > 0) {
+            log.info("Shed {} due low-priority checks under backlog", shed);
+        }
+        return kept;
+    }
+
+    /**
+     * A claimed ping as handed to a worker, with the probe settings it needs.
+     */
+    private static PendingCheckResponse toPendingCheck(Ping entity, String claimToken, Instant leaseExpiresAt) {
+        PendingCheckResponse check = new PendingCheckResponse(entity.getId(), entity.getUrl(), entity.getLabel(),
+            claimToken, leaseExpiresAt);
+        check.setMeasureDns(entity.isMeasureDns() ? Boolean.TRUE : null);
+        check.setConnectionMode(entity.getConnectionMode() == Ping.ConnectionMode.POOLED ? Ping.ConnectionMode.POOLED : null);
+        check.setProbeMode(entity.getProbeMode() != Ping.ProbeMode.GET ? entity.getProbeMode() : null);
+        check.setMaxBodyBytes(entity.getMaxBodyBytes());
+        check.setEtag(entity.getProbeMode() == Ping.ProbeMode.CONDITIONAL ? entity.getLastEtag() : null);
+        check.setAssertionMode(entity.getAssertionMode());
+        check.setAssertionPattern(entity.getAssertionPattern());
+        check.setTrackContent(entity.isTrackContent() ? Boolean.TRUE : null);
+        return check;
+    }
+
     private PingResponse toResponse(Ping entity, int recentLimit) {
         List<CheckResultDto> latest = checkResultRepository
             .findByPingOrderByCheckedAtDesc(entity)
@@ -200,8 +506,111 @@ public class PingService {
             });
     }
 
-    private Instant calculateNextCheck(int frequencyMinutes) {
-        return Instant.now().plus(frequencyMinutes, ChronoUnit.MINUTES);
+    private Instant calculateNextCheck(Long pingId, int frequencySeconds) {
+        return schedulePolicy.nextCheckAfter(pingId, Duration.ofSeconds(frequencySeconds), Instant.now());
+    }
+
+    /**
+     * The requested period in seconds. On an update ({@code current} set) a request without
+     * frequencySeconds keeps the stored period, unless it changes frequencyMinutes: clients that
+     * only know minutes send back the rounded-up minutes of a sub-minute ping unchanged.
+     */
+    private int resolveFrequencySeconds(PingRequest request, Ping current) {
+        if (request.getFrequencySeconds() != null) {
+            return request.getFrequencySeconds();
+        }
+        Integer storedSeconds = current != null && current.getFrequency() != null
+            ? (int) current.getFrequency().toSeconds()
+            : null;
+        if (request.getFrequencyMinutes() != null) {
+            if (storedSeconds != null && request.getFrequencyMinutes().equals(current.getFrequencyMinutes())) {
+                return storedSeconds;
+            }
+            return request.getFrequencyMinutes() * 60;
+        }
+        if (storedSeconds != null) {
+            return storedSeconds;
+        }
+        throw new IllegalArgumentException("frequencySeconds or frequencyMinutes is required");
+    }
+
+    /**
+     * Copies the optional probe settings the request carries. Settings it omits keep their
+     * current value (the defaults on a new ping), so clients that do not know a setting cannot
+     * reset it on an update. An empty assertionPattern without a mode removes the assertion.
+     */
+    private static void applyProbeSettings(Ping entity, PingRequest request) {
+        if (request.getMeasureDns() != null) {
+            entity.setMeasureDns(request.getMeasureDns());
+        }
+        if (request.getConnectionMode() != null) {
+            entity.setConnectionMode(request.getConnectionMode());
+        }
+        if (request.getProbeMode() != null) {
+            entity.setProbeMode(request.getProbeMode());
+        }
+        if (request.getMaxBodyBytes() != null) {
+            entity.setMaxBodyBytes(request.getMaxBodyBytes());
+        }
+        if (isAssertionRemoval(request)) {
+            entity.setAssertionMode(null);
+            entity.setAssertionPattern(null);
+        } else if (request.getAssertionMode() != null) {
+            entity.setAssertionMode(request.getAssertionMode());
+            entity.setAssertionPattern(request.getAssertionPattern());
+        }
+        if (request.getTrackContent() != null) {
+            entity.setTrackContent(request.getTrackContent());
+        }
+    }
+
+    private static boolean isAssertionRemoval(PingRequest request) {
+        return request.getAssertionMode() == null && "".equals(request.getAssertionPattern());
+    }
+
+    /**
+     * Rejects a body assertion with only one of mode and pattern, or a regex that does not compile.
+     */
+    private void assertBodyAssertionValid(PingRequest request) {
+        if (request.getAssertionMode() == null && request.getAssertionPattern() == null || isAssertionRemoval(request)) {
+            return;
+        }
+        try {
+            BodyAssertion.compile(request.getAssertionMode(), request.getAssertionPattern());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid body assertion: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rejects a body assertion on a HEAD probe, which never reads a body to match it against.
+     * Checked on the merged settings, so an update may not set either one under the other.
+     */
+    private static void assertProbeModeAllowsAssertion(Ping entity) {
+        if (entity.getProbeMode() == Ping.ProbeMode.HEAD && entity.getAssertionMode() != null) {
+            throw new IllegalArgumentException("A HEAD probe cannot have a body assertion");
+        }
+    }
+
+    /**
+     * Rejects frequencies below the owner's tier minimum. With several tiers the most
+     * generous one applies; tiers without a minimum fall back to the application default.
+     */
+    private void assertFrequencyAllowed(User owner, int frequencySeconds) {
+        int minimum = schedulerProperties.getDefaultMinFrequencySeconds();
+        if (owner != null && owner.getTiers() != null) {
+            minimum = owner.getTiers().stream()
+                .filter(tier -> !tier.isDeleted())
+                .map(Tier::getMinFrequencySeconds)
+                .filter(Objects::nonNull)
+                .min(Integer::compare)
+                .orElse(minimum);
+        }
+        if (frequencySeconds < minimum) {
+            log.warn("Rejected frequency of {}s for user {} (minimum {}s)", frequencySeconds,
+                owner != null ? owner.getId() : null, minimum);
+            throw new IllegalArgumentException("Frequency must be at least " + minimum + " seconds for your tier");
+        }
     }
 }
 
@@ -0,0 +1,180 @@
+package com.isofuture.uptime.service;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.isofuture.uptime.config.ProbeProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ProbeConnectionPool - Keep-alive connections of pooled pings (app.probe.pool.*).
+ *
+ * Bounded per host (max-idle-per-host) and in total (max-idle); idle connections older than
+ * idle-timeout are closed. Also counts every probe socket, pooled or not.
+ */
+@Service
+public class ProbeConnectionPool {
+
+    private final ProbeProperties.Pool properties;
+    private final Map<String, Deque<Idle>> idle = new ConcurrentHashMap<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final Counter openedCounter;
+    private final Counter reusedCounter;
+    private final Counter evictedCounter;
+
+    public ProbeConnectionPool(ProbeProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties.getPool();
+        Gauge.builder("uptime.probe.connections.open", openCount, AtomicInteger::get)
+            .description("Sockets held by probes, in use or idle in the pool")
+            .register(meterRegistry);
+        Gauge.builder("uptime.probe.connections.idle", idleCount, AtomicInteger::get)
+            .description("Idle keep-alive connections in the probe pool")
+            .register(meterRegistry);
+        this.openedCounter = Counter.builder("uptime.probe.connections.opened")
+            .description("Connections opened by probes")
+            .register(meterRegistry);
+        this.reusedCounter = Counter.builder("uptime.probe.connections.reused")
+            .description("Probes sent on a pooled connection")
+            .register(meterRegistry);
+        this.evictedCounter = Counter.builder("uptime.probe.connections.evicted")
+            .description("Idle connections closed for age or because the pool was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * An idle connection to {@code route}, or null if there is none. The caller owns it and must
+     * {@link #release} or {@link #close} it.
+     */
+    public Socket acquire(String route) {
+        Deque<Idle> connections = idle.get(route);
+        if (connections == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        Idle connection;
+        while ((connection = connections.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            if (!connection.expired(now, properties.getIdleTimeout().toNanos()) && !connection.socket.isClosed()) {
+                reusedCounter.increment();
+                return connection.socket;
+            }
+            evictedCounter.increment();
+            close(connection.socket);
+        }
+        return null;
+    }
+
+    /**
+     * Takes back a connection whose response was read completely, or closes it if the pool is
+     * full.
+     */
+    public void release(String route, Socket socket) {
+        if (idleCount.incrementAndGet() > properties.getMaxIdle()) {
+            idleCount.decrementAndGet();
+            evictedCounter.increment();
+            close(socket);
+            return;
+        }
+        boolean[] kept = new boolean[1];
+        idle.compute(route, (key, connections) -> {
+            Deque<Idle> target = connections != null ? connections : new ConcurrentLinkedDeque<>();
+            if (target.size() < properties.getMaxIdlePerHost()) {
+                target.offerFirst(new Idle(socket, System.nanoTime()));
+                kept[0] = true;
+            }
+            return target.isEmpty() ? null : target;
+        });
+        if (!kept[0]) {
+            idleCount.decrementAndGet();
+            evictedCounter.increment();
+            close(socket);
+        }
+    }
+
+    /**
+     * Records a connection a probe has just opened.
+     */
+    public void opened() {
+        openCount.incrementAndGet();
+        openedCounter.increment();
+    }
+
+    /**
+     * Closes a connection opened through {@link #opened()}.
+     */
+    public void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Closing is best effort
+        }
+        openCount.decrementAndGet();
+    }
+
+    public int getOpen() {
+        return openCount.get();
+    }
+
+    public int getIdle() {
+        return idleCount.get();
+    }
+
+    /**
+     * Closes idle connections older than idle-timeout.
+     */
+    @Scheduled(fixedDelay = 5_000, initialDelay = 5_000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleTimeout = properties.getIdleTimeout().toNanos();
+        for (String route : idle.keySet()) {
+            Deque<Idle> connections = idle.get(route);
+            if (connections == null) {
+                continue;
+            }
+            Iterator<Idle> iterator = connections.iterator();
+            while (iterator.hasNext()) {
+                Idle connection = iterator.next();
+                if (connection.expired(now, idleTimeout) && connections.remove(connection)) {
+                    idleCount.decrementAndGet();
+                    evictedCounter.increment();
+                    close(connection.socket);
+                }
+            }
+            idle.computeIfPresent(route, (key, remaining) -> remaining.isEmpty() ? null : remaining);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Deque<Idle> connections : idle.values()) {
+            Idle connection;
+            while ((connection = connections.pollFirst()) != null) {
+                idleCount.decrementAndGet();
+                close(connection.socket);
+            }
+        }
+        idle.clear();
+    }
+
+    private record Idle(Socket socket, long idleSinceNanos) {
+
+        private boolean expired(long now, long idleTimeoutNanos) {
+            return now - idleSinceNanos >= idleTimeoutNanos;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.isofuture.uptime.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.isofuture.uptime.config.ProbeProperties;
+import com.isofuture.uptime.dto.CheckResultUpdateRequest;
+import com.isofuture.uptime.dto.PendingCheckResponse;
+import com.isofuture.uptime.entity.Ping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * ProbeEngine - Runs the backend's own HTTP probes on virtual threads (app.probe.*).
+ *
+ * At most max-concurrent probes are in flight; the rest wait up to queue-timeout for a slot.
+ * Interrupting a caller cancels its probe.
+ */
+@Service
+public class ProbeEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ProbeEngine.class);
+
+    /**
+     * Outcome of a probe: the status code, or an error message if there was no response.
+     * {@code sent} is false if the probe never reached the target (no free slot, cancelled
+     * while waiting), so the error says nothing about the target. {@code bytesTransferred} is
+     * what was received, headers included, and {@code etag} the response's ETag, if any.
+     * {@code assertionPassed} is the outcome of the body assertion; a failed one also sets
+     * {@code error}, next to the status code. {@code bodyDigest} is the hex SHA-256 of the body
+     * read, for pings that track content.
+     */
+    public record Result(
+        Integer httpCode,
+        String error,
+        double responseTimeMs,
+        Instant checkedAt,
+        boolean sent,
+        Phases phases,
+        Long bytesTransferred,
+        String etag,
+        Boolean assertionPassed,
+        String bodyDigest
+    ) {
+
+        /**
+         * The outcome as a result report for {@code pingId}, as a worker would send it.
+         */
+        public CheckResultUpdateRequest toUpdateRequest(Long pingId, String claimToken) {
+            CheckResultUpdateRequest request = new CheckResultUpdateRequest();
+            request.setPingId(pingId);
+            request.setClaimToken(claimToken);
+            request.setHttpCode(httpCode);
+            request.setErrorMessage(error);
+            request.setResponseTimeMs(responseTimeMs);
+            request.setCheckedAt(checkedAt);
+            request.setDnsMs(phases.dnsMs());
+            request.setConnectMs(phases.connectMs());
+            request.setTlsMs(phases.tlsMs());
+            request.setTtfbMs(phases.ttfbMs());
+            request.setTransferMs(phases.transferMs());
+            request.setBytesTransferred(bytesTransferred);
+            request.setEtag(etag);
+            request.setAssertionPassed(assertionPassed);
+            request.setBodyDigest(bodyDigest);
+            return request;
+        }
+    }
+
+    /**
+     * Per-ping probe settings.
+     *
+     * @param measureDns       Resolve the host afresh instead of through the DNS cache, so the
+     *                         dns phase measures the resolver
+     * @param connectionMode   New connection per probe, or a pooled keep-alive connection
+     * @param probeMode        What to ask the target for (GET, HEAD, RANGE, CONDITIONAL)
+     * @param maxBodyBytes     Body bytes to read at most; null for app.probe.max-body-bytes
+     * @param etag             If-None-Match value of a CONDITIONAL probe, or null
+     * @param assertionMode    How the body is checked against {@code assertionPattern}, or null
+     * @param assertionPattern Keyword or regex of the body assertion, or null
+     * @param trackContent     Digest the body (SHA-256) to detect content changes
+     */
+    public record Options(
+        boolean measureDns,
+        Ping.ConnectionMode connectionMode,
+        Ping.ProbeMode probeMode,
+        Long maxBodyBytes,
+        String etag,
+        Ping.AssertionMode assertionMode,
+        String assertionPattern,
+        boolean trackContent
+    ) {
+
+        public static final Options DEFAULT = new Options(false, Ping.ConnectionMode.FRESH, Ping.ProbeMode.GET,
+            null, null, null, null, false);
+
+        public static Options of(Ping ping) {
+            return new Options(ping.isMeasureDns(), ping.getConnectionMode(), ping.getProbeMode(),
+                ping.getMaxBodyBytes(), ping.getProbeMode() == Ping.ProbeMode.CONDITIONAL ? ping.getLastEtag() : null,
+                ping.getAssertionMode(), ping.getAssertionPattern(), ping.isTrackContent());
+        }
+
+        /**
+         * Settings of a check as handed to a worker.
+         */
+        public static Options of(PendingCheckResponse check) {
+            return new Options(
+                Boolean.TRUE.equals(check.getMeasureDns()),
+                check.getConnectionMode() != null ? check.getConnectionMode() : Ping.ConnectionMode.FRESH,
+                check.getProbeMode() != null ? check.getProbeMode() : Ping.ProbeMode.GET,
+                check.getMaxBodyBytes(),
+                check.getEtag(),
+                check.getAssertionMode(),
+                check.getAssertionPattern(),
+                Boolean.TRUE.equals(check.getTrackContent()));
+        }
+    }
+
+    /**
+     * Milliseconds spent in each phase of a probe; null for a phase that was not reached or
+     * does not apply (tls for plain http).
+     */
+    public record Phases(Double dnsMs, Double connectMs, Double tlsMs, Double ttfbMs, Double transferMs) {
+
+        public static final Phases NONE = new Phases(null, null, null, null, null);
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        FAILED,
+        TIMEOUT,
+        REJECTED,
+        CANCELLED
+    }
+
+    private final ProbeProperties properties;
+    private final ExecutorService executor;
+    private final HttpProbeClient httpClient;
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Map<Outcome, Counter> completed = new EnumMap<>(Outcome.class);
+    private final Timer duration;
+
+    public ProbeEngine(
+        ProbeProperties properties,
+        DnsCache dnsCache,
+        ProbeConnectionPool connectionPool,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("probe-", 0).factory());
+        this.httpClient = new HttpProbeClient(properties.getConnectTimeout(), properties.getMaxBodyBytes(), dnsCache,
+            connectionPool);
+        this.slots = new Semaphore(Math.max(1, properties.getMaxConcurrent()));
+        Gauge.builder("uptime.probe.queued", queued, AtomicInteger::get)
+            .description("Probes waiting for a free slot")
+            .register(meterRegistry);
+        Gauge.builder("uptime.probe.active", active, AtomicInteger::get)
+            .description("Probes in flight")
+            .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            completed.put(outcome, Counter.builder("uptime.probe.completed")
+                .description("Finished probes by outcome")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        }
+        this.duration = Timer.builder("uptime.probe.duration")
+            .description("Time from sending a probe to its outcome")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Probes {@code url} with the default request timeout and waits for the outcome.
+     */
+    public Result probe(String url, Options options) {
+        return probe(url, options, properties.getRequestTimeout());
+    }
+
+    /**
+     * Probes {@code url} on a virtual thread and waits for the outcome. Interrupting the
+     * calling thread cancels the probe.
+     */
+    public Result probe(String url, Options options, Duration timeout) {
+        Future<Result> future = submit(url, options, timeout);
+        // The probe enforces its own timeouts; this bound only guards against a hung task
+        Duration bound = properties.getQueueTimeout().plus(properties.getConnectTimeout()).plus(timeout).plusSeconds(1);
+        try {
+            return future.get(bound.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return new Result(null, "Probe cancelled", 0, Instant.now(), false, Phases.NONE, null, null, null, null);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Probe of {} did not finish within {}s, cancelled", url, bound.toSeconds());
+            return new Result(null, "Probe timed out", bound.toMillis(), Instant.now(), true, Phases.NONE, null, null, null, null);
+        } catch (ExecutionException e) {
+            return new Result(null, e.getCause().getMessage(), 0, Instant.now(), true, Phases.NONE, null, null, null, null);
+        }
+    }
+
+    /**
+     * Starts a probe without waiting; cancelling the future with interruption cancels the probe.
+     */
+    public Future<Result> submit(String url, Options options, Duration timeout) {
+        queued.incrementAndGet();
+        return executor.submit(() -> run(url, options, timeout));
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * Probe slots neither in use nor promised to a queued probe.
+     */
+    public int getFreeSlots() {
+        return Math.max(slots.availablePermits() - queued.get(), 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Result run(String url, Options options, Duration timeout) {
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(properties.getQueueTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return finish(Outcome.CANCELLED, null, "Probe cancelled", null, null);
+        } finally {
+            queued.decrementAndGet();
+        }
+        if (!acquired) {
+            log.warn("No probe slot free within {}ms for {}", properties.getQueueTimeout().toMillis(), url);
+            return finish(Outcome.REJECTED, null, "Too many probes in flight", null, null);
+        }
+        active.incrementAndGet();
+        HttpProbeClient.Timing timing = new HttpProbeClient.Timing();
+        try {
+            log.debug("Checking URL: {}", url);
+            HttpProbeClient.Response response = httpClient.get(URI.create(url), options, timeout, timing);
+            log.debug("URL check completed: {} - HTTP {} ({} bytes)", url, response.status(), timing.bytes());
+            return finish(Outcome.SUCCESS, response.status(), response.assertionFailure(), timing, response);
+        } catch (HttpTimeoutException e) {
+            log.warn("URL check timed out: {} - {}", url, e.getMessage());
+            return finish(Outcome.TIMEOUT, null, e.getMessage(), timing, null);
+        } catch (IOException | IllegalArgumentException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Interrupting a virtual thread closes its socket
+                return finish(Outcome.CANCELLED, null, "Probe cancelled", timing, null);
+            }
+            log.warn("URL check failed: {} - {}", url, e.getMessage());
+            return finish(Outcome.FAILED, null, e.getMessage(), timing, null);
+        } finally {
+            active.decrementAndGet();
+            slots.release();
+        }
+    }
+
+    /**
+     * @param timing Phase timer of the request, or null if it was never sent
+     */
+    private Result finish(Outcome outcome, Integer httpCode, String error, HttpProbeClient.Timing timing,
+                          HttpProbeClient.Response response) {
+        completed.get(outcome).increment();
+        if (timing == null) {
+            return new Result(httpCode, error, 0, Instant.now(), false, Phases.NONE, null, null, null, null);
+        }
+        double totalMs = timing.totalMs();
+        duration.record((long) (totalMs * 1_000_000), TimeUnit.NANOSECONDS);
+        return new Result(httpCode, error, totalMs, Instant.now(), true, timing.phases(), timing.bytes(),
+            response != null ? response.etag() : null, response != null ? response.assertionPassed() : null,
+            response != null ? response.bodyDigest() : null);
+    }
+}
@@ -0,0 +1,75 @@
+package com.isofuture.uptime.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * SchedulePolicy - Decides when a ping is next due.
+ *
+ * Each ping checks on a fixed grid of slots {@code offset + k * period} (epoch milliseconds),
+ * where the offset is a stable hash of the ping ID spread over the whole period.
+ * Pings created in bulk therefore land on different seconds instead of all sharing the
+ * creation instant, and because slots are absolute a late or slow check never shifts
+ * later slots (fixed rate, no drift).
+ */
+@Component
+public class SchedulePolicy {
+
+    /**
+     * Period used when a ping has no valid frequency.
+     */
+    public static final Duration DEFAULT_PERIOD = Duration.ofMinutes(5);
+
+    /**
+     * Check period from a ping's frequency columns: frequency_seconds when set, otherwise
+     * frequency_minutes, otherwise DEFAULT_PERIOD.
+     */
+    public Duration periodOf(Integer frequencySeconds, Integer frequencyMinutes) {
+        if (frequencySeconds != null && frequencySeconds > 0) {
+            return Duration.ofSeconds(frequencySeconds);
+        }
+        if (frequencyMinutes != null && frequencyMinutes > 0) {
+            return Duration.ofMinutes(frequencyMinutes);
+        }
+        return DEFAULT_PERIOD;
+    }
+
+    /**
+     * Offset of the ping's slots inside one period, in milliseconds.
+     */
+    public long offsetMillis(Long pingId, Duration period) {
+        long periodMillis = period.toMillis();
+        if (pingId == null || periodMillis <= 0) {
+            return 0L;
+        }
+        return Math.floorMod(mix(pingId), periodMillis);
+    }
+
+    /**
+     * First slot strictly after {@code after}.
+     */
+    public Instant nextCheckAfter(Long pingId, Duration period, Instant after) {
+        long periodMillis = period.toMillis();
+        if (periodMillis <= 0) {
+            return after;
+        }
+        long afterMillis = after.toEpochMilli();
+        long sinceSlot = Math.floorMod(afterMillis - offsetMillis(pingId, period), periodMillis);
+        return Instant.ofEpochMilli(afterMillis - sinceSlot + periodMillis);
+    }
+
+    /**
+     * Finalizer of MurmurHash3 (fmix64): consecutive IDs map to well-spread offsets.
+     */
+    static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
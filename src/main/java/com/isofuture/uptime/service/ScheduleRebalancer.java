@@ -0,0 +1,98 @@
+package com.isofuture.uptime.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.repository.PingRepository;
+import com.isofuture.uptime.repository.PingSchedule;
+
+/**
+ * ScheduleRebalancer - One-off job that moves existing pings onto their SchedulePolicy slot.
+ *
+ * Idle pings move to their first slot after now; in-progress pings pick theirs up with their next
+ * result. Deterministic, so running it twice or on several nodes is harmless.
+ */
+@Service
+public class ScheduleRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleRebalancer.class);
+
+    private final PingRepository pingRepository;
+    private final PingScheduler pingScheduler;
+    private final SchedulePolicy schedulePolicy;
+    private final SchedulerProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public ScheduleRebalancer(
+        PingRepository pingRepository,
+        PingScheduler pingScheduler,
+        SchedulePolicy schedulePolicy,
+        SchedulerProperties properties,
+        TransactionTemplate transactionTemplate
+    ) {
+        this.pingRepository = pingRepository;
+        this.pingScheduler = pingScheduler;
+        this.schedulePolicy = schedulePolicy;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebalanceOnStartup() {
+        if (properties.isRebalanceOnStartup()) {
+            rebalance();
+        }
+    }
+
+    /**
+     * Reschedules every idle ping, one short transaction per page.
+     *
+     * @return Number of pings rescheduled
+     */
+    public int rebalance() {
+        int batchSize = properties.getRebalanceBatchSize();
+        log.info("Rebalancing ping schedules (batch size {})", batchSize);
+        long lastId = 0L;
+        int total = 0;
+        List<PingSchedule> page;
+        do {
+            page = pingRepository.findSchedulesAfter(lastId, Limit.of(batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            List<PingSchedule> current = page;
+            Integer moved = transactionTemplate.execute(status -> rebalancePage(current));
+            total += moved != null ? moved : 0;
+            lastId = page.get(page.size() - 1).getId();
+        } while (page.size() == batchSize);
+        log.info("Rebalanced {} ping schedules", total);
+        return total;
+    }
+
+    private int rebalancePage(List<PingSchedule> page) {
+        Instant now = Instant.now();
+        int moved = 0;
+        for (PingSchedule schedule : page) {
+            if (schedule.isInProgress()) {
+                continue;
+            }
+            Duration period = schedulePolicy.periodOf(schedule.getFrequencySeconds(), schedule.getFrequencyMinutes());
+            Instant nextCheckAt = schedulePolicy.nextCheckAfter(schedule.getId(), period, now);
+            if (pingRepository.rescheduleIdle(schedule.getId(), nextCheckAt, now) > 0) {
+                pingScheduler.schedule(schedule.getId(), nextCheckAt);
+                moved++;
+            }
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,188 @@
+package com.isofuture.uptime.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.ShardLeaseResponse;
+import com.isofuture.uptime.dto.ShardPingResponse;
+import com.isofuture.uptime.entity.Ping;
+import com.isofuture.uptime.repository.PingRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * ShardLeaseService - Leases shards of pings to workers that schedule them locally (app.scheduler.shard.*).
+ *
+ * Leased pings are held in progress under the lease ID as claim token, so regular claims skip
+ * them and the LeaseReaper returns them once renewals stop. Each renewal rebalances shards
+ * towards a fair share per worker.
+ */
+@Service
+public class ShardLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardLeaseService.class);
+
+    private final PingRepository pingRepository;
+    private final PingScheduler pingScheduler;
+    private final SchedulePolicy schedulePolicy;
+    private final SchedulerProperties properties;
+    private final Counter leasedCounter;
+    private final Counter revokedCounter;
+
+    public ShardLeaseService(
+        PingRepository pingRepository,
+        PingScheduler pingScheduler,
+        SchedulePolicy schedulePolicy,
+        SchedulerProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.pingRepository = pingRepository;
+        this.pingScheduler = pingScheduler;
+        this.schedulePolicy = schedulePolicy;
+        this.properties = properties;
+        this.leasedCounter = Counter.builder("uptime.scheduler.shards.leased")
+            .description("Pings added to worker shard leases")
+            .register(meterRegistry);
+        this.revokedCounter = Counter.builder("uptime.scheduler.shards.revoked")
+            .description("Pings taken back from worker shard leases")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts a new shard lease for the worker with up to its fair share of idle pings.
+     * Anything left over from an earlier lease of the same worker is returned first.
+     */
+    @Transactional
+    public ShardLeaseResponse acquire(String workerId) {
+        assertEnabled();
+        Instant now = Instant.now();
+        List<Ping> previous = pingRepository.findByShardWorkerIdOrderById(workerId);
+        if (!previous.isEmpty()) {
+            log.info("Worker {} acquired a new shard, returning {} pings of its previous one", workerId, previous.size());
+            revoke(previous, now);
+        }
+        String leaseId = UUID.randomUUID().toString();
+        Instant leaseExpiresAt = now.plus(properties.getShard().getDuration());
+        int leased = lease(workerId, leaseId, fairShare(now, true), leaseExpiresAt, now);
+        log.info("Worker {} acquired shard lease {} with {} pings until {}", workerId, leaseId, leased, leaseExpiresAt);
+        return response(workerId, leaseId, leaseExpiresAt, now);
+    }
+
+    /**
+     * Heartbeat: extends the lease, gives back pings above the worker's fair share or tops it
+     * up, and returns the complete shard. If the lease had already expired the worker gets
+     * whatever could be leased again under the same ID.
+     */
+    @Transactional
+    public ShardLeaseResponse renew(String workerId, String leaseId) {
+        assertEnabled();
+        Instant now = Instant.now();
+        Instant leaseExpiresAt = now.plus(properties.getShard().getDuration());
+        int held = pingRepository.renewShardLease(leaseId, workerId, leaseExpiresAt);
+        int share = fairShare(now, held == 0);
+        int ceiling = (int) Math.ceil(share * (1 + properties.getShard().getRebalanceSlack()));
+        if (held > ceiling) {
+            List<Ping> shard = pingRepository.findByClaimTokenAndShardWorkerIdAndInProgressTrueOrderById(leaseId, workerId);
+            List<Ping> excess = shard.subList(Math.min(share, shard.size()), shard.size());
+            int revoked = revoke(excess, now);
+            log.info("Rebalanced shard lease {} of worker {}: gave back {} pings (fair share {})", leaseId, workerId, revoked, share);
+        } else if (held < share) {
+            int added = lease(workerId, leaseId, share - held, leaseExpiresAt, now);
+            log.debug("Topped up shard lease {} of worker {} with {} pings", leaseId, workerId, added);
+        }
+        return response(workerId, leaseId, leaseExpiresAt, now);
+    }
+
+    /**
+     * Ends a lease: its pings go back to the schedule, due at their next slot.
+     */
+    @Transactional
+    public void release(String workerId, String leaseId) {
+        assertEnabled();
+        List<Ping> shard = pingRepository.findByClaimTokenAndShardWorkerIdAndInProgressTrueOrderById(leaseId, workerId);
+        int released = revoke(shard, Instant.now());
+        log.info("Worker {} released shard lease {} ({} pings)", workerId, leaseId, released);
+    }
+
+    /**
+     * Each leasing worker's share of all pings, capped at shard.max-pings.
+     *
+     * @param joining Whether the worker is not counted among the leasing workers yet
+     */
+    private int fairShare(Instant now, boolean joining) {
+        long workers = pingRepository.countShardWorkers(now) + (joining ? 1 : 0);
+        long pings = pingRepository.count();
+        long share = (pings + Math.max(1, workers) - 1) / Math.max(1, workers);
+        return (int) Math.min(share, properties.getShard().getMaxPings());
+    }
+
+    private int lease(String workerId, String leaseId, int count, Instant leaseExpiresAt, Instant now) {
+        if (count <= 0) {
+            return 0;
+        }
+        List<Long> ids = pingRepository.lockIdleForShard(Limit.of(count)).stream()
+            .map(Ping::getId)
+            .toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int leased = pingRepository.markShardLeased(ids, workerId, leaseId, leaseExpiresAt, now);
+        // The worker schedules these now; the wheel must not hand them out as well
+        ids.forEach(pingScheduler::cancel);
+        leasedCounter.increment(leased);
+        return leased;
+    }
+
+    private int revoke(List<Ping> pings, Instant now) {
+        if (pings.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = pings.stream().map(Ping::getId).toList();
+        int released = pingRepository.releaseShard(ids, now);
+        for (Ping ping : pings) {
+            pingScheduler.schedule(ping.getId(), ping.getNextCheckAt() != null ? ping.getNextCheckAt() : now);
+        }
+        revokedCounter.increment(released);
+        return released;
+    }
+
+    private ShardLeaseResponse response(String workerId, String leaseId, Instant leaseExpiresAt, Instant now) {
+        List<ShardPingResponse> pings = pingRepository.findByClaimTokenAndShardWorkerIdAndInProgressTrueOrderById(leaseId, workerId)
+            .stream()
+            .map(this::toShardPing)
+            .toList();
+        Instant renewAt = now.plus(properties.getShard().getDuration().dividedBy(3));
+        return new ShardLeaseResponse(leaseId, leaseExpiresAt, renewAt, pings);
+    }
+
+    private ShardPingResponse toShardPing(Ping ping) {
+        Duration period = schedulePolicy.periodOf(ping.getFrequencySeconds(), ping.getFrequencyMinutes());
+        ShardPingResponse response = new ShardPingResponse(ping.getId(), ping.getUrl(), ping.getLabel(),
+            (int) period.toSeconds(), schedulePolicy.offsetMillis(ping.getId(), period), ping.getNextCheckAt());
+        response.setMeasureDns(ping.isMeasureDns() ? Boolean.TRUE : null);
+        response.setConnectionMode(ping.getConnectionMode() == Ping.ConnectionMode.POOLED ? Ping.ConnectionMode.POOLED : null);
+        response.setProbeMode(ping.getProbeMode() != Ping.ProbeMode.GET ? ping.getProbeMode() : null);
+        response.setMaxBodyBytes(ping.getMaxBodyBytes());
+        response.setEtag(ping.getProbeMode() == Ping.ProbeMode.CONDITIONAL ? ping.getLastEtag() : null);
+        response.setAssertionMode(ping.getAssertionMode());
+        response.setAssertionPattern(ping.getAssertionPattern());
+        response.setTrackContent(ping.isTrackContent() ? Boolean.TRUE : null);
+        return response;
+    }
+
+    private void assertEnabled() {
+        if (!properties.getShard().isEnabled()) {
+            throw new IllegalStateException("Shard leasing is disabled");
+        }
+    }
+}
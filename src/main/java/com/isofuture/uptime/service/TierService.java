@@ -74,6 +74,8 @@ public class TierService {
 
         Tier entity = new Tier();
         entity.setName(request.getName());
+        entity.setMinFrequencySeconds(request.getMinFrequencySeconds());
+        entity.setPriority(Boolean.TRUE.equals(request.getPriority()));
         entity.setCreatedAt(Instant.now());
 
         Tier saved = tierRepository.save(entity);
@@ -103,6 +105,12 @@ public class TierService {
             });
             entity.setName(request.getName());
         }
+        if (request.getMinFrequencySeconds() != null) {
+            entity.setMinFrequencySeconds(request.getMinFrequencySeconds());
+        }
+        if (request.getPriority() != null) {
+            entity.setPriority(request.getPriority());
+        }
 
         Tier saved = tierRepository.save(entity);
         log.info("Tier updated successfully: {} (ID: {})", saved.getName(), saved.getId());
@@ -0,0 +1,164 @@
+package com.isofuture.uptime.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.entity.Ping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * WorkerAffinity - Prefers handing a ping to the worker that checked it last (app.scheduler.affinity.*).
+ *
+ * A worker's own pings come first; pings preferred by another active worker with room are held
+ * for it until they are max-hold past due.
+ */
+@Service
+public class WorkerAffinity {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerAffinity.class);
+
+    private final SchedulerProperties properties;
+    private final HostPoliteness hostPoliteness;
+    private final WorkerLoadTracker workerLoadTracker;
+    private final Map<String, String> hostWorkers = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastClaimMillis = new ConcurrentHashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public WorkerAffinity(
+        SchedulerProperties properties,
+        HostPoliteness hostPoliteness,
+        WorkerLoadTracker workerLoadTracker,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.hostPoliteness = hostPoliteness;
+        this.workerLoadTracker = workerLoadTracker;
+        this.hitCounter = Counter.builder("uptime.scheduler.affinity.hits")
+            .description("Claimed pings handed to the worker that checked them last")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("uptime.scheduler.affinity.misses")
+            .description("Claimed pings handed to a different worker than last time")
+            .register(meterRegistry);
+        Gauge.builder("uptime.scheduler.affinity.hit-rate", this, WorkerAffinity::hitRate)
+            .description("Share of claims with a preferred worker that went to it")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.getAffinity().isEnabled();
+    }
+
+    /**
+     * Rows to lock for a claim of {@code limit} checks.
+     */
+    public int candidateCount(int limit) {
+        return Math.max(limit, limit * Math.max(1, properties.getAffinity().getOverfetchFactor()));
+    }
+
+    /**
+     * Chooses up to {@code limit} of the locked candidates for the worker, its own pings first.
+     *
+     * @param candidates Locked due pings, oldest due first
+     * @return Chosen pings; the rest stay due for other workers
+     */
+    public List<Ping> select(String workerId, List<Ping> candidates, int limit, Instant now) {
+        long nowMillis = now.toEpochMilli();
+        lastClaimMillis.put(workerId, nowMillis);
+        List<Ping> own = new ArrayList<>();
+        List<Ping> open = new ArrayList<>();
+        int held = 0;
+        for (Ping candidate : candidates) {
+            String preferred = preferredWorker(candidate);
+            if (workerId.equals(preferred)) {
+                own.add(candidate);
+            } else if (preferred == null || !isHolding(preferred, candidate, nowMillis)) {
+                open.add(candidate);
+            } else {
+                held++;
+            }
+        }
+        List<Ping> selected = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (Ping ping : own) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            selected.add(ping);
+        }
+        for (Ping ping : open) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            selected.add(ping);
+        }
+        if (held > 0) {
+            log.debug("Held {} due pings for their previous workers, {} own pings for {}", held, own.size(), workerId);
+        }
+        return selected;
+    }
+
+    /**
+     * Records the pings handed to a worker: counts affinity hits and misses and makes the
+     * worker the preferred one for their hosts.
+     */
+    public void recordClaimed(String workerId, List<Ping> claimed) {
+        for (Ping ping : claimed) {
+            String preferred = preferredWorker(ping);
+            if (preferred != null) {
+                (workerId.equals(preferred) ? hitCounter : missCounter).increment();
+            }
+            hostWorkers.put(hostPoliteness.hostOf(ping.getUrl()), workerId);
+        }
+    }
+
+    public double hitRate() {
+        double hits = hitCounter.count();
+        double total = hits + missCounter.count();
+        return total > 0 ? hits / total : 0.0;
+    }
+
+    /**
+     * Forgets workers that stopped claiming and the hosts they were preferred for.
+     */
+    @Scheduled(fixedDelay = 300_000, initialDelay = 300_000)
+    public void evictInactiveWorkers() {
+        long cutoff = System.currentTimeMillis() - 10 * properties.getAffinity().getActiveWithin().toMillis();
+        lastClaimMillis.values().removeIf(lastClaim -> lastClaim < cutoff);
+        hostWorkers.values().removeIf(worker -> !lastClaimMillis.containsKey(worker));
+    }
+
+    private String preferredWorker(Ping ping) {
+        if (ping.getLastWorkerId() != null) {
+            return ping.getLastWorkerId();
+        }
+        return hostWorkers.get(hostPoliteness.hostOf(ping.getUrl()));
+    }
+
+    /**
+     * True while a ping should wait for its preferred worker rather than go to another one.
+     */
+    private boolean isHolding(String preferred, Ping ping, long nowMillis) {
+        Long lastClaim = lastClaimMillis.get(preferred);
+        SchedulerProperties.Affinity affinity = properties.getAffinity();
+        if (lastClaim == null || nowMillis - lastClaim > affinity.getActiveWithin().toMillis()) {
+            return false;
+        }
+        if (!workerLoadTracker.hasRoom(preferred)) {
+            return false;
+        }
+        Instant dueAt = ping.getNextCheckAt();
+        return dueAt != null && nowMillis - dueAt.toEpochMilli() <= affinity.getMaxHold().toMillis();
+    }
+}
@@ -0,0 +1,252 @@
+package com.isofuture.uptime.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+
+/**
+ * WorkerLoadTracker - Sizes each worker's claims from how fast it returns results.
+ *
+ * Each worker has an in-flight window that grows while results come back well within
+ * target-turnaround-fraction of the lease and halves when they do not, much like a TCP
+ * congestion window. State is per node and in memory.
+ */
+@Service
+public class WorkerLoadTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerLoadTracker.class);
+    private static final long MIN_POLL_DELAY_MILLIS = 50;
+    private static final long MAX_POLL_DELAY_MILLIS = 10_000;
+    private static final Duration IDLE_WORKER_EVICTION = Duration.ofMinutes(30);
+
+    /**
+     * Claim size granted to a worker and the delay it should wait before polling again.
+     */
+    public record Grant(int size, long pollDelayMillis) {
+    }
+
+    private final SchedulerProperties properties;
+    private final Map<String, WorkerStats> workers = new ConcurrentHashMap<>();
+    private final Map<Long, WorkerStats> claimOwners = new ConcurrentHashMap<>();
+
+    public WorkerLoadTracker(SchedulerProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * How many checks the worker may claim now, capped by what it asked for. The granted size
+     * is reserved until {@link #recordClaimed} or {@link #release} is called with it.
+     */
+    public Grant grant(String workerId, int requested) {
+        WorkerStats stats = stats(workerId);
+        long now = System.currentTimeMillis();
+        synchronized (stats) {
+            stats.lastSeenMillis = now;
+            expireStaleClaims(stats, now);
+            int room = (int) stats.window - stats.inFlight.size() - stats.reserved;
+            int size = Math.max(0, Math.min(Math.min(requested, room), properties.getBatch().getMaxSize()));
+            stats.reserved += size;
+            return new Grant(size, size > 0 ? 0 : fullWindowDelay(stats));
+        }
+    }
+
+    /**
+     * Records the checks actually claimed for a worker, frees the rest of the reservation and
+     * returns the recommended poll delay.
+     *
+     * @param granted Size returned by grant()
+     */
+    public long recordClaimed(String workerId, Collection<Long> pingIds, int granted) {
+        WorkerStats stats = stats(workerId);
+        long now = System.currentTimeMillis();
+        Map<Long, WorkerStats> reclaimed = new HashMap<>();
+        long delay;
+        synchronized (stats) {
+            stats.reserved = Math.max(0, stats.reserved - granted);
+            for (Long pingId : pingIds) {
+                stats.inFlight.put(pingId, now);
+                WorkerStats previous = claimOwners.put(pingId, stats);
+                if (previous != null && previous != stats) {
+                    reclaimed.put(pingId, previous);
+                }
+            }
+            if (pingIds.size() < granted) {
+                delay = properties.getBatch().getIdlePollDelayMillis();
+            } else {
+                delay = stats.inFlight.size() + stats.reserved >= (int) stats.window ? fullWindowDelay(stats) : 0;
+            }
+        }
+        // Re-claimed after the previous worker's lease ran out (outside our lock to keep lock order simple)
+        reclaimed.forEach((pingId, previous) -> {
+            synchronized (previous) {
+                previous.inFlight.remove(pingId);
+            }
+        });
+        return delay;
+    }
+
+    /**
+     * Frees a grant whose claim failed before anything was claimed.
+     *
+     * @param granted Size returned by grant()
+     */
+    public void release(String workerId, int granted) {
+        WorkerStats stats = stats(workerId);
+        synchronized (stats) {
+            stats.reserved = Math.max(0, stats.reserved - granted);
+        }
+    }
+
+    /**
+     * Records a result and adapts the window of the worker that claimed the ping.
+     */
+    public void recordCompleted(Long pingId) {
+        WorkerStats stats = pingId != null ? claimOwners.remove(pingId) : null;
+        if (stats == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (stats) {
+            Long claimedAt = stats.inFlight.remove(pingId);
+            if (claimedAt == null) {
+                return;
+            }
+            long turnaround = now - claimedAt;
+            stats.turnaroundMillis = stats.turnaroundMillis < 0
+                ? turnaround
+                : 0.8 * stats.turnaroundMillis + 0.2 * turnaround;
+            long target = targetTurnaroundMillis();
+            if (turnaround > target) {
+                shrink(stats, now);
+            } else if (turnaround < target / 2) {
+                stats.window = Math.min(stats.window + 1, properties.getBatch().getMaxWindow());
+            } else {
+                stats.window = Math.min(stats.window + 1 / stats.window, properties.getBatch().getMaxWindow());
+            }
+        }
+    }
+
+    /**
+     * Drops a ping's claim from its worker's window without adapting the window, for a result
+     * that was rejected. No-op once the claim is completed.
+     */
+    public void forget(Long pingId) {
+        WorkerStats stats = pingId != null ? claimOwners.remove(pingId) : null;
+        if (stats != null) {
+            synchronized (stats) {
+                stats.inFlight.remove(pingId);
+            }
+        }
+    }
+
+    /**
+     * Current in-flight window of a worker (for metrics and tests).
+     */
+    public int windowOf(String workerId) {
+        WorkerStats stats = workers.get(workerId);
+        return stats != null ? (int) stats.window : properties.getBatch().getInitialWindow();
+    }
+
+    /**
+     * True if the worker could take at least one more check now.
+     */
+    public boolean hasRoom(String workerId) {
+        WorkerStats stats = workers.get(workerId);
+        if (stats == null) {
+            return true;
+        }
+        synchronized (stats) {
+            return stats.inFlight.size() + stats.reserved < (int) stats.window;
+        }
+    }
+
+    public int inFlightOf(String workerId) {
+        WorkerStats stats = workers.get(workerId);
+        if (stats == null) {
+            return 0;
+        }
+        synchronized (stats) {
+            return stats.inFlight.size();
+        }
+    }
+
+    @Scheduled(fixedDelay = 300_000, initialDelay = 300_000)
+    public void evictIdleWorkers() {
+        long cutoff = System.currentTimeMillis() - IDLE_WORKER_EVICTION.toMillis();
+        int evicted = 0;
+        for (Iterator<WorkerStats> it = workers.values().iterator(); it.hasNext();) {
+            WorkerStats stats = it.next();
+            synchronized (stats) {
+                if (stats.lastSeenMillis < cutoff) {
+                    stats.inFlight.keySet().forEach(pingId -> claimOwners.remove(pingId, stats));
+                    it.remove();
+                    evicted++;
+                }
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle workers from load tracking", evicted);
+        }
+    }
+
+    private WorkerStats stats(String workerId) {
+        return workers.computeIfAbsent(workerId, id -> new WorkerStats(properties.getBatch().getInitialWindow()));
+    }
+
+    private void expireStaleClaims(WorkerStats stats, long now) {
+        long leaseMillis = properties.getLease().getDuration().toMillis();
+        for (Iterator<Map.Entry<Long, Long>> it = stats.inFlight.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Long, Long> claim = it.next();
+            // Likely reported to another node; slow workers are caught by their turnaround instead
+            if (now - claim.getValue() > leaseMillis) {
+                claimOwners.remove(claim.getKey(), stats);
+                it.remove();
+            }
+        }
+    }
+
+    private void shrink(WorkerStats stats, long now) {
+        long roundTrip = stats.turnaroundMillis > 0 ? (long) stats.turnaroundMillis : 0;
+        if (now - stats.lastShrinkMillis >= roundTrip) {
+            stats.window = Math.max(1, stats.window / 2);
+            stats.lastShrinkMillis = now;
+        }
+    }
+
+    private long fullWindowDelay(WorkerStats stats) {
+        if (stats.turnaroundMillis < 0) {
+            return properties.getBatch().getIdlePollDelayMillis();
+        }
+        // Roughly the time for a quarter of the window to come back
+        long delay = (long) (stats.turnaroundMillis / 4);
+        return Math.min(Math.max(delay, MIN_POLL_DELAY_MILLIS), MAX_POLL_DELAY_MILLIS);
+    }
+
+    private long targetTurnaroundMillis() {
+        return (long) (properties.getLease().getDuration().toMillis() * properties.getBatch().getTargetTurnaroundFraction());
+    }
+
+    private static final class WorkerStats {
+        private final Map<Long, Long> inFlight = new HashMap<>();
+        // Granted but not yet claimed
+        private int reserved;
+        private double window;
+        private double turnaroundMillis = -1;
+        private long lastShrinkMillis;
+        private long lastSeenMillis;
+
+        private WorkerStats(int initialWindow) {
+            this.window = Math.max(1, initialWindow);
+        }
+    }
+}
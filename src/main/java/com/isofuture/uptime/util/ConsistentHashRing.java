@@ -0,0 +1,60 @@
+package com.isofuture.uptime.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ConsistentHashRing - Maps keys to nodes so that adding or removing a node only moves
+ * the keys that node gains or loses (about 1/N of them).
+ *
+ * Each node is placed on the ring {@code virtualNodes} times (MD5 of "node#i") to even out
+ * the share each node receives. Immutable; build a new ring when membership changes.
+ */
+public class ConsistentHashRing {
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1");
+        }
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    /**
+     * Node owning the given key, or null if the ring is empty.
+     */
+    public String nodeFor(String key) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(String value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+        long h = 0;
+        for (int i = 0; i < 8; i++) {
+            h = (h << 8) | (digest[i] & 0xff);
+        }
+        return h;
+    }
+}
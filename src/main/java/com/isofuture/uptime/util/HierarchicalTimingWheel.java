@@ -0,0 +1,222 @@
+package com.isofuture.uptime.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HierarchicalTimingWheel - Keyed timer queue with O(1) schedule, cancel and expiry.
+ *
+ * Each key has at most one live deadline; entries expire at most one tick late and never early.
+ * NOT thread-safe - callers must synchronize access.
+ *
+ * @param <K> Key type (for example a ping ID)
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final ArrayDeque<Entry<K>> expired = new ArrayDeque<>();
+    private final List<Level<K>> levels = new ArrayList<>();
+    private final long tickMillis;
+    private final int wheelSize;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (wheelSize < 2) {
+            throw new IllegalArgumentException("wheelSize must be at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        levels.add(new Level<>(tickMillis, wheelSize, startMillis));
+    }
+
+    /**
+     * Schedules (or reschedules) a key to expire at the given deadline.
+     * Deadlines in the past expire on the next poll.
+     */
+    public void schedule(K key, long deadlineMillis) {
+        Entry<K> previous = entries.remove(key);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        Entry<K> entry = new Entry<>(key, deadlineMillis);
+        entries.put(key, entry);
+        insert(entry);
+    }
+
+    /**
+     * Removes a key from the wheel.
+     *
+     * @return true if the key was scheduled
+     */
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Advances the wheel to {@code nowMillis} and removes up to {@code max} expired keys,
+     * earliest tick first.
+     */
+    public List<K> pollDue(long nowMillis, int max) {
+        advanceTo(nowMillis);
+        List<K> due = new ArrayList<>(Math.min(max, expired.size()));
+        while (due.size() < max) {
+            Entry<K> entry = expired.poll();
+            if (entry == null) {
+                break;
+            }
+            if (entry.cancelled) {
+                continue;
+            }
+            entries.remove(entry.key);
+            due.add(entry.key);
+        }
+        return due;
+    }
+
+    /**
+     * Advances the wheel to {@code nowMillis} and reports whether any key has expired.
+     */
+    public boolean hasDue(long nowMillis) {
+        advanceTo(nowMillis);
+        while (!expired.isEmpty() && expired.peek().cancelled) {
+            expired.poll();
+        }
+        return !expired.isEmpty();
+    }
+
+    /**
+     * Number of live (scheduled, not yet polled) keys.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        expired.clear();
+        long now = levels.get(0).currentTime;
+        levels.clear();
+        levels.add(new Level<>(tickMillis, wheelSize, now));
+    }
+
+    private void insert(Entry<K> entry) {
+        for (int i = 0; ; i++) {
+            Level<K> level = levelAt(i);
+            if (i == 0 && entry.deadlineMillis < level.currentTime) {
+                expired.add(entry);
+                return;
+            }
+            if (entry.deadlineMillis < level.currentTime + level.intervalMillis) {
+                level.bucketFor(entry.deadlineMillis).add(entry);
+                return;
+            }
+        }
+    }
+
+    private Level<K> levelAt(int index) {
+        while (levels.size() <= index) {
+            Level<K> below = levels.get(levels.size() - 1);
+            levels.add(new Level<>(below.intervalMillis, wheelSize, below.currentTime));
+        }
+        return levels.get(index);
+    }
+
+    private void advanceTo(long nowMillis) {
+        Level<K> root = levels.get(0);
+        if (entries.isEmpty()) {
+            // Nothing live to expire - jump straight to now and drop cancelled leftovers
+            if (nowMillis >= root.currentTime + tickMillis) {
+                expired.clear();
+                levels.clear();
+                levels.add(new Level<>(tickMillis, wheelSize, nowMillis));
+            }
+            return;
+        }
+
+        while (root.currentTime + tickMillis <= nowMillis) {
+            long elapsed = root.currentTime;
+            long time = elapsed + tickMillis;
+            root.currentTime = time;
+
+            // Everything in the bucket that just elapsed is strictly in the past
+            for (Entry<K> entry : root.drain(elapsed)) {
+                if (!entry.cancelled) {
+                    expired.add(entry);
+                }
+            }
+
+            // Move every level whose tick boundary was crossed first, then cascade
+            // their current buckets down, coarsest level first
+            int highest = 0;
+            for (int i = 1; i < levels.size(); i++) {
+                Level<K> level = levels.get(i);
+                if (time % level.tickMillis != 0) {
+                    break;
+                }
+                level.currentTime = time;
+                highest = i;
+            }
+            for (int i = highest; i >= 1; i--) {
+                for (Entry<K> entry : levels.get(i).drain(time)) {
+                    if (!entry.cancelled) {
+                        insert(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineMillis;
+        private boolean cancelled;
+
+        private Entry(K key, long deadlineMillis) {
+            this.key = key;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+
+    private static final class Level<K> {
+        private final long tickMillis;
+        private final long intervalMillis;
+        private final ArrayDeque<Entry<K>>[] buckets;
+        private long currentTime;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMillis, int wheelSize, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.intervalMillis = tickMillis * wheelSize;
+            this.buckets = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayDeque<>();
+            }
+            this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        }
+
+        private ArrayDeque<Entry<K>> bucketFor(long timeMillis) {
+            return buckets[(int) Math.floorMod(Math.floorDiv(timeMillis, tickMillis), (long) buckets.length)];
+        }
+
+        private ArrayDeque<Entry<K>> drain(long timeMillis) {
+            int index = (int) Math.floorMod(Math.floorDiv(timeMillis, tickMillis), (long) buckets.length);
+            ArrayDeque<Entry<K>> bucket = buckets[index];
+            buckets[index] = new ArrayDeque<>();
+            return bucket;
+        }
+    }
+}
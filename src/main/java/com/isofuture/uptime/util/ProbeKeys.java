@@ -0,0 +1,97 @@
+package com.isofuture.uptime.util;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * ProbeKeys - Identifies pings that would send exactly the same probe.
+ *
+ * The key is the SHA-256 (hex) of the normalised URL plus every request setting that changes
+ * what goes over the wire, so pings with equal keys can share one probe. Normalisation:
+ * lower-case scheme and host, default port dropped, empty path as "/", fragment dropped.
+ * Query strings are kept verbatim (parameter order can matter to the target).
+ */
+public final class ProbeKeys {
+
+    private ProbeKeys() {
+    }
+
+    /**
+     * Probe key for a GET of the given URL, or null for a null URL.
+     */
+    public static String of(String url) {
+        if (url == null) {
+            return null;
+        }
+        return sha256(normalize(url));
+    }
+
+    /**
+     * Probe key for the given URL with non-default request settings; null settings are
+     * defaults and leave the key as for the URL alone.
+     *
+     * @param settings One token per setting, e.g. "measure-dns"
+     */
+    public static String of(String url, String... settings) {
+        if (url == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(normalize(url));
+        for (String setting : settings) {
+            if (setting != null) {
+                key.append('\n').append(setting);
+            }
+        }
+        return sha256(key.toString());
+    }
+
+    /**
+     * Canonical form of a URL; unparseable input is returned trimmed.
+     */
+    public static String normalize(String url) {
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return trimmed;
+        }
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        int port = uri.getPort();
+        if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+            port = -1;
+        }
+        StringBuilder normalized = new StringBuilder(trimmed.length())
+            .append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            normalized.append(uri.getRawUserInfo()).append('@');
+        }
+        normalized.append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (port != -1) {
+            normalized.append(':').append(port);
+        }
+        String path = uri.getRawPath();
+        normalized.append(path == null || path.isEmpty() ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            normalized.append('?').append(uri.getRawQuery());
+        }
+        return normalized.toString();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
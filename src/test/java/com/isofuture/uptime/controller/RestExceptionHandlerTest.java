@@ -16,6 +16,7 @@ import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import com.isofuture.uptime.exception.ClaimConflictException;
 import com.isofuture.uptime.exception.ResourceNotFoundException;
 
 @DisplayName("RestExceptionHandler Tests")
@@ -179,6 +180,23 @@ class RestExceptionHandlerTest {
         assertNotNull(response.getBody().get("timestamp"));
     }
 
+    @Test
+    @DisplayName("handleClaimConflict - Returns 409 CONFLICT")
+    void testHandleClaimConflict() {
+        // Given
+        ClaimConflictException ex = new ClaimConflictException("Claim is no longer valid for ping 1");
+
+        // When
+        ResponseEntity<Map<String, Object>> response = exceptionHandler.handleClaimConflict(ex);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(409, response.getBody().get("status"));
+        assertEquals("Claim is no longer valid for ping 1", response.getBody().get("error"));
+        assertNotNull(response.getBody().get("timestamp"));
+    }
+
     @Test
     @DisplayName("handleGeneric - Returns 500 INTERNAL_SERVER_ERROR")
     void testHandleGeneric() {
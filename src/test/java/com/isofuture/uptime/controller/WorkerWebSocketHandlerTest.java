@@ -0,0 +1,164 @@
+package com.isofuture.uptime.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.CheckResultUpdateRequest;
+import com.isofuture.uptime.dto.PendingCheckResponse;
+import com.isofuture.uptime.exception.ClaimConflictException;
+import com.isofuture.uptime.service.CheckChannel;
+import com.isofuture.uptime.service.CheckDispatcher;
+import com.isofuture.uptime.service.CheckService;
+import com.isofuture.uptime.service.OverloadControl;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WorkerWebSocketHandler Tests")
+class WorkerWebSocketHandlerTest {
+
+    @Mock
+    private CheckDispatcher checkDispatcher;
+
+    @Mock
+    private CheckService checkService;
+
+    @Mock
+    private OverloadControl overloadControl;
+
+    @Mock
+    private WebSocketSession session;
+
+    private WorkerWebSocketHandler handler;
+    private CheckChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        handler = new WorkerWebSocketHandler(checkDispatcher, checkService, overloadControl, new SchedulerProperties(),
+            new ObjectMapper().findAndRegisterModules());
+        when(session.getId()).thenReturn("session-1");
+        lenient().when(session.isOpen()).thenReturn(true);
+        lenient().when(overloadControl.tryBeginResult()).thenReturn(true);
+        handler.afterConnectionEstablished(session);
+        ArgumentCaptor<CheckChannel> captor = ArgumentCaptor.forClass(CheckChannel.class);
+        verify(checkDispatcher).open(captor.capture());
+        channel = captor.getValue();
+    }
+
+    @Test
+    @DisplayName("capacity - Declared capacity limits checks in flight")
+    void testCapacity_LimitsInFlight() throws Exception {
+        // Given
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"capacity\",\"capacity\":3}"));
+
+        // When
+        boolean delivered = channel.deliver(List.of(check(1L), check(2L)));
+
+        // Then
+        assertTrue(delivered);
+        assertEquals(1, channel.freeCapacity());
+        verify(session).sendMessage(any(TextMessage.class));
+    }
+
+    @Test
+    @DisplayName("results - Recorded results free capacity and are acknowledged")
+    void testResults_RecordedAndAcked() throws Exception {
+        // Given
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"capacity\",\"capacity\":1}"));
+        channel.deliver(List.of(check(1L)));
+        assertEquals(0, channel.freeCapacity());
+
+        // When
+        handler.handleTextMessage(session, new TextMessage(
+            "{\"type\":\"results\",\"results\":[{\"pingId\":1,\"httpCode\":200,\"claimToken\":\"token\"}]}"));
+
+        // Then
+        verify(checkService).recordResult(any(CheckResultUpdateRequest.class), eq(true));
+        assertEquals(1, channel.freeCapacity());
+        ArgumentCaptor<TextMessage> sent = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(2)).sendMessage(sent.capture());
+        assertTrue(sent.getValue().getPayload().contains("\"ack\""));
+    }
+
+    @Test
+    @DisplayName("results - Rejected result is reported back with its ping ID")
+    void testResults_RejectedReportsError() throws Exception {
+        // Given
+        when(checkService.recordResult(any(CheckResultUpdateRequest.class), eq(true)))
+            .thenThrow(new ClaimConflictException("Claim is no longer valid for ping 1"));
+
+        // When
+        handler.handleTextMessage(session, new TextMessage(
+            "{\"type\":\"results\",\"results\":[{\"pingId\":1,\"httpCode\":200}]}"));
+
+        // Then
+        ArgumentCaptor<TextMessage> sent = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session).sendMessage(sent.capture());
+        assertTrue(sent.getValue().getPayload().contains("\"error\""));
+        assertTrue(sent.getValue().getPayload().contains("\"pingId\":1"));
+    }
+
+    @Test
+    @DisplayName("capacity - Declared capacity is capped by app.scheduler.websocket.max-capacity")
+    void testCapacity_Capped() throws Exception {
+        // When
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"capacity\",\"capacity\":100000}"));
+
+        // Then
+        assertEquals(new SchedulerProperties().getWebsocket().getMaxCapacity(), channel.freeCapacity());
+    }
+
+    @Test
+    @DisplayName("results - Saturated ingestion turns the frame away and keeps the checks in flight")
+    void testResults_Overloaded_RetryLater() throws Exception {
+        // Given
+        handler.handleTextMessage(session, new TextMessage("{\"type\":\"capacity\",\"capacity\":1}"));
+        channel.deliver(List.of(check(1L)));
+        when(overloadControl.tryBeginResult()).thenReturn(false);
+        when(overloadControl.getRetryAfter()).thenReturn(Duration.ofSeconds(5));
+
+        // When
+        handler.handleTextMessage(session, new TextMessage(
+            "{\"type\":\"results\",\"results\":[{\"pingId\":1,\"httpCode\":200,\"claimToken\":\"token\"}]}"));
+
+        // Then
+        verify(checkService, never()).recordResult(any(), anyBoolean());
+        verify(overloadControl, never()).endResult();
+        assertEquals(0, channel.freeCapacity());
+        ArgumentCaptor<TextMessage> sent = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, times(2)).sendMessage(sent.capture());
+        assertTrue(sent.getValue().getPayload().contains("\"retryAfterSeconds\":5"));
+        assertTrue(sent.getValue().getPayload().contains("\"pingIds\":[1]"));
+    }
+
+    @Test
+    @DisplayName("afterConnectionClosed - Stops dispatching to the worker")
+    void testClose_RemovesChannel() {
+        // When
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        // Then
+        verify(checkDispatcher).close(channel);
+        assertEquals(0, handler.connectedCount());
+    }
+
+    private PendingCheckResponse check(Long pingId) {
+        return new PendingCheckResponse(pingId, "https://example.com/" + pingId, "Check", "token", Instant.now().plusSeconds(300));
+    }
+}
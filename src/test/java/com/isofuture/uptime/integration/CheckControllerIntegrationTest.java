@@ -5,8 +5,10 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Set;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,9 +19,12 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.CheckResultBatchRequest;
 import com.isofuture.uptime.dto.CheckResultUpdateRequest;
 import com.isofuture.uptime.dto.ExecuteCheckRequest;
 import com.isofuture.uptime.entity.CheckResult;
@@ -70,6 +75,9 @@ class CheckControllerIntegrationTest {
     @Autowired
     private PingService pingService;
 
+    @Autowired
+    private SchedulerProperties schedulerProperties;
+
     private User adminUser;
     private User regularUser;
     private Ping testPing;
@@ -139,21 +147,25 @@ class CheckControllerIntegrationTest {
         ExecuteCheckRequest request = new ExecuteCheckRequest();
         request.setPingId(testPing.getId());
 
+        // Manual checks run inline in the test profile, so the 202 already carries the result
         String response = mockMvc.perform(post("/api/checks/execute")
                 .header("Authorization", "Bearer " + regularUserToken)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
-            .andExpect(status().isOk())
-            .andExpect(jsonPath("$.id").exists())
-            .andExpect(jsonPath("$.httpCode").exists()) // Verify httpCode is present
-            .andExpect(jsonPath("$.responseTimeMs").exists()) // Verify responseTimeMs is present
-            .andExpect(jsonPath("$.checkedAt").exists()) // Verify checkedAt is present
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists("Location"))
+            .andExpect(jsonPath("$.handle").exists())
+            .andExpect(jsonPath("$.status").value("DONE"))
+            .andExpect(jsonPath("$.result.id").exists())
+            .andExpect(jsonPath("$.result.httpCode").exists()) // Verify httpCode is present
+            .andExpect(jsonPath("$.result.responseTimeMs").exists()) // Verify responseTimeMs is present
+            .andExpect(jsonPath("$.result.checkedAt").exists()) // Verify checkedAt is present
             .andReturn()
             .getResponse()
             .getContentAsString();
 
         // Cross-reference: Verify via service call
-        var checkResult = objectMapper.readTree(response);
+        var checkResult = objectMapper.readTree(response).get("result");
         Long resultId = checkResult.get("id").asLong();
         
         CheckResult savedResult = checkResultRepository.findById(resultId).orElseThrow();
@@ -179,6 +191,61 @@ class CheckControllerIntegrationTest {
         }
     }
 
+    @Test
+    @DisplayName("POST /api/checks/execute - Ping held by a worker returns 409")
+    void testExecute_PingClaimedByWorker_ReturnsConflict() throws Exception {
+        testPing.setInProgress(true);
+        testPing.setClaimToken("worker-token");
+        pingRepository.save(testPing);
+
+        ExecuteCheckRequest request = new ExecuteCheckRequest();
+        request.setPingId(testPing.getId());
+
+        mockMvc.perform(post("/api/checks/execute")
+                .header("Authorization", "Bearer " + regularUserToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error").exists());
+
+        // Cross-reference: The worker's claim is untouched and nothing was recorded
+        Ping ping = pingRepository.findById(testPing.getId()).orElseThrow();
+        assertEquals("worker-token", ping.getClaimToken());
+        assertEquals(0, checkResultRepository.count());
+    }
+
+    @Test
+    @DisplayName("GET /api/checks/execute/{handle} - Submitter can poll the manual check")
+    void testExecuteStatus_Submitter_Success() throws Exception {
+        ExecuteCheckRequest request = new ExecuteCheckRequest();
+        request.setPingId(testPing.getId());
+        String submitted = mockMvc.perform(post("/api/checks/execute")
+                .header("Authorization", "Bearer " + regularUserToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isAccepted())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        String handle = objectMapper.readTree(submitted).get("handle").asText();
+
+        MvcResult pending = mockMvc.perform(get("/api/checks/execute/" + handle + "?wait=5")
+                .header("Authorization", "Bearer " + regularUserToken))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.handle").value(handle))
+            .andExpect(jsonPath("$.pingId").value(testPing.getId()))
+            .andExpect(jsonPath("$.status").value("DONE"));
+
+        // Unknown handles are not found
+        mockMvc.perform(get("/api/checks/execute/unknown-handle")
+                .header("Authorization", "Bearer " + regularUserToken))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @DisplayName("POST /api/checks/execute - User cannot execute other user's ping")
     void testExecute_OtherUserPing_Forbidden() throws Exception {
@@ -235,6 +302,23 @@ class CheckControllerIntegrationTest {
         assertEquals(testPing.getId(), pending.get(0).getPingId());
     }
 
+    @Test
+    @DisplayName("POST /api/checks/next?wait - Long-poll answers at once when a ping is due")
+    void testFetchNext_LongPoll_DueNow() throws Exception {
+        MvcResult pending = mockMvc.perform(post("/api/checks/next?count=1&wait=5")
+                .header("X-API-Key", workerApiKey))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].pingId").value(testPing.getId()))
+            .andExpect(jsonPath("$[0].claimToken").exists());
+
+        // Cross-reference: Verify ping state via repository
+        assertTrue(pingRepository.findById(testPing.getId()).orElseThrow().isInProgress());
+    }
+
     @Test
     @DisplayName("PATCH /api/checks/result - Worker can record result")
     void testRecordResult_Worker_Success() throws Exception {
@@ -368,12 +452,15 @@ class CheckControllerIntegrationTest {
     }
 
     @Test
-    @DisplayName("POST /api/checks/next - Count exceeds maximum is clamped to 50")
-    void testFetchNext_CountExceedsMaximum_ClampedTo50() throws Exception {
-        mockMvc.perform(post("/api/checks/next?count=100")
-                .header("X-API-Key", workerApiKey))
+    @DisplayName("POST /api/checks/next - Count above the worker's window is capped by the grant")
+    void testFetchNext_CountExceedsWindow_CappedByGrant() throws Exception {
+        mockMvc.perform(post("/api/checks/next?count=100000")
+                .header("X-API-Key", workerApiKey)
+                .header("X-Worker-Id", "grant-test-worker"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$").isArray());
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(header().string("X-Batch-Granted", "20"))
+            .andExpect(header().exists("X-Poll-Delay-Ms"));
         
         // Verify that count was clamped (should not throw error)
         var pending = pingService.getInProgressChecks(100);
@@ -442,6 +529,33 @@ class CheckControllerIntegrationTest {
             .andExpect(jsonPath("$.error").exists());
     }
 
+    @Test
+    @DisplayName("PATCH /api/checks/result - Result for a superseded claim returns 409")
+    void testRecordResult_SupersededClaim_ReturnsConflict() throws Exception {
+        testPing.setInProgress(true);
+        testPing.setClaimToken("current-token");
+        pingRepository.save(testPing);
+
+        CheckResultUpdateRequest request = new CheckResultUpdateRequest();
+        request.setPingId(testPing.getId());
+        request.setHttpCode(200);
+        request.setResponseTimeMs(150.5);
+        request.setClaimToken("expired-token");
+
+        mockMvc.perform(patch("/api/checks/result")
+                .header("X-API-Key", workerApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error").exists());
+
+        // Cross-reference: The current claim is untouched and nothing was recorded
+        Ping ping = pingRepository.findById(testPing.getId()).orElseThrow();
+        assertEquals("current-token", ping.getClaimToken());
+        assertTrue(ping.isInProgress());
+        assertEquals(0, checkResultRepository.count());
+    }
+
     @Test
     @DisplayName("PATCH /api/checks/result - Handles null httpCode for error scenarios")
     void testRecordResult_NullHttpCode_Success() throws Exception {
@@ -470,6 +584,82 @@ class CheckControllerIntegrationTest {
         assertFalse(updatedPing.isInProgress());
     }
 
+    @Test
+    @DisplayName("POST /api/checks/results - Worker can record a batch with its API key")
+    void testRecordResults_Worker_Success() throws Exception {
+        testPing.setInProgress(true);
+        pingRepository.save(testPing);
+
+        CheckResultUpdateRequest result = new CheckResultUpdateRequest();
+        result.setPingId(testPing.getId());
+        result.setHttpCode(200);
+        result.setResponseTimeMs(42.0);
+        result.setCheckedAt(Instant.now());
+        CheckResultBatchRequest request = new CheckResultBatchRequest();
+        request.setResults(List.of(result));
+
+        mockMvc.perform(post("/api/checks/results")
+                .header("X-API-Key", workerApiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.recorded").value(1))
+            .andExpect(jsonPath("$.rejectedPingIds").isEmpty());
+
+        // Cross-reference: Verify via repository
+        assertEquals(1, checkResultRepository.findAll().size());
+        assertFalse(pingRepository.findById(testPing.getId()).orElseThrow().isInProgress());
+    }
+
+    @Test
+    @DisplayName("POST /api/checks/shards - Worker can lease a shard with its API key")
+    void testAcquireShard_Worker_Success() throws Exception {
+        schedulerProperties.getShard().setEnabled(true);
+
+        mockMvc.perform(post("/api/checks/shards")
+                .header("X-API-Key", workerApiKey))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.leaseId").exists())
+            .andExpect(jsonPath("$.pings[0].pingId").value(testPing.getId()));
+
+        // Cross-reference: Verify ping state via repository
+        assertTrue(pingRepository.findById(testPing.getId()).orElseThrow().isInProgress());
+    }
+
+    @Test
+    @DisplayName("PUT /api/checks/shards/{leaseId} - Worker can renew its shard lease with its API key")
+    void testRenewShard_Worker_Success() throws Exception {
+        schedulerProperties.getShard().setEnabled(true);
+        String leaseId = acquireShard();
+
+        mockMvc.perform(put("/api/checks/shards/" + leaseId)
+                .header("X-API-Key", workerApiKey))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.leaseId").value(leaseId))
+            .andExpect(jsonPath("$.pings[0].pingId").value(testPing.getId()));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/checks/shards/{leaseId} - Worker can release its shard lease with its API key")
+    void testReleaseShard_Worker_Success() throws Exception {
+        schedulerProperties.getShard().setEnabled(true);
+        String leaseId = acquireShard();
+
+        mockMvc.perform(delete("/api/checks/shards/" + leaseId)
+                .header("X-API-Key", workerApiKey))
+            .andExpect(status().isNoContent());
+
+        // Cross-reference: Verify ping state via repository
+        assertFalse(pingRepository.findById(testPing.getId()).orElseThrow().isInProgress());
+    }
+
+    @Test
+    @DisplayName("POST /api/checks/shards - Missing API key returns 401")
+    void testAcquireShard_MissingApiKey_ReturnsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/checks/shards"))
+            .andExpect(status().isUnauthorized());
+    }
+
     @Test
     @DisplayName("GET /api/checks/pending - Invalid API key returns 401")
     void testFetchPending_InvalidApiKey_ReturnsUnauthorized() throws Exception {
@@ -485,6 +675,21 @@ class CheckControllerIntegrationTest {
             .andExpect(status().isUnauthorized());
     }
 
+    @AfterEach
+    void tearDown() {
+        schedulerProperties.getShard().setEnabled(false);
+    }
+
+    private String acquireShard() throws Exception {
+        String response = mockMvc.perform(post("/api/checks/shards")
+                .header("X-API-Key", workerApiKey))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return objectMapper.readTree(response).get("leaseId").asText();
+    }
+
     private void setSecurityContext(User user) {
         SecurityUser securityUser = new SecurityUser(user);
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
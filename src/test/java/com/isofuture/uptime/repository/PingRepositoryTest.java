@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.isofuture.uptime.entity.Ping;
@@ -91,6 +92,115 @@ class PingRepositoryTest {
         assertTrue(ready.stream().anyMatch(m -> m.getUrl().equals("https://ready2.com")));
     }
 
+    @Test
+    @DisplayName("lockReadyForCheck - Applies the limit in the query, oldest due first")
+    void testLockReadyForCheck_AppliesLimit() {
+        // Given
+        User owner = createUser("owner@test.com");
+
+        Ping oldest = createPing(owner, "https://oldest.com");
+        oldest.setNextCheckAt(Instant.now().minusSeconds(300));
+
+        Ping older = createPing(owner, "https://older.com");
+        older.setNextCheckAt(Instant.now().minusSeconds(120));
+
+        Ping recent = createPing(owner, "https://recent.com");
+        recent.setNextCheckAt(Instant.now().minusSeconds(10));
+
+        Ping notReady = createPing(owner, "https://notready.com");
+        notReady.setNextCheckAt(Instant.now().plusSeconds(3600));
+
+        entityManager.persistAndFlush(recent);
+        entityManager.persistAndFlush(oldest);
+        entityManager.persistAndFlush(notReady);
+        entityManager.persistAndFlush(older);
+
+        // When
+        List<Ping> locked = pingRepository.lockReadyForCheck(Instant.now(), Limit.of(2));
+
+        // Then
+        assertEquals(2, locked.size());
+        assertEquals("https://oldest.com", locked.get(0).getUrl());
+        assertEquals("https://older.com", locked.get(1).getUrl());
+    }
+
+    @Test
+    @DisplayName("lockReadyForCheckInSlots - Only locks pings in the owned slots")
+    void testLockReadyForCheckInSlots_FiltersBySlot() {
+        // Given
+        User owner = createUser("owner@test.com");
+        Ping first = createPing(owner, "https://slot-a.com");
+        Ping second = createPing(owner, "https://slot-b.com");
+        entityManager.persistAndFlush(first);
+        entityManager.persistAndFlush(second);
+        int ownedSlot = (int) (first.getId() % 2);
+
+        // When
+        List<Ping> locked = pingRepository.lockReadyForCheckInSlots(Instant.now(), 2, List.of(ownedSlot), Limit.of(10));
+
+        // Then
+        assertEquals(1, locked.size());
+        assertEquals(first.getId(), locked.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("markInProgress - Updates all claimed pings in one statement")
+    void testMarkInProgress_Success() {
+        // Given
+        User owner = createUser("owner@test.com");
+        Ping ping1 = createPing(owner, "https://claim1.com");
+        Ping ping2 = createPing(owner, "https://claim2.com");
+        Ping untouched = createPing(owner, "https://untouched.com");
+        entityManager.persistAndFlush(ping1);
+        entityManager.persistAndFlush(ping2);
+        entityManager.persistAndFlush(untouched);
+
+        // When
+        int updated = pingRepository.markInProgress(
+            List.of(ping1.getId(), ping2.getId()), Instant.now(), "token-1", Instant.now().plusSeconds(300));
+
+        // Then
+        assertEquals(2, updated);
+        assertTrue(pingRepository.findById(ping1.getId()).orElseThrow().isInProgress());
+        assertEquals("token-1", pingRepository.findById(ping1.getId()).orElseThrow().getClaimToken());
+        assertTrue(pingRepository.findById(ping2.getId()).orElseThrow().isInProgress());
+        assertFalse(pingRepository.findById(untouched.getId()).orElseThrow().isInProgress());
+    }
+
+    @Test
+    @DisplayName("lockExpiredLeases / releaseClaims - Only expired leases are released")
+    void testExpiredLeases_Released() {
+        // Given
+        User owner = createUser("owner@test.com");
+
+        Ping expired = createPing(owner, "https://expired.com");
+        expired.setInProgress(true);
+        expired.setClaimToken("old-token");
+        expired.setLeaseExpiresAt(Instant.now().minusSeconds(30));
+
+        Ping active = createPing(owner, "https://active.com");
+        active.setInProgress(true);
+        active.setClaimToken("live-token");
+        active.setLeaseExpiresAt(Instant.now().plusSeconds(300));
+
+        entityManager.persistAndFlush(expired);
+        entityManager.persistAndFlush(active);
+
+        // When
+        Instant now = Instant.now();
+        List<Ping> locked = pingRepository.lockExpiredLeases(now, now.minusSeconds(300), Limit.of(10));
+        int released = pingRepository.releaseClaims(locked.stream().map(Ping::getId).toList(), now);
+
+        // Then
+        assertEquals(1, locked.size());
+        assertEquals(1, released);
+        Ping reloaded = pingRepository.findById(expired.getId()).orElseThrow();
+        assertFalse(reloaded.isInProgress());
+        assertNull(reloaded.getClaimToken());
+        assertNotNull(reloaded.getNextCheckAt());
+        assertTrue(pingRepository.findById(active.getId()).orElseThrow().isInProgress());
+    }
+
     @Test
     @DisplayName("findByIdAndOwnerId - Returns ping if owned by user")
     void testFindByIdAndOwnerId_Success() {
@@ -137,6 +247,37 @@ class PingRepositoryTest {
         assertEquals("https://progress2.com", inProgress.get(1).getUrl());
     }
 
+    @Test
+    @DisplayName("lockCoalescable - Returns idle pings with the probe key due within the window")
+    void testLockCoalescable_SameProbeDueSoon() {
+        // Given
+        User owner1 = createUser("owner1@test.com");
+        User owner2 = createUser("owner2@test.com");
+        Instant now = Instant.now();
+
+        Ping dueSoon = createPing(owner1, "https://popular.com");
+        dueSoon.setNextCheckAt(now.plusSeconds(10));
+        Ping sameProbeOtherSpelling = createPing(owner2, "HTTPS://Popular.com:443/");
+        sameProbeOtherSpelling.setNextCheckAt(now.minusSeconds(5));
+        Ping dueLater = createPing(createUser("owner3@test.com"), "https://popular.com");
+        dueLater.setNextCheckAt(now.plusSeconds(600));
+        Ping otherProbe = createPing(owner1, "https://popular.com/other");
+        otherProbe.setNextCheckAt(now);
+
+        entityManager.persistAndFlush(dueSoon);
+        entityManager.persistAndFlush(sameProbeOtherSpelling);
+        entityManager.persistAndFlush(dueLater);
+        entityManager.persistAndFlush(otherProbe);
+
+        // When
+        List<Ping> coalescable = pingRepository.lockCoalescable(
+            List.of(dueSoon.getProbeKey()), now.plusSeconds(30), Limit.of(10));
+
+        // Then
+        assertEquals(List.of(sameProbeOtherSpelling.getId(), dueSoon.getId()),
+            coalescable.stream().map(Ping::getId).toList());
+    }
+
     private User createUser(String email) {
         User user = new User();
         user.setEmail(email);
@@ -0,0 +1,186 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.isofuture.uptime.entity.Ping;
+
+@DisplayName("BodyAssertion Unit Tests")
+class BodyAssertionTest {
+
+    @Test
+    @DisplayName("Scan - Finds a keyword split across reads and stops at the first occurrence")
+    void testKeyword_SplitAcrossReads() {
+        // Given
+        BodyAssertion.Scan scan = BodyAssertion.compile(Ping.AssertionMode.CONTAINS, "status: OK").newScan();
+
+        // When/Then
+        assertFalse(feed(scan, "<html>status: O"));
+        assertFalse(scan.passed());
+        assertTrue(feed(scan, "K</html>"));
+        assertTrue(scan.passed());
+    }
+
+    @Test
+    @DisplayName("Scan - NOT_CONTAINS passes on a body without the keyword and fails on the first hit")
+    void testKeyword_NotContains() {
+        // Given
+        BodyAssertion assertion = BodyAssertion.compile(Ping.AssertionMode.NOT_CONTAINS, "Error");
+        BodyAssertion.Scan clean = assertion.newScan();
+        BodyAssertion.Scan failing = assertion.newScan();
+
+        // When
+        feed(clean, "All systems go, Err... no, fine");
+        boolean decided = feed(failing, "Fatal Error occurred");
+
+        // Then
+        assertTrue(clean.passed());
+        assertTrue(decided);
+        assertFalse(failing.passed());
+        assertTrue(assertion.failureMessage().contains("Error"));
+    }
+
+    @Test
+    @DisplayName("Scan - Matches a regex across reads, including split UTF-8 characters")
+    void testRegex_AcrossReads() {
+        // Given
+        BodyAssertion.Scan scan = BodyAssertion.compile(Ping.AssertionMode.MATCHES, "café \\d+").newScan();
+        byte[] body = "menu: café 42".getBytes(StandardCharsets.UTF_8);
+        int split = body.length - 4; // inside the two bytes of é
+
+        // When
+        boolean first = scan.feed(body, 0, split);
+        boolean second = scan.feed(body, split, body.length - split);
+
+        // Then
+        assertFalse(first);
+        assertTrue(second);
+        assertTrue(scan.passed());
+    }
+
+    @Test
+    @DisplayName("Scan - $ and \\b match only at the end of the body, not at the end of a read")
+    void testRegex_EndAnchorsSplitAcrossReads() {
+        // Given
+        BodyAssertion endOfLine = BodyAssertion.compile(Ping.AssertionMode.MATCHES, "status: up$");
+        BodyAssertion word = BodyAssertion.compile(Ping.AssertionMode.MATCHES, "\\bup\\b");
+        BodyAssertion endOfInput = BodyAssertion.compile(Ping.AssertionMode.MATCHES, "ok\\z");
+        BodyAssertion.Scan continued = endOfLine.newScan();
+        BodyAssertion.Scan ended = endOfLine.newScan();
+        BodyAssertion.Scan longerWord = word.newScan();
+        BodyAssertion.Scan notLast = endOfInput.newScan();
+
+        // When
+        boolean continuedDecided = feed(continued, "status: up");
+        feed(continued, "time 99%");
+        continued.finish();
+        feed(ended, "status: u");
+        boolean endedDecided = feed(ended, "p");
+        ended.finish();
+        feed(longerWord, "service is up");
+        feed(longerWord, "dated");
+        longerWord.finish();
+        feed(notLast, "ok");
+        feed(notLast, " ok then");
+        notLast.finish();
+
+        // Then
+        assertFalse(continuedDecided);
+        assertFalse(continued.passed());
+        assertFalse(endedDecided);
+        assertTrue(ended.passed());
+        assertFalse(longerWord.passed());
+        assertFalse(notLast.passed());
+    }
+
+    @Test
+    @DisplayName("Scan - ^ and \\A match only at the start of the body, not where the window was trimmed")
+    void testRegex_StartAnchorsAfterTrim() {
+        // Given
+        BodyAssertion.Scan trimmed = BodyAssertion.compile(Ping.AssertionMode.MATCHES, "\\Ax").newScan();
+        BodyAssertion.Scan atStart = BodyAssertion.compile(Ping.AssertionMode.MATCHES, "^<html>").newScan();
+        String filler = "x".repeat(BodyAssertion.MAX_MATCH_LENGTH + BodyAssertion.LOOKBEHIND);
+
+        // When
+        feed(trimmed, "a" + filler);
+        boolean trimmedDecided = feed(trimmed, "xx");
+        trimmed.finish();
+        feed(atStart, "<ht");
+        boolean atStartDecided = feed(atStart, "ml><body>");
+
+        // Then
+        assertFalse(trimmedDecided);
+        assertFalse(trimmed.passed());
+        assertTrue(atStartDecided);
+        assertTrue(atStart.passed());
+    }
+
+    @Test
+    @DisplayName("compile - Rejects an empty pattern and an invalid regex")
+    void testCompile_Invalid() {
+        assertThrows(IllegalArgumentException.class, () -> BodyAssertion.compile(Ping.AssertionMode.CONTAINS, ""));
+        assertThrows(IllegalArgumentException.class, () -> BodyAssertion.compile(Ping.AssertionMode.MATCHES, "(unclosed"));
+        assertThrows(IllegalArgumentException.class, () -> BodyAssertion.compile(null, "OK"));
+    }
+
+    @Test
+    @DisplayName("compile - Rejects nested quantifiers and backreferences, accepts bounded patterns")
+    void testCompile_UnboundedBacktracking() {
+        assertThrows(IllegalArgumentException.class, () -> BodyAssertion.compile(Ping.AssertionMode.MATCHES, "(a+)+$"));
+        assertThrows(IllegalArgumentException.class, () -> BodyAssertion.compile(Ping.AssertionMode.MATCHES, "((ab)*c)*"));
+        assertThrows(IllegalArgumentException.class, () -> BodyAssertion.compile(Ping.AssertionMode.MATCHES, "(?:\\w+\\s?){2,}"));
+        assertThrows(IllegalArgumentException.class, () -> BodyAssertion.compile(Ping.AssertionMode.MATCHES, "(a)\\1"));
+        assertThrows(IllegalArgumentException.class, () -> BodyAssertion.compile(Ping.AssertionMode.NOT_MATCHES, "(?<x>a)\\k<x>"));
+
+        assertNotNull(BodyAssertion.compile(Ping.AssertionMode.MATCHES, "(?:ok|up)+ \\d+"));
+        assertNotNull(BodyAssertion.compile(Ping.AssertionMode.MATCHES, "(a+)? [(+)]+ \\Q(a+)+\\E"));
+        assertNotNull(BodyAssertion.compile(Ping.AssertionMode.CONTAINS, "(a+)+"));
+    }
+
+    @Test
+    @DisplayName("Scan - A regex that runs past the match time fails the assertion")
+    void testRegex_MatchTimeout() {
+        // Given: adjacent quantifiers over the same text backtrack polynomially without a match
+        BodyAssertion assertion = BodyAssertion.compile(Ping.AssertionMode.NOT_MATCHES, "a*a*a*a*a*a*b");
+        BodyAssertion.Scan scan = assertion.newScan();
+        byte[] body = "a".repeat(2000).getBytes(StandardCharsets.UTF_8);
+
+        // When
+        long start = System.nanoTime();
+        boolean decided = scan.feed(body, 0, body.length);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertTrue(decided);
+        assertFalse(scan.passed());
+        assertTrue(scan.failureMessage().contains("took longer than"));
+        assertTrue(elapsedMillis < BodyAssertion.MAX_MATCH_TIME.toMillis() + 1000);
+    }
+
+    @Test
+    @DisplayName("Cache - Compiles each pattern once")
+    void testCache_CompilesOnce() {
+        // Given
+        BodyAssertion.Cache cache = new BodyAssertion.Cache(2);
+
+        // When
+        BodyAssertion first = cache.get(Ping.AssertionMode.MATCHES, "ok|up");
+        BodyAssertion second = cache.get(Ping.AssertionMode.MATCHES, "ok|up");
+        cache.get(Ping.AssertionMode.CONTAINS, "a");
+        cache.get(Ping.AssertionMode.CONTAINS, "b");
+
+        // Then
+        assertSame(first, second);
+        assertNull(cache.get(null, null));
+        assertEquals(2, cache.size());
+    }
+
+    private static boolean feed(BodyAssertion.Scan scan, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return scan.feed(bytes, 0, bytes.length);
+    }
+}
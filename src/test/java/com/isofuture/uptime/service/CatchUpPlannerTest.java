@@ -0,0 +1,185 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.repository.PingRepository;
+import com.isofuture.uptime.repository.PingSchedule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatchUpPlanner Unit Tests")
+class CatchUpPlannerTest {
+
+    @Mock
+    private PingRepository pingRepository;
+
+    @Mock
+    private PingScheduler pingScheduler;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SchedulerProperties properties;
+    private CatchUpPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerProperties();
+        properties.getCatchUp().setEnabled(true);
+        properties.getCatchUp().setMaxSpread(Duration.ofMinutes(10));
+        properties.getCatchUp().setInitialRate(2);
+        properties.getCatchUp().setBatchSize(100);
+        planner = new CatchUpPlanner(pingRepository, pingScheduler, new SchedulePolicy(), properties,
+            transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("catchUp - Overdue pings are spread within one period, capped by max-spread")
+    void testCatchUp_SpreadsOverduePings() {
+        // Given
+        when(pingRepository.findOverdueSchedulesAfter(any(Instant.class), eq(0L), eq(Limit.of(100))))
+            .thenReturn(List.of(schedule(1L, 60), schedule(2L, 86400)));
+        when(pingRepository.rescheduleIdle(anyLong(), any(Instant.class), any(Instant.class))).thenReturn(1);
+        Instant before = Instant.now();
+
+        // When
+        int moved = planner.catchUp();
+
+        // Then
+        assertEquals(2, moved);
+        ArgumentCaptor<Instant> minutely = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> daily = ArgumentCaptor.forClass(Instant.class);
+        verify(pingRepository).rescheduleIdle(eq(1L), minutely.capture(), any(Instant.class));
+        verify(pingRepository).rescheduleIdle(eq(2L), daily.capture(), any(Instant.class));
+        assertTrue(minutely.getValue().isBefore(before.plusSeconds(61)), "Next regular slot, within one period");
+        assertTrue(daily.getValue().isBefore(before.plus(Duration.ofMinutes(10)).plusSeconds(1)), "Capped by max-spread");
+        verify(pingScheduler).schedule(1L, minutely.getValue());
+        assertTrue(planner.isRamping());
+    }
+
+    @Test
+    @DisplayName("catchUp - Nothing overdue leaves claims unthrottled")
+    void testCatchUp_NothingOverdue_NoRamp() {
+        // Given
+        when(pingRepository.findOverdueSchedulesAfter(any(Instant.class), eq(0L), any(Limit.class))).thenReturn(List.of());
+
+        // When
+        int moved = planner.catchUp();
+
+        // Then
+        assertEquals(0, moved);
+        assertFalse(planner.isRamping());
+        assertEquals(500, planner.admit(500));
+    }
+
+    @Test
+    @DisplayName("admit - Claims are limited to the initial rate right after a catch-up")
+    void testAdmit_RampLimitsClaims() {
+        // Given
+        when(pingRepository.findOverdueSchedulesAfter(any(Instant.class), eq(0L), any(Limit.class)))
+            .thenReturn(List.of(schedule(1L, 60)));
+        when(pingRepository.rescheduleIdle(anyLong(), any(Instant.class), any(Instant.class))).thenReturn(1);
+        planner.catchUp();
+
+        // When
+        int first = planner.admit(500);
+        int second = planner.admit(500);
+
+        // Then
+        assertEquals(2, first);
+        assertEquals(0, second);
+    }
+
+    @Test
+    @DisplayName("onClaim - A claim after a long idle gap runs the catch-up pass before it claims, committing per page")
+    void testOnClaim_IdleGap_RunsCatchUp() {
+        // Given
+        when(pingRepository.findOverdueSchedulesAfter(any(Instant.class), eq(0L), any(Limit.class)))
+            .thenReturn(List.of(schedule(1L, 60)));
+        when(pingRepository.rescheduleIdle(anyLong(), any(Instant.class), any(Instant.class))).thenReturn(1);
+        Instant start = Instant.now().minus(Duration.ofMinutes(5));
+        planner.onClaim(start);
+        planner.onClaim(start.plusSeconds(30));
+        verifyNoInteractions(pingRepository);
+
+        // When
+        planner.onClaim(Instant.now());
+
+        // Then: the same claim is already ramped
+        verify(pingRepository, times(1)).findOverdueSchedulesAfter(any(Instant.class), eq(0L), any(Limit.class));
+        verify(pingScheduler).schedule(eq(1L), any(Instant.class));
+        verify(transactionManager).getTransaction(argThat(definition ->
+            definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        assertTrue(planner.isRamping());
+        assertEquals(2, planner.admit(500));
+    }
+
+    @Test
+    @DisplayName("onClaim - A catch-up pass that finds nothing overdue leaves claims unthrottled")
+    void testOnClaim_IdleGap_NothingOverdue_NoRamp() {
+        // Given
+        when(pingRepository.findOverdueSchedulesAfter(any(Instant.class), eq(0L), any(Limit.class))).thenReturn(List.of());
+        Instant start = Instant.now().minus(Duration.ofMinutes(5));
+        planner.onClaim(start);
+
+        // When
+        planner.onClaim(Instant.now());
+
+        // Then
+        verify(pingRepository).findOverdueSchedulesAfter(any(Instant.class), eq(0L), any(Limit.class));
+        assertFalse(planner.isRamping());
+    }
+
+    private PingSchedule schedule(Long id, int frequencySeconds) {
+        return new PingSchedule() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getNextCheckAt() {
+                return Instant.now().minus(Duration.ofHours(1));
+            }
+
+            @Override
+            public boolean isInProgress() {
+                return false;
+            }
+
+            @Override
+            public Integer getFrequencyMinutes() {
+                return Math.max(1, frequencySeconds / 60);
+            }
+
+            @Override
+            public Integer getFrequencySeconds() {
+                return frequencySeconds;
+            }
+
+            @Override
+            public Instant getUpdatedAt() {
+                return Instant.now();
+            }
+        };
+    }
+}
@@ -0,0 +1,166 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.PendingCheckResponse;
+import com.isofuture.uptime.repository.PingRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CheckDispatcher Unit Tests")
+class CheckDispatcherTest {
+
+    @Mock
+    private PingService pingService;
+
+    @Mock
+    private PingScheduler pingScheduler;
+
+    @Mock
+    private PingRepository pingRepository;
+
+    private DueSignal dueSignal;
+    private SchedulerProperties properties;
+    private CheckDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dueSignal = new DueSignal();
+        properties = new SchedulerProperties();
+        dispatcher = new CheckDispatcher(pingService, pingScheduler, pingRepository, dueSignal, properties);
+    }
+
+    @Test
+    @DisplayName("await - Answers immediately when checks are due")
+    void testAwait_DueNow_ReturnsImmediately() {
+        // Given
+        PendingCheckResponse check = new PendingCheckResponse(1L, "https://example.com", "Example", "token", Instant.now());
+        when(pingService.fetchNextChecks(5)).thenReturn(List.of(check));
+
+        // When
+        DeferredResult<List<PendingCheckResponse>> result = dispatcher.await(5, 30);
+
+        // Then
+        assertTrue(result.hasResult());
+        assertEquals(List.of(check), result.getResult());
+        assertEquals(0, dispatcher.waitingCount());
+    }
+
+    @Test
+    @DisplayName("dispatch - Parked waiter is served once a ping becomes due")
+    void testDispatch_ServesParkedWaiter() {
+        // Given
+        PendingCheckResponse check = new PendingCheckResponse(1L, "https://example.com", "Example", "token", Instant.now());
+        when(pingService.fetchNextChecks(2))
+            .thenReturn(List.of())
+            .thenReturn(List.of(check));
+        DeferredResult<List<PendingCheckResponse>> result = dispatcher.await(2, 30);
+        assertFalse(result.hasResult());
+        dueSignal.signal(Instant.now().minusSeconds(1));
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        assertTrue(result.hasResult());
+        assertEquals(List.of(check), result.getResult());
+    }
+
+    @Test
+    @DisplayName("dispatch - Does not query while nothing is signalled as due")
+    void testDispatch_NothingDue_NoQueries() {
+        // Given
+        when(pingService.fetchNextChecks(1)).thenReturn(List.of());
+        when(pingRepository.findEarliestNextCheckAt()).thenReturn(Instant.now().plusSeconds(600));
+        dispatcher.await(1, 30);
+        dispatcher.dispatch(); // first tick re-reads the earliest due time
+
+        // When
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+
+        // Then
+        verify(pingService, times(2)).fetchNextChecks(1);
+        verify(pingRepository, times(1)).findEarliestNextCheckAt();
+    }
+
+    @Test
+    @DisplayName("await - Zero wait behaves like a plain poll")
+    void testAwait_ZeroWait_ReturnsEmpty() {
+        // Given
+        when(pingService.fetchNextChecks(1)).thenReturn(List.of());
+
+        // When
+        DeferredResult<List<PendingCheckResponse>> result = dispatcher.await(1, 0);
+
+        // Then
+        assertTrue(result.hasResult());
+        assertEquals(List.of(), result.getResult());
+        assertEquals(0, dispatcher.waitingCount());
+    }
+
+    @Test
+    @DisplayName("await - An empty answer is still handed to onClaimed, so the worker's grant is freed")
+    void testAwait_EmptyAnswer_NotifiesOnClaimed() {
+        // Given
+        when(pingService.fetchNextChecks(1, "worker-1")).thenReturn(List.of());
+        List<List<PendingCheckResponse>> notified = new ArrayList<>();
+
+        // When
+        dispatcher.await(1, 0, "worker-1", notified::add);
+
+        // Then
+        assertEquals(List.of(List.of()), notified);
+    }
+
+    @Test
+    @DisplayName("dispatch - Pushes checks to channels up to their free capacity")
+    void testDispatch_PushesToChannel() {
+        // Given
+        PendingCheckResponse check = new PendingCheckResponse(1L, "https://example.com", "Example", "token", Instant.now());
+        CheckChannel channel = mock(CheckChannel.class);
+        when(channel.freeCapacity()).thenReturn(3).thenReturn(3).thenReturn(0);
+        when(channel.deliver(anyList())).thenReturn(true);
+        when(pingService.fetchNextChecks(3)).thenReturn(List.of(check));
+        dispatcher.open(channel);
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        verify(channel).deliver(List.of(check));
+        verify(pingService, never()).releaseChecks(anyCollection());
+    }
+
+    @Test
+    @DisplayName("dispatch - Checks a closed channel cannot take are released")
+    void testDispatch_ReleasesUndeliveredChecks() {
+        // Given
+        PendingCheckResponse check = new PendingCheckResponse(1L, "https://example.com", "Example", "token", Instant.now());
+        CheckChannel channel = mock(CheckChannel.class);
+        when(channel.freeCapacity()).thenReturn(1);
+        when(channel.deliver(anyList())).thenReturn(false);
+        when(pingService.fetchNextChecks(1)).thenReturn(List.of(check));
+        dispatcher.open(channel);
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        verify(pingService).releaseChecks(List.of(1L));
+    }
+}
@@ -12,16 +12,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.isofuture.uptime.BaseTest;
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.CheckResultBatchResponse;
 import com.isofuture.uptime.dto.CheckResultDto;
 import com.isofuture.uptime.dto.CheckResultUpdateRequest;
 import com.isofuture.uptime.dto.ExecuteCheckRequest;
 import com.isofuture.uptime.entity.CheckResult;
 import com.isofuture.uptime.entity.Ping;
 import com.isofuture.uptime.entity.User;
+import com.isofuture.uptime.exception.ClaimConflictException;
 import com.isofuture.uptime.repository.CheckResultRepository;
 import com.isofuture.uptime.repository.PingRepository;
 import com.isofuture.uptime.security.SecurityUser;
@@ -39,6 +45,27 @@ class CheckServiceTest extends BaseTest {
     @Mock
     private UserContext userContext;
 
+    @Mock
+    private PingScheduler pingScheduler;
+
+    @Spy
+    private SchedulePolicy schedulePolicy = new SchedulePolicy();
+
+    @Mock
+    private HostPoliteness hostPoliteness;
+
+    @Mock
+    private OverloadControl overloadControl;
+
+    @Spy
+    private SchedulerProperties schedulerProperties = new SchedulerProperties();
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ProbeEngine probeEngine;
+
     @InjectMocks
     private CheckService checkService;
 
@@ -60,6 +87,14 @@ class CheckServiceTest extends BaseTest {
         testPing.setOwner(testUser);
         testPing.setFrequencyMinutes(5);
         testPing.setInProgress(false);
+
+        // Runs each phase of executeCheck inline
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        lenient().when(probeEngine.probe(anyString(), any()))
+            .thenReturn(new ProbeEngine.Result(200, null, 42.0, Instant.now(), true, ProbeEngine.Phases.NONE, null, null, null, null));
     }
 
     @Test
@@ -423,5 +458,282 @@ class CheckServiceTest extends BaseTest {
         verify(userContext, atLeast(1)).isAdmin();
         verify(pingRepository).findById(1L);
     }
-}
 
+    @Test
+    @DisplayName("recordResult - Result for a superseded claim is rejected")
+    void testRecordResult_SupersededClaim_ThrowsException() {
+        // Given
+        testPing.setInProgress(true);
+        testPing.setClaimToken("current-token");
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+
+        CheckResultUpdateRequest request = new CheckResultUpdateRequest();
+        request.setPingId(1L);
+        request.setHttpCode(200);
+        request.setClaimToken("expired-token");
+
+        // When/Then
+        assertThrows(ClaimConflictException.class, () -> checkService.recordResult(request, true));
+        verify(checkResultRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("recordResult - Result for a claim that was released is rejected")
+    void testRecordResult_ReleasedClaim_ThrowsException() {
+        // Given
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+
+        CheckResultUpdateRequest request = new CheckResultUpdateRequest();
+        request.setPingId(1L);
+        request.setHttpCode(200);
+        request.setClaimToken("expired-token");
+
+        // When/Then
+        assertThrows(ClaimConflictException.class, () -> checkService.recordResult(request, true));
+        verify(checkResultRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("recordResult - Matching claim token clears the lease")
+    void testRecordResult_MatchingClaim_ClearsLease() {
+        // Given
+        testPing.setInProgress(true);
+        testPing.setClaimToken("current-token");
+        testPing.setLeaseExpiresAt(Instant.now().plusSeconds(60));
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.save(any(CheckResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CheckResultUpdateRequest request = new CheckResultUpdateRequest();
+        request.setPingId(1L);
+        request.setHttpCode(200);
+        request.setClaimToken("current-token");
+
+        // When
+        checkService.recordResult(request, true);
+
+        // Then
+        assertFalse(testPing.isInProgress());
+        assertNull(testPing.getClaimToken());
+        assertNull(testPing.getLeaseExpiresAt());
+        verify(pingScheduler).schedule(eq(1L), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("recordResult - Next check lands on the ping's fixed slot after the check time")
+    void testRecordResult_NextCheckOnPolicySlot() {
+        // Given
+        testPing.setInProgress(true);
+        testPing.setFrequencyMinutes(5);
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.save(any(CheckResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CheckResultUpdateRequest request = new CheckResultUpdateRequest();
+        request.setPingId(1L);
+        request.setHttpCode(200);
+
+        // When
+        checkService.recordResult(request, true);
+
+        // Then
+        long periodMillis = java.time.Duration.ofMinutes(5).toMillis();
+        long offset = schedulePolicy.offsetMillis(1L, java.time.Duration.ofMinutes(5));
+        assertEquals(offset, Math.floorMod(testPing.getNextCheckAt().toEpochMilli(), periodMillis));
+    }
+
+    @Test
+    @DisplayName("recordResult - A body digest is compared with the ping's last one and becomes the new baseline")
+    void testRecordResult_BodyDigest_FlagsChange() {
+        // Given
+        testPing.setFrequencyMinutes(5);
+        testPing.setLastBodyDigest("aaaa");
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.save(any(CheckResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CheckResultUpdateRequest changed = new CheckResultUpdateRequest();
+        changed.setPingId(1L);
+        changed.setHttpCode(200);
+        changed.setBodyDigest("bbbb");
+        CheckResultUpdateRequest unchanged = new CheckResultUpdateRequest();
+        unchanged.setPingId(1L);
+        unchanged.setHttpCode(200);
+        unchanged.setBodyDigest("bbbb");
+
+        // When
+        CheckResultDto first = checkService.recordResult(changed, true);
+        CheckResultDto second = checkService.recordResult(unchanged, true);
+
+        // Then
+        assertEquals(Boolean.TRUE, first.getContentChanged());
+        assertEquals(Boolean.FALSE, second.getContentChanged());
+        assertEquals("bbbb", second.getBodyDigest());
+        assertEquals("bbbb", testPing.getLastBodyDigest());
+        verify(checkResultRepository, never()).findByPingOrderByCheckedAtDesc(any());
+    }
+
+    @Test
+    @DisplayName("recordResult - Result of a coalesced probe is copied to its followers")
+    void testRecordResult_CoalescedProbe_FansOutToFollowers() {
+        // Given
+        testPing.setInProgress(true);
+        testPing.setClaimToken("claim-1");
+        Ping follower = new Ping();
+        follower.setId(7L);
+        follower.setUrl("https://example.com");
+        follower.setFrequencyMinutes(1);
+        follower.setInProgress(true);
+        follower.setClaimToken("claim-1");
+        follower.setCoalescedInto(1L);
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+        when(pingRepository.findByCoalescedIntoAndClaimTokenAndInProgressTrue(1L, "claim-1"))
+            .thenReturn(java.util.List.of(follower));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.save(any(CheckResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CheckResultUpdateRequest request = new CheckResultUpdateRequest();
+        request.setPingId(1L);
+        request.setClaimToken("claim-1");
+        request.setHttpCode(503);
+
+        // When
+        checkService.recordResult(request, true);
+
+        // Then
+        verify(checkResultRepository, times(2)).save(any(CheckResult.class));
+        assertFalse(follower.isInProgress());
+        assertNull(follower.getCoalescedInto());
+        verify(pingScheduler).schedule(eq(7L), any(Instant.class));
+        long periodMillis = java.time.Duration.ofMinutes(1).toMillis();
+        long offset = schedulePolicy.offsetMillis(7L, java.time.Duration.ofMinutes(1));
+        assertEquals(offset, Math.floorMod(follower.getNextCheckAt().toEpochMilli(), periodMillis));
+    }
+
+    @Test
+    @DisplayName("recordResult - A ping in a shard lease stays with its worker")
+    void testRecordResult_ShardLeased_KeepsLease() {
+        // Given
+        Instant leaseExpiresAt = Instant.now().plusSeconds(600);
+        testPing.setInProgress(true);
+        testPing.setClaimToken("lease-1");
+        testPing.setLeaseExpiresAt(leaseExpiresAt);
+        testPing.setShardWorkerId("worker-1");
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+        when(pingRepository.findByCoalescedIntoAndClaimTokenAndInProgressTrue(1L, "lease-1")).thenReturn(java.util.List.of());
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.save(any(CheckResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CheckResultUpdateRequest request = new CheckResultUpdateRequest();
+        request.setPingId(1L);
+        request.setHttpCode(200);
+        request.setClaimToken("lease-1");
+
+        // When
+        checkService.recordResult(request, true);
+
+        // Then
+        assertTrue(testPing.isInProgress());
+        assertEquals("lease-1", testPing.getClaimToken());
+        assertEquals(leaseExpiresAt, testPing.getLeaseExpiresAt());
+        assertNotNull(testPing.getNextCheckAt());
+        verify(pingScheduler, never()).schedule(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("recordResults - Rejected results are reported without failing the batch")
+    void testRecordResults_SkipsRejected() {
+        // Given
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+        when(pingRepository.findById(99L)).thenReturn(java.util.Optional.empty());
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.save(any(CheckResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CheckResultUpdateRequest known = new CheckResultUpdateRequest();
+        known.setPingId(1L);
+        known.setHttpCode(200);
+        CheckResultUpdateRequest unknown = new CheckResultUpdateRequest();
+        unknown.setPingId(99L);
+        unknown.setHttpCode(200);
+
+        // When
+        CheckResultBatchResponse response = checkService.recordResults(java.util.List.of(known, unknown));
+
+        // Then
+        assertEquals(1, response.getRecorded());
+        assertEquals(java.util.List.of(99L), response.getRejectedPingIds());
+        verify(checkResultRepository, times(1)).save(any(CheckResult.class));
+    }
+
+    @Test
+    @DisplayName("executeCheck - Claim and commit run in separate transactions around the probe")
+    void testExecuteCheck_ClaimAndCommitPhases() {
+        // Given
+        when(userContext.isAdmin()).thenReturn(true);
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> {
+            Ping saved = invocation.getArgument(0);
+            if (saved.isInProgress()) {
+                // Claim phase: the ping is leased before the probe starts
+                assertNotNull(saved.getClaimToken());
+                assertNotNull(saved.getLeaseExpiresAt());
+            }
+            return saved;
+        });
+        when(checkResultRepository.save(any(CheckResult.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ExecuteCheckRequest request = new ExecuteCheckRequest();
+        request.setPingId(1L);
+
+        // When
+        checkService.executeCheck(request, false);
+
+        // Then
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(probeEngine).probe(eq("https://example.com"), any());
+        verify(pingScheduler).cancel(1L);
+        assertFalse(testPing.isInProgress());
+        assertNull(testPing.getClaimToken());
+        verify(checkResultRepository).save(any(CheckResult.class));
+    }
+
+    @Test
+    @DisplayName("executeCheck - Result is dropped if the ping was handed to a worker during the probe")
+    void testExecuteCheck_ClaimLapsedDuringProbe_ThrowsException() {
+        // Given
+        Ping reclaimed = new Ping();
+        reclaimed.setId(1L);
+        reclaimed.setUrl("https://example.com");
+        reclaimed.setInProgress(true);
+        reclaimed.setClaimToken("worker-token");
+        when(userContext.isAdmin()).thenReturn(true);
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing), java.util.Optional.of(reclaimed));
+
+        ExecuteCheckRequest request = new ExecuteCheckRequest();
+        request.setPingId(1L);
+
+        // When/Then
+        assertThrows(ClaimConflictException.class, () -> checkService.executeCheck(request, false));
+        verify(checkResultRepository, never()).save(any());
+        assertEquals("worker-token", reclaimed.getClaimToken());
+    }
+
+    @Test
+    @DisplayName("executeCheck - A ping held by a worker is not probed or overwritten")
+    void testExecuteCheck_ClaimedByWorker_ThrowsException() {
+        // Given
+        testPing.setInProgress(true);
+        testPing.setClaimToken("worker-token");
+        when(userContext.isAdmin()).thenReturn(true);
+        when(pingRepository.findById(1L)).thenReturn(java.util.Optional.of(testPing));
+
+        ExecuteCheckRequest request = new ExecuteCheckRequest();
+        request.setPingId(1L);
+
+        // When/Then
+        assertThrows(ClaimConflictException.class, () -> checkService.executeCheck(request, false));
+        verify(probeEngine, never()).probe(anyString(), any());
+        verify(pingRepository, never()).save(any());
+        assertEquals("worker-token", testPing.getClaimToken());
+    }
+}
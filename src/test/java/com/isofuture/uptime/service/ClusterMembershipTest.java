@@ -0,0 +1,133 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.entity.SchedulerNode;
+import com.isofuture.uptime.repository.SchedulerNodeRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ClusterMembership Unit Tests")
+class ClusterMembershipTest {
+
+    @Mock
+    private SchedulerNodeRepository nodeRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SchedulerProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerProperties();
+        properties.getPartition().setSlots(64);
+    }
+
+    @Test
+    @DisplayName("owns - Owns every ping when partitioning is disabled")
+    void testOwns_Disabled() {
+        // Given
+        ClusterMembership membership = membership("node-a");
+
+        // When
+        membership.heartbeat();
+
+        // Then
+        assertTrue(membership.owns(1L));
+        assertTrue(membership.owns(42L));
+        verifyNoInteractions(nodeRepository);
+    }
+
+    @Test
+    @DisplayName("heartbeat - A single live node owns every slot")
+    void testHeartbeat_SingleNodeOwnsAll() {
+        // Given
+        properties.getPartition().setEnabled(true);
+        stubTransactions();
+        when(nodeRepository.touch(eq("node-a"), any(Instant.class))).thenReturn(0);
+        when(nodeRepository.findLiveNodeIds(any(Instant.class))).thenReturn(List.of("node-a"));
+        ClusterMembership membership = membership("node-a");
+
+        // When
+        membership.heartbeat();
+
+        // Then
+        verify(nodeRepository).save(any(SchedulerNode.class));
+        assertEquals(64, membership.ownedSlots().size());
+        assertTrue(membership.owns(7L));
+        verify(eventPublisher).publishEvent(any(ClusterMembership.PartitionChanged.class));
+    }
+
+    @Test
+    @DisplayName("heartbeat - Two live nodes split the slots without overlap")
+    void testHeartbeat_TwoNodesSplitSlots() {
+        // Given
+        properties.getPartition().setEnabled(true);
+        stubTransactions();
+        when(nodeRepository.touch(anyString(), any(Instant.class))).thenReturn(1);
+        when(nodeRepository.findLiveNodeIds(any(Instant.class))).thenReturn(List.of("node-a", "node-b"));
+        ClusterMembership nodeA = membership("node-a");
+        ClusterMembership nodeB = membership("node-b");
+
+        // When
+        nodeA.heartbeat();
+        nodeB.heartbeat();
+
+        // Then
+        assertEquals(64, nodeA.ownedSlots().size() + nodeB.ownedSlots().size());
+        assertFalse(nodeA.ownedSlots().isEmpty());
+        assertFalse(nodeB.ownedSlots().isEmpty());
+        for (long id = 1; id <= 200; id++) {
+            assertNotEquals(nodeA.owns(id), nodeB.owns(id));
+        }
+    }
+
+    @Test
+    @DisplayName("heartbeat - Unchanged membership does not republish the assignment")
+    void testHeartbeat_UnchangedMembership() {
+        // Given
+        properties.getPartition().setEnabled(true);
+        stubTransactions();
+        when(nodeRepository.touch(eq("node-a"), any(Instant.class))).thenReturn(1);
+        when(nodeRepository.findLiveNodeIds(any(Instant.class))).thenReturn(List.of("node-a"));
+        ClusterMembership membership = membership("node-a");
+
+        // When
+        membership.heartbeat();
+        membership.heartbeat();
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(ClusterMembership.PartitionChanged.class));
+    }
+
+    private ClusterMembership membership(String nodeId) {
+        properties.getPartition().setNodeId(nodeId);
+        return new ClusterMembership(nodeRepository, properties, transactionTemplate, eventPublisher);
+    }
+
+    private void stubTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.isofuture.uptime.config.ProbeProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("DnsCache Unit Tests")
+class DnsCacheTest {
+
+    private ProbeProperties properties;
+    private AtomicInteger lookups;
+    private DnsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProbeProperties();
+        lookups = new AtomicInteger();
+        cache = new DnsCache(properties, new SimpleMeterRegistry(), host -> {
+            lookups.incrementAndGet();
+            if (host.startsWith("unknown")) {
+                throw new UnknownHostException(host);
+            }
+            return new InetAddress[] { InetAddress.getByAddress(host, new byte[] { 127, 0, 0, 1 }) };
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("resolve - Repeated lookups of a host are answered from the cache")
+    void testResolve_CachesAnswer() throws UnknownHostException {
+        // When
+        cache.resolve("example.com");
+        InetAddress[] addresses = cache.resolve("EXAMPLE.com");
+
+        // Then
+        assertEquals(1, lookups.get());
+        assertEquals(1, addresses.length);
+        assertEquals(0.5, cache.hitRate());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("resolve - Unknown hosts are cached for the negative ttl")
+    void testResolve_NegativeCaching() {
+        // When/Then
+        assertThrows(UnknownHostException.class, () -> cache.resolve("unknown.example"));
+        assertThrows(UnknownHostException.class, () -> cache.resolve("unknown.example"));
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    @DisplayName("resolve - An answer used after refresh-ahead is looked up again in the background")
+    void testResolve_RefreshAhead() throws Exception {
+        // Given
+        properties.getDns().setTtl(Duration.ofSeconds(60));
+        properties.getDns().setRefreshAhead(0.0);
+        cache.resolve("example.com");
+
+        // When
+        cache.resolve("example.com");
+
+        // Then
+        long deadline = System.currentTimeMillis() + 2000;
+        while (lookups.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    @DisplayName("resolveUncached - Probes that measure DNS always ask the resolver")
+    void testResolveUncached_BypassesCache() throws UnknownHostException {
+        // Given
+        cache.resolve("example.com");
+
+        // When
+        cache.resolveUncached("example.com");
+        cache.resolveUncached("example.com");
+
+        // Then
+        assertEquals(3, lookups.get());
+    }
+
+    @Test
+    @DisplayName("resolve - A disabled cache asks the resolver every time")
+    void testResolve_Disabled() throws UnknownHostException {
+        // Given
+        properties.getDns().setEnabled(false);
+
+        // When
+        cache.resolve("example.com");
+        cache.resolve("example.com");
+
+        // Then
+        assertEquals(2, lookups.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,145 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.isofuture.uptime.config.EmbeddedWorkerProperties;
+import com.isofuture.uptime.dto.CheckResultUpdateRequest;
+import com.isofuture.uptime.dto.PendingCheckResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmbeddedWorker Unit Tests")
+class EmbeddedWorkerTest {
+
+    @Mock
+    private CheckDispatcher checkDispatcher;
+
+    @Mock
+    private CheckService checkService;
+
+    @Mock
+    private PingService pingService;
+
+    @Mock
+    private ProbeEngine probeEngine;
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    private EmbeddedWorkerProperties properties;
+    private EmbeddedWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EmbeddedWorkerProperties();
+        properties.setEnabled(true);
+        properties.setCapacity(10);
+        properties.setWorkerId("embedded-test");
+        worker = new EmbeddedWorker(properties, checkDispatcher, checkService, pingService, probeEngine,
+            clusterMembership, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+    }
+
+    @Test
+    @DisplayName("start - Registers with the dispatcher and offers its capacity")
+    void testStart_OpensChannel() {
+        // Given
+        assertEquals(0, worker.freeCapacity());
+        when(probeEngine.getFreeSlots()).thenReturn(100);
+
+        // When
+        worker.start();
+
+        // Then
+        verify(checkDispatcher).open(worker);
+        assertEquals(10, worker.freeCapacity());
+        assertEquals("embedded-test", worker.workerId());
+    }
+
+    @Test
+    @DisplayName("freeCapacity - Offers nothing while the probe engine has no free slot")
+    void testFreeCapacity_ProbeEngineSaturated() {
+        // Given
+        worker.start();
+        when(probeEngine.getFreeSlots()).thenReturn(0, 3);
+
+        // When/Then
+        assertEquals(0, worker.freeCapacity());
+        assertEquals(3, worker.freeCapacity());
+    }
+
+    @Test
+    @DisplayName("start - Disabled worker stays out of the dispatcher")
+    void testStart_Disabled_NoChannel() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        worker.start();
+
+        // Then
+        verifyNoInteractions(checkDispatcher);
+        assertEquals(0, worker.freeCapacity());
+    }
+
+    @Test
+    @DisplayName("deliver - Probes the check and records the result in process with its claim token")
+    void testDeliver_RecordsResult() {
+        // Given
+        worker.start();
+        when(probeEngine.probe(eq("https://example.com"), any()))
+            .thenReturn(new ProbeEngine.Result(200, null, 12.5, Instant.now(), true, ProbeEngine.Phases.NONE, null, null, null, null));
+
+        // When
+        boolean delivered = worker.deliver(List.of(check(1L)));
+
+        // Then
+        assertTrue(delivered);
+        ArgumentCaptor<CheckResultUpdateRequest> captor = ArgumentCaptor.forClass(CheckResultUpdateRequest.class);
+        verify(checkService, timeout(2000)).recordResult(captor.capture(), eq(true));
+        assertEquals(1L, captor.getValue().getPingId());
+        assertEquals("token-1", captor.getValue().getClaimToken());
+        assertEquals(200, captor.getValue().getHttpCode());
+        assertEquals(12.5, captor.getValue().getResponseTimeMs());
+    }
+
+    @Test
+    @DisplayName("deliver - A probe that was never sent is released, not recorded as down")
+    void testDeliver_NotSent_ReleasesClaim() {
+        // Given
+        worker.start();
+        when(probeEngine.probe(eq("https://example.com"), any()))
+            .thenReturn(new ProbeEngine.Result(null, "Too many probes in flight", 0, Instant.now(), false, ProbeEngine.Phases.NONE, null, null, null, null));
+
+        // When
+        worker.deliver(List.of(check(1L)));
+
+        // Then
+        verify(pingService, timeout(2000)).releaseChecks(List.of(1L));
+        verify(checkService, never()).recordResult(any(CheckResultUpdateRequest.class), anyBoolean());
+    }
+
+    private static PendingCheckResponse check(Long pingId) {
+        return new PendingCheckResponse(pingId, "https://example.com", "Example", "token-" + pingId,
+            Instant.now().plusSeconds(60));
+    }
+}
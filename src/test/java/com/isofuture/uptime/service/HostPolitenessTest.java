@@ -0,0 +1,134 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+
+@DisplayName("HostPoliteness Unit Tests")
+class HostPolitenessTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private SchedulerProperties properties;
+    private HostPoliteness politeness;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerProperties();
+        properties.getPoliteness().setEnabled(true);
+        properties.getPoliteness().setMaxConcurrentPerHost(2);
+        properties.getPoliteness().setMaxRequestsPerSecondPerHost(100);
+        properties.getPoliteness().setMinDeferMillis(1000);
+        politeness = new HostPoliteness(properties);
+    }
+
+    @Test
+    @DisplayName("hostOf - Lower-cases the host and ignores path, port and scheme")
+    void testHostOf_ParsesHost() {
+        assertEquals("example.com", politeness.hostOf("https://Example.COM:8443/health?x=1"));
+        assertEquals("example.com", politeness.hostOf("http://example.com"));
+        assertEquals("not a url", politeness.hostOf("not a url"));
+    }
+
+    @Test
+    @DisplayName("tryAcquire - Defers pings beyond the per-host concurrency")
+    void testTryAcquire_ConcurrencyLimit_Defers() {
+        // Given
+        politeness.tryAcquire(1L, "https://example.com/a", NOW);
+        politeness.tryAcquire(2L, "https://example.com/b", NOW);
+
+        // When
+        HostPoliteness.Admission third = politeness.tryAcquire(3L, "https://example.com/c", NOW);
+        HostPoliteness.Admission otherHost = politeness.tryAcquire(4L, "https://other.com/", NOW);
+
+        // Then
+        assertFalse(third.admitted());
+        assertEquals(NOW.plusSeconds(1), third.retryAt());
+        assertTrue(otherHost.admitted());
+        assertEquals(2, politeness.inFlightFor("example.com"));
+    }
+
+    @Test
+    @DisplayName("release - Frees the host slot for the next ping")
+    void testRelease_FreesSlot() {
+        // Given
+        politeness.tryAcquire(1L, "https://example.com/a", NOW);
+        politeness.tryAcquire(2L, "https://example.com/b", NOW);
+
+        // When
+        politeness.release(1L);
+
+        // Then
+        assertTrue(politeness.tryAcquire(3L, "https://example.com/c", NOW).admitted());
+    }
+
+    @Test
+    @DisplayName("tryAcquire - Slot and token taken in a rolled back transaction are given back")
+    void testTryAcquire_RolledBack_Refunded() {
+        // Given
+        properties.getPoliteness().setMaxRequestsPerSecondPerHost(1);
+        politeness = new HostPoliteness(properties);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(politeness.tryAcquire(1L, "https://example.com/a", NOW).admitted());
+
+            // When
+            TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(0, politeness.inFlightFor("example.com"));
+        assertTrue(politeness.tryAcquire(2L, "https://example.com/b", NOW).admitted());
+    }
+
+    @Test
+    @DisplayName("tryAcquire - Rate limit queues deferred pings one interval apart")
+    void testTryAcquire_RateLimit_SpreadsDeferrals() {
+        // Given
+        properties.getPoliteness().setMaxConcurrentPerHost(0);
+        properties.getPoliteness().setMaxRequestsPerSecondPerHost(2);
+        politeness = new HostPoliteness(properties);
+        politeness.tryAcquire(1L, "https://example.com/a", NOW);
+        politeness.tryAcquire(2L, "https://example.com/b", NOW);
+
+        // When
+        HostPoliteness.Admission third = politeness.tryAcquire(3L, "https://example.com/c", NOW);
+        HostPoliteness.Admission fourth = politeness.tryAcquire(4L, "https://example.com/d", NOW);
+        HostPoliteness.Admission later = politeness.tryAcquire(5L, "https://example.com/e", NOW.plusMillis(500));
+
+        // Then
+        assertFalse(third.admitted());
+        assertEquals(NOW.plusMillis(1000), third.retryAt());
+        assertFalse(fourth.admitted());
+        assertEquals(NOW.plusMillis(1500), fourth.retryAt());
+        assertTrue(later.admitted(), "A token is refilled after half a second at 2 requests per second");
+    }
+
+    @Test
+    @DisplayName("tryAcquire - Claims older than the lease no longer count against the host")
+    void testTryAcquire_ExpiredClaimsFreed() {
+        // Given
+        properties.getLease().setDuration(Duration.ofMinutes(5));
+        politeness.tryAcquire(1L, "https://example.com/a", NOW);
+        politeness.tryAcquire(2L, "https://example.com/b", NOW);
+
+        // When
+        HostPoliteness.Admission admission = politeness.tryAcquire(3L, "https://example.com/c", NOW.plus(Duration.ofMinutes(6)));
+
+        // Then
+        assertTrue(admission.admitted());
+        assertEquals(1, politeness.inFlightFor("example.com"));
+    }
+}
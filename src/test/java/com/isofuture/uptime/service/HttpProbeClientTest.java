@@ -0,0 +1,280 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.isofuture.uptime.config.ProbeProperties;
+import com.isofuture.uptime.entity.Ping;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("HttpProbeClient Unit Tests")
+class HttpProbeClientTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private ProbeConnectionPool connectionPool;
+    private HttpProbeClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/sized", exchange -> {
+            byte[] body = "hello".repeat(5000).getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/chunked", exchange -> {
+            // Length 0 makes the server stream the body in chunks
+            exchange.sendResponseHeaders(503, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("unavailable".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                out.write(" for now".getBytes(StandardCharsets.US_ASCII));
+            }
+        });
+        server.createContext("/get-only", exchange -> {
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+            } else {
+                exchange.sendResponseHeaders(200, -1);
+            }
+            exchange.close();
+        });
+        server.createContext("/tagged", exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = "tagged".getBytes(StandardCharsets.US_ASCII);
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        ProbeProperties properties = new ProbeProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        connectionPool = new ProbeConnectionPool(properties, meterRegistry);
+        client = new HttpProbeClient(Duration.ofSeconds(2), 1024 * 1024, new DnsCache(properties, meterRegistry), connectionPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionPool.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("get - Reads a sized body and times every plain-HTTP phase")
+    void testGet_SizedBody_TimesPhases() throws IOException {
+        // Given
+        HttpProbeClient.Timing timing = new HttpProbeClient.Timing();
+
+        // When
+        int status = client.get(URI.create(baseUrl + "/sized?x=1"), ProbeEngine.Options.DEFAULT, Duration.ofSeconds(2), timing).status();
+
+        // Then
+        assertEquals(200, status);
+        assertTrue(timing.bytes() > 25_000, "Headers and the whole body are counted");
+        ProbeEngine.Phases phases = timing.phases();
+        assertNotNull(phases.dnsMs());
+        assertNotNull(phases.connectMs());
+        assertNull(phases.tlsMs(), "No TLS for plain http");
+        assertNotNull(phases.ttfbMs());
+        assertNotNull(phases.transferMs());
+        assertTrue(timing.totalMs() >= phases.connectMs() + phases.ttfbMs());
+    }
+
+    @Test
+    @DisplayName("get - A fresh probe closes its connection")
+    void testGet_Fresh_ClosesConnection() throws IOException {
+        // When
+        client.get(URI.create(baseUrl + "/sized"), ProbeEngine.Options.DEFAULT, Duration.ofSeconds(2), new HttpProbeClient.Timing());
+
+        // Then
+        assertEquals(0, connectionPool.getOpen());
+        assertEquals(0, connectionPool.getIdle());
+    }
+
+    @Test
+    @DisplayName("get - Pooled probes reuse the keep-alive connection and skip the setup phases")
+    void testGet_Pooled_ReusesConnection() throws IOException {
+        // Given
+        ProbeEngine.Options pooled = new ProbeEngine.Options(false, Ping.ConnectionMode.POOLED, Ping.ProbeMode.GET, null, null, null, null, false);
+        client.get(URI.create(baseUrl + "/sized"), pooled, Duration.ofSeconds(2), new HttpProbeClient.Timing());
+        assertEquals(1, connectionPool.getIdle());
+        HttpProbeClient.Timing timing = new HttpProbeClient.Timing();
+
+        // When
+        int status = client.get(URI.create(baseUrl + "/sized"), pooled, Duration.ofSeconds(2), timing).status();
+
+        // Then
+        assertEquals(200, status);
+        assertEquals(0.0, timing.phases().connectMs());
+        assertNotNull(timing.phases().ttfbMs());
+        assertEquals(1, connectionPool.getOpen());
+        assertEquals(1, connectionPool.getIdle());
+    }
+
+    @Test
+    @DisplayName("get - Reads a chunked body to its end")
+    void testGet_ChunkedBody() throws IOException {
+        // When
+        int status = client.get(URI.create(baseUrl + "/chunked"), ProbeEngine.Options.DEFAULT, Duration.ofSeconds(2), new HttpProbeClient.Timing()).status();
+
+        // Then
+        assertEquals(503, status);
+    }
+
+    @Test
+    @DisplayName("get - Stops reading a body at the cap and drops the connection")
+    void testGet_BodyCap_StopsReading() throws IOException {
+        // Given
+        ProbeEngine.Options capped = new ProbeEngine.Options(false, Ping.ConnectionMode.POOLED, Ping.ProbeMode.GET, 100L, null, null, null, false);
+        HttpProbeClient.Timing timing = new HttpProbeClient.Timing();
+
+        // When
+        int status = client.get(URI.create(baseUrl + "/sized"), capped, Duration.ofSeconds(2), timing).status();
+
+        // Then
+        assertEquals(200, status);
+        assertTrue(timing.bytes() < 25_000);
+        assertEquals(0, connectionPool.getIdle());
+        assertEquals(0, connectionPool.getOpen());
+    }
+
+    @Test
+    @DisplayName("get - HEAD mode falls back to GET when the server refuses HEAD")
+    void testGet_Head_FallsBackToGet() throws IOException {
+        // Given
+        ProbeEngine.Options head = new ProbeEngine.Options(false, Ping.ConnectionMode.FRESH, Ping.ProbeMode.HEAD, null, null, null, null, false);
+
+        // When
+        int status = client.get(URI.create(baseUrl + "/get-only"), head, Duration.ofSeconds(2), new HttpProbeClient.Timing()).status();
+
+        // Then
+        assertEquals(200, status);
+    }
+
+    @Test
+    @DisplayName("get - Conditional mode sends the last ETag and accepts 304")
+    void testGet_Conditional_NotModified() throws IOException {
+        // Given
+        HttpProbeClient.Response first = client.get(URI.create(baseUrl + "/tagged"), ProbeEngine.Options.DEFAULT,
+            Duration.ofSeconds(2), new HttpProbeClient.Timing());
+        ProbeEngine.Options conditional = new ProbeEngine.Options(false, Ping.ConnectionMode.FRESH,
+            Ping.ProbeMode.CONDITIONAL, null, first.etag(), null, null, false);
+
+        // When
+        HttpProbeClient.Response second = client.get(URI.create(baseUrl + "/tagged"), conditional,
+            Duration.ofSeconds(2), new HttpProbeClient.Timing());
+
+        // Then
+        assertEquals("\"v1\"", first.etag());
+        assertEquals(304, second.status());
+    }
+
+    @Test
+    @DisplayName("get - A body assertion is decided while the body streams in")
+    void testGet_BodyAssertion() throws IOException {
+        // Given
+        ProbeEngine.Options contains = new ProbeEngine.Options(false, Ping.ConnectionMode.FRESH, Ping.ProbeMode.GET,
+            null, null, Ping.AssertionMode.CONTAINS, "for now", false);
+        ProbeEngine.Options notMatches = new ProbeEngine.Options(false, Ping.ConnectionMode.FRESH, Ping.ProbeMode.GET,
+            null, null, Ping.AssertionMode.NOT_MATCHES, "unavail\\w+", false);
+
+        // When
+        HttpProbeClient.Response found = client.get(URI.create(baseUrl + "/chunked"), contains, Duration.ofSeconds(2),
+            new HttpProbeClient.Timing());
+        HttpProbeClient.Response matched = client.get(URI.create(baseUrl + "/chunked"), notMatches, Duration.ofSeconds(2),
+            new HttpProbeClient.Timing());
+
+        // Then
+        assertEquals(Boolean.TRUE, found.assertionPassed());
+        assertNull(found.assertionFailure());
+        assertEquals(Boolean.FALSE, matched.assertionPassed());
+        assertNotNull(matched.assertionFailure());
+        assertEquals(503, matched.status());
+    }
+
+    @Test
+    @DisplayName("get - $ matches at the end of the body, not at the end of a chunk")
+    void testGet_BodyAssertion_EndAnchor() throws IOException {
+        // Given
+        ProbeEngine.Options atEnd = new ProbeEngine.Options(false, Ping.ConnectionMode.FRESH, Ping.ProbeMode.GET,
+            null, null, Ping.AssertionMode.MATCHES, "for now$", false);
+        ProbeEngine.Options atChunkEnd = new ProbeEngine.Options(false, Ping.ConnectionMode.FRESH, Ping.ProbeMode.GET,
+            null, null, Ping.AssertionMode.MATCHES, "unavailable$", false);
+
+        // When
+        HttpProbeClient.Response ended = client.get(URI.create(baseUrl + "/chunked"), atEnd, Duration.ofSeconds(2),
+            new HttpProbeClient.Timing());
+        HttpProbeClient.Response split = client.get(URI.create(baseUrl + "/chunked"), atChunkEnd, Duration.ofSeconds(2),
+            new HttpProbeClient.Timing());
+
+        // Then
+        assertEquals(Boolean.TRUE, ended.assertionPassed());
+        assertEquals(Boolean.FALSE, split.assertionPassed());
+    }
+
+    @Test
+    @DisplayName("get - Content tracking digests the whole body as it streams")
+    void testGet_TrackContent_DigestsBody() throws Exception {
+        // Given
+        ProbeEngine.Options tracked = new ProbeEngine.Options(false, Ping.ConnectionMode.FRESH, Ping.ProbeMode.GET,
+            null, null, Ping.AssertionMode.CONTAINS, "unavailable", true);
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+            .digest("unavailable for now".getBytes(StandardCharsets.US_ASCII)));
+
+        // When
+        HttpProbeClient.Response response = client.get(URI.create(baseUrl + "/chunked"), tracked, Duration.ofSeconds(2),
+            new HttpProbeClient.Timing());
+
+        // Then
+        assertEquals(expected, response.bodyDigest());
+        assertEquals(Boolean.TRUE, response.assertionPassed());
+        assertNull(client.get(URI.create(baseUrl + "/chunked"), ProbeEngine.Options.DEFAULT, Duration.ofSeconds(2),
+            new HttpProbeClient.Timing()).bodyDigest());
+    }
+
+    @Test
+    @DisplayName("get - Only http and https URLs are probed")
+    void testGet_UnsupportedScheme() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class,
+            () -> client.get(URI.create("ftp://127.0.0.1/file"), ProbeEngine.Options.DEFAULT, Duration.ofSeconds(2), new HttpProbeClient.Timing()));
+    }
+
+    @Test
+    @DisplayName("get - A refused connection fails after DNS, before connect completes")
+    void testGet_ConnectionRefused_KeepsDnsTiming() {
+        // Given
+        server.stop(0);
+        HttpProbeClient.Timing timing = new HttpProbeClient.Timing();
+
+        // When/Then
+        assertThrows(IOException.class, () -> client.get(URI.create(baseUrl + "/sized"), ProbeEngine.Options.DEFAULT, Duration.ofSeconds(2), timing));
+        assertNotNull(timing.phases().dnsMs());
+        assertNull(timing.phases().connectMs());
+    }
+}
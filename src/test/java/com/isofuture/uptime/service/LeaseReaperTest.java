@@ -0,0 +1,98 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.entity.Ping;
+import com.isofuture.uptime.repository.PingRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LeaseReaper Unit Tests")
+class LeaseReaperTest {
+
+    @Mock
+    private PingRepository pingRepository;
+
+    @Mock
+    private PingScheduler pingScheduler;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SchedulerProperties properties;
+    private LeaseReaper leaseReaper;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new SchedulerProperties();
+        properties.getLease().setReaperBatchSize(2);
+        properties.getLease().setReaperMaxBatches(5);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        leaseReaper = new LeaseReaper(pingRepository, pingScheduler, properties, transactionTemplate, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("sweep - Releases expired leases in chunks until a short chunk")
+    void testSweep_ReleasesInChunks() {
+        // Given
+        when(pingRepository.lockExpiredLeases(any(Instant.class), any(Instant.class), eq(Limit.of(2))))
+            .thenReturn(List.of(ping(1L), ping(2L)))
+            .thenReturn(List.of(ping(3L)));
+        when(pingRepository.releaseClaims(anyCollection(), any(Instant.class)))
+            .thenReturn(2)
+            .thenReturn(1);
+
+        // When
+        leaseReaper.sweep();
+
+        // Then
+        verify(pingRepository, times(2)).lockExpiredLeases(any(), any(), any());
+        verify(pingScheduler, times(3)).schedule(anyLong(), any(Instant.class));
+        assertEquals(3.0, meterRegistry.counter("uptime.scheduler.leases.expired").count());
+        assertEquals(3.0, meterRegistry.counter("uptime.scheduler.leases.reclaimed").count());
+    }
+
+    @Test
+    @DisplayName("sweep - Does nothing when no lease has expired")
+    void testSweep_NothingExpired() {
+        // Given
+        when(pingRepository.lockExpiredLeases(any(Instant.class), any(Instant.class), any(Limit.class)))
+            .thenReturn(List.of());
+
+        // When
+        leaseReaper.sweep();
+
+        // Then
+        verify(pingRepository, never()).releaseClaims(anyCollection(), any());
+        assertEquals(0.0, meterRegistry.counter("uptime.scheduler.leases.reclaimed").count());
+    }
+
+    private Ping ping(Long id) {
+        Ping ping = new Ping();
+        ping.setId(id);
+        ping.setInProgress(true);
+        return ping;
+    }
+}
@@ -0,0 +1,158 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.isofuture.uptime.BaseTest;
+import com.isofuture.uptime.config.ManualCheckProperties;
+import com.isofuture.uptime.dto.CheckResultDto;
+import com.isofuture.uptime.dto.ExecuteCheckRequest;
+import com.isofuture.uptime.dto.ManualCheckResponse;
+import com.isofuture.uptime.exception.ResourceNotFoundException;
+import com.isofuture.uptime.exception.ServiceOverloadedException;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ManualCheckService Unit Tests")
+class ManualCheckServiceTest extends BaseTest {
+
+    @Mock
+    private CheckService checkService;
+
+    @Mock
+    private UserContext userContext;
+
+    private ManualCheckProperties properties;
+    private ManualCheckService manualCheckService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ManualCheckProperties();
+        properties.setThreads(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (manualCheckService != null) {
+            manualCheckService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("submit - Runs the check and keeps its result for polling")
+    void testSubmit_RunsCheck() {
+        // Given
+        manualCheckService = new ManualCheckService(checkService, userContext, properties);
+        when(userContext.getCurrentUser()).thenReturn(createRegularUser(2L, "user@test.com"));
+        CheckResultDto result = new CheckResultDto();
+        result.setId(10L);
+        result.setHttpCode(200);
+        when(checkService.executeCheck(any(ExecuteCheckRequest.class), eq(true))).thenReturn(result);
+
+        // When
+        ManualCheckResponse submitted = manualCheckService.submit(request(1L));
+        DeferredResult<ManualCheckResponse> polled = manualCheckService.await(submitted.getHandle(), 0);
+
+        // Then
+        verify(checkService).assertExecutable(1L);
+        assertEquals("DONE", submitted.getStatus());
+        ManualCheckResponse response = (ManualCheckResponse) polled.getResult();
+        assertEquals(10L, response.getResult().getId());
+        assertNotNull(response.getCompletedAt());
+    }
+
+    @Test
+    @DisplayName("submit - Access is checked before anything is queued")
+    void testSubmit_AccessDenied_NothingQueued() {
+        // Given
+        manualCheckService = new ManualCheckService(checkService, userContext, properties);
+        doThrow(new AccessDeniedException("Forbidden")).when(checkService).assertExecutable(1L);
+
+        // When/Then
+        assertThrows(AccessDeniedException.class, () -> manualCheckService.submit(request(1L)));
+        verify(checkService, never()).executeCheck(any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("submit - A user over the per-user limit is turned away until a check finishes")
+    void testSubmit_PerUserLimit_Rejected() throws Exception {
+        // Given
+        properties.setThreads(1);
+        properties.setMaxPerUser(1);
+        manualCheckService = new ManualCheckService(checkService, userContext, properties);
+        when(userContext.getCurrentUser()).thenReturn(createRegularUser(2L, "user@test.com"));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        when(checkService.executeCheck(any(ExecuteCheckRequest.class), eq(true))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            finished.countDown();
+            return new CheckResultDto();
+        });
+        manualCheckService.submit(request(1L));
+
+        // When
+        assertThrows(ServiceOverloadedException.class, () -> manualCheckService.submit(request(1L)));
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+
+        // Then
+        assertDoesNotThrow(() -> manualCheckService.submit(request(1L)));
+    }
+
+    @Test
+    @DisplayName("evictFinished - A user's counter is kept while a check is in flight")
+    void testEvictFinished_InFlight_KeepsLimit() throws Exception {
+        // Given
+        properties.setThreads(1);
+        properties.setMaxPerUser(1);
+        manualCheckService = new ManualCheckService(checkService, userContext, properties);
+        when(userContext.getCurrentUser()).thenReturn(createRegularUser(2L, "user@test.com"));
+        CountDownLatch release = new CountDownLatch(1);
+        when(checkService.executeCheck(any(ExecuteCheckRequest.class), eq(true))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new CheckResultDto();
+        });
+        manualCheckService.submit(request(1L));
+
+        // When
+        manualCheckService.evictFinished();
+
+        // Then
+        assertThrows(ServiceOverloadedException.class, () -> manualCheckService.submit(request(1L)));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("await - Checks of other users are not found")
+    void testAwait_OtherUser_NotFound() {
+        // Given
+        manualCheckService = new ManualCheckService(checkService, userContext, properties);
+        when(userContext.getCurrentUser()).thenReturn(
+            createRegularUser(2L, "user@test.com"), createRegularUser(3L, "other@test.com"));
+        when(checkService.executeCheck(any(ExecuteCheckRequest.class), eq(true))).thenReturn(new CheckResultDto());
+        ManualCheckResponse submitted = manualCheckService.submit(request(1L));
+
+        // When/Then
+        assertThrows(ResourceNotFoundException.class, () -> manualCheckService.await(submitted.getHandle(), 0));
+    }
+
+    private static ExecuteCheckRequest request(Long pingId) {
+        ExecuteCheckRequest request = new ExecuteCheckRequest();
+        request.setPingId(pingId);
+        return request;
+    }
+}
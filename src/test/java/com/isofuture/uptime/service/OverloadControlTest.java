@@ -0,0 +1,173 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.repository.PingRepository;
+import com.isofuture.uptime.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OverloadControl Unit Tests")
+class OverloadControlTest {
+
+    private static final Duration PERIOD = Duration.ofSeconds(30);
+    private static final Long FREE_OWNER = 2L;
+    private static final Long PREMIUM_OWNER = 3L;
+
+    @Mock
+    private PingRepository pingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SchedulerProperties properties;
+    private OverloadControl overloadControl;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new SchedulerProperties();
+        properties.getOverload().setEnabled(true);
+        properties.getOverload().setStretchLag(Duration.ofMinutes(1));
+        properties.getOverload().setShedLag(Duration.ofMinutes(5));
+        properties.getOverload().setMaxConcurrentResults(2);
+        overloadControl = new OverloadControl(pingRepository, userRepository, new SchedulePolicy(), properties, meterRegistry);
+        lenient().when(userRepository.findActiveIdsOnPriorityTiers()).thenReturn(Set.of(PREMIUM_OWNER));
+    }
+
+    @Test
+    @DisplayName("sample - Lag above the thresholds raises the level and is exported")
+    void testSample_LagAboveThresholds_RaisesLevel() {
+        // Given
+        when(pingRepository.findEarliestNextCheckAt()).thenReturn(Instant.now().minus(Duration.ofMinutes(2)));
+
+        // When
+        overloadControl.sample();
+
+        // Then
+        assertEquals(OverloadControl.Level.STRETCH, overloadControl.getLevel());
+        assertTrue(overloadControl.getLag().compareTo(Duration.ofMinutes(2)) >= 0);
+        assertEquals(1.0, meterRegistry.get("uptime.scheduler.overload.level").gauge().value());
+        assertTrue(meterRegistry.get("uptime.scheduler.lag").gauge().value() >= 120.0);
+    }
+
+    @Test
+    @DisplayName("sample - A level is only left once the lag is below half its threshold")
+    void testSample_Recovery_UsesHysteresis() {
+        // Given
+        when(pingRepository.findEarliestNextCheckAt()).thenReturn(
+            Instant.now().minus(Duration.ofMinutes(6)),
+            Instant.now().minus(Duration.ofMinutes(4)),
+            Instant.now().minus(Duration.ofMinutes(2)));
+
+        // When / Then
+        overloadControl.sample();
+        assertEquals(OverloadControl.Level.SHED, overloadControl.getLevel());
+        overloadControl.sample();
+        assertEquals(OverloadControl.Level.SHED, overloadControl.getLevel(), "4 minutes is above half the shed threshold");
+        overloadControl.sample();
+        assertEquals(OverloadControl.Level.STRETCH, overloadControl.getLevel());
+    }
+
+    @Test
+    @DisplayName("sample - No due pings means no lag")
+    void testSample_NothingDue_NoLag() {
+        // Given
+        when(pingRepository.findEarliestNextCheckAt()).thenReturn(Instant.now().plusSeconds(60));
+
+        // When
+        overloadControl.sample();
+
+        // Then
+        assertEquals(Duration.ZERO, overloadControl.getLag());
+        assertEquals(OverloadControl.Level.NORMAL, overloadControl.getLevel());
+    }
+
+    @Test
+    @DisplayName("stretch - Only pings of owners outside priority tiers are stretched, and only while degraded")
+    void testStretch_LowPriorityWhileDegraded() {
+        // Given
+        assertEquals(Duration.ZERO, overloadControl.stretch(FREE_OWNER, PERIOD));
+        when(pingRepository.findEarliestNextCheckAt()).thenReturn(Instant.now().minus(Duration.ofMinutes(2)));
+        overloadControl.sample();
+
+        // When / Then
+        assertEquals(PERIOD, overloadControl.stretch(FREE_OWNER, PERIOD));
+        assertEquals(Duration.ZERO, overloadControl.stretch(PREMIUM_OWNER, PERIOD));
+        verify(userRepository).findActiveIdsOnPriorityTiers();
+    }
+
+    @Test
+    @DisplayName("shedUntil - While shedding, odd slots are skipped to the next even slot")
+    void testShedUntil_SkipsOddSlotsOnly() {
+        // Given
+        when(pingRepository.findEarliestNextCheckAt()).thenReturn(Instant.now().minus(Duration.ofMinutes(10)));
+        overloadControl.sample();
+        Instant now = Instant.parse("2024-01-01T00:10:00Z");
+        Instant evenSlot = Instant.ofEpochMilli(PERIOD.toMillis() * 2 * 1000);
+        Instant oddSlot = evenSlot.plus(PERIOD);
+
+        // When
+        Instant keptEven = overloadControl.shedUntil(1L, FREE_OWNER, PERIOD, evenSlot, now);
+        Instant skippedOdd = overloadControl.shedUntil(1L, FREE_OWNER, PERIOD, oddSlot, now);
+        Instant keptPremium = overloadControl.shedUntil(1L, PREMIUM_OWNER, PERIOD, oddSlot, now);
+
+        // Then
+        assertNull(keptEven);
+        assertNotNull(skippedOdd);
+        assertTrue(skippedOdd.isAfter(now));
+        assertEquals(0, Math.floorMod(Math.floorDiv(skippedOdd.toEpochMilli(), PERIOD.toMillis()), 2L));
+        assertNull(keptPremium);
+    }
+
+    @Test
+    @DisplayName("tryBeginResult - Rejects results beyond the concurrency limit until one ends")
+    void testTryBeginResult_LimitsConcurrentResults() {
+        // Given
+        assertTrue(overloadControl.tryBeginResult());
+        assertTrue(overloadControl.tryBeginResult());
+
+        // When
+        boolean third = overloadControl.tryBeginResult();
+        boolean saturated = overloadControl.isIngestionSaturated();
+        overloadControl.endResult();
+
+        // Then
+        assertFalse(third);
+        assertTrue(saturated);
+        assertFalse(overloadControl.isIngestionSaturated());
+        assertTrue(overloadControl.tryBeginResult());
+        assertEquals(1.0, meterRegistry.get("uptime.scheduler.results.rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("uptime.scheduler.polls.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("recordClaimed - Lateness at claim time feeds the timer")
+    void testRecordClaimed_RecordsLateness() {
+        // Given
+        Instant now = Instant.now();
+
+        // When
+        overloadControl.recordClaimed(now.minusSeconds(3), now);
+        overloadControl.recordClaimed(now.plusSeconds(3), now);
+        overloadControl.recordClaimed(null, now);
+
+        // Then
+        assertEquals(2, meterRegistry.get("uptime.scheduler.claim.lateness").timer().count());
+    }
+}
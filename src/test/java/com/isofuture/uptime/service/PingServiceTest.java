@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -12,14 +13,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import com.isofuture.uptime.BaseTest;
+import com.isofuture.uptime.config.SchedulerProperties;
 import com.isofuture.uptime.dto.PingRequest;
 import com.isofuture.uptime.dto.PingResponse;
 import com.isofuture.uptime.entity.Ping;
+import com.isofuture.uptime.entity.Tier;
 import com.isofuture.uptime.entity.User;
 import com.isofuture.uptime.mapper.PingMapper;
 import com.isofuture.uptime.repository.CheckResultRepository;
@@ -46,6 +52,30 @@ class PingServiceTest extends BaseTest {
     @Mock
     private UserContext userContext;
 
+    @Mock
+    private PingScheduler pingScheduler;
+
+    @Spy
+    private SchedulerProperties schedulerProperties = new SchedulerProperties();
+
+    @Spy
+    private SchedulePolicy schedulePolicy = new SchedulePolicy();
+
+    @Mock
+    private ClusterMembership clusterMembership;
+
+    @Mock
+    private HostPoliteness hostPoliteness;
+
+    @Mock
+    private OverloadControl overloadControl;
+
+    @Mock
+    private CatchUpPlanner catchUpPlanner;
+
+    @Mock
+    private WorkerAffinity workerAffinity;
+
     @InjectMocks
     private PingService pingService;
 
@@ -136,6 +166,132 @@ class PingServiceTest extends BaseTest {
         verify(pingRepository).save(any(Ping.class));
     }
 
+    @Test
+    @DisplayName("createPing - Sub-minute frequency allowed by the owner's tier is stored in seconds")
+    void testCreatePing_SubMinuteFrequency_AllowedByTier() {
+        // Given
+        Tier premium = new Tier();
+        premium.setName("premium");
+        premium.setMinFrequencySeconds(10);
+        testUser.getTiers().add(premium);
+        when(userContext.getCurrentUser()).thenReturn(regularUser);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> {
+            Ping saved = invocation.getArgument(0);
+            saved.setId(42L);
+            return saved;
+        });
+        when(checkResultRepository.findByPingOrderByCheckedAtDesc(any())).thenReturn(List.of());
+        when(mapper.toResponse(any(), anyList())).thenReturn(new PingResponse());
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setFrequencySeconds(15);
+
+        // When
+        pingService.createPing(request);
+
+        // Then
+        ArgumentCaptor<Ping> saved = ArgumentCaptor.forClass(Ping.class);
+        verify(pingRepository).save(saved.capture());
+        assertEquals(15, saved.getValue().getFrequencySeconds());
+        assertEquals(1, saved.getValue().getFrequencyMinutes());
+        long offset = schedulePolicy.offsetMillis(42L, Duration.ofSeconds(15));
+        assertEquals(offset, Math.floorMod(saved.getValue().getNextCheckAt().toEpochMilli(), 15_000L));
+    }
+
+    @Test
+    @DisplayName("createPing - Frequency below the tier minimum is rejected")
+    void testCreatePing_FrequencyBelowMinimum_Rejected() {
+        // Given
+        when(userContext.getCurrentUser()).thenReturn(regularUser);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setFrequencySeconds(10);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> pingService.createPing(request));
+        verify(pingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createPing - A body assertion regex that does not compile is rejected")
+    void testCreatePing_InvalidAssertionRegex_Rejected() {
+        // Given
+        when(userContext.getCurrentUser()).thenReturn(regularUser);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setFrequencyMinutes(5);
+        request.setAssertionMode(Ping.AssertionMode.MATCHES);
+        request.setAssertionPattern("(unclosed");
+
+        // When/Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> pingService.createPing(request));
+        assertTrue(error.getMessage().startsWith("Invalid body assertion"));
+        verify(pingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createPing - A body assertion regex with nested quantifiers is rejected")
+    void testCreatePing_NestedQuantifierRegex_Rejected() {
+        // Given
+        when(userContext.getCurrentUser()).thenReturn(regularUser);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setFrequencyMinutes(5);
+        request.setAssertionMode(Ping.AssertionMode.MATCHES);
+        request.setAssertionPattern("(a+)+$");
+
+        // When/Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> pingService.createPing(request));
+        assertTrue(error.getMessage().contains("Nested quantifiers"));
+        verify(pingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createPing - A body assertion on a HEAD probe is rejected")
+    void testCreatePing_HeadWithAssertion_Rejected() {
+        // Given
+        when(userContext.getCurrentUser()).thenReturn(regularUser);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setFrequencyMinutes(5);
+        request.setProbeMode(Ping.ProbeMode.HEAD);
+        request.setAssertionMode(Ping.AssertionMode.CONTAINS);
+        request.setAssertionPattern("healthy");
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> pingService.createPing(request));
+        verify(pingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("updatePing - Switching a ping with a body assertion to HEAD is rejected")
+    void testUpdatePing_HeadOnPingWithAssertion_Rejected() {
+        // Given
+        testPing.setAssertionMode(Ping.AssertionMode.CONTAINS);
+        testPing.setAssertionPattern("healthy");
+        when(userContext.isAdmin()).thenReturn(true);
+        when(pingRepository.findById(1L)).thenReturn(Optional.of(testPing));
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setFrequencyMinutes(5);
+        request.setProbeMode(Ping.ProbeMode.HEAD);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> pingService.updatePing(1L, request));
+        verify(pingRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("updatePing - Admin can update any ping")
     void testUpdatePing_Admin_Success() {
@@ -187,6 +343,95 @@ class PingServiceTest extends BaseTest {
         verify(pingRepository).findByIdAndOwnerId(1L, 2L);
     }
 
+    @Test
+    @DisplayName("updatePing - A minutes-only request that echoes the rounded minutes keeps a sub-minute period")
+    void testUpdatePing_MinutesEchoed_KeepsSubMinuteFrequency() {
+        // Given
+        Tier premium = new Tier();
+        premium.setName("premium");
+        premium.setMinFrequencySeconds(10);
+        testUser.getTiers().add(premium);
+        testPing.setFrequencySeconds(15);
+        when(userContext.isAdmin()).thenReturn(true);
+        when(pingRepository.findById(1L)).thenReturn(Optional.of(testPing));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.findByPingOrderByCheckedAtDesc(any())).thenReturn(List.of());
+        when(mapper.toResponse(any(), anyList())).thenReturn(new PingResponse());
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setLabel("Renamed");
+        request.setFrequencyMinutes(1);
+
+        // When
+        pingService.updatePing(1L, request);
+
+        // Then
+        assertEquals(15, testPing.getFrequencySeconds());
+        assertEquals("Renamed", testPing.getLabel());
+    }
+
+    @Test
+    @DisplayName("updatePing - Probe settings left out of the request keep their stored values")
+    void testUpdatePing_LabelOnly_KeepsProbeSettings() {
+        // Given
+        testPing.setMeasureDns(true);
+        testPing.setConnectionMode(Ping.ConnectionMode.POOLED);
+        testPing.setProbeMode(Ping.ProbeMode.RANGE);
+        testPing.setMaxBodyBytes(4096L);
+        testPing.setAssertionMode(Ping.AssertionMode.CONTAINS);
+        testPing.setAssertionPattern("healthy");
+        testPing.setTrackContent(true);
+        when(userContext.isAdmin()).thenReturn(true);
+        when(pingRepository.findById(1L)).thenReturn(Optional.of(testPing));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.findByPingOrderByCheckedAtDesc(any())).thenReturn(List.of());
+        when(mapper.toResponse(any(), anyList())).thenReturn(new PingResponse());
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setLabel("Renamed");
+        request.setFrequencyMinutes(5);
+
+        // When
+        pingService.updatePing(1L, request);
+
+        // Then
+        assertEquals("Renamed", testPing.getLabel());
+        assertTrue(testPing.isMeasureDns());
+        assertEquals(Ping.ConnectionMode.POOLED, testPing.getConnectionMode());
+        assertEquals(Ping.ProbeMode.RANGE, testPing.getProbeMode());
+        assertEquals(4096L, testPing.getMaxBodyBytes());
+        assertEquals(Ping.AssertionMode.CONTAINS, testPing.getAssertionMode());
+        assertEquals("healthy", testPing.getAssertionPattern());
+        assertTrue(testPing.isTrackContent());
+    }
+
+    @Test
+    @DisplayName("updatePing - An empty assertion pattern without a mode removes the assertion")
+    void testUpdatePing_EmptyAssertionPattern_RemovesAssertion() {
+        // Given
+        testPing.setAssertionMode(Ping.AssertionMode.CONTAINS);
+        testPing.setAssertionPattern("healthy");
+        when(userContext.isAdmin()).thenReturn(true);
+        when(pingRepository.findById(1L)).thenReturn(Optional.of(testPing));
+        when(pingRepository.save(any(Ping.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(checkResultRepository.findByPingOrderByCheckedAtDesc(any())).thenReturn(List.of());
+        when(mapper.toResponse(any(), anyList())).thenReturn(new PingResponse());
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setFrequencyMinutes(5);
+        request.setAssertionPattern("");
+
+        // When
+        pingService.updatePing(1L, request);
+
+        // Then
+        assertNull(testPing.getAssertionMode());
+        assertNull(testPing.getAssertionPattern());
+    }
+
     @Test
     @DisplayName("deletePing - Admin can delete any ping")
     void testDeletePing_Admin_Success() {
@@ -345,8 +590,9 @@ class PingServiceTest extends BaseTest {
         readyPing.setInProgress(false);
         readyPing.setNextCheckAt(Instant.now().minusSeconds(60));
 
-        when(pingRepository.findReadyForCheck(any(Instant.class)))
+        when(pingRepository.lockReadyForCheck(any(Instant.class), any(Limit.class)))
             .thenReturn(List.of(testPing, readyPing));
+        when(pingRepository.markInProgress(anyCollection(), any(Instant.class), anyString(), any(Instant.class))).thenReturn(2);
 
         // When
         List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(2);
@@ -354,11 +600,16 @@ class PingServiceTest extends BaseTest {
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(pingRepository).findReadyForCheck(any(Instant.class));
+        assertNotNull(result.get(0).getClaimToken());
+        assertEquals(result.get(0).getClaimToken(), result.get(1).getClaimToken());
+        assertNotNull(result.get(0).getLeaseExpiresAt());
+        verify(pingRepository).lockReadyForCheck(any(Instant.class), eq(Limit.of(2)));
+        verify(pingRepository).markInProgress(eq(List.of(1L, 2L)), any(Instant.class), anyString(), any(Instant.class));
+        verify(pingRepository, never()).findReadyForCheck(any());
     }
 
     @Test
-    @DisplayName("fetchNextChecks - Limits results to specified count")
+    @DisplayName("fetchNextChecks - Pushes the limit down to the database")
     void testFetchNextChecks_WithLimit_Success() {
         // Given
         Ping readyPing1 = new Ping();
@@ -368,15 +619,9 @@ class PingServiceTest extends BaseTest {
         readyPing1.setFrequencyMinutes(5);
         readyPing1.setInProgress(false);
 
-        Ping readyPing2 = new Ping();
-        readyPing2.setId(3L);
-        readyPing2.setUrl("https://example3.com");
-        readyPing2.setLabel("Ready Ping 2");
-        readyPing2.setFrequencyMinutes(5);
-        readyPing2.setInProgress(false);
-
-        when(pingRepository.findReadyForCheck(any(Instant.class)))
-            .thenReturn(List.of(testPing, readyPing1, readyPing2));
+        when(pingRepository.lockReadyForCheck(any(Instant.class), eq(Limit.of(2))))
+            .thenReturn(List.of(testPing, readyPing1));
+        when(pingRepository.markInProgress(anyCollection(), any(Instant.class), anyString(), any(Instant.class))).thenReturn(2);
 
         // When
         List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(2);
@@ -384,13 +629,15 @@ class PingServiceTest extends BaseTest {
         // Then
         assertNotNull(result);
         assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getPingId());
+        assertEquals(2L, result.get(1).getPingId());
     }
 
     @Test
     @DisplayName("fetchNextChecks - Returns empty list when no ready pings")
     void testFetchNextChecks_NoReady_ReturnsEmpty() {
         // Given
-        when(pingRepository.findReadyForCheck(any(Instant.class)))
+        when(pingRepository.lockReadyForCheck(any(Instant.class), any(Limit.class)))
             .thenReturn(List.of());
 
         // When
@@ -399,6 +646,222 @@ class PingServiceTest extends BaseTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
+        verify(pingRepository, never()).markInProgress(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("fetchNextChecks - Timing wheel mode claims due IDs by primary key")
+    void testFetchNextChecks_TimingWheel_ClaimsByIds() {
+        // Given
+        Ping readyPing = new Ping();
+        readyPing.setId(2L);
+        readyPing.setUrl("https://example2.com");
+        readyPing.setLabel("Ready Ping");
+        readyPing.setFrequencyMinutes(5);
+
+        when(pingScheduler.isEnabled()).thenReturn(true);
+        when(pingScheduler.pollDue(any(Instant.class), eq(3))).thenReturn(List.of(1L, 2L, 3L));
+        when(pingRepository.lockReadyForCheckByIds(eq(List.of(1L, 2L, 3L)), any(Instant.class)))
+            .thenReturn(List.of(testPing, readyPing));
+        when(pingRepository.markInProgress(anyCollection(), any(Instant.class), anyString(), any(Instant.class))).thenReturn(2);
+
+        // When
+        List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(3);
+
+        // Then
+        assertEquals(2, result.size());
+        verify(pingRepository, never()).lockReadyForCheck(any(), any());
+        verify(pingRepository).markInProgress(eq(List.of(1L, 2L)), any(Instant.class), anyString(), any(Instant.class));
+        verify(pingScheduler).resync(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("fetchNextChecks - Partitioned node only claims from its own slots")
+    void testFetchNextChecks_Partitioned_ClaimsOwnSlots() {
+        // Given
+        when(clusterMembership.isEnabled()).thenReturn(true);
+        when(clusterMembership.slotCount()).thenReturn(4);
+        when(clusterMembership.ownedSlots()).thenReturn(List.of(1, 3));
+        when(pingRepository.lockReadyForCheckInSlots(any(Instant.class), eq(4), eq(List.of(1, 3)), eq(Limit.of(5))))
+            .thenReturn(List.of(testPing));
+        when(pingRepository.markInProgress(anyCollection(), any(Instant.class), anyString(), any(Instant.class))).thenReturn(1);
+
+        // When
+        List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(5);
+
+        // Then
+        assertEquals(1, result.size());
+        verify(pingRepository, never()).lockReadyForCheck(any(), any());
+    }
+
+    @Test
+    @DisplayName("fetchNextChecks - Partitioned node without slots claims nothing")
+    void testFetchNextChecks_Partitioned_NoSlots() {
+        // Given
+        when(clusterMembership.isEnabled()).thenReturn(true);
+        when(clusterMembership.ownedSlots()).thenReturn(List.of());
+
+        // When
+        List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(5);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(pingRepository, never()).lockReadyForCheckInSlots(any(), anyInt(), anyCollection(), any());
+        verify(pingRepository, never()).markInProgress(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("fetchNextChecks - Pings over their host limit are deferred, not claimed")
+    void testFetchNextChecks_HostLimit_DefersPing() {
+        // Given
+        Ping sameHostPing = new Ping();
+        sameHostPing.setId(2L);
+        sameHostPing.setUrl("https://example.com/other");
+        sameHostPing.setFrequencyMinutes(5);
+        Instant retryAt = Instant.now().plusSeconds(2);
+
+        when(hostPoliteness.isEnabled()).thenReturn(true);
+        when(pingRepository.lockReadyForCheck(any(Instant.class), any(Limit.class)))
+            .thenReturn(List.of(testPing, sameHostPing));
+        when(hostPoliteness.tryAcquire(eq(1L), anyString(), any(Instant.class)))
+            .thenReturn(new HostPoliteness.Admission(true, null));
+        when(hostPoliteness.tryAcquire(eq(2L), anyString(), any(Instant.class)))
+            .thenReturn(new HostPoliteness.Admission(false, retryAt));
+        when(pingRepository.rescheduleIdle(eq(2L), eq(retryAt), any(Instant.class))).thenReturn(1);
+        when(pingRepository.markInProgress(anyCollection(), any(Instant.class), anyString(), any(Instant.class))).thenReturn(1);
+
+        // When
+        List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(2);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getPingId());
+        verify(pingRepository).markInProgress(eq(List.of(1L)), any(Instant.class), anyString(), any(Instant.class));
+        verify(pingScheduler).schedule(2L, retryAt);
+    }
+
+    @Test
+    @DisplayName("fetchNextChecks - While shedding, skippable low-priority pings move to a later slot")
+    void testFetchNextChecks_Shedding_SkipsLowPriorityPing() {
+        // Given
+        Ping frequentPing = new Ping();
+        frequentPing.setId(2L);
+        frequentPing.setUrl("https://frequent.example.com");
+        frequentPing.setFrequencySeconds(30);
+        Instant skipTo = Instant.now().plusSeconds(60);
+
+        when(overloadControl.getLevel()).thenReturn(OverloadControl.Level.SHED);
+        when(pingRepository.lockReadyForCheck(any(Instant.class), any(Limit.class)))
+            .thenReturn(List.of(testPing, frequentPing));
+        when(overloadControl.shedUntil(eq(1L), eq(2L), any(Duration.class), any(), any(Instant.class))).thenReturn(null);
+        when(overloadControl.shedUntil(eq(2L), isNull(), eq(Duration.ofSeconds(30)), any(), any(Instant.class))).thenReturn(skipTo);
+        when(pingRepository.rescheduleIdle(eq(2L), eq(skipTo), any(Instant.class))).thenReturn(1);
+        when(pingRepository.markInProgress(anyCollection(), any(Instant.class), anyString(), any(Instant.class))).thenReturn(1);
+
+        // When
+        List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(2);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getPingId());
+        verify(pingRepository).markInProgress(eq(List.of(1L)), any(Instant.class), anyString(), any(Instant.class));
+        verify(pingScheduler).schedule(2L, skipTo);
+    }
+
+    @Test
+    @DisplayName("fetchNextChecks - A worker's claim locks extra candidates and keeps its affine share")
+    void testFetchNextChecks_WithWorker_AppliesAffinity() {
+        // Given
+        Ping otherWorkersPing = new Ping();
+        otherWorkersPing.setId(2L);
+        otherWorkersPing.setUrl("https://other.example.com");
+        otherWorkersPing.setFrequencyMinutes(5);
+
+        when(workerAffinity.isEnabled()).thenReturn(true);
+        when(workerAffinity.candidateCount(1)).thenReturn(2);
+        when(pingRepository.lockReadyForCheck(any(Instant.class), eq(Limit.of(2))))
+            .thenReturn(List.of(testPing, otherWorkersPing));
+        when(workerAffinity.select(eq("worker-1"), eq(List.of(testPing, otherWorkersPing)), eq(1), any(Instant.class)))
+            .thenReturn(List.of(testPing));
+        when(pingRepository.markInProgress(anyCollection(), any(Instant.class), anyString(), any(Instant.class))).thenReturn(1);
+
+        // When
+        List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(1, "worker-1");
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getPingId());
+        verify(workerAffinity).recordClaimed("worker-1", List.of(testPing));
+        verify(pingRepository).assignWorker(List.of(1L), "worker-1");
+    }
+
+    @Test
+    @DisplayName("fetchNextChecks - Pings with the same probe share one claim")
+    void testFetchNextChecks_SameProbe_Coalesced() {
+        // Given
+        Ping duplicate = new Ping();
+        duplicate.setId(2L);
+        duplicate.setUrl("HTTPS://Example.com:443");
+        duplicate.setFrequencyMinutes(5);
+        Ping dueSoon = new Ping();
+        dueSoon.setId(3L);
+        dueSoon.setUrl("https://example.com/");
+        dueSoon.setFrequencyMinutes(10);
+        schedulerProperties.getCoalescing().setEnabled(true);
+
+        when(pingRepository.lockReadyForCheck(any(Instant.class), any(Limit.class)))
+            .thenReturn(List.of(testPing, duplicate));
+        when(pingRepository.lockCoalescable(eq(java.util.Set.of(testPing.getProbeKey())), any(Instant.class), any(Limit.class)))
+            .thenReturn(List.of(duplicate, dueSoon));
+        when(pingRepository.markInProgress(anyCollection(), any(Instant.class), anyString(), any(Instant.class))).thenReturn(1);
+        when(pingRepository.markCoalesced(anyCollection(), eq(1L), any(Instant.class), anyString(), any(Instant.class))).thenReturn(2);
+
+        // When
+        List<com.isofuture.uptime.dto.PendingCheckResponse> result = pingService.fetchNextChecks(2);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getPingId());
+        assertEquals(List.of(2L, 3L), result.get(0).getCoalescedPingIds());
+        verify(pingRepository).markInProgress(eq(List.of(1L)), any(Instant.class), anyString(), any(Instant.class));
+        verify(pingRepository).markCoalesced(eq(List.of(2L, 3L)), eq(1L), any(Instant.class),
+            eq(result.get(0).getClaimToken()), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("createPing - Schedules the new ping")
+    void testCreatePing_SchedulesPing() {
+        // Given
+        when(userContext.getCurrentUser()).thenReturn(regularUser);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(testUser));
+        when(pingRepository.save(any(Ping.class))).thenReturn(testPing);
+        when(checkResultRepository.findByPingOrderByCheckedAtDesc(any()))
+            .thenReturn(List.of());
+        when(mapper.toResponse(any(), anyList())).thenReturn(new PingResponse());
+
+        PingRequest request = new PingRequest();
+        request.setUrl("https://example.com");
+        request.setFrequencyMinutes(5);
+
+        // When
+        pingService.createPing(request);
+
+        // Then
+        verify(pingScheduler).schedule(eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("deletePing - Removes the ping from the schedule")
+    void testDeletePing_CancelsSchedule() {
+        // Given
+        when(userContext.isAdmin()).thenReturn(true);
+        when(pingRepository.findById(1L)).thenReturn(Optional.of(testPing));
+
+        // When
+        pingService.deletePing(1L);
+
+        // Then
+        verify(pingScheduler).cancel(1L);
     }
 
     @Test
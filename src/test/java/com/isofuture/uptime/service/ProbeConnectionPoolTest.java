@@ -0,0 +1,87 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.Socket;
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.isofuture.uptime.config.ProbeProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ProbeConnectionPool Unit Tests")
+class ProbeConnectionPoolTest {
+
+    private static final String ROUTE = "https://example.com:443";
+
+    private ProbeProperties properties;
+    private ProbeConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProbeProperties();
+        pool = new ProbeConnectionPool(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("acquire - Hands out the connection released last")
+    void testAcquire_MostRecentlyReleasedFirst() {
+        // Given
+        Socket first = opened();
+        Socket second = opened();
+        pool.release(ROUTE, first);
+        pool.release(ROUTE, second);
+
+        // When/Then
+        assertSame(second, pool.acquire(ROUTE));
+        assertSame(first, pool.acquire(ROUTE));
+        assertNull(pool.acquire(ROUTE));
+        assertNull(pool.acquire("http://other.example:80"));
+    }
+
+    @Test
+    @DisplayName("release - Connections beyond max-idle-per-host are closed")
+    void testRelease_PerHostBound() {
+        // Given
+        properties.getPool().setMaxIdlePerHost(1);
+        Socket kept = opened();
+        Socket extra = opened();
+
+        // When
+        pool.release(ROUTE, kept);
+        pool.release(ROUTE, extra);
+
+        // Then
+        assertTrue(extra.isClosed());
+        assertFalse(kept.isClosed());
+        assertEquals(1, pool.getIdle());
+        assertEquals(1, pool.getOpen());
+    }
+
+    @Test
+    @DisplayName("evictIdle - Closes connections idle longer than idle-timeout")
+    void testEvictIdle_ClosesExpired() {
+        // Given
+        properties.getPool().setIdleTimeout(Duration.ZERO);
+        Socket socket = opened();
+        pool.release(ROUTE, socket);
+
+        // When
+        pool.evictIdle();
+
+        // Then
+        assertTrue(socket.isClosed());
+        assertEquals(0, pool.getIdle());
+        assertEquals(0, pool.getOpen());
+        assertNull(pool.acquire(ROUTE));
+    }
+
+    private Socket opened() {
+        pool.opened();
+        return new Socket();
+    }
+}
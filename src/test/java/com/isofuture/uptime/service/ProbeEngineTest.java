@@ -0,0 +1,136 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.isofuture.uptime.config.ProbeProperties;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("ProbeEngine Unit Tests")
+class ProbeEngineTest {
+
+    private HttpServer server;
+    private CountDownLatch release;
+    private String baseUrl;
+    private ProbeProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ProbeEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        release = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ok", exchange -> {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        properties = new ProbeProperties();
+        properties.setMaxConcurrent(1);
+        properties.setQueueTimeout(Duration.ofMillis(200));
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new ProbeEngine(properties, new DnsCache(properties, meterRegistry),
+            new ProbeConnectionPool(properties, meterRegistry), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        engine.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("probe - Returns the status code and counts a success")
+    void testProbe_Success() {
+        // When
+        ProbeEngine.Result result = engine.probe(baseUrl + "/ok", ProbeEngine.Options.DEFAULT);
+
+        // Then
+        assertEquals(204, result.httpCode());
+        assertNull(result.error());
+        assertTrue(result.sent());
+        assertNotNull(result.phases().ttfbMs());
+        assertEquals(1.0, meterRegistry.get("uptime.probe.completed").tag("outcome", "success").counter().count());
+        assertEquals(0, engine.getActive());
+    }
+
+    @Test
+    @DisplayName("probe - A response slower than the request timeout is a timeout")
+    void testProbe_RequestTimeout() {
+        // When
+        ProbeEngine.Result result = engine.probe(baseUrl + "/slow", ProbeEngine.Options.DEFAULT, Duration.ofMillis(100));
+
+        // Then
+        assertNull(result.httpCode());
+        assertNotNull(result.error());
+        assertEquals(1.0, meterRegistry.get("uptime.probe.completed").tag("outcome", "timeout").counter().count());
+    }
+
+    @Test
+    @DisplayName("probe - No free slot within queue-timeout rejects the probe")
+    void testProbe_AllSlotsBusy_Rejected() throws Exception {
+        // Given
+        assertEquals(1, engine.getFreeSlots());
+        Future<ProbeEngine.Result> busy = engine.submit(baseUrl + "/slow", ProbeEngine.Options.DEFAULT, Duration.ofSeconds(5));
+        while (engine.getActive() == 0) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, engine.getFreeSlots());
+
+        // When
+        ProbeEngine.Result result = engine.probe(baseUrl + "/ok", ProbeEngine.Options.DEFAULT);
+
+        // Then
+        assertNull(result.httpCode());
+        assertEquals("Too many probes in flight", result.error());
+        assertFalse(result.sent());
+        assertEquals(1.0, meterRegistry.get("uptime.probe.completed").tag("outcome", "rejected").counter().count());
+        release.countDown();
+        assertEquals(200, busy.get(5, TimeUnit.SECONDS).httpCode());
+    }
+
+    @Test
+    @DisplayName("submit - Cancelling the future interrupts the probe and frees its slot")
+    void testSubmit_Cancel_FreesSlot() throws Exception {
+        // Given
+        Future<ProbeEngine.Result> slow = engine.submit(baseUrl + "/slow", ProbeEngine.Options.DEFAULT, Duration.ofSeconds(5));
+        while (engine.getActive() == 0) {
+            Thread.sleep(5);
+        }
+
+        // When
+        slow.cancel(true);
+        properties.setQueueTimeout(Duration.ofSeconds(2));
+        ProbeEngine.Result result = engine.probe(baseUrl + "/ok", ProbeEngine.Options.DEFAULT);
+
+        // Then
+        assertEquals(204, result.httpCode());
+        assertEquals(1.0, meterRegistry.get("uptime.probe.completed").tag("outcome", "cancelled").counter().count());
+    }
+}
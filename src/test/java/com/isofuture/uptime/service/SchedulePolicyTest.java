@@ -0,0 +1,76 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SchedulePolicy Unit Tests")
+class SchedulePolicyTest {
+
+    private static final Duration PERIOD = Duration.ofMinutes(5);
+
+    private final SchedulePolicy policy = new SchedulePolicy();
+
+    @Test
+    @DisplayName("offsetMillis - Offset is stable and inside the period")
+    void testOffsetMillis_StableAndInRange() {
+        // When
+        long first = policy.offsetMillis(42L, PERIOD);
+        long second = policy.offsetMillis(42L, PERIOD);
+
+        // Then
+        assertEquals(first, second);
+        assertTrue(first >= 0 && first < PERIOD.toMillis());
+    }
+
+    @Test
+    @DisplayName("nextCheckAfter - Returns the first slot strictly after the given time")
+    void testNextCheckAfter_StrictlyAfter() {
+        // Given
+        Instant after = Instant.parse("2024-01-01T00:00:00Z");
+
+        // When
+        Instant next = policy.nextCheckAfter(7L, PERIOD, after);
+
+        // Then
+        assertTrue(next.isAfter(after));
+        assertFalse(next.isAfter(after.plus(PERIOD)));
+        assertEquals(policy.offsetMillis(7L, PERIOD), Math.floorMod(next.toEpochMilli(), PERIOD.toMillis()));
+        assertEquals(next.plus(PERIOD), policy.nextCheckAfter(7L, PERIOD, next));
+    }
+
+    @Test
+    @DisplayName("nextCheckAfter - Late checks do not shift later slots")
+    void testNextCheckAfter_NoDrift() {
+        // Given
+        Instant slot = policy.nextCheckAfter(7L, PERIOD, Instant.parse("2024-01-01T00:00:00Z"));
+
+        // When - the check ran 40 seconds late
+        Instant next = policy.nextCheckAfter(7L, PERIOD, slot.plusSeconds(40));
+
+        // Then
+        assertEquals(slot.plus(PERIOD), next);
+    }
+
+    @Test
+    @DisplayName("nextCheckAfter - Pings created at the same instant are spread over the period")
+    void testNextCheckAfter_SpreadsConsecutiveIds() {
+        // Given
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z");
+        Set<Long> seconds = new HashSet<>();
+
+        // When
+        for (long id = 1; id <= 1000; id++) {
+            seconds.add(policy.nextCheckAfter(id, PERIOD, createdAt).getEpochSecond());
+        }
+
+        // Then - 1000 pings over 300 seconds should cover most of the seconds
+        assertTrue(seconds.size() > 250, "Expected spread over the period but got " + seconds.size() + " distinct seconds");
+    }
+}
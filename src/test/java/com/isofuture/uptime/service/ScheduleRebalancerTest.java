@@ -0,0 +1,115 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.repository.PingRepository;
+import com.isofuture.uptime.repository.PingSchedule;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleRebalancer Unit Tests")
+class ScheduleRebalancerTest {
+
+    @Mock
+    private PingRepository pingRepository;
+
+    @Mock
+    private PingScheduler pingScheduler;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SchedulerProperties properties;
+    private ScheduleRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerProperties();
+        properties.setRebalanceBatchSize(2);
+        rebalancer = new ScheduleRebalancer(pingRepository, pingScheduler, new SchedulePolicy(), properties, transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("rebalance - Moves idle pings to their slot and skips pings in progress")
+    void testRebalance_SkipsInProgress() {
+        // Given
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+        when(pingRepository.findSchedulesAfter(0L, Limit.of(2)))
+            .thenReturn(List.of(schedule(1L, false), schedule(2L, true)));
+        when(pingRepository.findSchedulesAfter(2L, Limit.of(2)))
+            .thenReturn(List.of(schedule(3L, false)));
+        when(pingRepository.rescheduleIdle(anyLong(), any(Instant.class), any(Instant.class))).thenReturn(1);
+
+        // When
+        int moved = rebalancer.rebalance();
+
+        // Then
+        assertEquals(2, moved);
+        verify(pingRepository).rescheduleIdle(eq(1L), any(Instant.class), any(Instant.class));
+        verify(pingRepository, never()).rescheduleIdle(eq(2L), any(), any());
+        verify(pingRepository).rescheduleIdle(eq(3L), any(Instant.class), any(Instant.class));
+        verify(pingScheduler, times(2)).schedule(anyLong(), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("rebalanceOnStartup - Does nothing unless enabled")
+    void testRebalanceOnStartup_DisabledByDefault() {
+        // When
+        rebalancer.rebalanceOnStartup();
+
+        // Then
+        verifyNoInteractions(pingRepository, transactionTemplate);
+    }
+
+    private PingSchedule schedule(Long id, boolean inProgress) {
+        return new PingSchedule() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Instant getNextCheckAt() {
+                return null;
+            }
+
+            @Override
+            public boolean isInProgress() {
+                return inProgress;
+            }
+
+            @Override
+            public Integer getFrequencyMinutes() {
+                return 5;
+            }
+
+            @Override
+            public Integer getFrequencySeconds() {
+                return 300;
+            }
+
+            @Override
+            public Instant getUpdatedAt() {
+                return Instant.now();
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.dto.ShardLeaseResponse;
+import com.isofuture.uptime.entity.Ping;
+import com.isofuture.uptime.repository.PingRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ShardLeaseService Unit Tests")
+class ShardLeaseServiceTest {
+
+    @Mock
+    private PingRepository pingRepository;
+
+    @Mock
+    private PingScheduler pingScheduler;
+
+    private SchedulerProperties properties;
+    private SchedulePolicy schedulePolicy;
+    private ShardLeaseService shardLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerProperties();
+        properties.getShard().setEnabled(true);
+        schedulePolicy = new SchedulePolicy();
+        shardLeaseService = new ShardLeaseService(pingRepository, pingScheduler, schedulePolicy, properties,
+            new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("acquire - Leases the worker's fair share of idle pings with their schedule")
+    void testAcquire_LeasesFairShare() {
+        // Given
+        List<Ping> shard = List.of(ping(1L), ping(2L));
+        when(pingRepository.findByShardWorkerIdOrderById("worker-1")).thenReturn(List.of());
+        when(pingRepository.countShardWorkers(any(Instant.class))).thenReturn(1L);
+        when(pingRepository.count()).thenReturn(10L);
+        when(pingRepository.lockIdleForShard(Limit.of(5))).thenReturn(shard);
+        when(pingRepository.markShardLeased(eq(List.of(1L, 2L)), eq("worker-1"), anyString(), any(Instant.class), any(Instant.class)))
+            .thenReturn(2);
+        when(pingRepository.findByClaimTokenAndShardWorkerIdAndInProgressTrueOrderById(anyString(), eq("worker-1")))
+            .thenReturn(shard);
+
+        // When
+        ShardLeaseResponse lease = shardLeaseService.acquire("worker-1");
+
+        // Then
+        assertNotNull(lease.getLeaseId());
+        assertEquals(2, lease.getPings().size());
+        assertEquals(60, lease.getPings().get(0).getFrequencySeconds());
+        assertEquals(schedulePolicy.offsetMillis(1L, java.time.Duration.ofSeconds(60)), lease.getPings().get(0).getOffsetMillis());
+        assertTrue(lease.getRenewAt().isBefore(lease.getLeaseExpiresAt()));
+        verify(pingScheduler).cancel(1L);
+        verify(pingScheduler).cancel(2L);
+    }
+
+    @Test
+    @DisplayName("renew - A shard well above the fair share gives the excess back")
+    void testRenew_AboveFairShare_RevokesExcess() {
+        // Given
+        List<Ping> shard = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            shard.add(ping(id));
+        }
+        when(pingRepository.renewShardLease(eq("lease-1"), eq("worker-1"), any(Instant.class))).thenReturn(10);
+        when(pingRepository.countShardWorkers(any(Instant.class))).thenReturn(2L);
+        when(pingRepository.count()).thenReturn(10L);
+        when(pingRepository.findByClaimTokenAndShardWorkerIdAndInProgressTrueOrderById("lease-1", "worker-1"))
+            .thenReturn(shard, shard.subList(0, 5));
+        when(pingRepository.releaseShard(eq(List.of(6L, 7L, 8L, 9L, 10L)), any(Instant.class))).thenReturn(5);
+
+        // When
+        ShardLeaseResponse lease = shardLeaseService.renew("worker-1", "lease-1");
+
+        // Then
+        assertEquals(5, lease.getPings().size());
+        verify(pingScheduler).schedule(eq(6L), any(Instant.class));
+        verify(pingRepository, never()).lockIdleForShard(any());
+    }
+
+    @Test
+    @DisplayName("renew - A shard below the fair share is topped up under the same lease")
+    void testRenew_BelowFairShare_TopsUp() {
+        // Given
+        when(pingRepository.renewShardLease(eq("lease-1"), eq("worker-1"), any(Instant.class))).thenReturn(1);
+        when(pingRepository.countShardWorkers(any(Instant.class))).thenReturn(1L);
+        when(pingRepository.count()).thenReturn(3L);
+        when(pingRepository.lockIdleForShard(Limit.of(2))).thenReturn(List.of(ping(2L), ping(3L)));
+        when(pingRepository.markShardLeased(eq(List.of(2L, 3L)), eq("worker-1"), eq("lease-1"), any(Instant.class), any(Instant.class)))
+            .thenReturn(2);
+        when(pingRepository.findByClaimTokenAndShardWorkerIdAndInProgressTrueOrderById("lease-1", "worker-1"))
+            .thenReturn(List.of(ping(1L), ping(2L), ping(3L)));
+
+        // When
+        ShardLeaseResponse lease = shardLeaseService.renew("worker-1", "lease-1");
+
+        // Then
+        assertEquals("lease-1", lease.getLeaseId());
+        assertEquals(3, lease.getPings().size());
+    }
+
+    @Test
+    @DisplayName("acquire - Rejected while shard leasing is disabled")
+    void testAcquire_Disabled_ThrowsException() {
+        // Given
+        properties.getShard().setEnabled(false);
+
+        // When/Then
+        assertThrows(IllegalStateException.class, () -> shardLeaseService.acquire("worker-1"));
+        verifyNoInteractions(pingRepository);
+    }
+
+    private static Ping ping(Long id) {
+        Ping ping = new Ping();
+        ping.setId(id);
+        ping.setUrl("https://example.com/" + id);
+        ping.setFrequencySeconds(60);
+        ping.setNextCheckAt(Instant.now().plusSeconds(id));
+        return ping;
+    }
+}
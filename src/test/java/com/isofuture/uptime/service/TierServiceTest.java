@@ -202,6 +202,26 @@ class TierServiceTest extends BaseTest {
         verify(tierRepository).save(any(Tier.class));
     }
 
+    @Test
+    @DisplayName("update - Priority is changed only when given")
+    void testUpdate_Priority() {
+        // Given
+        when(userContext.isAdmin()).thenReturn(true);
+        when(tierRepository.findActiveById(1L)).thenReturn(Optional.of(testTier));
+        when(tierRepository.save(any(Tier.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        TierUpdateRequest request = new TierUpdateRequest();
+        request.setPriority(true);
+
+        // When
+        TierResponse prioritized = tierService.update(1L, request);
+        TierResponse unchanged = tierService.update(1L, new TierUpdateRequest());
+
+        // Then
+        assertTrue(prioritized.isPriority());
+        assertTrue(unchanged.isPriority());
+    }
+
     @Test
     @DisplayName("update - Regular user cannot update tier")
     void testUpdate_RegularUser_ThrowsAccessDenied() {
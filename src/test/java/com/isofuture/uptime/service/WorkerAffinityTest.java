@@ -0,0 +1,110 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+import com.isofuture.uptime.entity.Ping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("WorkerAffinity Unit Tests")
+class WorkerAffinityTest {
+
+    private SchedulerProperties properties;
+    private WorkerLoadTracker workerLoadTracker;
+    private WorkerAffinity affinity;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerProperties();
+        properties.getAffinity().setEnabled(true);
+        properties.getAffinity().setMaxHold(Duration.ofSeconds(5));
+        properties.getAffinity().setActiveWithin(Duration.ofSeconds(15));
+        workerLoadTracker = new WorkerLoadTracker(properties);
+        affinity = new WorkerAffinity(properties, new HostPoliteness(properties), workerLoadTracker, new SimpleMeterRegistry());
+        now = Instant.now();
+    }
+
+    @Test
+    @DisplayName("select - The worker's own pings come before older unassigned ones")
+    void testSelect_OwnPingsFirst() {
+        // Given
+        Ping unassigned = ping(1L, "https://a.example.com", null, now.minusSeconds(30));
+        Ping own = ping(2L, "https://b.example.com", "worker-1", now.minusSeconds(1));
+
+        // When
+        List<Ping> selected = affinity.select("worker-1", List.of(unassigned, own), 1, now);
+
+        // Then
+        assertEquals(List.of(own), selected);
+    }
+
+    @Test
+    @DisplayName("select - Pings of another active worker are held until max-hold past due")
+    void testSelect_HoldsForActiveWorkerUntilMaxHold() {
+        // Given
+        affinity.select("worker-2", List.of(), 10, now);
+        Ping justDue = ping(1L, "https://a.example.com", "worker-2", now.minusSeconds(1));
+        Ping overdue = ping(2L, "https://b.example.com", "worker-2", now.minusSeconds(10));
+
+        // When
+        List<Ping> selected = affinity.select("worker-1", List.of(justDue, overdue), 10, now);
+
+        // Then
+        assertEquals(List.of(overdue), selected);
+    }
+
+    @Test
+    @DisplayName("select - Pings of an inactive or full worker go to whoever claims")
+    void testSelect_InactiveOrFullWorker_NotHeld() {
+        // Given
+        affinity.select("worker-2", List.of(), 10, now.minusSeconds(60));
+        properties.getBatch().setInitialWindow(1);
+        workerLoadTracker.recordClaimed("worker-3", List.of(99L), 1);
+        affinity.select("worker-3", List.of(), 10, now);
+        Ping inactiveWorkers = ping(1L, "https://a.example.com", "worker-2", now);
+        Ping fullWorkers = ping(2L, "https://b.example.com", "worker-3", now);
+
+        // When
+        List<Ping> selected = affinity.select("worker-1", List.of(inactiveWorkers, fullWorkers), 10, now);
+
+        // Then
+        assertEquals(List.of(inactiveWorkers, fullWorkers), selected);
+    }
+
+    @Test
+    @DisplayName("recordClaimed - Counts hits and misses and prefers the worker for the host")
+    void testRecordClaimed_TracksHitRateAndHost() {
+        // Given
+        Ping hit = ping(1L, "https://a.example.com/x", "worker-1", now);
+        Ping miss = ping(2L, "https://b.example.com", "worker-2", now);
+
+        // When
+        affinity.recordClaimed("worker-1", List.of(hit, miss));
+        affinity.select("worker-1", List.of(), 10, now);
+        Ping newPingSameHost = ping(3L, "https://a.example.com/y", null, now);
+        List<Ping> selected = affinity.select("worker-2", List.of(newPingSameHost), 10, now);
+
+        // Then
+        assertEquals(0.5, affinity.hitRate());
+        assertTrue(selected.isEmpty(), "A new ping of a host is held for the worker that has it warm");
+    }
+
+    private static Ping ping(Long id, String url, String lastWorkerId, Instant nextCheckAt) {
+        Ping ping = new Ping();
+        ping.setId(id);
+        ping.setUrl(url);
+        ping.setLastWorkerId(lastWorkerId);
+        ping.setNextCheckAt(nextCheckAt);
+        return ping;
+    }
+}
@@ -0,0 +1,236 @@
+package com.isofuture.uptime.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.isofuture.uptime.config.SchedulerProperties;
+
+@DisplayName("WorkerLoadTracker Unit Tests")
+class WorkerLoadTrackerTest {
+
+    private SchedulerProperties properties;
+    private WorkerLoadTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulerProperties();
+        properties.getBatch().setInitialWindow(10);
+        properties.getBatch().setMaxWindow(100);
+        tracker = new WorkerLoadTracker(properties);
+    }
+
+    @Test
+    @DisplayName("grant - New worker is capped by the initial window")
+    void testGrant_NewWorker_CappedByInitialWindow() {
+        // When
+        WorkerLoadTracker.Grant grant = tracker.grant("worker-1", 500);
+
+        // Then
+        assertEquals(10, grant.size());
+        assertEquals(0, grant.pollDelayMillis());
+    }
+
+    @Test
+    @DisplayName("grant - Only the free part of the window is granted")
+    void testGrant_InFlightChecksReduceGrant() {
+        // Given
+        tracker.recordClaimed("worker-1", ids(1, 8), 8);
+
+        // When
+        WorkerLoadTracker.Grant grant = tracker.grant("worker-1", 500);
+
+        // Then
+        assertEquals(2, grant.size());
+        assertEquals(8, tracker.inFlightOf("worker-1"));
+    }
+
+    @Test
+    @DisplayName("grant - Outstanding grants are reserved, so concurrent polls share one window")
+    void testGrant_ConcurrentGrants_ShareWindow() {
+        // Given
+        WorkerLoadTracker.Grant first = tracker.grant("worker-1", 6);
+
+        // When
+        WorkerLoadTracker.Grant second = tracker.grant("worker-1", 6);
+
+        // Then
+        assertEquals(6, first.size());
+        assertEquals(4, second.size());
+        assertFalse(tracker.hasRoom("worker-1"));
+    }
+
+    @Test
+    @DisplayName("recordClaimed - The unclaimed part of a grant is freed")
+    void testRecordClaimed_UnusedReservationFreed() {
+        // Given
+        WorkerLoadTracker.Grant grant = tracker.grant("worker-1", 10);
+
+        // When
+        tracker.recordClaimed("worker-1", ids(1, 3), grant.size());
+
+        // Then
+        assertEquals(7, tracker.grant("worker-1", 500).size());
+    }
+
+    @Test
+    @DisplayName("release - A grant whose claim failed is freed")
+    void testRelease_FreesReservation() {
+        // Given
+        WorkerLoadTracker.Grant grant = tracker.grant("worker-1", 10);
+
+        // When
+        tracker.release("worker-1", grant.size());
+
+        // Then
+        assertEquals(10, tracker.grant("worker-1", 500).size());
+    }
+
+    @Test
+    @DisplayName("grant - Full window grants nothing and recommends a delay")
+    void testGrant_FullWindow_GrantsNothing() {
+        // Given
+        tracker.recordClaimed("worker-1", ids(1, 10), 10);
+
+        // When
+        WorkerLoadTracker.Grant grant = tracker.grant("worker-1", 5);
+
+        // Then
+        assertEquals(0, grant.size());
+        assertTrue(grant.pollDelayMillis() > 0);
+    }
+
+    @Test
+    @DisplayName("grant - Never exceeds the configured max batch size")
+    void testGrant_CappedByMaxSize() {
+        // Given
+        properties.getBatch().setMaxSize(4);
+
+        // When
+        WorkerLoadTracker.Grant grant = tracker.grant("worker-1", 500);
+
+        // Then
+        assertEquals(4, grant.size());
+    }
+
+    @Test
+    @DisplayName("recordCompleted - Fast results grow the window")
+    void testRecordCompleted_FastTurnaround_GrowsWindow() {
+        // Given
+        tracker.recordClaimed("worker-1", ids(1, 10), 10);
+
+        // When
+        ids(1, 10).forEach(tracker::recordCompleted);
+
+        // Then
+        assertEquals(20, tracker.windowOf("worker-1"));
+        assertEquals(0, tracker.inFlightOf("worker-1"));
+    }
+
+    @Test
+    @DisplayName("recordCompleted - Window never grows past max-window")
+    void testRecordCompleted_WindowCappedByMaxWindow() {
+        // Given
+        properties.getBatch().setMaxWindow(12);
+        tracker.recordClaimed("worker-1", ids(1, 10), 10);
+
+        // When
+        ids(1, 10).forEach(tracker::recordCompleted);
+
+        // Then
+        assertEquals(12, tracker.windowOf("worker-1"));
+    }
+
+    @Test
+    @DisplayName("recordCompleted - Results slower than the target halve the window")
+    void testRecordCompleted_SlowTurnaround_ShrinksWindow() throws InterruptedException {
+        // Given
+        properties.getLease().setDuration(Duration.ofMillis(10));
+        tracker.recordClaimed("worker-1", ids(1, 1), 1);
+        Thread.sleep(20);
+
+        // When
+        tracker.recordCompleted(1L);
+
+        // Then
+        assertEquals(5, tracker.windowOf("worker-1"));
+    }
+
+    @Test
+    @DisplayName("grant - Claims that outlived their lease are dropped without shrinking the window")
+    void testGrant_ExpiredClaims_Dropped() throws InterruptedException {
+        // Given
+        properties.getLease().setDuration(Duration.ofMillis(10));
+        tracker.recordClaimed("worker-1", ids(1, 10), 10);
+        Thread.sleep(20);
+
+        // When
+        WorkerLoadTracker.Grant grant = tracker.grant("worker-1", 500);
+
+        // Then
+        assertEquals(10, grant.size());
+        assertEquals(10, tracker.windowOf("worker-1"));
+    }
+
+    @Test
+    @DisplayName("recordClaimed - Fewer checks than granted recommends the idle delay")
+    void testRecordClaimed_NothingDue_ReturnsIdleDelay() {
+        // When
+        long delay = tracker.recordClaimed("worker-1", List.of(), 10);
+
+        // Then
+        assertEquals(properties.getBatch().getIdlePollDelayMillis(), delay);
+    }
+
+    @Test
+    @DisplayName("recordClaimed - A ping re-claimed by another worker leaves the first worker's window")
+    void testRecordClaimed_ReclaimedByOtherWorker_MovesOwnership() {
+        // Given
+        tracker.recordClaimed("worker-1", List.of(1L), 1);
+
+        // When
+        tracker.recordClaimed("worker-2", List.of(1L), 1);
+        tracker.recordCompleted(1L);
+
+        // Then
+        assertEquals(0, tracker.inFlightOf("worker-1"));
+        assertEquals(0, tracker.inFlightOf("worker-2"));
+        assertEquals(11, tracker.windowOf("worker-2"));
+    }
+
+    @Test
+    @DisplayName("forget - A rejected result frees its slot without adapting the window")
+    void testForget_FreesSlotWithoutAdapting() {
+        // Given
+        tracker.recordClaimed("worker-1", ids(1, 10), 10);
+
+        // When
+        tracker.forget(1L);
+        tracker.recordCompleted(1L);
+
+        // Then
+        assertEquals(9, tracker.inFlightOf("worker-1"));
+        assertEquals(10, tracker.windowOf("worker-1"));
+    }
+
+    @Test
+    @DisplayName("recordCompleted - Unknown ping is ignored")
+    void testRecordCompleted_UnknownPing_Ignored() {
+        // When
+        tracker.recordCompleted(42L);
+        tracker.recordCompleted(null);
+
+        // Then
+        assertEquals(10, tracker.windowOf("worker-1"));
+    }
+
+    private static List<Long> ids(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+}
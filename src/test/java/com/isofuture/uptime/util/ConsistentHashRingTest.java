@@ -0,0 +1,60 @@
+package com.isofuture.uptime.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ConsistentHashRing Unit Tests")
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 1024;
+
+    @Test
+    @DisplayName("nodeFor - Same membership always maps a key to the same node")
+    void testNodeFor_Deterministic() {
+        // Given
+        ConsistentHashRing first = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("c", "a", "b"), 64);
+
+        // When/Then
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(first.nodeFor("slot-" + i), second.nodeFor("slot-" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("nodeFor - Adding a node only moves keys to the new node")
+    void testNodeFor_AddingNodeMovesOnlyItsShare() {
+        // Given
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 64);
+
+        // When
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String previous = before.nodeFor("slot-" + i);
+            String current = after.nodeFor("slot-" + i);
+            if (!previous.equals(current)) {
+                assertEquals("d", current);
+                moved++;
+            }
+        }
+
+        // Then - roughly a quarter of the keys move
+        assertTrue(moved > KEYS / 8 && moved < KEYS / 2, "Unexpected number of moved keys: " + moved);
+    }
+
+    @Test
+    @DisplayName("nodeFor - Empty ring owns nothing")
+    void testNodeFor_EmptyRing() {
+        // Given
+        ConsistentHashRing ring = new ConsistentHashRing(List.of(), 64);
+
+        // When/Then
+        assertTrue(ring.isEmpty());
+        assertNull(ring.nodeFor("slot-1"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.isofuture.uptime.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("HierarchicalTimingWheel Unit Tests")
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    @DisplayName("pollDue - Returns only entries whose deadline has passed")
+    void testPollDue_ReturnsOnlyExpired() {
+        // Given
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 60, START);
+        wheel.schedule(1L, START + 5_000);
+        wheel.schedule(2L, START + 30_000);
+
+        // When/Then
+        assertTrue(wheel.pollDue(START + 4_000, 10).isEmpty());
+        assertEquals(List.of(1L), wheel.pollDue(START + 6_000, 10));
+        assertEquals(List.of(2L), wheel.pollDue(START + 31_000, 10));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("pollDue - Entries beyond the first level cascade down and never fire early")
+    void testPollDue_CascadesFromHigherLevels() {
+        // Given
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 10, START);
+        long deadline = START + 1_234_500; // several levels above the 10s root span
+        wheel.schedule(7L, deadline);
+
+        // When/Then
+        assertTrue(wheel.pollDue(deadline - 1, 10).isEmpty());
+        assertEquals(List.of(7L), wheel.pollDue(deadline + 1_000, 10));
+    }
+
+    @Test
+    @DisplayName("schedule - Rescheduling a key replaces its previous deadline")
+    void testSchedule_ReplacesDeadline() {
+        // Given
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 60, START);
+        wheel.schedule(1L, START + 2_000);
+        wheel.schedule(1L, START + 20_000);
+
+        // When/Then
+        assertTrue(wheel.pollDue(START + 3_000, 10).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(1L), wheel.pollDue(START + 21_000, 10));
+    }
+
+    @Test
+    @DisplayName("cancel - Cancelled keys are never returned")
+    void testCancel_RemovesKey() {
+        // Given
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 60, START);
+        wheel.schedule(1L, START + 2_000);
+
+        // When
+        boolean cancelled = wheel.cancel(1L);
+
+        // Then
+        assertTrue(cancelled);
+        assertFalse(wheel.hasDue(START + 5_000));
+        assertTrue(wheel.pollDue(START + 5_000, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("pollDue - Respects max and keeps the remainder due")
+    void testPollDue_RespectsMax() {
+        // Given
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 60, START);
+        for (long id = 1; id <= 5; id++) {
+            wheel.schedule(id, START - 1);
+        }
+
+        // When
+        List<Long> first = wheel.pollDue(START, 3);
+        List<Long> second = wheel.pollDue(START, 3);
+
+        // Then
+        assertEquals(3, first.size());
+        assertEquals(2, second.size());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,41 @@
+package com.isofuture.uptime.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProbeKeys Unit Tests")
+class ProbeKeysTest {
+
+    @Test
+    @DisplayName("normalize - Lower-cases scheme and host, drops default port and fragment")
+    void testNormalize_Canonicalizes() {
+        assertEquals("https://example.com/", ProbeKeys.normalize("HTTPS://Example.COM:443"));
+        assertEquals("http://example.com:8080/Status?b=2&a=1", ProbeKeys.normalize(" http://example.com:8080/Status?b=2&a=1#top "));
+    }
+
+    @Test
+    @DisplayName("of - Equivalent URLs share a key, different requests do not")
+    void testOf_EquivalentUrlsShareKey() {
+        assertEquals(ProbeKeys.of("https://example.com"), ProbeKeys.of("https://EXAMPLE.com:443/"));
+        assertNotEquals(ProbeKeys.of("https://example.com/a"), ProbeKeys.of("https://example.com/A"));
+        assertNotEquals(ProbeKeys.of("http://example.com"), ProbeKeys.of("https://example.com"));
+        assertEquals(64, ProbeKeys.of("https://example.com").length());
+    }
+
+    @Test
+    @DisplayName("of - Non-default settings change the key, default ones do not")
+    void testOf_Settings() {
+        assertEquals(ProbeKeys.of("https://example.com"), ProbeKeys.of("https://example.com", (String) null));
+        assertNotEquals(ProbeKeys.of("https://example.com"), ProbeKeys.of("https://example.com", "measure-dns"));
+        assertNull(ProbeKeys.of(null, "measure-dns"));
+    }
+
+    @Test
+    @DisplayName("normalize - Unparseable URLs are kept as they are")
+    void testNormalize_Unparseable() {
+        assertEquals("not a url", ProbeKeys.normalize(" not a url "));
+        assertNull(ProbeKeys.of(null));
+    }
+}